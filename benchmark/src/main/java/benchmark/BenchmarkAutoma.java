@@ -0,0 +1,131 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import struttureDati.Automa;
+import struttureDati.Evento;
+import struttureDati.RisultatoValidazione;
+import struttureDati.Stato;
+import struttureDati.Transizione;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classe che misura la costruzione, la validazione e l'esecuzione passo passo di un automa isolato.
+ * I benchmark di esecuzione eseguono PASSI transizioni per invocazione, fornendo a ogni passo un evento in ingresso
+ * scelto a caso (la sequenza è fissata nella preparazione).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchmarkAutoma {
+
+    /**
+     * Numero di transizioni eseguite da ogni invocazione dei benchmark di esecuzione.
+     */
+    public static final int PASSI = 1024;
+
+    @Param({"16", "256", "4096"})
+    public int numeroStati;
+
+    @Param({"2", "4"})
+    public int ramificazione;
+
+    @Param({"1", "2"})
+    public int nonDeterminismo;
+
+    private Automa automa;
+    private ArrayList<Stato> stati;
+    private ArrayList<Transizione> transizioni;
+    private Stato statoIniziale;
+    private ArrayList<ArrayList<Evento>> disponibili;
+    private int[] scelte;
+
+    /**
+     * Genera l'automa e la sequenza di eventi disponibili.
+     */
+    @Setup
+    public void prepara(){
+        GeneratoreModelli generatore = GeneratoreModelli.create(42);
+        generatore.setNumeroStati(numeroStati);
+        generatore.setRamificazione(ramificazione);
+        generatore.setNonDeterminismo(nonDeterminismo);
+        automa = generatore.generaAutoma(0);
+        if(automa == null)
+            throw new IllegalStateException("Automa generato non valido");
+        stati = automa.getStati();
+        transizioni = automa.getTransizioni();
+        statoIniziale = automa.getStatoCorrente();
+        LinkedHashSet<Evento> eventi = new LinkedHashSet<>();
+        for(Transizione transizione : transizioni)
+            if(transizione.getEventoIngresso() != null)
+                eventi.add(transizione.getEventoIngresso());
+        ArrayList<Evento> ingresso = new ArrayList<>(eventi);
+        Random casuale = new Random(7);
+        disponibili = new ArrayList<>();
+        scelte = new int[PASSI];
+        for(int i = 0; i < PASSI; i++){
+            ArrayList<Evento> passo = new ArrayList<>();
+            if(!ingresso.isEmpty())
+                passo.add(ingresso.get(casuale.nextInt(ingresso.size())));
+            disponibili.add(passo);
+            scelte[i] = casuale.nextInt(Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Costruzione dell'automa (validazione e indice delle transizioni).
+     */
+    @Benchmark
+    public Automa create(){
+        return Automa.create(0, "A0", stati, transizioni, statoIniziale);
+    }
+
+    /**
+     * Sola validazione dell'automa.
+     */
+    @Benchmark
+    public RisultatoValidazione valida(){
+        return Automa.valida(stati, transizioni, statoIniziale);
+    }
+
+    /**
+     * Esecuzione del primo ramo abilitato a ogni passo.
+     */
+    @Benchmark
+    public Stato esegui(){
+        automa.setStatoCorrente(statoIniziale);
+        for(int i = 0; i < PASSI; i++)
+            automa.esegui(disponibili.get(i));
+        return automa.getStatoCorrente();
+    }
+
+    /**
+     * Esecuzione di un ramo abilitato scelto a caso a ogni passo.
+     */
+    @Benchmark
+    public Stato eseguiRamoCasuale(){
+        automa.setStatoCorrente(statoIniziale);
+        for(int i = 0; i < PASSI; i++){
+            ArrayList<Transizione> abilitate = automa.getTransizioniAbilitate(disponibili.get(i));
+            if(!abilitate.isEmpty())
+                automa.esegui(abilitate.get(scelte[i] % abilitate.size()));
+        }
+        return automa.getStatoCorrente();
+    }
+}
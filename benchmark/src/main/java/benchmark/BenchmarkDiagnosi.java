@@ -0,0 +1,124 @@
+package benchmark;
+
+import algoritmi.Diagnosi;
+import algoritmi.DiagnosiIncrementale;
+import algoritmi.GeneratoreDiagnosticatore;
+import algoritmi.GeneratoreSpazioComportamentale;
+import algoritmi.OpzioniEsplorazione;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import struttureDati.Diagnosticatore;
+import struttureDati.EspressioneRegolare;
+import struttureDati.Osservazione;
+import struttureDati.ReteAutomi;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.SpazioComportamentale;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classe che misura la diagnosi di un'osservazione lineare su reti sintetiche:
+ * - a partire dalla rete (spazio vincolato dall'osservazione ed estrazione della diagnosi);
+ * - a partire dallo spazio vincolato già generato (sola estrazione della diagnosi);
+ * - con la costruzione del diagnosticatore e con la diagnosi incrementale sul diagnosticatore già costruito.
+ * L'osservazione è ottenuta da un cammino casuale della rete, per cui la diagnosi non è mai vuota. Con poche
+ * transizioni osservabili le chiusure silenziose (e quindi il diagnosticatore) crescono molto rapidamente: i
+ * parametri predefiniti restano nell'intervallo in cui il diagnosticatore si costruisce in meno di un secondo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BenchmarkDiagnosi {
+
+    @Param({"3"})
+    public int numeroAutomi;
+
+    @Param({"4", "6"})
+    public int numeroStati;
+
+    @Param({"1"})
+    public int capacitaLink;
+
+    @Param({"0.5", "0.7"})
+    public double rapportoOsservabilita;
+
+    @Param({"4", "16"})
+    public int lunghezzaOsservazione;
+
+    private ReteAutomiCompilata rete;
+    private OpzioniEsplorazione opzioni;
+    private SpazioComportamentale spazioOsservato;
+    private Diagnosticatore diagnosticatore;
+    private int[] etichette;
+
+    /**
+     * Genera la rete e l'osservazione, lo spazio vincolato e il diagnosticatore.
+     */
+    @Setup
+    public void prepara(){
+        GeneratoreModelli generatore = GeneratoreModelli.create(42);
+        generatore.setNumeroAutomi(numeroAutomi);
+        generatore.setNumeroStati(numeroStati);
+        generatore.setCapacitaLink(capacitaLink);
+        generatore.setRapportoOsservabilita(rapportoOsservabilita);
+        ReteAutomi reteAutomi = generatore.generaRete(0);
+        if(reteAutomi == null)
+            throw new IllegalStateException("Rete generata non valida");
+        rete = ReteAutomiCompilata.compila(reteAutomi);
+        Osservazione osservazione = generatore.generaOsservazione(rete, lunghezzaOsservazione, 64 * lunghezzaOsservazione);
+        etichette = new int[osservazione.numeroStati() - 1];
+        for(int i = 0; i < etichette.length; i++)
+            etichette[i] = osservazione.getEtichetta(osservazione.inizioArchi(i));
+        opzioni = OpzioniEsplorazione.create();
+        opzioni.setOsservazione(osservazione);
+        spazioOsservato = GeneratoreSpazioComportamentale.genera(rete, opzioni);
+        diagnosticatore = GeneratoreDiagnosticatore.genera(rete);
+    }
+
+    /**
+     * Diagnosi a partire dalla rete.
+     */
+    @Benchmark
+    public EspressioneRegolare diagnosi(){
+        return Diagnosi.calcola(GeneratoreSpazioComportamentale.genera(rete, opzioni));
+    }
+
+    /**
+     * Estrazione della diagnosi dallo spazio vincolato.
+     */
+    @Benchmark
+    public EspressioneRegolare diagnosiSuSpazio(){
+        return Diagnosi.calcola(spazioOsservato);
+    }
+
+    /**
+     * Costruzione del diagnosticatore della rete.
+     */
+    @Benchmark
+    public Diagnosticatore diagnosticatore(){
+        return GeneratoreDiagnosticatore.genera(rete);
+    }
+
+    /**
+     * Diagnosi incrementale dell'osservazione sul diagnosticatore già costruito.
+     */
+    @Benchmark
+    public EspressioneRegolare diagnosiIncrementale(){
+        DiagnosiIncrementale diagnosi = DiagnosiIncrementale.create(diagnosticatore);
+        for(int etichetta : etichette)
+            diagnosi.avanza(etichetta);
+        return diagnosi.getDiagnosi();
+    }
+}
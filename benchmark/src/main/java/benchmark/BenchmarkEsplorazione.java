@@ -0,0 +1,155 @@
+package benchmark;
+
+import algoritmi.GeneratoreSpazioComportamentale;
+import algoritmi.OpzioniEsplorazione;
+import algoritmi.Potatura;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import struttureDati.ReteAutomi;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.SpazioComportamentale;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classe che misura la generazione e la potatura dello spazio comportamentale di reti sintetiche e l'esecuzione passo
+ * passo della rete compilata, confrontando le modalità di esplorazione:
+ * - sequenziale: visita in memoria con un solo thread;
+ * - parallela: visita in memoria con un thread per processore;
+ * - potaturaInLinea: visita sequenziale che scarta gli stati morti;
+ * - esterna: visita su disco (file temporanei nella cartella temporanea di sistema);
+ * - compressa: visita sequenziale con gli stati compressi ad albero.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BenchmarkEsplorazione {
+
+    /**
+     * Numero di transizioni eseguite da ogni invocazione del benchmark di esecuzione della rete.
+     */
+    public static final int PASSI = 1024;
+
+    @Param({"3"})
+    public int numeroAutomi;
+
+    @Param({"4", "8"})
+    public int numeroStati;
+
+    @Param({"1", "2"})
+    public int capacitaLink;
+
+    @Param({"0.3"})
+    public double rapportoOsservabilita;
+
+    @Param({"sequenziale", "parallela", "potaturaInLinea", "esterna", "compressa"})
+    public String modalita;
+
+    private ReteAutomiCompilata rete;
+    private OpzioniEsplorazione opzioni;
+    private SpazioComportamentale spazio;
+    private Path cartella;
+    private int[] abilitate;
+    private int[] scelte;
+
+    /**
+     * Genera e compila la rete, prepara le opzioni della modalità e genera lo spazio da potare.
+     */
+    @Setup
+    public void prepara() throws IOException {
+        GeneratoreModelli generatore = GeneratoreModelli.create(42);
+        generatore.setNumeroAutomi(numeroAutomi);
+        generatore.setNumeroStati(numeroStati);
+        generatore.setCapacitaLink(capacitaLink);
+        generatore.setRapportoOsservabilita(rapportoOsservabilita);
+        ReteAutomi reteAutomi = generatore.generaRete(0);
+        if(reteAutomi == null)
+            throw new IllegalStateException("Rete generata non valida");
+        rete = ReteAutomiCompilata.compila(reteAutomi);
+        opzioni = OpzioniEsplorazione.create();
+        switch(modalita){
+            case "sequenziale":
+                break;
+            case "parallela":
+                opzioni.setNumeroThread(Runtime.getRuntime().availableProcessors());
+                break;
+            case "potaturaInLinea":
+                opzioni.setPotaturaInLinea(true);
+                break;
+            case "esterna":
+                cartella = Files.createTempDirectory("benchmark");
+                opzioni.setCartellaMemoriaEsterna(cartella);
+                break;
+            case "compressa":
+                opzioni.setCompressioneStati(true);
+                break;
+            default:
+                throw new IllegalArgumentException("Modalità sconosciuta: " + modalita);
+        }
+        spazio = GeneratoreSpazioComportamentale.genera(rete, opzioni);
+        abilitate = new int[rete.massimoTransizioniAbilitate()];
+        Random casuale = new Random(7);
+        scelte = new int[PASSI];
+        for(int i = 0; i < PASSI; i++)
+            scelte[i] = casuale.nextInt(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Elimina la cartella dei file temporanei dell'esplorazione esterna.
+     */
+    @TearDown
+    public void chiudi(){
+        if(cartella != null && !cartella.toFile().delete())
+            cartella.toFile().deleteOnExit();
+    }
+
+    /**
+     * Generazione dello spazio comportamentale nella modalità indicata.
+     */
+    @Benchmark
+    public SpazioComportamentale genera(){
+        return GeneratoreSpazioComportamentale.genera(rete, opzioni);
+    }
+
+    /**
+     * Potatura dello spazio generato nella modalità indicata.
+     */
+    @Benchmark
+    public SpazioComportamentale pota(){
+        return Potatura.pota(spazio);
+    }
+
+    /**
+     * Esecuzione della rete compilata lungo un cammino casuale (ricominciando dallo stato iniziale in caso di blocco).
+     */
+    @Benchmark
+    public long passi(){
+        long[] stato = rete.statoIniziale();
+        for(int i = 0; i < PASSI; i++){
+            int numero = rete.transizioniAbilitate(stato, abilitate);
+            if(numero == 0)
+                stato = rete.statoIniziale();
+            else
+                rete.successore(stato, abilitate[scelte[i] % numero], stato);
+        }
+        return stato[0];
+    }
+}
@@ -0,0 +1,327 @@
+package benchmark;
+
+import struttureDati.Automa;
+import struttureDati.Etichetta;
+import struttureDati.Evento;
+import struttureDati.Link;
+import struttureDati.Osservazione;
+import struttureDati.ReteAutomi;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.Stato;
+import struttureDati.TipoEtichetta;
+import struttureDati.Transizione;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * Classe che genera automi e reti di automi sintetici per i benchmark, con parametri configurabili.
+ * Gli stati di ogni automa sono disposti in un anello percorso da transizioni spontanee (senza evento in ingresso),
+ * che garantiscono che ogni stato abbia una transizione uscente e sia raggiungibile dallo stato iniziale; le altre
+ * transizioni vanno verso stati casuali. Le transizioni uscenti da uno stato sono divise in gruppi di
+ * nonDeterminismo transizioni con lo stesso evento in ingresso (il primo gruppo è spontaneo).
+ * Nelle reti gli automi sono collegati ad anello: ogni automa consuma gli eventi emessi dal precedente; gli eventi
+ * che non sarebbero instradabili (emessi ma mai consumati o viceversa) vengono tolti dalle transizioni e le transizioni
+ * diventate uguali vengono scartate, per cui il numero di transizioni può essere leggermente inferiore a quello
+ * richiesto. A parità di parametri e di seme i modelli generati sono sempre gli stessi.
+ */
+public class GeneratoreModelli {
+
+    private final long seme;
+    private int numeroStati;
+    private int ramificazione;
+    private int nonDeterminismo;
+    private int numeroEventi;
+    private int numeroAutomi;
+    private int capacitaLink;
+    private double rapportoOsservabilita;
+    private double rapportoRilevanza;
+    private double rapportoUscita;
+    private int numeroEtichette;
+
+    /**
+     * Costruttore della classe GeneratoreModelli.
+     * @param seme Seme del generatore di numeri casuali.
+     */
+    private GeneratoreModelli(long seme){
+        this.seme = seme;
+        this.numeroStati = 8;
+        this.ramificazione = 3;
+        this.nonDeterminismo = 1;
+        this.numeroEventi = 2;
+        this.numeroAutomi = 3;
+        this.capacitaLink = 1;
+        this.rapportoOsservabilita = 0.3;
+        this.rapportoRilevanza = 0.25;
+        this.rapportoUscita = 0.5;
+        this.numeroEtichette = 2;
+    }
+
+    /**
+     * Permette di creare in modo statico un generatore con i parametri predefiniti (automi di 8 stati con 3 transizioni
+     * uscenti per stato, deterministici, reti di 3 automi con link di capacità 1, il 30% di transizioni osservabili).
+     * @param seme Seme del generatore di numeri casuali.
+     * @return Istanza della classe GeneratoreModelli.
+     */
+    public static GeneratoreModelli create(long seme){
+        return new GeneratoreModelli(seme);
+    }
+
+    /**
+     * Genera un automa isolato: gli eventi in ingresso e in uscita appartengono a due insiemi di numeroEventi eventi.
+     * @param id Identificatore dell'automa.
+     * @return Automa generato.
+     */
+    public Automa generaAutoma(int id){
+        Random casuale = new Random(seme * 31 + id);
+        ArrayList<Evento> ingresso = new ArrayList<>();
+        ArrayList<Evento> uscita = new ArrayList<>();
+        for(int e = 0; e < numeroEventi; e++){
+            ingresso.add(Evento.create(e, "i" + e));
+            uscita.add(Evento.create(numeroEventi + e, "u" + e));
+        }
+        ArrayList<Arco> archi = generaArchi(casuale, numeroEventi > 0, numeroEventi > 0);
+        return costruisci(id, archi, ingresso, uscita, etichette(TipoEtichetta.ETICHETTAOSSERVABILITA, "o"), etichette(TipoEtichetta.ETICHETTARILEVANZA, "f"));
+    }
+
+    /**
+     * Genera una rete di numeroAutomi automi collegati ad anello da link di capacità capacitaLink.
+     * Con un solo automa la rete non ha link e le transizioni non hanno eventi.
+     * @param id Identificatore della rete.
+     * @return Rete generata.
+     */
+    public ReteAutomi generaRete(int id){
+        Random casuale = new Random(seme);
+        int k = numeroAutomi;
+        boolean conEventi = k > 1 && numeroEventi > 0;
+        //eventi[i] sono gli eventi emessi dall'automa i e consumati dall'automa i + 1
+        ArrayList<ArrayList<Evento>> eventi = new ArrayList<>();
+        for(int i = 0; i < k; i++){
+            ArrayList<Evento> emessi = new ArrayList<>();
+            for(int e = 0; e < numeroEventi; e++)
+                emessi.add(Evento.create(i * numeroEventi + e, "e" + i + "_" + e));
+            eventi.add(emessi);
+        }
+        ArrayList<ArrayList<Arco>> archi = new ArrayList<>();
+        for(int i = 0; i < k; i++)
+            archi.add(generaArchi(casuale, conEventi, conEventi));
+
+        //restano solo gli eventi sia emessi dall'automa i sia consumati dall'automa i + 1
+        for(int i = 0; conEventi && i < k; i++){
+            ArrayList<Arco> sorgente = archi.get(i);
+            ArrayList<Arco> destinazione = archi.get((i + 1) % k);
+            HashSet<Integer> emessi = new HashSet<>();
+            HashSet<Integer> consumati = new HashSet<>();
+            for(Arco arco : sorgente)
+                if(arco.uscita >= 0)
+                    emessi.add(arco.uscita);
+            for(Arco arco : destinazione)
+                if(arco.ingresso >= 0)
+                    consumati.add(arco.ingresso);
+            for(Arco arco : sorgente)
+                if(arco.uscita >= 0 && !consumati.contains(arco.uscita))
+                    arco.uscita = -1;
+            for(Arco arco : destinazione)
+                if(arco.ingresso >= 0 && !emessi.contains(arco.ingresso))
+                    arco.ingresso = -1;
+        }
+
+        ArrayList<Etichetta> osservabilita = etichette(TipoEtichetta.ETICHETTAOSSERVABILITA, "o");
+        ArrayList<Etichetta> rilevanza = etichette(TipoEtichetta.ETICHETTARILEVANZA, "f");
+        ArrayList<Automa> automi = new ArrayList<>();
+        for(int i = 0; i < k; i++)
+            automi.add(costruisci(i, archi.get(i), eventi.get((i + k - 1) % k), eventi.get(i), osservabilita, rilevanza));
+        ArrayList<Link> link = new ArrayList<>();
+        for(int i = 0; conEventi && i < k; i++)
+            link.add(Link.create("L" + i, automi.get(i), automi.get((i + 1) % k), capacitaLink));
+        return ReteAutomi.create(id, "R" + id, automi, link);
+    }
+
+    /**
+     * Genera un'osservazione lineare percorrendo a caso la rete dallo stato iniziale e raccogliendo le etichette di
+     * osservabilità delle transizioni eseguite, fino alla lunghezza richiesta o a uno stato senza transizioni abilitate.
+     * L'osservazione è quindi sempre coerente con almeno un comportamento della rete.
+     * @param rete Rete compilata.
+     * @param lunghezza Numero massimo di etichette osservate.
+     * @param massimoPassi Numero massimo di transizioni eseguite.
+     * @return Osservazione lineare.
+     */
+    public Osservazione generaOsservazione(ReteAutomiCompilata rete, int lunghezza, int massimoPassi){
+        Random casuale = new Random(seme);
+        long[] stato = rete.statoIniziale();
+        int[] abilitate = new int[rete.massimoTransizioniAbilitate()];
+        int[] etichette = new int[lunghezza];
+        int osservate = 0;
+        for(int passo = 0; passo < massimoPassi && osservate < lunghezza; passo++){
+            int numero = rete.transizioniAbilitate(stato, abilitate);
+            if(numero == 0)
+                break;
+            int g = abilitate[casuale.nextInt(numero)];
+            if(rete.getOsservabilita(g) >= 0)
+                etichette[osservate++] = rete.getOsservabilita(g);
+            rete.successore(stato, g, stato);
+        }
+        int[] osservazione = new int[osservate];
+        System.arraycopy(etichette, 0, osservazione, 0, osservate);
+        return Osservazione.lineare(osservazione);
+    }
+
+    /**
+     * Genera le transizioni di un automa come archi tra indici di stati ed eventi.
+     * @param conIngresso TRUE se le transizioni dei gruppi successivi al primo hanno un evento in ingresso.
+     * @param conUscita TRUE se le transizioni possono avere un evento in uscita.
+     */
+    private ArrayList<Arco> generaArchi(Random casuale, boolean conIngresso, boolean conUscita){
+        ArrayList<Arco> archi = new ArrayList<>();
+        int gruppo = Math.max(1, nonDeterminismo);
+        for(int s = 0; s < numeroStati; s++){
+            int spostamento = casuale.nextInt(Math.max(1, numeroEventi));
+            for(int q = 0; q < ramificazione; q++){
+                Arco arco = new Arco();
+                arco.partenza = s;
+                arco.arrivo = q == 0 ? (s + 1) % numeroStati : casuale.nextInt(numeroStati);
+                int g = q / gruppo;
+                arco.ingresso = conIngresso && g > 0 ? (spostamento + g - 1) % numeroEventi : -1;
+                arco.uscita = conUscita && casuale.nextDouble() < rapportoUscita ? casuale.nextInt(numeroEventi) : -1;
+                arco.osservabilita = casuale.nextDouble() < rapportoOsservabilita ? casuale.nextInt(numeroEtichette) : -1;
+                arco.rilevanza = casuale.nextDouble() < rapportoRilevanza ? casuale.nextInt(numeroEtichette) : -1;
+                archi.add(arco);
+            }
+        }
+        return archi;
+    }
+
+    /**
+     * Costruisce l'automa a partire dai suoi archi, scartando gli archi uguali (stessi stati ed eventi) a uno precedente.
+     */
+    private Automa costruisci(int id, ArrayList<Arco> archi, ArrayList<Evento> ingresso, ArrayList<Evento> uscita, ArrayList<Etichetta> osservabilita, ArrayList<Etichetta> rilevanza){
+        ArrayList<Stato> stati = new ArrayList<>();
+        for(int s = 0; s < numeroStati; s++)
+            stati.add(Stato.create(id * numeroStati + s, "a" + id + "s" + s));
+        ArrayList<Transizione> transizioni = new ArrayList<>();
+        HashSet<ArrayList<Integer>> firme = new HashSet<>();
+        for(Arco arco : archi){
+            ArrayList<Integer> firma = new ArrayList<>();
+            firma.add(arco.partenza);
+            firma.add(arco.arrivo);
+            firma.add(arco.ingresso);
+            firma.add(arco.uscita);
+            if(!firme.add(firma))
+                continue;
+            ArrayList<Evento> eventiUscita = null;
+            if(arco.uscita >= 0) {
+                eventiUscita = new ArrayList<>();
+                eventiUscita.add(uscita.get(arco.uscita));
+            }
+            transizioni.add(Transizione.create("a" + id + "t" + transizioni.size(), stati.get(arco.partenza), stati.get(arco.arrivo),
+                    arco.ingresso >= 0 ? ingresso.get(arco.ingresso) : null, eventiUscita,
+                    arco.osservabilita >= 0 ? osservabilita.get(arco.osservabilita) : null,
+                    arco.rilevanza >= 0 ? rilevanza.get(arco.rilevanza) : null));
+        }
+        return Automa.create(id, "A" + id, stati, transizioni, stati.get(0));
+    }
+
+    /**
+     * Crea le etichette di un tipo.
+     */
+    private ArrayList<Etichetta> etichette(TipoEtichetta tipo, String prefisso){
+        ArrayList<Etichetta> etichette = new ArrayList<>();
+        for(int e = 0; e < numeroEtichette; e++)
+            etichette.add(Etichetta.create(prefisso + e, tipo));
+        return etichette;
+    }
+
+    /**
+     * Permette di settare il numero di stati di ogni automa.
+     * @param numeroStati Numero di stati (almeno 1).
+     */
+    public void setNumeroStati(int numeroStati) {
+        this.numeroStati = numeroStati;
+    }
+
+    /**
+     * Permette di settare il numero di transizioni uscenti da ogni stato (fattore di ramificazione).
+     * @param ramificazione Numero di transizioni uscenti (almeno 1).
+     */
+    public void setRamificazione(int ramificazione) {
+        this.ramificazione = ramificazione;
+    }
+
+    /**
+     * Permette di settare il grado di non determinismo, ovvero il numero di transizioni uscenti da uno stato con lo
+     * stesso evento in ingresso.
+     * @param nonDeterminismo Grado di non determinismo (1 per automi deterministici).
+     */
+    public void setNonDeterminismo(int nonDeterminismo) {
+        this.nonDeterminismo = nonDeterminismo;
+    }
+
+    /**
+     * Permette di settare il numero di eventi emessi da ogni automa.
+     * @param numeroEventi Numero di eventi.
+     */
+    public void setNumeroEventi(int numeroEventi) {
+        this.numeroEventi = numeroEventi;
+    }
+
+    /**
+     * Permette di settare il numero di automi delle reti generate.
+     * @param numeroAutomi Numero di automi (almeno 1).
+     */
+    public void setNumeroAutomi(int numeroAutomi) {
+        this.numeroAutomi = numeroAutomi;
+    }
+
+    /**
+     * Permette di settare la capacità dei link delle reti generate.
+     * @param capacitaLink Capacità dei link (almeno 1).
+     */
+    public void setCapacitaLink(int capacitaLink) {
+        this.capacitaLink = capacitaLink;
+    }
+
+    /**
+     * Permette di settare la frazione di transizioni osservabili.
+     * @param rapportoOsservabilita Frazione di transizioni con un'etichetta di osservabilità (tra 0 e 1).
+     */
+    public void setRapportoOsservabilita(double rapportoOsservabilita) {
+        this.rapportoOsservabilita = rapportoOsservabilita;
+    }
+
+    /**
+     * Permette di settare la frazione di transizioni rilevanti.
+     * @param rapportoRilevanza Frazione di transizioni con un'etichetta di rilevanza (tra 0 e 1).
+     */
+    public void setRapportoRilevanza(double rapportoRilevanza) {
+        this.rapportoRilevanza = rapportoRilevanza;
+    }
+
+    /**
+     * Permette di settare la frazione di transizioni che emettono un evento.
+     * @param rapportoUscita Frazione di transizioni con un evento in uscita (tra 0 e 1).
+     */
+    public void setRapportoUscita(double rapportoUscita) {
+        this.rapportoUscita = rapportoUscita;
+    }
+
+    /**
+     * Permette di settare il numero di etichette distinte di osservabilità e di rilevanza.
+     * @param numeroEtichette Numero di etichette di ogni tipo (almeno 1).
+     */
+    public void setNumeroEtichette(int numeroEtichette) {
+        this.numeroEtichette = numeroEtichette;
+    }
+
+    /**
+     * Classe rappresentante una transizione in corso di generazione (indici di stati, eventi ed etichette, -1 se assenti).
+     */
+    private static class Arco {
+        private int partenza;
+        private int arrivo;
+        private int ingresso;
+        private int uscita;
+        private int osservabilita;
+        private int rilevanza;
+    }
+}
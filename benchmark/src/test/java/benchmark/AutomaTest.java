@@ -0,0 +1,124 @@
+package benchmark;
+
+import org.junit.Test;
+import struttureDati.Automa;
+import struttureDati.Evento;
+import struttureDati.Stato;
+import struttureDati.Transizione;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Test dell'esecuzione di un automa tramite l'indice delle transizioni su automi casuali non deterministici: i rami
+ * abilitati devono essere quelli di una scansione di tutte le transizioni, nello stesso ordine, e esegui deve scegliere
+ * il primo ramo e rifiutare le transizioni che non partono dallo stato corrente.
+ */
+public class AutomaTest {
+
+    private static final int NUMERO_AUTOMI = 40;
+    private static final int NUMERO_PROVE = 50;
+
+    @Test
+    public void transizioniAbilitateComeScansioneCompleta(){
+        for(int i = 0; i < NUMERO_AUTOMI; i++){
+            Automa automa = automa(i);
+            Random casuale = new Random(i);
+            for(Stato stato : automa.getStati()){
+                for(int prova = 0; prova < NUMERO_PROVE; prova++){
+                    ArrayList<Evento> disponibili = eventiDisponibili(automa, casuale);
+                    String messaggio = "automa " + i + ", stato " + stato + ", eventi " + disponibili;
+                    assertEquals(messaggio, scansione(automa, stato, disponibili), automa.getIndice().getTransizioniAbilitate(stato, disponibili));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void eseguiSceglieIlPrimoRamo(){
+        for(int i = 0; i < NUMERO_AUTOMI; i++){
+            Automa automa = automa(i);
+            Random casuale = new Random(i);
+            for(int passo = 0; passo < NUMERO_PROVE; passo++){
+                ArrayList<Evento> disponibili = eventiDisponibili(automa, casuale);
+                ArrayList<Transizione> abilitate = scansione(automa, automa.getStatoCorrente(), disponibili);
+                ArrayList<Evento> uscita = automa.esegui(disponibili);
+                if(abilitate.isEmpty()) {
+                    assertEquals(null, uscita);
+                    continue;
+                }
+                assertSame(abilitate.get(0).getStatoArrivo(), automa.getStatoCorrente());
+                assertEquals(abilitate.get(0).getEventiUscita() == null ? new ArrayList<Evento>() : abilitate.get(0).getEventiUscita(), uscita);
+            }
+        }
+    }
+
+    @Test
+    public void eseguiRifiutaTransizioniDaAltriStati(){
+        for(int i = 0; i < NUMERO_AUTOMI; i++){
+            Automa automa = automa(i);
+            for(Transizione transizione : automa.getTransizioni()){
+                Stato corrente = automa.getStatoCorrente();
+                if(transizione.getStatoPartenza().equals(corrente)) {
+                    automa.esegui(transizione);
+                    assertSame(transizione.getStatoArrivo(), automa.getStatoCorrente());
+                    continue;
+                }
+                try {
+                    automa.esegui(transizione);
+                    fail("automa " + i + ": eseguita la transizione " + transizione.getId() + " dallo stato " + corrente);
+                }
+                catch(IllegalArgumentException e){
+                    assertSame(corrente, automa.getStatoCorrente());
+                }
+            }
+        }
+    }
+
+    private static Automa automa(int i){
+        GeneratoreModelli generatore = GeneratoreModelli.create(i);
+        generatore.setNumeroStati(4 + i % 5);
+        generatore.setNumeroEventi(3);
+        generatore.setNonDeterminismo(1 + i % 3);
+        return generatore.generaAutoma(i);
+    }
+
+    /**
+     * Sceglie a caso alcuni eventi in ingresso dell'automa, con ripetizioni.
+     */
+    private static ArrayList<Evento> eventiDisponibili(Automa automa, Random casuale){
+        ArrayList<Evento> eventi = new ArrayList<>();
+        for(Transizione transizione : automa.getTransizioni())
+            if(transizione.getEventoIngresso() != null && !eventi.contains(transizione.getEventoIngresso()))
+                eventi.add(transizione.getEventoIngresso());
+        ArrayList<Evento> disponibili = new ArrayList<>();
+        int numero = eventi.isEmpty() ? 0 : casuale.nextInt(5);
+        for(int k = 0; k < numero; k++)
+            disponibili.add(eventi.get(casuale.nextInt(eventi.size())));
+        return disponibili;
+    }
+
+    /**
+     * Rami abilitati calcolati scandendo tutte le transizioni: prima quelle senza evento, poi quelle di ogni evento
+     * disponibile distinto, nell'ordine della prima occorrenza.
+     */
+    private static ArrayList<Transizione> scansione(Automa automa, Stato stato, ArrayList<Evento> disponibili){
+        ArrayList<Transizione> abilitate = new ArrayList<>();
+        for(Transizione transizione : automa.getTransizioni())
+            if(transizione.getStatoPartenza().equals(stato) && transizione.getEventoIngresso() == null)
+                abilitate.add(transizione);
+        ArrayList<Evento> distinti = new ArrayList<>();
+        for(Evento evento : disponibili)
+            if(!distinti.contains(evento))
+                distinti.add(evento);
+        for(Evento evento : distinti)
+            for(Transizione transizione : automa.getTransizioni())
+                if(transizione.getStatoPartenza().equals(stato) && evento.equals(transizione.getEventoIngresso()))
+                    abilitate.add(transizione);
+        return abilitate;
+    }
+}
@@ -0,0 +1,143 @@
+package benchmark;
+
+import org.junit.Test;
+import struttureDati.Automa;
+import struttureDati.CacheTransizioni;
+import struttureDati.Evento;
+import struttureDati.IndiceTransizioni;
+import struttureDati.Stato;
+import struttureDati.Transizione;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Test della cache dei rami non deterministici: sugli automi delle reti casuali la cache deve restituire gli stessi rami
+ * dell'indice delle transizioni (e quindi l'esecuzione deve seguire gli stessi stati), le ripetizioni di un evento non
+ * devono cambiare la chiave e, quando la cache è piena, deve essere rimossa la voce usata meno di recente.
+ */
+public class CacheTransizioniTest {
+
+    @Test
+    public void stessiRamiDellIndice(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            for(Automa automa : Linguaggi.reteNonCompilata(i).getAutomi()){
+                Random random = new Random(i);
+                ArrayList<Evento> eventi = eventi(automa);
+                CacheTransizioni cache = CacheTransizioni.create(1 + i % 4);
+                IndiceTransizioni indice = automa.getIndice();
+                for(int k = 0; k < 200; k++){
+                    Stato stato = automa.getStati().get(random.nextInt(automa.getStati().size()));
+                    ArrayList<Evento> disponibili = disponibili(eventi, random);
+                    assertArrayEquals("rete " + i, indice.getTransizioniAbilitate(stato, disponibili).toArray(),
+                            cache.getTransizioniAbilitate(indice, stato, disponibili));
+                }
+                assertEquals(200, cache.getSuccessi() + cache.getFallimenti());
+                assertEquals(cache.getFallimenti() - cache.dimensione(), cache.getRimozioni());
+            }
+        }
+    }
+
+    @Test
+    public void stessaEsecuzione(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            for(Automa automa : Linguaggi.reteNonCompilata(i).getAutomi()){
+                ArrayList<Evento> eventi = eventi(automa);
+                Stato iniziale = automa.getStatoCorrente();
+                ArrayList<Stato> senzaCache = esegui(automa, eventi, new Random(i));
+                automa.setStatoCorrente(iniziale);
+                automa.setCapacitaCache(4);
+                assertEquals("rete " + i, senzaCache, esegui(automa, eventi, new Random(i)));
+                assertEquals(500, automa.getCache().getSuccessi() + automa.getCache().getFallimenti());
+                automa.setCapacitaCache(0);
+                automa.setStatoCorrente(iniziale);
+            }
+        }
+    }
+
+    /**
+     * Con capacità 2 la sequenza di richieste a, b, a, c, b, a rimuove prima b (usata meno di recente di a) e poi a e c.
+     */
+    @Test
+    public void rimozioneLru(){
+        Evento a = Evento.create(0, "a"), b = Evento.create(1, "b"), c = Evento.create(2, "c");
+        Stato s0 = Stato.create(0, "s0"), s1 = Stato.create(1, "s1");
+        ArrayList<Transizione> transizioni = new ArrayList<>();
+        transizioni.add(Transizione.create("ta", s0, s1, a, new ArrayList<>(), null, null));
+        transizioni.add(Transizione.create("tb", s0, s1, b, new ArrayList<>(Arrays.asList(c)), null, null));
+        transizioni.add(Transizione.create("tc", s1, s0, c, new ArrayList<>(), null, null));
+        Automa automa = Automa.create(0, "A", new ArrayList<>(Arrays.asList(s0, s1)), transizioni, s0);
+        CacheTransizioni cache = CacheTransizioni.create(2);
+        IndiceTransizioni indice = automa.getIndice();
+        Transizione[] primi = cache.getTransizioniAbilitate(indice, s0, lista(a));
+        cache.getTransizioniAbilitate(indice, s0, lista(b));
+        //le ripetizioni di un evento non cambiano la chiave
+        assertSame(primi, cache.getTransizioniAbilitate(indice, s0, lista(a, a)));
+        cache.getTransizioniAbilitate(indice, s0, lista(c));
+        assertEquals(1, cache.getRimozioni());
+        assertEquals(2, cache.dimensione());
+        cache.getTransizioniAbilitate(indice, s0, lista(b));
+        cache.getTransizioniAbilitate(indice, s0, lista(a));
+        assertEquals(1, cache.getSuccessi());
+        assertEquals(5, cache.getFallimenti());
+        assertEquals(3, cache.getRimozioni());
+        assertEquals(1.0 / 6, cache.tassoSuccesso(), 1e-9);
+        //l'ordine degli eventi determina quello dei rami ed è parte della chiave
+        Transizione[] rami = cache.getTransizioniAbilitate(indice, s0, lista(b, a));
+        assertArrayEquals(new Transizione[]{transizioni.get(1), transizioni.get(0)}, rami);
+        assertEquals(Arrays.asList(c), rami[0].getEventiUscita());
+        cache.azzeraStatistiche();
+        cache.svuota();
+        assertEquals(0, cache.dimensione());
+        assertEquals(0, cache.tassoSuccesso(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void capacitaNonPositiva(){
+        CacheTransizioni.create(0);
+    }
+
+    /**
+     * Esegue l'automa per 500 passi con eventi disponibili casuali e restituisce gli stati attraversati.
+     */
+    private static ArrayList<Stato> esegui(Automa automa, ArrayList<Evento> eventi, Random random){
+        ArrayList<Stato> stati = new ArrayList<>();
+        for(int k = 0; k < 500; k++){
+            automa.esegui(disponibili(eventi, random));
+            stati.add(automa.getStatoCorrente());
+        }
+        return stati;
+    }
+
+    /**
+     * Eventi in ingresso delle transizioni dell'automa.
+     */
+    private static ArrayList<Evento> eventi(Automa automa){
+        LinkedHashSet<Evento> eventi = new LinkedHashSet<>();
+        for(Transizione transizione : automa.getTransizioni())
+            if(transizione.getEventoIngresso() != null)
+                eventi.add(transizione.getEventoIngresso());
+        return new ArrayList<>(eventi);
+    }
+
+    /**
+     * Lista casuale di al più tre eventi, eventualmente ripetuti.
+     */
+    private static ArrayList<Evento> disponibili(ArrayList<Evento> eventi, Random random){
+        ArrayList<Evento> disponibili = new ArrayList<>();
+        int numero = eventi.isEmpty() ? 0 : random.nextInt(4);
+        for(int k = 0; k < numero; k++)
+            disponibili.add(eventi.get(random.nextInt(eventi.size())));
+        return disponibili;
+    }
+
+    private static ArrayList<Evento> lista(Evento... eventi){
+        return new ArrayList<>(Arrays.asList(eventi));
+    }
+}
@@ -0,0 +1,36 @@
+package benchmark;
+
+import algoritmi.GeneratoreSpazioComportamentale;
+import algoritmi.OpzioniEsplorazione;
+import org.junit.Test;
+import struttureDati.Osservazione;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.SpazioComportamentale;
+
+/**
+ * Test della compressione degli stati visitati su reti casuali: lo spazio esplorato con gli stati compressi deve
+ * essere identico (stessi stati globali con la stessa numerazione, archi e stati finali) a quello esplorato con gli
+ * stati in chiaro, con uno o più thread.
+ */
+public class CompressioneStatiTest {
+
+    @Test
+    public void compressioneStatiStessoSpazio(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            for(Osservazione osservazione : Linguaggi.osservazioni(rete, i)){
+                SpazioComportamentale sequenziale = GeneratoreSpazioComportamentale.genera(rete, Linguaggi.opzioni(osservazione, 1));
+                for(int numeroThread = 1; numeroThread <= 2; numeroThread++){
+                    OpzioniEsplorazione opzioni = Linguaggi.opzioni(osservazione, numeroThread);
+                    opzioni.setCompressioneStati(true);
+                    SpazioComportamentale compresso = GeneratoreSpazioComportamentale.genera(rete, opzioni);
+                    String messaggio = "rete " + i + ", " + numeroThread + " thread";
+                    Linguaggi.assertIdentici(messaggio, sequenziale, compresso);
+                    Linguaggi.assertStessaDiagnosi(messaggio, rete, osservazione, compresso);
+                }
+            }
+        }
+    }
+}
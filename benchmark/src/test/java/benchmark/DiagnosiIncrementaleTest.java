@@ -0,0 +1,69 @@
+package benchmark;
+
+import algoritmi.DiagnosiIncrementale;
+import algoritmi.GeneratoreDiagnosticatore;
+import org.junit.Test;
+import struttureDati.Diagnosticatore;
+import struttureDati.EspressioneRegolare;
+import struttureDati.ReteAutomiCompilata;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Test della diagnosi incrementale su reti casuali, con le chiusure esplorate al primo utilizzo e con quelle di un
+ * diagnosticatore: dopo ogni etichetta la diagnosi deve descrivere i cammini dello spazio vincolato dal prefisso
+ * ricevuto.
+ */
+public class DiagnosiIncrementaleTest {
+
+    @Test
+    public void diagnosiDeiPrefissi(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            Diagnosticatore diagnosticatore = GeneratoreDiagnosticatore.genera(rete);
+            DiagnosiIncrementale esplorata = DiagnosiIncrementale.create(rete);
+            DiagnosiIncrementale compilata = DiagnosiIncrementale.create(diagnosticatore);
+            assertFalse("rete " + i, compilata.getFabbrica().isCongelata());
+            int[] osservazione = Linguaggi.osservazione(rete, i);
+            //la seconda volta le chiusure sono già state esplorate
+            for(int volta = 0; volta < 2; volta++){
+                esplorata.ricomincia();
+                compilata.ricomincia();
+                for(int k = 0; k <= osservazione.length; k++){
+                    if(k > 0) {
+                        esplorata.avanza(osservazione[k - 1]);
+                        compilata.avanza(osservazione[k - 1]);
+                    }
+                    int[] prefisso = Arrays.copyOf(osservazione, k);
+                    String messaggio = "rete " + i + ", prefisso " + Arrays.toString(prefisso);
+                    Set<List<Integer>> attese = Linguaggi.parole(rete, prefisso);
+                    assertEquals(messaggio, attese, Linguaggi.parole(esplorata.getDiagnosi()));
+                    assertEquals(messaggio, attese, Linguaggi.parole(compilata.getDiagnosi()));
+                    assertEquals(messaggio, k, esplorata.getNumeroEtichette());
+                }
+            }
+            assertEquals("rete " + i, 0, compilata.numeroChiusureEsplorate());
+        }
+    }
+
+    @Test
+    public void osservazioneIncompatibile(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            DiagnosiIncrementale incrementale = DiagnosiIncrementale.create(rete);
+            assertEquals("rete " + i, EspressioneRegolare.Tipo.VUOTO, incrementale.avanza(-1).getTipo());
+            incrementale.avanza(0);
+            assertEquals("rete " + i, EspressioneRegolare.Tipo.VUOTO, incrementale.getDiagnosi().getTipo());
+            assertEquals("rete " + i, 0, incrementale.dimensioneFrontiera());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package benchmark;
+
+import algoritmi.DiagnosiMultipla;
+import algoritmi.OpzioniEsplorazione;
+import org.junit.Test;
+import struttureDati.EspressioneRegolare;
+import struttureDati.FabbricaEspressioni;
+import struttureDati.ReteAutomiCompilata;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test della diagnosi multipla su reti casuali: la diagnosi di ogni osservazione (tra cui i prefissi di altre
+ * osservazioni, che terminano in stati interni dell'albero dei prefissi) deve descrivere gli stessi cammini dello
+ * spazio vincolato dalla sola osservazione, con uno o più thread.
+ */
+public class DiagnosiMultiplaTest {
+
+    @Test
+    public void stessaDiagnosiDelleOsservazioniSingole(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            int[] prima = Linguaggi.osservazione(rete, i);
+            int[] seconda = Linguaggi.osservazione(rete, i + Linguaggi.NUMERO_RETI);
+            int[][] osservazioni = {prima, seconda, Arrays.copyOf(prima, prima.length / 2), new int[0], prima};
+            for(int numeroThread = 1; numeroThread <= 3; numeroThread += 2){
+                OpzioniEsplorazione opzioni = OpzioniEsplorazione.create();
+                opzioni.setNumeroThread(numeroThread);
+                EspressioneRegolare[] diagnosi = DiagnosiMultipla.calcola(rete, osservazioni, opzioni, FabbricaEspressioni.create());
+                assertEquals(osservazioni.length, diagnosi.length);
+                for(int k = 0; k < osservazioni.length; k++)
+                    assertEquals("rete " + i + ", osservazione " + k, Linguaggi.parole(rete, osservazioni[k]), Linguaggi.parole(diagnosi[k]));
+            }
+        }
+    }
+
+    @Test
+    public void osservazioneIncompatibile(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            int[] osservazione = Linguaggi.osservazione(rete, i);
+            int[] incompatibile = Arrays.copyOf(osservazione, osservazione.length + 1);
+            incompatibile[osservazione.length] = -2;
+            EspressioneRegolare[] diagnosi = DiagnosiMultipla.calcola(rete, new int[][]{osservazione, incompatibile});
+            assertEquals("rete " + i, Linguaggi.parole(rete, osservazione), Linguaggi.parole(diagnosi[0]));
+            assertEquals("rete " + i, EspressioneRegolare.Tipo.VUOTO, diagnosi[1].getTipo());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package benchmark;
+
+import algoritmi.Diagnosi;
+import algoritmi.GeneratoreSpazioComportamentale;
+import org.junit.Test;
+import struttureDati.EspressioneRegolare;
+import struttureDati.Osservazione;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.SpazioComportamentale;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test della diagnosi su reti casuali: le parole della diagnosi devono essere le sequenze di etichette di rilevanza dei
+ * cammini dello spazio dallo stato iniziale a uno stato finale, con e senza osservazione. Le reti con poche transizioni
+ * rilevanti hanno componenti con molti cicli di soli archi ε.
+ */
+public class DiagnosiTest {
+
+    @Test
+    public void diagnosiDescriveICammini(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            for(Osservazione osservazione : Linguaggi.osservazioni(rete, i)){
+                SpazioComportamentale spazio = GeneratoreSpazioComportamentale.genera(rete, Linguaggi.opzioni(osservazione, 1));
+                assertEquals("rete " + i, Linguaggi.parole(spazio), Linguaggi.parole(Diagnosi.calcola(spazio)));
+            }
+        }
+    }
+
+    @Test
+    public void pocheTransizioniRilevanti(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            GeneratoreModelli generatore = GeneratoreModelli.create(i);
+            generatore.setNumeroAutomi(2 + i % 2);
+            generatore.setNumeroStati(4);
+            generatore.setRamificazione(2);
+            generatore.setNonDeterminismo(1 + i % 2);
+            generatore.setRapportoRilevanza(0.15);
+            ReteAutomiCompilata rete = ReteAutomiCompilata.compila(generatore.generaRete(i));
+            SpazioComportamentale spazio = GeneratoreSpazioComportamentale.genera(rete);
+            if(spazio.numeroStati() > 4 * Linguaggi.MASSIMO_STATI)
+                continue;
+            assertEquals("rete " + i, Linguaggi.parole(spazio), Linguaggi.parole(Diagnosi.calcola(spazio)));
+        }
+    }
+
+    @Test
+    public void nessunoStatoFinaleRaggiungibile(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            //un'etichetta che nessuna transizione produce rende lo spazio vuoto
+            SpazioComportamentale spazio = GeneratoreSpazioComportamentale.genera(rete, Linguaggi.opzioni(Osservazione.lineare(new int[]{-2}), 1));
+            assertEquals("rete " + i, EspressioneRegolare.Tipo.VUOTO, Diagnosi.calcola(spazio).getTipo());
+        }
+    }
+}
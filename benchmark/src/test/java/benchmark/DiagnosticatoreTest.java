@@ -0,0 +1,122 @@
+package benchmark;
+
+import algoritmi.GeneratoreDiagnosticatore;
+import org.junit.Test;
+import struttureDati.Diagnosticatore;
+import struttureDati.EspressioneRegolare;
+import struttureDati.FabbricaEspressioni;
+import struttureDati.ReteAutomiCompilata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test del diagnosticatore su reti casuali: la diagnosi di ogni prefisso di un'osservazione deve descrivere i cammini
+ * dello spazio vincolato dal prefisso, senza modificare il diagnosticatore, anche con più diagnosi contemporanee.
+ */
+public class DiagnosticatoreTest {
+
+    @Test
+    public void diagnosiDeiPrefissi(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            Diagnosticatore diagnosticatore = GeneratoreDiagnosticatore.genera(rete);
+            int[] osservazione = Linguaggi.osservazione(rete, i);
+            FabbricaEspressioni fabbrica = diagnosticatore.nuovaFabbrica();
+            for(int k = 0; k <= osservazione.length; k++){
+                int[] prefisso = Arrays.copyOf(osservazione, k);
+                String messaggio = "rete " + i + ", prefisso " + Arrays.toString(prefisso);
+                Set<List<Integer>> attese = Linguaggi.parole(rete, prefisso);
+                assertEquals(messaggio, attese, Linguaggi.parole(diagnosticatore.diagnosi(prefisso)));
+                assertEquals(messaggio, attese, Linguaggi.parole(diagnosticatore.diagnosi(prefisso, fabbrica)));
+            }
+        }
+    }
+
+    @Test
+    public void diagnosticatoreImmutabile(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            Diagnosticatore diagnosticatore = GeneratoreDiagnosticatore.genera(rete);
+            FabbricaEspressioni fabbrica = diagnosticatore.nuovaFabbrica();
+            int numeroEspressioni = fabbrica.numeroEspressioni();
+            int[] osservazione = Linguaggi.osservazione(rete, i);
+            for(int k = 0; k < 3; k++)
+                diagnosticatore.diagnosi(osservazione);
+            //le diagnosi non aggiungono espressioni alla fabbrica congelata del diagnosticatore
+            assertEquals("rete " + i, numeroEspressioni, diagnosticatore.nuovaFabbrica().numeroEspressioni());
+            try {
+                diagnosticatore.diagnosi(osservazione, FabbricaEspressioni.create());
+                fail("rete " + i + ": fabbrica estranea accettata");
+            }
+            catch(IllegalArgumentException e){
+                //atteso
+            }
+        }
+    }
+
+    @Test
+    public void fabbricaCongelata(){
+        FabbricaEspressioni fabbrica = FabbricaEspressioni.create();
+        EspressioneRegolare a = fabbrica.simbolo(0);
+        EspressioneRegolare b = fabbrica.simbolo(1);
+        EspressioneRegolare ab = fabbrica.concatenazione(a, b);
+        fabbrica.congela();
+        assertTrue(fabbrica.isCongelata());
+        assertTrue(ab == fabbrica.concatenazione(a, b));
+        try {
+            fabbrica.alternativa(a, b);
+            fail("espressione creata da una fabbrica congelata");
+        }
+        catch(IllegalStateException e){
+            //atteso
+        }
+        FabbricaEspressioni estesa = FabbricaEspressioni.create(fabbrica);
+        assertTrue(estesa.estende(fabbrica));
+        assertFalse(fabbrica.estende(estesa));
+        assertTrue(ab == estesa.concatenazione(a, b));
+        EspressioneRegolare alternativa = estesa.alternativa(a, b);
+        assertEquals(fabbrica.numeroEspressioni(), alternativa.getId());
+        assertTrue(alternativa == estesa.alternativa(b, a));
+    }
+
+    @Test
+    public void diagnosiContemporanee() throws Exception {
+        ExecutorService esecutore = Executors.newFixedThreadPool(4);
+        try {
+            for(int i = 0; i < Linguaggi.NUMERO_RETI; i += 4){
+                ReteAutomiCompilata rete = Linguaggi.rete(i);
+                if(rete == null)
+                    continue;
+                Diagnosticatore diagnosticatore = GeneratoreDiagnosticatore.genera(rete);
+                int[] osservazione = Linguaggi.osservazione(rete, i);
+                ArrayList<Future<EspressioneRegolare>> diagnosi = new ArrayList<>();
+                for(int k = 0; k < 16; k++){
+                    int[] prefisso = Arrays.copyOf(osservazione, k % (osservazione.length + 1));
+                    diagnosi.add(esecutore.submit(() -> diagnosticatore.diagnosi(prefisso)));
+                }
+                for(int k = 0; k < diagnosi.size(); k++){
+                    int[] prefisso = Arrays.copyOf(osservazione, k % (osservazione.length + 1));
+                    assertEquals("rete " + i, Linguaggi.parole(rete, prefisso), Linguaggi.parole(diagnosi.get(k).get()));
+                }
+            }
+        }
+        finally {
+            esecutore.shutdown();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package benchmark;
+
+import algoritmi.GeneratoreSpazioComportamentale;
+import org.junit.Test;
+import struttureDati.Osservazione;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.SpazioComportamentale;
+
+/**
+ * Test della visita parallela su reti casuali: con qualsiasi numero di thread deve produrre gli stessi array (stati,
+ * archi e stati finali, con la stessa numerazione) della visita sequenziale, con e senza osservazione.
+ */
+public class EsplorazioneParallelaTest {
+
+    @Test
+    public void visitaParallelaIdenticaASequenziale(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            for(Osservazione osservazione : Linguaggi.osservazioni(rete, i)){
+                SpazioComportamentale sequenziale = GeneratoreSpazioComportamentale.genera(rete, Linguaggi.opzioni(osservazione, 1));
+                for(int numeroThread = 2; numeroThread <= 4; numeroThread++){
+                    SpazioComportamentale parallelo = GeneratoreSpazioComportamentale.genera(rete, Linguaggi.opzioni(osservazione, numeroThread));
+                    Linguaggi.assertIdentici("rete " + i + ", " + numeroThread + " thread", sequenziale, parallelo);
+                }
+            }
+        }
+    }
+}
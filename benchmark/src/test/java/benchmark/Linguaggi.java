@@ -0,0 +1,248 @@
+package benchmark;
+
+import algoritmi.Diagnosi;
+import algoritmi.GeneratoreSpazioComportamentale;
+import algoritmi.OpzioniEsplorazione;
+import struttureDati.EspressioneRegolare;
+import struttureDati.Osservazione;
+import struttureDati.ReteAutomi;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.SpazioComportamentale;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Classe di supporto ai test: genera reti casuali piccole e confronta i linguaggi delle diagnosi tramite le parole di
+ * lunghezza limitata. Il confronto è esatto sulle parole fino a LUNGHEZZA etichette di rilevanza, che bastano a
+ * distinguere le diagnosi di reti con pochi stati. Contiene anche i controlli condivisi dai test delle modalità di
+ * esplorazione.
+ */
+final class Linguaggi {
+
+    static final int LUNGHEZZA = 4;
+    static final int NUMERO_RETI = 80;
+    static final int MASSIMO_STATI = 250;
+
+    /**
+     * Costruttore privato: la classe espone solo metodi statici.
+     */
+    private Linguaggi(){
+    }
+
+    /**
+     * Genera la rete casuale i-esima dei test (2 o 3 automi di 3 stati, a volte non deterministici).
+     * @param i Indice della rete, usato anche come seme.
+     * @return Rete compilata, null se il suo spazio supera MASSIMO_STATI stati (la rete va saltata).
+     */
+    static ReteAutomiCompilata rete(int i){
+        ReteAutomiCompilata rete = ReteAutomiCompilata.compila(reteNonCompilata(i));
+        return GeneratoreSpazioComportamentale.genera(rete).numeroStati() > MASSIMO_STATI ? null : rete;
+    }
+
+    /**
+     * Genera la rete casuale i-esima dei test senza compilarla.
+     * @param i Indice della rete, usato anche come seme.
+     * @return Rete generata.
+     */
+    static ReteAutomi reteNonCompilata(int i){
+        GeneratoreModelli generatore = GeneratoreModelli.create(i);
+        generatore.setNumeroAutomi(2 + i % 2);
+        generatore.setNumeroStati(3);
+        generatore.setRamificazione(2 + i % 2);
+        generatore.setNonDeterminismo(1 + i % 2);
+        generatore.setCapacitaLink(1 + i / 2 % 2);
+        generatore.setRapportoOsservabilita(0.5);
+        generatore.setRapportoRilevanza(0.5);
+        return generatore.generaRete(i);
+    }
+
+    /**
+     * Genera un'osservazione lineare coerente con la rete.
+     * @param rete Rete compilata.
+     * @param i Indice della rete, usato anche come seme.
+     * @return Etichette dell'osservazione.
+     */
+    static int[] osservazione(ReteAutomiCompilata rete, int i){
+        GeneratoreModelli generatore = GeneratoreModelli.create(i);
+        Osservazione osservazione = generatore.generaOsservazione(rete, 1 + i % 5, 30);
+        int[] etichette = new int[osservazione.numeroStati() - 1];
+        for(int o = 0; o < etichette.length; o++)
+            etichette[o] = osservazione.getEtichetta(osservazione.inizioArchi(o));
+        return etichette;
+    }
+
+    /**
+     * Restituisce le parole di lunghezza al più LUNGHEZZA del linguaggio dell'espressione.
+     * @param espressione Espressione regolare.
+     * @return Insieme delle parole (indici dei simboli).
+     */
+    static Set<List<Integer>> parole(EspressioneRegolare espressione){
+        return parole(espressione, new HashMap<>());
+    }
+
+    private static Set<List<Integer>> parole(EspressioneRegolare e, Map<Integer, Set<List<Integer>>> memo){
+        Set<List<Integer>> risultato = memo.get(e.getId());
+        if(risultato != null)
+            return risultato;
+        risultato = new HashSet<>();
+        switch(e.getTipo()){
+            case VUOTO:
+                break;
+            case EPSILON:
+                risultato.add(Collections.emptyList());
+                break;
+            case SIMBOLO:
+                risultato.add(Collections.singletonList(e.getSimbolo()));
+                break;
+            case ALTERNATIVA:
+                risultato.addAll(parole(e.getSinistra(), memo));
+                risultato.addAll(parole(e.getDestra(), memo));
+                break;
+            case CONCATENAZIONE:
+                concatena(parole(e.getSinistra(), memo), parole(e.getDestra(), memo), risultato);
+                break;
+            case STELLA:
+                Set<List<Integer>> base = parole(e.getSinistra(), memo);
+                risultato.add(Collections.emptyList());
+                Set<List<Integer>> nuove = risultato;
+                while(!nuove.isEmpty()){
+                    Set<List<Integer>> prodotte = new HashSet<>();
+                    concatena(nuove, base, prodotte);
+                    prodotte.removeAll(risultato);
+                    risultato.addAll(prodotte);
+                    nuove = prodotte;
+                }
+                break;
+        }
+        memo.put(e.getId(), risultato);
+        return risultato;
+    }
+
+    private static void concatena(Set<List<Integer>> prime, Set<List<Integer>> seconde, Set<List<Integer>> risultato){
+        for(List<Integer> a : prime){
+            for(List<Integer> b : seconde){
+                if(a.size() + b.size() <= LUNGHEZZA) {
+                    List<Integer> parola = new ArrayList<>(a);
+                    parola.addAll(b);
+                    risultato.add(parola);
+                }
+            }
+        }
+    }
+
+    /**
+     * Restituisce le sequenze di etichette di rilevanza (di lunghezza al più LUNGHEZZA) dei cammini dello spazio dallo
+     * stato iniziale a uno stato finale, calcolate con una visita dello spazio (senza espressioni regolari).
+     * @param spazio Spazio comportamentale.
+     * @return Insieme delle parole (indici dei simboli).
+     */
+    static Set<List<Integer>> parole(SpazioComportamentale spazio){
+        Set<List<Integer>> risultato = new HashSet<>();
+        if(spazio.numeroStati() == 0)
+            return risultato;
+        Set<List<Object>> visitate = new HashSet<>();
+        ArrayDeque<Object[]> coda = new ArrayDeque<>();
+        coda.add(new Object[]{0, Collections.<Integer>emptyList()});
+        while(!coda.isEmpty()){
+            Object[] elemento = coda.poll();
+            int s = (Integer) elemento[0];
+            @SuppressWarnings("unchecked")
+            List<Integer> parola = (List<Integer>) elemento[1];
+            if(!visitate.add(Arrays.asList(s, parola)))
+                continue;
+            if(spazio.isFinale(s))
+                risultato.add(parola);
+            for(int a = spazio.inizioArchi(s); a < spazio.fineArchi(s); a++){
+                int rilevanza = spazio.getRete().getRilevanza(spazio.getTransizione(a));
+                List<Integer> successiva = parola;
+                if(rilevanza >= 0) {
+                    successiva = new ArrayList<>(parola);
+                    successiva.add(rilevanza);
+                }
+                if(successiva.size() <= LUNGHEZZA)
+                    coda.add(new Object[]{spazio.getDestinazione(a), successiva});
+            }
+        }
+        return risultato;
+    }
+
+    /**
+     * Restituisce le parole (di lunghezza al più LUNGHEZZA) dei cammini dello spazio vincolato da un'osservazione
+     * lineare, cioè quelle attese nella diagnosi dell'osservazione.
+     * @param rete Rete compilata.
+     * @param osservazione Etichette dell'osservazione.
+     * @return Insieme delle parole (indici dei simboli).
+     */
+    static Set<List<Integer>> parole(ReteAutomiCompilata rete, int[] osservazione){
+        return parole(GeneratoreSpazioComportamentale.genera(rete, opzioni(Osservazione.lineare(osservazione), 1)));
+    }
+
+    /**
+     * Osservazioni con cui esplorare la rete: nessuna osservazione e un'osservazione lineare coerente con la rete.
+     * @param rete Rete compilata.
+     * @param i Indice della rete, usato anche come seme.
+     * @return Lista delle osservazioni (la prima è null).
+     */
+    static List<Osservazione> osservazioni(ReteAutomiCompilata rete, int i){
+        return Arrays.asList(null, Osservazione.lineare(osservazione(rete, i)));
+    }
+
+    /**
+     * Restituisce le opzioni di esplorazione con l'osservazione e il numero di thread indicati.
+     * @param osservazione Osservazione, può essere null.
+     * @param numeroThread Numero di thread.
+     * @return Opzioni di esplorazione.
+     */
+    static OpzioniEsplorazione opzioni(Osservazione osservazione, int numeroThread){
+        OpzioniEsplorazione opzioni = OpzioniEsplorazione.create();
+        opzioni.setOsservazione(osservazione);
+        opzioni.setNumeroThread(numeroThread);
+        return opzioni;
+    }
+
+    /**
+     * Controlla che lo spazio abbia la stessa diagnosi dello spazio sequenziale e che questa descriva i cammini dello
+     * spazio sequenziale.
+     */
+    static void assertStessaDiagnosi(String messaggio, ReteAutomiCompilata rete, Osservazione osservazione, SpazioComportamentale spazio){
+        SpazioComportamentale sequenziale = GeneratoreSpazioComportamentale.genera(rete, opzioni(osservazione, 1));
+        Set<List<Integer>> attese = parole(sequenziale);
+        assertEquals(messaggio, attese, parole(Diagnosi.calcola(sequenziale)));
+        assertEquals(messaggio, attese, parole(Diagnosi.calcola(spazio)));
+    }
+
+    /**
+     * Controlla che due spazi abbiano gli stessi stati, archi e stati finali, con la stessa numerazione.
+     */
+    static void assertIdentici(String messaggio, SpazioComportamentale atteso, SpazioComportamentale spazio){
+        assertEquals(messaggio, atteso.numeroStati(), spazio.numeroStati());
+        assertEquals(messaggio, atteso.numeroArchi(), spazio.numeroArchi());
+        long[] statoAtteso = new long[atteso.numeroParole()];
+        long[] stato = new long[spazio.numeroParole()];
+        for(int s = 0; s < atteso.numeroStati(); s++){
+            assertEquals(messaggio, atteso.isFinale(s), spazio.isFinale(s));
+            assertEquals(messaggio, atteso.inizioArchi(s), spazio.inizioArchi(s));
+            assertEquals(messaggio, atteso.fineArchi(s), spazio.fineArchi(s));
+            if(atteso.conservaStati() && spazio.conservaStati()) {
+                atteso.getStatoGlobale(s, statoAtteso);
+                spazio.getStatoGlobale(s, stato);
+                assertTrue(messaggio, Arrays.equals(statoAtteso, stato));
+            }
+        }
+        for(int a = 0; a < atteso.numeroArchi(); a++){
+            assertEquals(messaggio, atteso.getDestinazione(a), spazio.getDestinazione(a));
+            assertEquals(messaggio, atteso.getTransizione(a), spazio.getTransizione(a));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package benchmark;
+
+import algoritmi.GeneratoreSpazioComportamentale;
+import algoritmi.OpzioniEsplorazione;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import struttureDati.Osservazione;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.SpazioComportamentale;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test dell'esplorazione in memoria esterna su reti casuali: con soglie di memoria piccole (molti file ordinati da
+ * fondere, anche in più passate) deve trovare gli stessi stati globali della visita in memoria, con la stessa diagnosi.
+ */
+public class MemoriaEsternaTest {
+
+    @Rule
+    public TemporaryFolder cartella = new TemporaryFolder();
+
+    @Test
+    public void memoriaEsternaStessaDiagnosi() throws IOException {
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            for(Osservazione osservazione : Linguaggi.osservazioni(rete, i)){
+                SpazioComportamentale sequenziale = GeneratoreSpazioComportamentale.genera(rete, Linguaggi.opzioni(osservazione, 1));
+                for(int massimoRun = 2; massimoRun <= 64; massimoRun *= 32){
+                    OpzioniEsplorazione opzioni = Linguaggi.opzioni(osservazione, 1);
+                    opzioni.setCartellaMemoriaEsterna(cartella.newFolder().toPath());
+                    opzioni.setSogliaMemoria(4096); //più file da fondere anche con spazi piccoli
+                    opzioni.setMassimoRun(massimoRun);
+                    SpazioComportamentale spazio = GeneratoreSpazioComportamentale.genera(rete, opzioni);
+                    String messaggio = "rete " + i + ", " + massimoRun + " file per fusione";
+                    assertEquals(messaggio, sequenziale.numeroStati(), spazio.numeroStati());
+                    assertEquals(messaggio, sequenziale.numeroArchi(), spazio.numeroArchi());
+                    if(spazio.conservaStati())
+                        assertEquals(messaggio, statiGlobali(sequenziale), statiGlobali(spazio));
+                    Linguaggi.assertStessaDiagnosi(messaggio, rete, osservazione, spazio);
+                }
+            }
+        }
+    }
+
+    /**
+     * Insieme degli stati globali dello spazio, indipendente dalla numerazione degli stati.
+     */
+    private static Set<List<Long>> statiGlobali(SpazioComportamentale spazio){
+        Set<List<Long>> stati = new HashSet<>();
+        long[] stato = new long[spazio.numeroParole()];
+        for(int s = 0; s < spazio.numeroStati(); s++){
+            spazio.getStatoGlobale(s, stato);
+            Long[] parole = new Long[stato.length];
+            for(int p = 0; p < stato.length; p++)
+                parole[p] = stato[p];
+            stati.add(Arrays.asList(parole));
+        }
+        return stati;
+    }
+}
@@ -0,0 +1,146 @@
+package benchmark;
+
+import algoritmi.GeneratoreSpazioComportamentale;
+import algoritmi.OpzioniEsplorazione;
+import org.junit.Test;
+import struttureDati.Automa;
+import struttureDati.Evento;
+import struttureDati.MetricheEsplorazione;
+import struttureDati.Osservazione;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.SpazioComportamentale;
+import struttureDati.Stato;
+import struttureDati.Transizione;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test delle metriche dell'esplorazione: i conteggi registrati durante la generazione dello spazio (sequenziale e
+ * parallela) devono corrispondere allo spazio generato, le esecuzioni degli automi devono contare i rami non
+ * deterministici, i registri di più thread non devono perdere conteggi e le metriche devono essere leggibili via JMX.
+ */
+public class MetricheTest {
+
+    @Test
+    public void conteggiDellEsplorazione(){
+        boolean bufferPieno = false;
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            for(Osservazione osservazione : Linguaggi.osservazioni(rete, i)){
+                for(int numeroThread = 1; numeroThread <= 3; numeroThread += 2){
+                    MetricheEsplorazione metriche = MetricheEsplorazione.create();
+                    OpzioniEsplorazione opzioni = Linguaggi.opzioni(osservazione, numeroThread);
+                    opzioni.setMetriche(metriche);
+                    SpazioComportamentale spazio = GeneratoreSpazioComportamentale.genera(rete, opzioni);
+                    String messaggio = "rete " + i + ", " + numeroThread + " thread";
+                    assertEquals(messaggio, spazio.numeroStati(), metriche.getStatiEspansi());
+                    assertEquals(messaggio, spazio.numeroArchi(), metriche.getTransizioniEsplorate());
+                    assertEquals(messaggio, spazio.numeroStati(), metriche.getStatiVisitati());
+                    assertEquals(messaggio, 0, metriche.getDimensioneFrontiera());
+                    assertTrue(messaggio, metriche.getFattoreCarico() > 0 && metriche.getByteOccupati() > 0);
+                    assertTrue(messaggio, metriche.getTassoDiramazione() >= 0 && metriche.getTassoDiramazione() <= 1);
+                    bufferPieno |= metriche.getBlocchiBufferPieno() > 0;
+                }
+            }
+        }
+        assertTrue(bufferPieno);
+    }
+
+    /**
+     * Dallo stato 0 l'evento e abilita due rami, dallo stato 1 uno solo: metà delle esecuzioni sono non deterministiche,
+     * con o senza la cache dei rami.
+     */
+    @Test
+    public void esecuzioniAutomi(){
+        for(int capacitaCache = 0; capacitaCache <= 4; capacitaCache += 4){
+            Evento e = Evento.create(0, "e");
+            ArrayList<Stato> stati = new ArrayList<>();
+            for(int s = 0; s < 3; s++)
+                stati.add(Stato.create(s, "s" + s));
+            ArrayList<Transizione> transizioni = new ArrayList<>();
+            transizioni.add(Transizione.create("t1", stati.get(0), stati.get(1), e, new ArrayList<>(), null, null));
+            transizioni.add(Transizione.create("t2", stati.get(0), stati.get(2), e, new ArrayList<>(), null, null));
+            transizioni.add(Transizione.create("t3", stati.get(1), stati.get(0), e, new ArrayList<>(), null, null));
+            transizioni.add(Transizione.create("t4", stati.get(2), stati.get(0), e, new ArrayList<>(), null, null));
+            Automa automa = Automa.create(0, "A", stati, transizioni, stati.get(0));
+            automa.setCapacitaCache(capacitaCache);
+            MetricheEsplorazione metriche = MetricheEsplorazione.create();
+            automa.setMetriche(metriche);
+            ArrayList<Evento> disponibili = new ArrayList<>(Collections.singletonList(e));
+            for(int passo = 0; passo < 10; passo++)
+                automa.esegui(disponibili);
+            assertEquals(10, metriche.getEsecuzioniAutomi());
+            assertEquals(0.5, metriche.getTassoNonDeterminismo(), 1e-9);
+            automa.esegui(new ArrayList<>());
+            assertEquals(11, metriche.getEsecuzioniAutomi());
+            metriche.azzera();
+            assertEquals(0, metriche.getEsecuzioniAutomi());
+            assertEquals(0, metriche.getTassoNonDeterminismo(), 0);
+        }
+    }
+
+    @Test
+    public void registriConcorrenti() throws InterruptedException {
+        MetricheEsplorazione metriche = MetricheEsplorazione.create();
+        Thread[] thread = new Thread[4];
+        for(int t = 0; t < thread.length; t++){
+            thread[t] = new Thread(() -> {
+                MetricheEsplorazione.Registro registro = metriche.registro();
+                for(int s = 0; s < 10000; s++){
+                    registro.registraEspansione(3, s % 4 == 0);
+                    if(s % 2 == 0)
+                        registro.registraBufferPieno();
+                }
+                registro.scarica();
+            });
+            thread[t].start();
+        }
+        for(Thread t : thread)
+            t.join();
+        assertEquals(40000, metriche.getStatiEspansi());
+        assertEquals(120000, metriche.getTransizioniEsplorate());
+        assertEquals(20000, metriche.getBlocchiBufferPieno());
+        assertEquals(0.25, metriche.getTassoDiramazione(), 1e-9);
+    }
+
+    @Test
+    public void registrazioneJmx() throws Exception {
+        MetricheEsplorazione metriche = MetricheEsplorazione.create();
+        MetricheEsplorazione.Registro registro = metriche.registro();
+        registro.registraEspansione(2, true);
+        registro.scarica();
+        metriche.aggiornaFrontiera(7);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName nome = new ObjectName("struttureDati:type=MetricheEsplorazione,name=" + ObjectName.quote("test, jmx"));
+        metriche.registra("test, jmx");
+        try {
+            assertTrue(server.isRegistered(nome));
+            assertEquals(1L, server.getAttribute(nome, "StatiEspansi"));
+            assertEquals(2L, server.getAttribute(nome, "TransizioniEsplorate"));
+            assertEquals(7L, server.getAttribute(nome, "DimensioneFrontiera"));
+            try {
+                metriche.registra("altro");
+                fail();
+            } catch (IllegalStateException e) {
+                //le metriche sono già registrate
+            }
+            server.invoke(nome, "azzera", null, null);
+            assertEquals(0L, metriche.getStatiEspansi());
+        } finally {
+            metriche.deregistra();
+        }
+        assertFalse(server.isRegistered(nome));
+        metriche.deregistra();
+    }
+}
@@ -0,0 +1,95 @@
+package benchmark;
+
+import algoritmi.Diagnosi;
+import algoritmi.GeneratoreSpazioComportamentale;
+import algoritmi.MinimizzazioneAutomi;
+import org.junit.Test;
+import struttureDati.Automa;
+import struttureDati.Etichetta;
+import struttureDati.Evento;
+import struttureDati.ReteAutomi;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.SpazioComportamentale;
+import struttureDati.Stato;
+import struttureDati.TipoEtichetta;
+import struttureDati.Transizione;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test della minimizzazione degli automi: su reti casuali la rete minimizzata deve avere automi validi con al più gli
+ * stessi stati e la stessa diagnosi (confrontata per nome delle etichette, perché la tabella dei simboli può cambiare);
+ * in un automa costruito a mano gli stati bisimili raggiunti con gli stessi eventi ma etichette diverse devono restare
+ * separati, mentre gli altri stati bisimili vengono fusi.
+ */
+public class MinimizzazioneTest {
+
+    @Test
+    public void stessaDiagnosi(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomi rete = Linguaggi.reteNonCompilata(i);
+            ReteAutomi minima = MinimizzazioneAutomi.minimizza(rete);
+            for(int a = 0; a < rete.getAutomi().size(); a++){
+                Automa automa = minima.getAutomi().get(a);
+                assertNotNull("rete " + i, automa);
+                assertTrue("rete " + i, automa.getStati().size() <= rete.getAutomi().get(a).getStati().size());
+            }
+            ReteAutomiCompilata compilata = ReteAutomiCompilata.compila(rete);
+            SpazioComportamentale spazio = GeneratoreSpazioComportamentale.genera(compilata);
+            if(spazio.numeroStati() > Linguaggi.MASSIMO_STATI)
+                continue;
+            ReteAutomiCompilata compilataMinima = ReteAutomiCompilata.compila(minima);
+            SpazioComportamentale spazioMinimo = GeneratoreSpazioComportamentale.genera(compilataMinima);
+            assertTrue("rete " + i, spazioMinimo.numeroStati() <= spazio.numeroStati());
+            assertEquals("rete " + i, PersistenzaTest.parole(Diagnosi.calcola(spazio), compilata.getSimboli()),
+                    PersistenzaTest.parole(Diagnosi.calcola(spazioMinimo), compilataMinima.getSimboli()));
+        }
+    }
+
+    @Test
+    public void automaMinimo(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomi minima = MinimizzazioneAutomi.minimizza(Linguaggi.reteNonCompilata(i));
+            assertSame("rete " + i, minima, MinimizzazioneAutomi.minimizza(minima));
+        }
+    }
+
+    /**
+     * Dallo stato 0 partono tre transizioni con lo stesso evento ma etichette di rilevanza diverse verso gli stati 1, 2
+     * e 3, bisimili tra loro; da questi si va rispettivamente agli stati 4, 5 e 6, anch'essi bisimili, che tornano in 0.
+     * Gli stati 1, 2 e 3 devono restare distinti (altrimenti il rappresentante avrebbe tre transizioni con gli stessi
+     * stati ed eventi), mentre 4, 5 e 6 vengono fusi.
+     */
+    @Test
+    public void statiInConflitto(){
+        Evento e = Evento.create(0, "e");
+        Evento f = Evento.create(1, "f");
+        ArrayList<Stato> stati = new ArrayList<>();
+        for(int s = 0; s < 7; s++)
+            stati.add(Stato.create(s, "s" + s));
+        ArrayList<Transizione> transizioni = new ArrayList<>();
+        for(int s = 1; s <= 3; s++){
+            Etichetta rilevanza = Etichetta.create("r" + s, TipoEtichetta.ETICHETTARILEVANZA);
+            transizioni.add(Transizione.create("t" + s, stati.get(0), stati.get(s), e, new ArrayList<>(), null, rilevanza));
+            transizioni.add(Transizione.create("u" + s, stati.get(s), stati.get(s + 3), f, new ArrayList<>(), null, null));
+            transizioni.add(Transizione.create("v" + s, stati.get(s + 3), stati.get(0), e, new ArrayList<>(), null, null));
+        }
+        Automa automa = Automa.create(0, "A", stati, transizioni, stati.get(0));
+        Automa minimo = MinimizzazioneAutomi.minimizza(automa);
+        assertNotNull(minimo);
+        assertEquals(5, minimo.getStati().size());
+        assertEquals(7, minimo.getTransizioni().size());
+        Set<String> rilevanze = new HashSet<>();
+        for(Transizione transizione : minimo.getTransizioni())
+            if(transizione.getEtichettaRilevanza() != null)
+                rilevanze.add(transizione.getEtichettaRilevanza().getId());
+        assertEquals(3, rilevanze.size());
+    }
+}
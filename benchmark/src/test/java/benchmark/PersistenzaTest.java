@@ -0,0 +1,206 @@
+package benchmark;
+
+import algoritmi.Diagnosi;
+import algoritmi.GeneratoreSpazioComportamentale;
+import algoritmi.OpzioniEsplorazione;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import persistenza.LettoreXML;
+import persistenza.ScrittoreXML;
+import persistenza.SnapshotBinario;
+import struttureDati.Automa;
+import struttureDati.EspressioneRegolare;
+import struttureDati.Osservazione;
+import struttureDati.ReteAutomi;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.SpazioComportamentale;
+import struttureDati.TabellaSimboli;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test di andata e ritorno della persistenza su reti casuali: la rete riletta da XML o da uno snapshot binario deve
+ * essere la stessa (stesse transizioni, link e stato iniziale, quindi lo stesso spazio comportamentale con la stessa
+ * diagnosi) e lo spazio riletto da uno snapshot deve essere identico a quello salvato. Gli snapshot troncati o
+ * corrotti devono essere rifiutati con una IOException.
+ */
+public class PersistenzaTest {
+
+    @Rule
+    public TemporaryFolder cartella = new TemporaryFolder();
+
+    @Test
+    public void reteXML() throws XMLStreamException {
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomi rete = Linguaggi.reteNonCompilata(i);
+            ByteArrayOutputStream uscita = new ByteArrayOutputStream();
+            ScrittoreXML.scriviRete(rete, uscita);
+            ReteAutomi riletta = LettoreXML.leggiRete(new ByteArrayInputStream(uscita.toByteArray()));
+            assertStessaRete("rete " + i, ReteAutomiCompilata.compila(rete), ReteAutomiCompilata.compila(riletta));
+        }
+    }
+
+    @Test
+    public void automaXML() throws XMLStreamException {
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            for(Automa automa : Linguaggi.reteNonCompilata(i).getAutomi()){
+                ByteArrayOutputStream uscita = new ByteArrayOutputStream();
+                ScrittoreXML.scriviAutoma(automa, uscita);
+                Automa riletto = LettoreXML.leggiAutoma(new ByteArrayInputStream(uscita.toByteArray()));
+                //l'automa riletto viene scritto di nuovo nello stesso modo
+                ByteArrayOutputStream seconda = new ByteArrayOutputStream();
+                ScrittoreXML.scriviAutoma(riletto, seconda);
+                assertArrayEquals("rete " + i, uscita.toByteArray(), seconda.toByteArray());
+            }
+        }
+    }
+
+    @Test
+    public void reteSnapshot() throws IOException {
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomi rete = Linguaggi.reteNonCompilata(i);
+            Path file = cartella.newFile().toPath();
+            SnapshotBinario.scriviRete(rete, file);
+            assertStessaRete("rete " + i, ReteAutomiCompilata.compila(rete), SnapshotBinario.leggiRete(file));
+        }
+    }
+
+    @Test
+    public void spazioSnapshot() throws IOException {
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            for(Osservazione osservazione : Linguaggi.osservazioni(rete, i)){
+                OpzioniEsplorazione opzioni = Linguaggi.opzioni(osservazione, 1);
+                opzioni.setCompressioneStati(i % 2 == 1);
+                SpazioComportamentale spazio = GeneratoreSpazioComportamentale.genera(rete, opzioni);
+                Path file = cartella.newFile().toPath();
+                SnapshotBinario.scriviSpazio(spazio, file);
+                SpazioComportamentale riletto = SnapshotBinario.leggiSpazio(file);
+                String messaggio = "rete " + i;
+                assertStessaRete(messaggio, rete, riletto.getRete());
+                Linguaggi.assertIdentici(messaggio, spazio, riletto);
+                assertEquals(messaggio, osservazione == null, riletto.getOsservazione() == null);
+                if(osservazione != null)
+                    assertStessaOsservazione(messaggio, osservazione, riletto.getOsservazione());
+                assertEquals(messaggio, parole(Diagnosi.calcola(spazio), rete.getSimboli()),
+                        parole(Diagnosi.calcola(riletto), riletto.getRete().getSimboli()));
+            }
+        }
+    }
+
+    @Test
+    public void snapshotCorrotti() throws IOException {
+        Random casuale = new Random(0);
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i += 4){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            Path file = cartella.newFile().toPath();
+            SnapshotBinario.scriviSpazio(GeneratoreSpazioComportamentale.genera(rete, Linguaggi.opzioni(Linguaggi.osservazioni(rete, i).get(1), 1)), file);
+            byte[] originale = Files.readAllBytes(file);
+            for(int prova = 0; prova < 50; prova++){
+                byte[] corrotto;
+                if(prova % 2 == 0)
+                    corrotto = Arrays.copyOf(originale, casuale.nextInt(originale.length));
+                else {
+                    corrotto = originale.clone();
+                    for(int k = 0; k < 1 + prova % 4; k++)
+                        corrotto[casuale.nextInt(corrotto.length)] ^= (byte) (1 + casuale.nextInt(255));
+                }
+                Files.write(file, corrotto);
+                String messaggio = "rete " + i + ", prova " + prova;
+                try {
+                    SnapshotBinario.leggiSpazio(file);
+                    //solo le modifiche che lasciano il file valido possono essere accettate
+                    assertTrue(messaggio, prova % 2 == 1);
+                }
+                catch(IOException e){
+                    //atteso
+                }
+                catch(RuntimeException e){
+                    fail(messaggio + ": " + e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Controlla che due reti compilate abbiano gli stessi link, le stesse transizioni (con le stesse etichette) e lo
+     * stesso stato iniziale, e che generino lo stesso spazio comportamentale con la stessa diagnosi.
+     */
+    static void assertStessaRete(String messaggio, ReteAutomiCompilata attesa, ReteAutomiCompilata rete){
+        assertEquals(messaggio, attesa.numeroComponenti(), rete.numeroComponenti());
+        assertEquals(messaggio, attesa.numeroLink(), rete.numeroLink());
+        for(int l = 0; l < attesa.numeroLink(); l++){
+            assertEquals(messaggio, attesa.getCapacita(l), rete.getCapacita(l));
+            assertEquals(messaggio, attesa.getSorgenteLink(l), rete.getSorgenteLink(l));
+            assertEquals(messaggio, attesa.getDestinazioneLink(l), rete.getDestinazioneLink(l));
+        }
+        assertEquals(messaggio, attesa.numeroTransizioni(), rete.numeroTransizioni());
+        for(int g = 0; g < attesa.numeroTransizioni(); g++){
+            assertEquals(messaggio, attesa.getTransizione(g).getId(), rete.getTransizione(g).getId());
+            assertEquals(messaggio, attesa.getComponenteTransizione(g), rete.getComponenteTransizione(g));
+            assertEquals(messaggio, attesa.getLinkIngresso(g), rete.getLinkIngresso(g));
+            assertEquals(messaggio, attesa.numeroEventiUscita(g), rete.numeroEventiUscita(g));
+            assertEquals(messaggio, etichetta(attesa.getSimboli(), attesa.getOsservabilita(g)), etichetta(rete.getSimboli(), rete.getOsservabilita(g)));
+            assertEquals(messaggio, etichetta(attesa.getSimboli(), attesa.getRilevanza(g)), etichetta(rete.getSimboli(), rete.getRilevanza(g)));
+        }
+        assertTrue(messaggio, Arrays.equals(attesa.statoIniziale(), rete.statoIniziale()));
+        SpazioComportamentale spazioAtteso = GeneratoreSpazioComportamentale.genera(attesa);
+        if(spazioAtteso.numeroStati() > Linguaggi.MASSIMO_STATI)
+            return;
+        SpazioComportamentale spazio = GeneratoreSpazioComportamentale.genera(rete);
+        Linguaggi.assertIdentici(messaggio, spazioAtteso, spazio);
+        assertEquals(messaggio, parole(Diagnosi.calcola(spazioAtteso), attesa.getSimboli()), parole(Diagnosi.calcola(spazio), rete.getSimboli()));
+    }
+
+    private static void assertStessaOsservazione(String messaggio, Osservazione attesa, Osservazione osservazione){
+        assertEquals(messaggio, attesa.numeroStati(), osservazione.numeroStati());
+        for(int o = 0; o < attesa.numeroStati(); o++){
+            assertEquals(messaggio, attesa.isFinale(o), osservazione.isFinale(o));
+            assertEquals(messaggio, attesa.inizioArchi(o), osservazione.inizioArchi(o));
+            assertEquals(messaggio, attesa.fineArchi(o), osservazione.fineArchi(o));
+            for(int a = attesa.inizioArchi(o); a < attesa.fineArchi(o); a++){
+                assertEquals(messaggio, attesa.getEtichetta(a), osservazione.getEtichetta(a));
+                assertEquals(messaggio, attesa.getArrivo(a), osservazione.getArrivo(a));
+            }
+        }
+    }
+
+    /**
+     * Parole della diagnosi con i nomi delle etichette al posto degli indici, che dipendono dalla tabella dei simboli.
+     */
+    static Set<List<String>> parole(EspressioneRegolare diagnosi, TabellaSimboli simboli){
+        Set<List<String>> parole = new HashSet<>();
+        for(List<Integer> parola : Linguaggi.parole(diagnosi)){
+            List<String> nomi = new ArrayList<>();
+            for(int indice : parola)
+                nomi.add(etichetta(simboli, indice));
+            parole.add(nomi);
+        }
+        return parole;
+    }
+
+    private static String etichetta(TabellaSimboli simboli, int indice){
+        return indice < 0 ? null : simboli.getEtichetta(indice).getId();
+    }
+}
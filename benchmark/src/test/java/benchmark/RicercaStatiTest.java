@@ -0,0 +1,207 @@
+package benchmark;
+
+import algoritmi.GeneratoreSpazioComportamentale;
+import algoritmi.IteratoreSuccessori;
+import algoritmi.ObiettivoRicerca;
+import algoritmi.RicercaStati;
+import org.junit.Test;
+import struttureDati.Etichetta;
+import struttureDati.InsiemeStatiVisitati;
+import struttureDati.ListaInteri;
+import struttureDati.Osservazione;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.SpazioComportamentale;
+import struttureDati.TipoEtichetta;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test della ricerca nello spazio degli stati su reti casuali: per ogni etichetta di rilevanza tutte le strategie devono
+ * stabilire la stessa raggiungibilità della visita completa dello spazio (fatta con IteratoreSuccessori, che deve
+ * generare lo stesso spazio del generatore), con testimoni che sono esecuzioni della rete; la visita in ampiezza e quella
+ * migliore-prima con la distanza come stima (traslata in modo da avere stime negative e positive) devono trovare un
+ * testimone di lunghezza minima, e la profondità limitata solo testimoni entro il limite.
+ */
+public class RicercaStatiTest {
+
+    @Test
+    public void stessoSpazioDelGeneratore(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            Visita visita = new Visita(rete);
+            SpazioComportamentale spazio = GeneratoreSpazioComportamentale.genera(rete);
+            assertEquals("rete " + i, spazio.numeroStati(), visita.visitati.dimensione());
+            assertEquals("rete " + i, spazio.numeroArchi(), visita.numeroArchi);
+        }
+    }
+
+    @Test
+    public void raggiungibilitaDelleEtichette(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            Visita visita = new Visita(rete);
+            for(int e = 0; e < rete.getSimboli().numeroEtichette(); e++){
+                Etichetta etichetta = rete.getSimboli().getEtichetta(e);
+                if(etichetta.getTipoEtichetta() != TipoEtichetta.ETICHETTARILEVANZA)
+                    continue;
+                String messaggio = "rete " + i + ", etichetta " + etichetta;
+                int minima = visita.lunghezzaMinima[e];
+                RicercaStati ricerca = RicercaStati.create(rete);
+                ObiettivoRicerca obiettivo = ricerca.etichettaRilevanza(etichetta);
+                for(RicercaStati.Strategia strategia : RicercaStati.Strategia.values()){
+                    ricerca.setStrategia(strategia);
+                    ricerca.setEuristica(stato -> visita.distanza(stato) - 3);
+                    int[] testimone = ricerca.cerca(obiettivo);
+                    if(minima < 0) {
+                        assertNull(messaggio + ", " + strategia, testimone);
+                        assertNull(ricerca.getStatoRaggiunto());
+                        continue;
+                    }
+                    assertNotNull(messaggio + ", " + strategia, testimone);
+                    assertArrayEquals(messaggio, esegui(rete, testimone), ricerca.getStatoRaggiunto());
+                    assertEquals(messaggio, e, rete.getRilevanza(testimone[testimone.length - 1]));
+                    assertTrue(messaggio, ricerca.getStatiVisitati() <= visita.visitati.dimensione());
+                    if(strategia == RicercaStati.Strategia.AMPIEZZA || strategia == RicercaStati.Strategia.MIGLIORE_PRIMA)
+                        assertEquals(messaggio + ", " + strategia, minima, testimone.length);
+                }
+                //profondità limitata: raggiungibile solo entro il limite
+                ricerca.setStrategia(RicercaStati.Strategia.PROFONDITA_LIMITATA);
+                for(int limite = 0; limite <= 6; limite++){
+                    ricerca.setProfonditaMassima(limite);
+                    int[] testimone = ricerca.cerca(obiettivo);
+                    assertEquals(messaggio + ", limite " + limite, minima >= 0 && minima <= limite, testimone != null);
+                    if(testimone != null)
+                        assertTrue(messaggio, testimone.length <= limite);
+                }
+            }
+            //un obiettivo mai raggiunto richiede la visita completa
+            RicercaStati ricerca = RicercaStati.create(rete);
+            assertNull("rete " + i, ricerca.cerca((stato, transizione) -> false));
+            assertEquals("rete " + i, visita.visitati.dimensione(), ricerca.getStatiVisitati());
+            assertEquals("rete " + i, visita.numeroArchi, ricerca.getSuccessoriGenerati());
+        }
+    }
+
+    /**
+     * Stime ai due estremi dell'intervallo degli interi: la migliore-prima deve comunque espandere gli stati in ordine
+     * di distanza.
+     */
+    @Test
+    public void stimeEstreme(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            Visita visita = new Visita(rete);
+            RicercaStati ricerca = RicercaStati.create(rete);
+            ricerca.setStrategia(RicercaStati.Strategia.MIGLIORE_PRIMA);
+            ricerca.setEuristica(stato -> (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE,
+                    (visita.distanza(stato) - 2) * 1_000_000_000L)));
+            for(int e = 0; e < rete.getSimboli().numeroEtichette(); e++){
+                if(visita.lunghezzaMinima[e] < 0 || rete.getSimboli().getEtichetta(e).getTipoEtichetta() != TipoEtichetta.ETICHETTARILEVANZA)
+                    continue;
+                int[] testimone = ricerca.cerca(ricerca.etichettaRilevanza(rete.getSimboli().getEtichetta(e)));
+                assertEquals("rete " + i, visita.lunghezzaMinima[e], testimone.length);
+            }
+        }
+    }
+
+    @Test
+    public void statoFinaleConOsservazione(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            int[] osservazione = Linguaggi.osservazione(rete, i);
+            SpazioComportamentale spazio = GeneratoreSpazioComportamentale.genera(rete, Linguaggi.opzioni(Osservazione.lineare(osservazione), 1));
+            boolean finale = false;
+            for(int s = 0; s < spazio.numeroStati(); s++)
+                finale |= spazio.isFinale(s);
+            RicercaStati ricerca = RicercaStati.create(rete);
+            ricerca.setOsservazione(Osservazione.lineare(osservazione));
+            for(RicercaStati.Strategia strategia : new RicercaStati.Strategia[]{RicercaStati.Strategia.AMPIEZZA, RicercaStati.Strategia.PROFONDITA}){
+                ricerca.setStrategia(strategia);
+                int[] testimone = ricerca.cerca(ricerca.statoFinale());
+                assertEquals("rete " + i + ", " + strategia, finale, testimone != null);
+                if(testimone == null)
+                    continue;
+                long[] stato = esegui(rete, testimone);
+                assertTrue(rete.isFinale(stato));
+                ListaInteri osservate = ListaInteri.create();
+                for(int g : testimone)
+                    if(rete.getOsservabilita(g) >= 0)
+                        osservate.aggiungi(rete.getOsservabilita(g));
+                assertArrayEquals("rete " + i + ", " + strategia, osservazione, osservate.toArray());
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void miglioriPrimaSenzaEuristica(){
+        RicercaStati ricerca = RicercaStati.create(ReteAutomiCompilata.compila(Linguaggi.reteNonCompilata(0)));
+        ricerca.setStrategia(RicercaStati.Strategia.MIGLIORE_PRIMA);
+        ricerca.cerca(ricerca.statoFinale());
+    }
+
+    /**
+     * Esegue il testimone dallo stato iniziale controllando che ogni transizione sia abilitata e restituisce lo stato raggiunto.
+     */
+    private static long[] esegui(ReteAutomiCompilata rete, int[] testimone){
+        long[] stato = rete.statoIniziale();
+        long[] successore = new long[rete.numeroParole()];
+        for(int g : testimone){
+            assertTrue(rete.isAbilitata(stato, g));
+            rete.successore(stato, g, successore);
+            stato = successore.clone();
+        }
+        return stato;
+    }
+
+    /**
+     * Visita in ampiezza completa dello spazio con un IteratoreSuccessori: distanza di ogni stato dallo stato iniziale
+     * e lunghezza minima dei cammini che terminano con ogni etichetta di rilevanza (-1 se non si verifica).
+     */
+    private static class Visita {
+        private final InsiemeStatiVisitati visitati;
+        private final ListaInteri distanza;
+        private final int[] lunghezzaMinima;
+        private long numeroArchi;
+
+        private Visita(ReteAutomiCompilata rete){
+            IteratoreSuccessori iteratore = IteratoreSuccessori.create(rete, null);
+            visitati = InsiemeStatiVisitati.create(iteratore.numeroParole());
+            distanza = ListaInteri.create();
+            lunghezzaMinima = new int[rete.getSimboli().numeroEtichette()];
+            Arrays.fill(lunghezzaMinima, -1);
+            visitati.aggiungi(iteratore.statoIniziale());
+            distanza.aggiungi(0);
+            long[] stato = new long[iteratore.numeroParole()];
+            for(int u = 0; u < visitati.dimensione(); u++){
+                visitati.leggi(u, stato);
+                iteratore.inizia(stato);
+                while(iteratore.prossimo()){
+                    numeroArchi++;
+                    int r = rete.getRilevanza(iteratore.getTransizione());
+                    if(r >= 0 && lunghezzaMinima[r] < 0)
+                        lunghezzaMinima[r] = distanza.get(u) + 1;
+                    if(visitati.aggiungi(iteratore.getSuccessore()) >= 0)
+                        distanza.aggiungi(distanza.get(u) + 1);
+                }
+            }
+        }
+
+        private int distanza(long[] stato){
+            return distanza.get(visitati.cerca(stato));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package benchmark;
+
+import algoritmi.GeneratoreSpazioComportamentale;
+import algoritmi.OpzioniEsplorazione;
+import org.junit.Test;
+import struttureDati.Osservazione;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.SpazioComportamentale;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test della riduzione a ordini parziali su reti casuali: lo spazio ridotto non può avere più stati di quello completo
+ * e deve avere la stessa diagnosi, con e senza osservazione e con uno o più thread.
+ */
+public class RiduzioneOrdiniParzialiTest {
+
+    @Test
+    public void riduzioneOrdiniParzialiStessaDiagnosi(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            for(Osservazione osservazione : Linguaggi.osservazioni(rete, i)){
+                SpazioComportamentale completo = GeneratoreSpazioComportamentale.genera(rete, Linguaggi.opzioni(osservazione, 1));
+                for(int numeroThread = 1; numeroThread <= 2; numeroThread++){
+                    OpzioniEsplorazione opzioni = Linguaggi.opzioni(osservazione, numeroThread);
+                    opzioni.setRiduzioneOrdiniParziali(true);
+                    SpazioComportamentale ridotto = GeneratoreSpazioComportamentale.genera(rete, opzioni);
+                    String messaggio = "rete " + i + ", " + numeroThread + " thread";
+                    assertTrue(messaggio, ridotto.numeroStati() <= completo.numeroStati());
+                    Linguaggi.assertStessaDiagnosi(messaggio, rete, osservazione, ridotto);
+                }
+            }
+        }
+    }
+}
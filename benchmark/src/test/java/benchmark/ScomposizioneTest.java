@@ -0,0 +1,105 @@
+package benchmark;
+
+import algoritmi.GeneratoreSpazioComportamentale;
+import algoritmi.OpzioniEsplorazione;
+import org.junit.Test;
+import struttureDati.MetricheEsplorazione;
+import struttureDati.Osservazione;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.SpazioComportamentale;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test dell'esplorazione modulare su reti casuali: il join degli spazi locali deve produrre un sottoinsieme dello spazio
+ * monolitico (stati globali, archi e stati finali dello spazio monolitico) con la stessa diagnosi, con o senza
+ * osservazione, per ogni numero di sottoreti e indipendentemente dal numero di thread.
+ */
+public class ScomposizioneTest {
+
+    @Test
+    public void sottospazioConLaStessaDiagnosi(){
+        boolean ridotto = false;
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            for(Osservazione osservazione : Linguaggi.osservazioni(rete, i)){
+                SpazioComportamentale monolitico = GeneratoreSpazioComportamentale.genera(rete, Linguaggi.opzioni(osservazione, 1));
+                for(int numeroSottoreti = 2; numeroSottoreti <= Math.min(4, rete.numeroComponenti()); numeroSottoreti++){
+                    String messaggio = "rete " + i + ", " + numeroSottoreti + " sottoreti";
+                    OpzioniEsplorazione opzioni = Linguaggi.opzioni(osservazione, 1);
+                    opzioni.setNumeroSottoreti(numeroSottoreti);
+                    SpazioComportamentale spazio = GeneratoreSpazioComportamentale.genera(rete, opzioni);
+                    assertSottospazio(messaggio, rete, monolitico, spazio);
+                    Linguaggi.assertStessaDiagnosi(messaggio, rete, osservazione, spazio);
+                    ridotto |= spazio.numeroStati() < monolitico.numeroStati();
+                    opzioni.setNumeroThread(3);
+                    Linguaggi.assertIdentici(messaggio, spazio, GeneratoreSpazioComportamentale.genera(rete, opzioni));
+                }
+            }
+        }
+        assertTrue(ridotto);
+    }
+
+    /**
+     * Con una partizione esplicita in un componente per sottorete tutti i link sono di taglio; con la potatura in linea
+     * il join scarta gli stati morti e la diagnosi non cambia.
+     */
+    @Test
+    public void partizioneEsplicita(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            int[] partizione = new int[rete.numeroComponenti()];
+            for(int c = 0; c < partizione.length; c++)
+                partizione[c] = c;
+            for(Osservazione osservazione : Linguaggi.osservazioni(rete, i)){
+                String messaggio = "rete " + i;
+                SpazioComportamentale monolitico = GeneratoreSpazioComportamentale.genera(rete, Linguaggi.opzioni(osservazione, 1));
+                OpzioniEsplorazione opzioni = Linguaggi.opzioni(osservazione, 2);
+                opzioni.setPartizione(partizione);
+                MetricheEsplorazione metriche = MetricheEsplorazione.create();
+                opzioni.setMetriche(metriche);
+                SpazioComportamentale spazio = GeneratoreSpazioComportamentale.genera(rete, opzioni);
+                assertSottospazio(messaggio, rete, monolitico, spazio);
+                Linguaggi.assertStessaDiagnosi(messaggio, rete, osservazione, spazio);
+                assertTrue(messaggio, metriche.getStatiEspansi() >= spazio.numeroStati());
+                opzioni.setMetriche(null);
+                opzioni.setPotaturaInLinea(true);
+                SpazioComportamentale potato = GeneratoreSpazioComportamentale.genera(rete, opzioni);
+                assertSottospazio(messaggio, rete, spazio, potato);
+                Linguaggi.assertStessaDiagnosi(messaggio, rete, osservazione, potato);
+            }
+        }
+    }
+
+    /**
+     * Controlla che ogni stato dello spazio sia uno stato dello spazio atteso con la stessa finalità e che ogni arco
+     * dello spazio porti allo stato globale raggiunto dalla sua transizione.
+     */
+    private static void assertSottospazio(String messaggio, ReteAutomiCompilata rete, SpazioComportamentale atteso, SpazioComportamentale spazio){
+        assertTrue(messaggio, spazio.numeroStati() <= atteso.numeroStati());
+        assertEquals(messaggio, atteso.numeroParole(), spazio.numeroParole());
+        long[] stato = new long[spazio.numeroParole()];
+        long[] arrivo = new long[spazio.numeroParole()];
+        long[] successore = new long[rete.numeroParole()];
+        for(int s = 0; s < spazio.numeroStati(); s++){
+            spazio.getStatoGlobale(s, stato);
+            int corrispondente = atteso.getStati().cerca(stato);
+            assertTrue(messaggio, corrispondente >= 0);
+            assertEquals(messaggio, atteso.isFinale(corrispondente), spazio.isFinale(s));
+            for(int a = spazio.inizioArchi(s); a < spazio.fineArchi(s); a++){
+                int g = spazio.getTransizione(a);
+                assertTrue(messaggio, rete.isAbilitata(stato, g));
+                rete.successore(stato, g, successore);
+                spazio.getStatoGlobale(spazio.getDestinazione(a), arrivo);
+                assertTrue(messaggio, Arrays.equals(successore, Arrays.copyOf(arrivo, rete.numeroParole())));
+            }
+        }
+    }
+}
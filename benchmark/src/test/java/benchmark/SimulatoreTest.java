@@ -0,0 +1,100 @@
+package benchmark;
+
+import algoritmi.SimulatoreRete;
+import org.junit.Test;
+import struttureDati.MetricheEsplorazione;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.TracciaSimulazione;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test del simulatore su reti casuali: ogni traccia deve essere un'esecuzione della rete (transizioni abilitate, stato
+ * finale ed esito coerenti), la diagnosi dell'osservazione prodotta da una traccia che termina in uno stato finale deve
+ * contenere le sue etichette di rilevanza, e le tracce devono dipendere solo dal seme e non dal numero di thread.
+ */
+public class SimulatoreTest {
+
+    private static final int MASSIMO_PASSI = 12;
+
+    @Test
+    public void tracceValide(){
+        boolean finale = false;
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            for(TracciaSimulazione traccia : SimulatoreRete.simula(rete, i, 20, MASSIMO_PASSI, 2, null)){
+                String messaggio = "rete " + i + ", traccia " + traccia;
+                long[] stato = rete.statoIniziale();
+                long[] successore = new long[rete.numeroParole()];
+                for(int passo = 0; passo < traccia.numeroPassi(); passo++){
+                    int g = traccia.getTransizione(passo);
+                    assertTrue(messaggio, rete.isAbilitata(stato, g));
+                    rete.successore(stato, g, successore);
+                    stato = successore.clone();
+                }
+                assertArrayEquals(messaggio, stato, traccia.getStatoFinale());
+                int abilitate = rete.transizioniAbilitate(stato, new int[Math.max(1, rete.massimoTransizioniAbilitate())]);
+                if(traccia.getEsito() == TracciaSimulazione.Esito.QUIESCENZA)
+                    assertEquals(messaggio, 0, abilitate);
+                else
+                    assertEquals(messaggio, MASSIMO_PASSI, traccia.numeroPassi());
+                int[] rilevanza = traccia.getRilevanza();
+                if(traccia.isFinale() && rilevanza.length <= Linguaggi.LUNGHEZZA) {
+                    List<Integer> parola = new ArrayList<>();
+                    for(int r : rilevanza)
+                        parola.add(r);
+                    assertTrue(messaggio, Linguaggi.parole(rete, traccia.getOsservazione()).contains(parola));
+                    finale = true;
+                }
+            }
+        }
+        assertTrue(finale);
+    }
+
+    @Test
+    public void riproducibili(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            TracciaSimulazione[] sequenziali = SimulatoreRete.simula(rete, i, 150, MASSIMO_PASSI, 1, null);
+            MetricheEsplorazione metriche = MetricheEsplorazione.create();
+            TracciaSimulazione[] parallele = SimulatoreRete.simula(rete, i, 150, MASSIMO_PASSI, 4, metriche);
+            long passi = 0;
+            for(int k = 0; k < sequenziali.length; k++){
+                TracciaSimulazione singola = SimulatoreRete.simula(rete, SimulatoreRete.seme(i, k), MASSIMO_PASSI);
+                assertEquals("rete " + i, singola.getSeme(), sequenziali[k].getSeme());
+                assertEquals("rete " + i, singola.toString(), sequenziali[k].toString());
+                assertEquals("rete " + i, singola.toString(), parallele[k].toString());
+                passi += singola.numeroPassi();
+            }
+            assertEquals("rete " + i, passi, metriche.getStatiEspansi());
+        }
+    }
+
+    @Test
+    public void nessunPasso(){
+        ReteAutomiCompilata rete = ReteAutomiCompilata.compila(Linguaggi.reteNonCompilata(0));
+        TracciaSimulazione traccia = SimulatoreRete.simula(rete, 1, 0);
+        assertEquals(0, traccia.numeroPassi());
+        assertArrayEquals(rete.statoIniziale(), traccia.getStatoFinale());
+        assertEquals(0, SimulatoreRete.simula(rete, 1, 0, 5, 2, null).length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void passiNegativi(){
+        SimulatoreRete.simula(ReteAutomiCompilata.compila(Linguaggi.reteNonCompilata(0)), 1, -1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nessunThread(){
+        SimulatoreRete.simula(ReteAutomiCompilata.compila(Linguaggi.reteNonCompilata(0)), 1, 10, 5, 0, null);
+    }
+}
@@ -0,0 +1,77 @@
+package benchmark;
+
+import algoritmi.GeneratoreSpazioComportamentale;
+import algoritmi.GeneratoreSpazioSimbolico;
+import algoritmi.Potatura;
+import org.junit.Test;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.SpazioComportamentale;
+import struttureDati.SpazioSimbolico;
+
+import java.math.BigInteger;
+import java.util.BitSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test della generazione simbolica su reti casuali: gli stati raggiungibili, quelli finali e quelli dello spazio potato,
+ * con i rispettivi archi, devono essere quelli dello spazio esplicito. Le reti con link di capacità maggiore controllano
+ * lo scorrimento dei buffer nelle relazioni delle transizioni.
+ */
+public class SpazioSimbolicoTest {
+
+    @Test
+    public void stessiStatiDelloSpazioEsplicito(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i++){
+            ReteAutomiCompilata rete = Linguaggi.rete(i);
+            if(rete == null)
+                continue;
+            assertStessiStati("rete " + i, rete);
+        }
+    }
+
+    @Test
+    public void linkDiGrandeCapacita(){
+        for(int i = 0; i < Linguaggi.NUMERO_RETI; i += 2){
+            GeneratoreModelli generatore = GeneratoreModelli.create(i);
+            generatore.setNumeroAutomi(2 + i % 2);
+            generatore.setNumeroStati(3);
+            generatore.setRamificazione(2);
+            generatore.setCapacitaLink(3 + i / 2 % 3);
+            ReteAutomiCompilata rete = ReteAutomiCompilata.compila(generatore.generaRete(i));
+            if(GeneratoreSpazioComportamentale.genera(rete).numeroStati() <= 20 * Linguaggi.MASSIMO_STATI)
+                assertStessiStati("rete " + i, rete);
+        }
+    }
+
+    /**
+     * Controlla che gli insiemi di stati dello spazio simbolico e il numero dei loro archi siano quelli dello spazio
+     * esplicito.
+     */
+    private static void assertStessiStati(String messaggio, ReteAutomiCompilata rete){
+        SpazioComportamentale spazio = GeneratoreSpazioComportamentale.genera(rete);
+        SpazioSimbolico simbolico = GeneratoreSpazioSimbolico.genera(rete);
+        BitSet vivi = Potatura.statiCoRaggiungibili(spazio);
+        int finali = 0;
+        long archiPotati = 0;
+        long[] stato = new long[spazio.numeroParole()];
+        for(int s = 0; s < spazio.numeroStati(); s++){
+            spazio.getStatoGlobale(s, stato);
+            assertTrue(messaggio, simbolico.isRaggiungibile(stato));
+            assertEquals(messaggio, vivi.get(s), simbolico.isPotato(stato));
+            assertEquals(messaggio, spazio.isFinale(s), simbolico.contiene(simbolico.getFinali(), stato));
+            if(spazio.isFinale(s))
+                finali++;
+            if(vivi.get(s))
+                for(int a = spazio.inizioArchi(s); a < spazio.fineArchi(s); a++)
+                    if(vivi.get(spazio.getDestinazione(a)))
+                        archiPotati++;
+        }
+        assertEquals(messaggio, BigInteger.valueOf(spazio.numeroStati()), simbolico.numeroStati());
+        assertEquals(messaggio, BigInteger.valueOf(spazio.numeroArchi()), simbolico.numeroArchi());
+        assertEquals(messaggio, BigInteger.valueOf(finali), simbolico.numeroStatiFinali());
+        assertEquals(messaggio, BigInteger.valueOf(vivi.cardinality()), simbolico.numeroStatiPotati());
+        assertEquals(messaggio, BigInteger.valueOf(archiPotati), simbolico.numeroArchiPotati());
+    }
+}
@@ -0,0 +1,93 @@
+package benchmark;
+
+import org.junit.Test;
+import struttureDati.Automa;
+import struttureDati.Evento;
+import struttureDati.RisultatoValidazione;
+import struttureDati.Stato;
+import struttureDati.Transizione;
+import struttureDati.Violazione;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test della validazione degli automi: gli automi casuali sono validi, mentre un automa con più errori deve essere
+ * rifiutato riportando ogni violazione (e non solo la prima).
+ */
+public class ValidazioneTest {
+
+    @Test
+    public void automiCasualiValidi(){
+        for(int i = 0; i < 40; i++){
+            GeneratoreModelli generatore = GeneratoreModelli.create(i);
+            generatore.setNumeroStati(2 + i % 10);
+            generatore.setNonDeterminismo(1 + i % 3);
+            Automa automa = generatore.generaAutoma(i);
+            assertNotNull("automa " + i, automa);
+            RisultatoValidazione risultato = Automa.valida(automa.getStati(), automa.getTransizioni(), automa.getStatoCorrente());
+            assertTrue("automa " + i + ": " + risultato, risultato.isValido());
+        }
+    }
+
+    @Test
+    public void tutteLeViolazioniRiportate(){
+        Stato s0 = Stato.create(0, "s0");
+        Stato s1 = Stato.create(1, "s1");
+        Stato s2 = Stato.create(2, "s2");
+        Stato isolato = Stato.create(3, "s3");
+        Stato omonimo = Stato.create(4, "s1");
+        Stato estraneo = Stato.create(5, "s5");
+        Evento a = Evento.create(0, "a");
+        ArrayList<Stato> stati = new ArrayList<>(Arrays.asList(s0, s1, s2, isolato, omonimo, s1));
+        ArrayList<Transizione> transizioni = new ArrayList<>(Arrays.asList(
+                transizione("t0", s0, s1, a),
+                transizione("t1", s1, s0, null),
+                transizione("t0", s1, s1, a),          //identificatore ripetuto
+                transizione("t2", s0, s1, a),          //stessi stati ed eventi di t0
+                transizione("t3", s2, s0, null),       //s2 non è raggiungibile
+                transizione("t4", s0, estraneo, null), //stato che non appartiene all'automa
+                transizione("t5", omonimo, omonimo, null),
+                transizione("t6", isolato, isolato, null)));
+
+        RisultatoValidazione risultato = Automa.valida(stati, transizioni, s0);
+        Map<Violazione.Tipo, Integer> conteggi = new HashMap<>();
+        for(Violazione violazione : risultato.getViolazioni())
+            conteggi.merge(violazione.getTipo(), 1, Integer::sum);
+        assertEquals(risultato.toString(), Integer.valueOf(1), conteggi.get(Violazione.Tipo.STATO_DUPLICATO));
+        assertEquals(risultato.toString(), Integer.valueOf(1), conteggi.get(Violazione.Tipo.NOME_STATO_DUPLICATO));
+        assertEquals(risultato.toString(), Integer.valueOf(2), conteggi.get(Violazione.Tipo.TRANSIZIONE_DUPLICATA));
+        assertEquals(risultato.toString(), Integer.valueOf(1), conteggi.get(Violazione.Tipo.STATO_SCONOSCIUTO));
+        assertEquals(risultato.toString(), Integer.valueOf(2), conteggi.get(Violazione.Tipo.STATO_ISOLATO));
+        //s2, lo stato isolato e l'omonimo di s1 non sono raggiungibili da s0
+        assertEquals(risultato.toString(), Integer.valueOf(3), conteggi.get(Violazione.Tipo.STATO_NON_RAGGIUNGIBILE));
+        assertNull(risultato.toString(), conteggi.get(Violazione.Tipo.STATO_SENZA_TRANSIZIONI_USCENTI));
+        assertNull(risultato.toString(), conteggi.get(Violazione.Tipo.STATO_INIZIALE_NON_VALIDO));
+        assertNull(Automa.create(0, "A", stati, transizioni, s0));
+    }
+
+    @Test
+    public void statoInizialeEStatiSenzaUscite(){
+        Stato s0 = Stato.create(0, "s0");
+        Stato s1 = Stato.create(1, "s1");
+        ArrayList<Stato> stati = new ArrayList<>(Arrays.asList(s0, s1));
+        ArrayList<Transizione> transizioni = new ArrayList<>(Arrays.asList(transizione("t0", s0, s1, null)));
+        List<Violazione> violazioni = Automa.valida(stati, transizioni, Stato.create(9, "s9")).getViolazioni();
+        assertEquals(violazioni.toString(), 2, violazioni.size());
+        assertEquals(Violazione.Tipo.STATO_INIZIALE_NON_VALIDO, violazioni.get(0).getTipo());
+        assertEquals(Violazione.Tipo.STATO_SENZA_TRANSIZIONI_USCENTI, violazioni.get(1).getTipo());
+        assertEquals(s1, violazioni.get(1).getElemento());
+    }
+
+    private static Transizione transizione(String id, Stato partenza, Stato arrivo, Evento ingresso){
+        return Transizione.create(id, partenza, arrivo, ingresso, new ArrayList<>(), null, null);
+    }
+}
@@ -0,0 +1,124 @@
+package algoritmi;
+
+import struttureDati.EspressioneRegolare;
+import struttureDati.FabbricaEspressioni;
+import struttureDati.ListaInteri;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.SpazioComportamentale;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Classe che estrae la diagnosi da uno spazio comportamentale: l'espressione regolare sulle etichette di rilevanza
+ * che descrive tutti i cammini dallo stato iniziale a uno stato finale.
+ * Ogni arco dello spazio è etichettato con l'etichetta di rilevanza della transizione (ε se la transizione non è
+ * rilevante); la diagnosi è l'unione dei linguaggi dei cammini dallo stato iniziale agli stati finali, calcolati per
+ * componenti fortemente connesse con l'eliminazione degli stati (vedi LinguaggiCammini).
+ * Gli stati da cui non si raggiunge alcuno stato finale non contribuiscono alla diagnosi e vengono scartati; gli
+ * stati finali di ogni componente con dei cicli vengono collegati con ε a un unico pozzo, per cui l'eliminazione non
+ * calcola un linguaggio distinto per ogni stato finale (calcolaPerGruppo, usato da DiagnosiMultipla, usa un pozzo per
+ * ogni gruppo di stati finali).
+ * Il costo è quasi lineare nel numero di archi solo se le componenti fortemente connesse sono piccole, come negli
+ * spazi vincolati da un'osservazione lineare in cui solo le transizioni non osservabili formano cicli.
+ * L'eliminazione degli stati in una componente costa invece O(n^3) operazioni, dove n è il numero di classi di stati
+ * collegati da cammini di transizioni non rilevanti (che vengono fusi), e può produrre espressioni di dimensione
+ * esponenziale in n: negli spazi senza osservazione, o con osservazioni cicliche, le componenti possono contenere gran
+ * parte dello spazio e, se le transizioni rilevanti sono frequenti, la diagnosi diventa impraticabile già con qualche
+ * migliaio di stati.
+ */
+public class Diagnosi {
+
+    /**
+     * Costruttore privato: la classe espone solo metodi statici.
+     */
+    private Diagnosi(){
+    }
+
+    /**
+     * Calcola la diagnosi dello spazio comportamentale con una nuova fabbrica di espressioni.
+     * @param spazio Spazio comportamentale (eventualmente vincolato da un'osservazione).
+     * @return Espressione regolare della diagnosi (∅ se nessuno stato finale è raggiungibile).
+     */
+    public static EspressioneRegolare calcola(SpazioComportamentale spazio){
+        return calcola(spazio, FabbricaEspressioni.create());
+    }
+
+    /**
+     * Calcola la diagnosi dello spazio comportamentale.
+     * @param spazio Spazio comportamentale (eventualmente vincolato da un'osservazione).
+     * @param fabbrica Fabbrica con cui costruire le espressioni (può essere condivisa tra più diagnosi).
+     * @return Espressione regolare della diagnosi (∅ se nessuno stato finale è raggiungibile).
+     */
+    public static EspressioneRegolare calcola(SpazioComportamentale spazio, FabbricaEspressioni fabbrica){
+        GrafoRilevanza grafo = new GrafoRilevanza(spazio);
+        if(grafo.finali == null)
+            return fabbrica.vuoto();
+        return LinguaggiCammini.calcolaUnione(grafo.numeroNodi, grafo.inizioArchi, grafo.destinazione, grafo.etichetta, 0, grafo.finali, fabbrica);
+    }
+
+    /**
+     * Calcola la diagnosi ristretta agli stati finali di ogni gruppo di stati dello spazio: l'espressione regolare sulle
+     * etichette di rilevanza dei cammini dallo stato iniziale a uno stato finale del gruppo (la diagnosi è l'unione di
+     * queste espressioni). Nelle componenti con dei cicli gli stati finali di ogni gruppo vengono collegati con ε a un
+     * pozzo del gruppo, per cui il costo cresce con il numero di gruppi presenti in ogni componente e non con il numero
+     * di stati finali.
+     * @param spazio Spazio comportamentale (eventualmente vincolato da un'osservazione).
+     * @param gruppo Gruppo di ogni stato dello spazio (-1 per gli stati da non considerare).
+     * @param numeroGruppi Numero di gruppi.
+     * @param fabbrica Fabbrica con cui costruire le espressioni.
+     * @return Diagnosi di ogni gruppo (∅ se nessuno stato finale del gruppo è raggiungibile).
+     */
+    static EspressioneRegolare[] calcolaPerGruppo(SpazioComportamentale spazio, int[] gruppo, int numeroGruppi, FabbricaEspressioni fabbrica){
+        GrafoRilevanza grafo = new GrafoRilevanza(spazio);
+        if(grafo.finali == null) {
+            EspressioneRegolare[] diagnosi = new EspressioneRegolare[numeroGruppi];
+            Arrays.fill(diagnosi, fabbrica.vuoto());
+            return diagnosi;
+        }
+        int[] gruppoFinale = new int[grafo.numeroNodi];
+        for(int s = 0; s < grafo.numeroNodi; s++)
+            gruppoFinale[s] = grafo.finali.get(s) ? gruppo[s] : -1;
+        return LinguaggiCammini.calcolaUnioni(grafo.numeroNodi, grafo.inizioArchi, grafo.destinazione, grafo.etichetta, 0, gruppoFinale, numeroGruppi, fabbrica);
+    }
+
+    /**
+     * Grafo degli stati vivi dello spazio (in formato CSR) con gli archi etichettati dalla rilevanza delle transizioni.
+     */
+    private static class GrafoRilevanza {
+        private final int numeroNodi;
+        private int[] inizioArchi;
+        private int[] destinazione;
+        private int[] etichetta;
+        private BitSet finali; //null se lo stato iniziale non è co-raggiungibile
+
+        private GrafoRilevanza(SpazioComportamentale spazio){
+            int n = spazio.numeroStati();
+            this.numeroNodi = n;
+            BitSet vivi = Potatura.statiCoRaggiungibili(spazio);
+            if(n == 0 || !vivi.get(0))
+                return;
+            ReteAutomiCompilata rete = spazio.getRete();
+            inizioArchi = new int[n + 1];
+            ListaInteri destinazioni = ListaInteri.create(spazio.numeroArchi());
+            ListaInteri etichette = ListaInteri.create(spazio.numeroArchi());
+            finali = new BitSet(n);
+            for(int s = 0; s < n; s++){
+                inizioArchi[s] = destinazioni.dimensione();
+                if(!vivi.get(s))
+                    continue;
+                if(spazio.isFinale(s))
+                    finali.set(s);
+                for(int a = spazio.inizioArchi(s); a < spazio.fineArchi(s); a++){
+                    if(vivi.get(spazio.getDestinazione(a))) {
+                        destinazioni.aggiungi(spazio.getDestinazione(a));
+                        etichette.aggiungi(rete.getRilevanza(spazio.getTransizione(a)));
+                    }
+                }
+            }
+            inizioArchi[n] = destinazioni.dimensione();
+            destinazione = destinazioni.toArray();
+            etichetta = etichette.toArray();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package algoritmi;
+
+import struttureDati.ChiusureSilenziose;
+import struttureDati.Diagnosticatore;
+import struttureDati.EspressioneRegolare;
+import struttureDati.Etichetta;
+import struttureDati.FabbricaEspressioni;
+import struttureDati.InsiemeStatiVisitati;
+import struttureDati.ListaInteri;
+import struttureDati.ReteAutomiCompilata;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Classe che calcola la diagnosi di una rete di automi in modo incrementale, man mano che arrivano le etichette osservate.
+ * Lo stato della diagnosi è una frontiera di chiusure silenziose (stati di credenza): per ogni chiusura in cui la rete
+ * può trovarsi dopo le etichette ricevute si mantiene l'espressione dei cammini che vi entrano. All'arrivo di una
+ * nuova etichetta la frontiera viene avanzata lungo le uscite con quell'etichetta e viene restituita la diagnosi
+ * corrente; poiché le espressioni sono condivise, il costo di ogni passo dipende solo dalla frontiera e non dalla
+ * lunghezza dell'osservazione già ricevuta.
+ * Le chiusure possono essere prese da un Diagnosticatore già compilato oppure esplorate al primo utilizzo e
+ * memorizzate, per cui ogni chiusura viene esplorata una sola volta in tutta la vita dell'istanza; in entrambi i casi
+ * la frontiera avanza con lo stesso passo (vedi ChiusureSilenziose). Le espressioni della diagnosi sono costruite in una
+ * fabbrica propria dell'istanza, che estende quella del diagnosticatore se presente.
+ * Un'istanza non è utilizzabile contemporaneamente da più thread.
+ */
+public class DiagnosiIncrementale {
+
+    private final ReteAutomiCompilata rete;
+    private final FabbricaEspressioni fabbrica;
+    private final ChiusureSilenziose chiusure;
+    private final ChiusureEsplorate esplorate; //null se si usa un diagnosticatore già compilato
+    private HashMap<Integer, EspressioneRegolare> frontiera;
+    private EspressioneRegolare diagnosi;
+    private int numeroEtichette;
+
+    /**
+     * Costruttore della classe DiagnosiIncrementale.
+     * @param rete Rete compilata.
+     * @param diagnosticatore Diagnosticatore già compilato (null per esplorare le chiusure al primo utilizzo).
+     */
+    private DiagnosiIncrementale(ReteAutomiCompilata rete, Diagnosticatore diagnosticatore){
+        this.rete = rete;
+        if(diagnosticatore != null) {
+            this.fabbrica = diagnosticatore.nuovaFabbrica();
+            this.esplorate = null;
+            this.chiusure = diagnosticatore;
+        }
+        else {
+            this.fabbrica = FabbricaEspressioni.create();
+            this.esplorate = new ChiusureEsplorate(rete, fabbrica);
+            this.chiusure = esplorate;
+        }
+        ricomincia();
+    }
+
+    /**
+     * Permette di creare in modo statico una diagnosi incrementale che esplora le chiusure della rete al primo utilizzo.
+     * @param rete Rete compilata.
+     * @return Istanza della classe DiagnosiIncrementale (nessuna etichetta ricevuta).
+     */
+    public static DiagnosiIncrementale create(ReteAutomiCompilata rete){
+        return new DiagnosiIncrementale(rete, null);
+    }
+
+    /**
+     * Permette di creare in modo statico una diagnosi incrementale che usa le chiusure di un diagnosticatore già compilato.
+     * @param diagnosticatore Diagnosticatore della rete.
+     * @return Istanza della classe DiagnosiIncrementale (nessuna etichetta ricevuta).
+     */
+    public static DiagnosiIncrementale create(Diagnosticatore diagnosticatore){
+        return new DiagnosiIncrementale(diagnosticatore.getRete(), diagnosticatore);
+    }
+
+    /**
+     * Riporta la diagnosi allo stato iniziale (nessuna etichetta ricevuta); le chiusure già esplorate restano memorizzate.
+     */
+    public void ricomincia(){
+        frontiera = new HashMap<>();
+        frontiera.put(0, fabbrica.epsilon());
+        numeroEtichette = 0;
+        diagnosi = chiusure.chiudi(frontiera, fabbrica);
+    }
+
+    /**
+     * Avanza la diagnosi con una nuova etichetta osservata.
+     * @param etichetta Etichetta di osservabilità ricevuta.
+     * @return Diagnosi corrente (∅ se le etichette ricevute non sono compatibili con la rete).
+     */
+    public EspressioneRegolare avanza(Etichetta etichetta){
+        return avanza(rete.getSimboli().cercaEtichetta(etichetta));
+    }
+
+    /**
+     * Avanza la diagnosi con una nuova etichetta osservata.
+     * @param o Indice (nella tabella dei simboli della rete) dell'etichetta ricevuta; -1 se l'etichetta è sconosciuta.
+     * @return Diagnosi corrente (∅ se le etichette ricevute non sono compatibili con la rete).
+     */
+    public EspressioneRegolare avanza(int o){
+        numeroEtichette++;
+        frontiera = o < 0 ? new HashMap<>() : chiusure.avanza(frontiera, o, fabbrica);
+        diagnosi = chiusure.chiudi(frontiera, fabbrica);
+        return diagnosi;
+    }
+
+    /**
+     * Restituisce la diagnosi corrente (quella restituita dall'ultima chiamata di avanza).
+     * @return Diagnosi corrente.
+     */
+    public EspressioneRegolare getDiagnosi() {
+        return diagnosi;
+    }
+
+    /**
+     * Restituisce il numero di etichette ricevute dall'ultima chiamata di ricomincia.
+     * @return Numero di etichette ricevute.
+     */
+    public int getNumeroEtichette() {
+        return numeroEtichette;
+    }
+
+    /**
+     * Restituisce il numero di chiusure nella frontiera corrente (stati di credenza).
+     * @return Dimensione della frontiera.
+     */
+    public int dimensioneFrontiera(){
+        return frontiera.size();
+    }
+
+    /**
+     * Restituisce il numero di chiusure esplorate finora (sempre 0 se si usa un diagnosticatore già compilato).
+     * @return Numero di chiusure esplorate.
+     */
+    public int numeroChiusureEsplorate(){
+        return esplorate == null ? 0 : esplorate.numeroEsplorate;
+    }
+
+    /**
+     * Restituisce la fabbrica (propria dell'istanza) con cui sono costruite le espressioni della diagnosi.
+     * @return Fabbrica delle espressioni.
+     */
+    public FabbricaEspressioni getFabbrica() {
+        return fabbrica;
+    }
+
+    /**
+     * Chiusure silenziose esplorate al primo utilizzo: le uscite di ogni chiusura esplorata vengono accodate agli archi
+     * già memorizzati, per cui gli archi di una chiusura sono contigui anche se le chiusure vengono esplorate in un
+     * ordine qualsiasi.
+     */
+    private static final class ChiusureEsplorate implements ChiusureSilenziose {
+
+        private final FabbricaEspressioni fabbrica;
+        private final EsploratoreChiusure esploratore;
+        private final InsiemeStatiVisitati ingressi;
+        private final long[] stato;
+        private final ListaInteri inizio; //inizio degli archi di ogni chiusura, -1 se non è ancora stata esplorata
+        private final ListaInteri fine;
+        private final ArrayList<EspressioneRegolare> finale;
+        private final ListaInteri etichetta;
+        private final ListaInteri destinazione;
+        private final ArrayList<EspressioneRegolare> espressione;
+        private int numeroEsplorate;
+
+        private ChiusureEsplorate(ReteAutomiCompilata rete, FabbricaEspressioni fabbrica){
+            this.fabbrica = fabbrica;
+            this.esploratore = new EsploratoreChiusure(rete);
+            this.ingressi = InsiemeStatiVisitati.create(rete.numeroParole());
+            this.stato = new long[rete.numeroParole()];
+            this.inizio = ListaInteri.create();
+            this.fine = ListaInteri.create();
+            this.finale = new ArrayList<>();
+            this.etichetta = ListaInteri.create();
+            this.destinazione = ListaInteri.create();
+            this.espressione = new ArrayList<>();
+            ingressi.aggiungi(rete.statoIniziale());
+        }
+
+        /**
+         * Esplora la chiusura dello stato di ingresso indicato, se non è ancora stata esplorata.
+         */
+        private void esplora(int c){
+            while(inizio.dimensione() <= c){
+                inizio.aggiungi(-1);
+                fine.aggiungi(-1);
+                finale.add(null);
+            }
+            if(inizio.get(c) >= 0)
+                return;
+            ingressi.leggi(c, stato);
+            EsploratoreChiusure.Chiusura chiusura = esploratore.esplora(stato, ingressi, fabbrica);
+            inizio.set(c, etichetta.dimensione());
+            for(int u = 0; u < chiusura.numeroUscite(); u++){
+                etichetta.aggiungi(chiusura.getEtichetta(u));
+                destinazione.aggiungi(chiusura.getDestinazione(u));
+                espressione.add(chiusura.getEspressione(u));
+            }
+            fine.set(c, etichetta.dimensione());
+            finale.set(c, chiusura.getFinale());
+            numeroEsplorate++;
+        }
+
+        @Override
+        public int inizioArchi(int c){
+            esplora(c);
+            return inizio.get(c);
+        }
+
+        @Override
+        public int fineArchi(int c){
+            esplora(c);
+            return fine.get(c);
+        }
+
+        @Override
+        public int getEtichetta(int a){
+            return etichetta.get(a);
+        }
+
+        @Override
+        public int getDestinazione(int a){
+            return destinazione.get(a);
+        }
+
+        @Override
+        public EspressioneRegolare getEspressione(int a){
+            return espressione.get(a);
+        }
+
+        @Override
+        public EspressioneRegolare getFinale(int c){
+            esplora(c);
+            return finale.get(c);
+        }
+    }
+}
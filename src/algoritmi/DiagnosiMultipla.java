@@ -0,0 +1,129 @@
+package algoritmi;
+
+import struttureDati.EspressioneRegolare;
+import struttureDati.Etichetta;
+import struttureDati.FabbricaEspressioni;
+import struttureDati.Osservazione;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.SpazioComportamentale;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Classe che calcola in un solo passaggio la diagnosi di una rete di automi per un insieme di osservazioni lineari
+ * (ad esempio tutte le osservazioni registrate in un giorno).
+ * Le osservazioni vengono riunite nel loro albero dei prefissi (vedi Osservazione.prefissi) e viene esplorato un solo
+ * spazio comportamentale vincolato dall'albero: i comportamenti coerenti con un prefisso comune a più osservazioni
+ * vengono esplorati una sola volta, invece che una volta per ogni osservazione. Poiché l'albero è deterministico, ogni
+ * stato dello spazio corrisponde a un solo prefisso; la diagnosi di un'osservazione è l'unione dei linguaggi dei
+ * cammini verso gli stati finali dello spazio che si trovano nello stato dell'albero in cui termina l'osservazione.
+ * Le diagnosi di tutti gli stati dell'albero vengono calcolate con un'unica eliminazione degli stati (vedi
+ * Diagnosi.calcolaPerGruppo), in cui gli stati finali dello spazio di ogni stato dell'albero sono collegati a un pozzo
+ * comune, per cui anche le espressioni dei prefissi comuni sono condivise tra le diagnosi.
+ */
+public class DiagnosiMultipla {
+
+    /**
+     * Costruttore privato: la classe espone solo metodi statici.
+     */
+    private DiagnosiMultipla(){
+    }
+
+    /**
+     * Calcola la diagnosi di ogni osservazione con le opzioni di esplorazione predefinite.
+     * @param rete Rete compilata.
+     * @param osservazioni Sequenze degli indici (nella tabella dei simboli della rete) delle etichette osservate.
+     * @return Diagnosi di ogni osservazione, nello stesso ordine (∅ se l'osservazione non è compatibile con la rete).
+     */
+    public static EspressioneRegolare[] calcola(ReteAutomiCompilata rete, int[][] osservazioni){
+        return calcola(rete, osservazioni, OpzioniEsplorazione.create(), FabbricaEspressioni.create());
+    }
+
+    /**
+     * Calcola la diagnosi di ogni osservazione con le opzioni di esplorazione predefinite.
+     * @param rete Rete compilata.
+     * @param osservazioni Sequenze delle etichette di osservabilità osservate.
+     * @return Diagnosi di ogni osservazione, nello stesso ordine (∅ se l'osservazione non è compatibile con la rete).
+     * @throws IllegalArgumentException se un'etichetta non compare nella tabella dei simboli della rete.
+     */
+    public static EspressioneRegolare[] calcola(ReteAutomiCompilata rete, List<ArrayList<Etichetta>> osservazioni){
+        int[][] indici = new int[osservazioni.size()][];
+        for(int i = 0; i < indici.length; i++){
+            ArrayList<Etichetta> osservazione = osservazioni.get(i);
+            indici[i] = new int[osservazione.size()];
+            for(int k = 0; k < indici[i].length; k++){
+                indici[i][k] = rete.getSimboli().cercaEtichetta(osservazione.get(k));
+                if(indici[i][k] < 0)
+                    throw new IllegalArgumentException("Etichetta " + osservazione.get(k) + " non presente nella rete");
+            }
+        }
+        return calcola(rete, indici);
+    }
+
+    /**
+     * Calcola la diagnosi di ogni osservazione esplorando un solo spazio comportamentale, vincolato dall'albero dei
+     * prefissi delle osservazioni.
+     * @param rete Rete compilata.
+     * @param osservazioni Sequenze degli indici (nella tabella dei simboli della rete) delle etichette osservate.
+     * @param opzioni Opzioni di esplorazione (numero di thread, potatura in linea, memoria esterna...), senza osservazione:
+     *                durante il calcolo l'osservazione delle opzioni è l'albero dei prefissi.
+     * @param fabbrica Fabbrica con cui costruire le espressioni.
+     * @return Diagnosi di ogni osservazione, nello stesso ordine (∅ se l'osservazione non è compatibile con la rete).
+     * @throws IllegalArgumentException se le opzioni contengono già un'osservazione.
+     */
+    public static EspressioneRegolare[] calcola(ReteAutomiCompilata rete, int[][] osservazioni, OpzioniEsplorazione opzioni,
+                                                FabbricaEspressioni fabbrica){
+        if(opzioni.getOsservazione() != null)
+            throw new IllegalArgumentException("Le opzioni di una diagnosi multipla non possono contenere un'osservazione");
+        Osservazione albero = Osservazione.prefissi(osservazioni);
+        SpazioComportamentale spazio;
+        opzioni.setOsservazione(albero);
+        try {
+            spazio = GeneratoreSpazioComportamentale.genera(rete, opzioni);
+        } finally {
+            opzioni.setOsservazione(null);
+        }
+
+        //diagnosi di ogni stato dell'albero: unione dei linguaggi degli stati finali dello spazio in quello stato
+        EspressioneRegolare[] diagnosiPrefisso = Diagnosi.calcolaPerGruppo(spazio, prefissi(spazio, albero), albero.numeroStati(), fabbrica);
+
+        EspressioneRegolare[] diagnosi = new EspressioneRegolare[osservazioni.length];
+        for(int i = 0; i < osservazioni.length; i++){
+            int o = 0;
+            for(int e : osservazioni[i])
+                o = albero.avanza(o, e);
+            diagnosi[i] = diagnosiPrefisso[o];
+        }
+        return diagnosi;
+    }
+
+    /**
+     * Calcola lo stato dell'albero dei prefissi di ogni stato dello spazio, con una visita in ampiezza che fa avanzare
+     * l'albero lungo gli archi delle transizioni osservabili (senza leggere gli stati codificati, per cui funziona anche
+     * con gli spazi in memoria esterna).
+     */
+    private static int[] prefissi(SpazioComportamentale spazio, Osservazione albero){
+        ReteAutomiCompilata rete = spazio.getRete();
+        int[] prefisso = new int[spazio.numeroStati()];
+        if(prefisso.length == 0)
+            return prefisso;
+        Arrays.fill(prefisso, -1);
+        prefisso[0] = 0;
+        int[] coda = new int[prefisso.length];
+        int numeroCoda = 1;
+        for(int i = 0; i < numeroCoda; i++){
+            int s = coda[i];
+            for(int a = spazio.inizioArchi(s); a < spazio.fineArchi(s); a++){
+                int d = spazio.getDestinazione(a);
+                if(prefisso[d] >= 0)
+                    continue;
+                int etichetta = rete.getOsservabilita(spazio.getTransizione(a));
+                prefisso[d] = etichetta < 0 ? prefisso[s] : albero.avanza(prefisso[s], etichetta);
+                coda[numeroCoda++] = d;
+            }
+        }
+        return prefisso;
+    }
+}
@@ -0,0 +1,163 @@
+package algoritmi;
+
+import struttureDati.EspressioneRegolare;
+import struttureDati.FabbricaEspressioni;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Classe che implementa l'algoritmo di eliminazione degli stati su un grafo con archi etichettati da espressioni regolari.
+ * Eliminare il nodo v significa sostituire ogni cammino p -> v -> q con l'arco p -> q etichettato
+ * R(p,v) R(v,v)* R(v,q), unito in alternativa all'eventuale arco p -> q già esistente.
+ * Gli archi paralleli sono sempre fusi in un solo arco, per cui ogni nodo ha al più un arco verso ogni altro nodo.
+ * I nodi vengono eliminati in ordine di costo crescente (numero di predecessori per numero di successori), ricalcolato
+ * in modo pigro, perché l'ordine di eliminazione determina la dimensione delle espressioni prodotte.
+ * Le espressioni sono costruite con una FabbricaEspressioni, per cui le sottoespressioni comuni sono condivise.
+ */
+public class EliminazioneStati {
+
+    private final FabbricaEspressioni fabbrica;
+    private final ArrayList<HashMap<Integer, EspressioneRegolare>> uscenti;
+    private final ArrayList<HashSet<Integer>> entranti;
+    private final BitSet eliminati;
+
+    /**
+     * Costruttore della classe EliminazioneStati.
+     * @param numeroNodi Numero di nodi del grafo.
+     * @param fabbrica Fabbrica con cui costruire le espressioni.
+     */
+    private EliminazioneStati(int numeroNodi, FabbricaEspressioni fabbrica){
+        this.fabbrica = fabbrica;
+        this.uscenti = new ArrayList<>(Collections.nCopies(numeroNodi, null));
+        this.entranti = new ArrayList<>(Collections.nCopies(numeroNodi, null));
+        this.eliminati = new BitSet(numeroNodi);
+    }
+
+    /**
+     * Permette di creare in modo statico un grafo senza archi su cui eseguire l'eliminazione degli stati.
+     * @param numeroNodi Numero di nodi del grafo (identificati da 0 a numeroNodi - 1).
+     * @param fabbrica Fabbrica con cui costruire le espressioni.
+     * @return Istanza della classe EliminazioneStati.
+     */
+    public static EliminazioneStati create(int numeroNodi, FabbricaEspressioni fabbrica){
+        return new EliminazioneStati(numeroNodi, fabbrica);
+    }
+
+    /**
+     * Aggiunge un arco al grafo; se l'arco esiste già la sua espressione viene unita in alternativa alla nuova.
+     * @param da Nodo di partenza.
+     * @param a Nodo di arrivo.
+     * @param espressione Espressione che etichetta l'arco.
+     */
+    public void aggiungiArco(int da, int a, EspressioneRegolare espressione){
+        if(espressione == fabbrica.vuoto())
+            return;
+        HashMap<Integer, EspressioneRegolare> uscentiDa = uscenti.get(da);
+        if(uscentiDa == null) {
+            uscentiDa = new HashMap<>(4);
+            uscenti.set(da, uscentiDa);
+        }
+        EspressioneRegolare precedente = uscentiDa.get(a);
+        uscentiDa.put(a, precedente == null ? espressione : fabbrica.alternativa(precedente, espressione));
+        if(da != a) {
+            HashSet<Integer> entrantiA = entranti.get(a);
+            if(entrantiA == null) {
+                entrantiA = new HashSet<>(4);
+                entranti.set(a, entrantiA);
+            }
+            entrantiA.add(da);
+        }
+    }
+
+    /**
+     * Restituisce l'espressione che etichetta l'arco tra due nodi.
+     * @param da Nodo di partenza.
+     * @param a Nodo di arrivo.
+     * @return Espressione dell'arco, ∅ se l'arco non esiste.
+     */
+    public EspressioneRegolare getArco(int da, int a){
+        EspressioneRegolare espressione = uscenti.get(da) == null ? null : uscenti.get(da).get(a);
+        return espressione == null ? fabbrica.vuoto() : espressione;
+    }
+
+    /**
+     * Elimina tutti i nodi indicati, in ordine di costo crescente.
+     * Al termine gli archi tra i nodi non eliminati descrivono tutti i cammini del grafo originale che passano
+     * solo per nodi eliminati.
+     * @param nodi Insieme dei nodi da eliminare.
+     */
+    public void elimina(BitSet nodi){
+        PriorityQueue<Long> coda = new PriorityQueue<>(Math.max(1, nodi.cardinality()));
+        for(int v = nodi.nextSetBit(0); v >= 0; v = nodi.nextSetBit(v + 1))
+            coda.add(voce(costo(v), v));
+        while(!coda.isEmpty()){
+            long voce = coda.poll();
+            int v = (int) voce;
+            if(eliminati.get(v))
+                continue;
+            //il costo può essere cresciuto dopo l'inserimento nella coda: in tal caso il nodo viene reinserito
+            long costo = costo(v);
+            if(costo > voce >>> 32) {
+                coda.add(voce(costo, v));
+                continue;
+            }
+            for(int q : eliminaNodo(v))
+                if(nodi.get(q))
+                    coda.add(voce(costo(q), q));
+        }
+    }
+
+    /**
+     * Elimina un nodo, collegando ogni suo predecessore a ogni suo successore.
+     * @return Insieme dei vicini del nodo il cui costo è cambiato.
+     */
+    private HashSet<Integer> eliminaNodo(int v){
+        eliminati.set(v);
+        HashMap<Integer, EspressioneRegolare> uscentiV = uscenti.set(v, null);
+        HashSet<Integer> entrantiV = entranti.set(v, null);
+        if(uscentiV == null)
+            uscentiV = new HashMap<>();
+        if(entrantiV == null)
+            entrantiV = new HashSet<>();
+        EspressioneRegolare cappio = uscentiV.remove(v);
+        EspressioneRegolare stella = cappio == null ? fabbrica.epsilon() : fabbrica.stella(cappio);
+
+        HashSet<Integer> vicini = new HashSet<>();
+        for(int p : entrantiV){
+            EspressioneRegolare entrata = fabbrica.concatenazione(uscenti.get(p).remove(v), stella);
+            for(Map.Entry<Integer, EspressioneRegolare> arco : uscentiV.entrySet())
+                aggiungiArco(p, arco.getKey(), fabbrica.concatenazione(entrata, arco.getValue()));
+            vicini.add(p);
+        }
+        for(int q : uscentiV.keySet()){
+            entranti.get(q).remove(v);
+            vicini.add(q);
+        }
+        vicini.removeIf(eliminati::get);
+        return vicini;
+    }
+
+    /**
+     * Calcola il costo di eliminazione di un nodo (numero di archi che possono essere creati).
+     */
+    private long costo(int v){
+        HashSet<Integer> entrantiV = entranti.get(v);
+        HashMap<Integer, EspressioneRegolare> uscentiV = uscenti.get(v);
+        long entrate = entrantiV == null ? 0 : entrantiV.size();
+        long uscite = uscentiV == null ? 0 : uscentiV.size() - (uscentiV.containsKey(v) ? 1 : 0);
+        return Math.min(entrate * uscite, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Codifica costo e nodo in una voce della coda di priorità.
+     */
+    private static long voce(long costo, int v){
+        return (costo << 32) | v;
+    }
+}
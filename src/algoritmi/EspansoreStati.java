@@ -0,0 +1,232 @@
+package algoritmi;
+
+import struttureDati.MetricheEsplorazione;
+import struttureDati.Osservazione;
+import struttureDati.ReteAutomiCompilata;
+
+import java.util.Arrays;
+
+/**
+ * Classe che calcola i successori di uno stato durante l'esplorazione dello spazio comportamentale.
+ * Lo stato esplorato è lo stato globale codificato della rete, eventualmente seguito da una parola che contiene lo
+ * stato corrente dell'osservazione (esplorazione vincolata da un'osservazione):
+ * - una transizione non osservabile lascia invariato lo stato dell'osservazione;
+ * - una transizione osservabile con etichetta o è eseguibile solo se l'osservazione ha archi etichettati o dallo stato
+ *   corrente, e produce un successore per ogni arco.
+ * Uno stato è finale se tutti i link sono vuoti e (se presente) l'osservazione è in uno stato finale.
+ * Con una riduzione a ordini parziali vengono espanse solo le transizioni dell'insieme ampio scelto dalla riduzione
+ * (vedi RiduzioneOrdiniParziali); la visita deve espandere completamente (con espandiCompleto) gli stati per cui
+ * l'insieme ampio porta a uno stato già espanso.
+ * Con delle metriche vengono contati, per ogni stato espanso, il numero di successori, le diramazioni non
+ * deterministiche (componenti con più transizioni abilitate) e le transizioni bloccate da un link pieno, in un registro
+ * locale che la visita deve scaricare nelle metriche al termine (con scaricaMetriche).
+ * Un'istanza non è utilizzabile contemporaneamente da più thread (usa buffer interni).
+ */
+class EspansoreStati {
+
+    private final ReteAutomiCompilata rete;
+    private final Osservazione osservazione;
+    private final FiltroStatiMorti filtro;
+    private final RiduzioneOrdiniParziali riduzione;
+    private final MetricheEsplorazione.Registro registro;
+    private final int paroleRete;
+    private final int parole;
+    private final int[] abilitate;
+    private final long[] successore;
+    private long[] successori;
+    private int[] transizioni;
+    private boolean ridotto;
+
+    /**
+     * Costruttore della classe EspansoreStati.
+     * @param rete Rete compilata.
+     * @param osservazione Osservazione che vincola l'esplorazione (null per l'esplorazione completa).
+     * @param filtro Filtro degli stati morti da scartare (null per non scartare alcuno stato).
+     */
+    EspansoreStati(ReteAutomiCompilata rete, Osservazione osservazione, FiltroStatiMorti filtro){
+        this(rete, osservazione, filtro, null);
+    }
+
+    /**
+     * Costruttore della classe EspansoreStati con riduzione a ordini parziali.
+     * @param rete Rete compilata.
+     * @param osservazione Osservazione che vincola l'esplorazione (null per l'esplorazione completa).
+     * @param filtro Filtro degli stati morti da scartare (null per non scartare alcuno stato).
+     * @param riduzione Riduzione a ordini parziali (null per espandere sempre tutte le transizioni abilitate).
+     */
+    EspansoreStati(ReteAutomiCompilata rete, Osservazione osservazione, FiltroStatiMorti filtro, RiduzioneOrdiniParziali riduzione){
+        this(rete, osservazione, filtro, riduzione, null);
+    }
+
+    /**
+     * Costruttore della classe EspansoreStati con riduzione a ordini parziali e metriche.
+     * @param rete Rete compilata.
+     * @param osservazione Osservazione che vincola l'esplorazione (null per l'esplorazione completa).
+     * @param filtro Filtro degli stati morti da scartare (null per non scartare alcuno stato).
+     * @param riduzione Riduzione a ordini parziali (null per espandere sempre tutte le transizioni abilitate).
+     * @param metriche Metriche in cui registrare le espansioni (null per non registrarle).
+     */
+    EspansoreStati(ReteAutomiCompilata rete, Osservazione osservazione, FiltroStatiMorti filtro, RiduzioneOrdiniParziali riduzione,
+                   MetricheEsplorazione metriche){
+        this.rete = rete;
+        this.osservazione = osservazione;
+        this.filtro = filtro;
+        this.riduzione = riduzione;
+        this.registro = metriche == null ? null : metriche.registro();
+        this.paroleRete = rete.numeroParole();
+        this.parole = paroleRete + (osservazione == null ? 0 : 1);
+        this.abilitate = new int[rete.massimoTransizioniAbilitate()];
+        this.successore = new long[parole];
+        this.successori = new long[Math.max(abilitate.length, 1) * parole];
+        this.transizioni = new int[Math.max(abilitate.length, 1)];
+    }
+
+    /**
+     * Restituisce il numero di parole di uno stato esplorato.
+     * @return Numero di parole.
+     */
+    int numeroParole(){
+        return parole;
+    }
+
+    /**
+     * Restituisce lo stato iniziale dell'esplorazione.
+     * @return Stato iniziale codificato.
+     */
+    long[] statoIniziale(){
+        return Arrays.copyOf(rete.statoIniziale(), parole);
+    }
+
+    /**
+     * Controlla se lo stato esplorato è finale.
+     * @param stato Stato codificato.
+     * @return TRUE se lo stato è finale, FALSE altrimenti.
+     */
+    boolean isFinale(long[] stato){
+        return rete.isFinale(stato) && (osservazione == null || osservazione.isFinale((int) stato[paroleRete]));
+    }
+
+    /**
+     * Scrive lo stato dello spazio comportamentale (stato globale codificato seguito, se presente, dallo stato
+     * dell'osservazione) corrispondente a uno stato esplorato. Gli stati esplorati da questa classe sono già stati dello
+     * spazio; un'estensione può esplorare stati con una rappresentazione diversa (vedi EsplorazioneModulare).
+     * @param stato Stato esplorato.
+     * @param destinazione Array (di almeno rete.numeroParole() parole, più una con l'osservazione) in cui scrivere lo stato.
+     */
+    void statoSpazio(long[] stato, long[] destinazione){
+        System.arraycopy(stato, 0, destinazione, 0, parole);
+    }
+
+    /**
+     * Calcola i successori dello stato; il successore i-esimo occupa le parole [i * numeroParole(), (i + 1) * numeroParole())
+     * dell'array restituito da getSuccessori() e la transizione globale corrispondente è getTransizioni()[i].
+     * L'ordine dei successori è deterministico (quello delle transizioni abilitate e degli archi dell'osservazione).
+     * Con la riduzione a ordini parziali vengono considerate solo le transizioni dell'insieme ampio (vedi isRidotto).
+     * @param stato Stato codificato da espandere.
+     * @return Numero di successori.
+     */
+    int espandi(long[] stato){
+        return espandi(stato, riduzione != null, true);
+    }
+
+    /**
+     * Calcola i successori dello stato considerando tutte le transizioni abilitate, anche con la riduzione a ordini
+     * parziali (vedi espandi). L'espansione non viene registrata nelle metriche, perché lo stato è già stato espanso.
+     * @param stato Stato codificato da espandere.
+     * @return Numero di successori.
+     */
+    int espandiCompleto(long[] stato){
+        return espandi(stato, false, false);
+    }
+
+    /**
+     * Indica se l'ultima espansione ha considerato solo una parte delle transizioni abilitate.
+     * @return TRUE se l'ultima espansione è stata ridotta, FALSE altrimenti.
+     */
+    boolean isRidotto(){
+        return ridotto;
+    }
+
+    /**
+     * Calcola i successori dello stato, eventualmente con la riduzione a ordini parziali, e se richiesto registra
+     * l'espansione nelle metriche.
+     */
+    private int espandi(long[] stato, boolean riduci, boolean registra){
+        int numero = 0;
+        int numeroAbilitate = rete.transizioniAbilitate(stato, abilitate, registra ? registro : null);
+        boolean diramazione = false;
+        if(registra && registro != null)
+            //le transizioni abilitate sono ordinate per componente
+            for(int i = 1; i < numeroAbilitate && !diramazione; i++)
+                diramazione = rete.getComponenteTransizione(abilitate[i]) == rete.getComponenteTransizione(abilitate[i - 1]);
+        ridotto = false;
+        if(riduci) {
+            int ampio = riduzione.riduci(stato, abilitate, numeroAbilitate);
+            ridotto = ampio < numeroAbilitate;
+            numeroAbilitate = ampio;
+        }
+        for(int i = 0; i < numeroAbilitate; i++){
+            int g = abilitate[i];
+            rete.successore(stato, g, successore);
+            if(filtro != null && filtro.isMorto(successore))
+                continue;
+            if(osservazione == null) {
+                numero = aggiungi(numero, g);
+                continue;
+            }
+            int o = (int) stato[paroleRete];
+            int etichetta = rete.getOsservabilita(g);
+            if(etichetta < 0) {
+                successore[paroleRete] = o;
+                numero = aggiungi(numero, g);
+                continue;
+            }
+            for(int a = osservazione.inizioArchi(o); a < osservazione.fineArchi(o); a++){
+                if(osservazione.getEtichetta(a) == etichetta) {
+                    successore[paroleRete] = osservazione.getArrivo(a);
+                    numero = aggiungi(numero, g);
+                }
+            }
+        }
+        if(registra && registro != null)
+            registro.registraEspansione(numero, diramazione);
+        return numero;
+    }
+
+    /**
+     * Riversa nelle metriche i conteggi delle espansioni non ancora registrati (nessun effetto senza metriche).
+     */
+    void scaricaMetriche(){
+        if(registro != null)
+            registro.scarica();
+    }
+
+    /**
+     * Accoda il successore corrente ai buffer dei successori.
+     */
+    private int aggiungi(int numero, int g){
+        if((numero + 1) * parole > successori.length) {
+            successori = Arrays.copyOf(successori, successori.length * 2);
+            transizioni = Arrays.copyOf(transizioni, transizioni.length * 2);
+        }
+        System.arraycopy(successore, 0, successori, numero * parole, parole);
+        transizioni[numero] = g;
+        return numero + 1;
+    }
+
+    /**
+     * Restituisce il buffer dei successori calcolati dall'ultima chiamata di espandi.
+     * @return Successori codificati (consecutivi).
+     */
+    long[] getSuccessori(){
+        return successori;
+    }
+
+    /**
+     * Restituisce il buffer delle transizioni globali dei successori calcolati dall'ultima chiamata di espandi.
+     * @return Transizioni dei successori.
+     */
+    int[] getTransizioni(){
+        return transizioni;
+    }
+}
@@ -0,0 +1,196 @@
+package algoritmi;
+
+import struttureDati.EspressioneRegolare;
+import struttureDati.FabbricaEspressioni;
+import struttureDati.InsiemeStatiVisitati;
+import struttureDati.ListaInteri;
+import struttureDati.ReteAutomiCompilata;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+
+/**
+ * Classe che esplora la chiusura silenziosa di uno stato globale: gli stati raggiungibili da esso con sole transizioni
+ * non osservabili. Il risultato dell'esplorazione è una Chiusura, che contiene l'espressione dei cammini dallo stato
+ * di ingresso agli stati finali della chiusura e le uscite (transizioni osservabili) raggruppate per etichetta di
+ * osservabilità e stato di arrivo, ognuna con l'espressione dei cammini che la percorrono.
+ * Un'istanza non è utilizzabile contemporaneamente da più thread (usa buffer interni).
+ */
+class EsploratoreChiusure {
+
+    private final ReteAutomiCompilata rete;
+    private final EspansoreStati espansore;
+    private final int parole;
+    private final long[] stato;
+
+    /**
+     * Costruttore della classe EsploratoreChiusure.
+     * @param rete Rete compilata.
+     */
+    EsploratoreChiusure(ReteAutomiCompilata rete){
+        this.rete = rete;
+        this.espansore = new EspansoreStati(rete, null, FiltroStatiMorti.create(rete));
+        this.parole = rete.numeroParole();
+        this.stato = new long[parole];
+    }
+
+    /**
+     * Esplora la chiusura silenziosa dello stato di ingresso.
+     * @param ingresso Stato globale codificato di ingresso.
+     * @param ingressi Insieme degli stati di ingresso delle chiusure: gli stati di arrivo delle uscite vi vengono
+     *                 aggiunti e l'uscita fa riferimento al loro identificatore.
+     * @param fabbrica Fabbrica con cui costruire le espressioni.
+     * @return Chiusura dello stato di ingresso.
+     */
+    Chiusura esplora(long[] ingresso, InsiemeStatiVisitati ingressi, FabbricaEspressioni fabbrica){
+        InsiemeStatiVisitati locali = InsiemeStatiVisitati.create(parole, 16);
+        ListaInteri inizioArchi = ListaInteri.create();
+        ListaInteri destinazione = ListaInteri.create();
+        ListaInteri etichetta = ListaInteri.create();
+        BitSet finali = new BitSet();
+        BitSet richiesti = new BitSet();
+        //uscite: stato locale di partenza, etichetta di osservabilità, chiusura di arrivo, etichetta di rilevanza
+        ListaInteri uscite = ListaInteri.create();
+
+        locali.aggiungi(ingresso);
+        for(int s = 0; s < locali.dimensione(); s++){
+            locali.leggi(s, stato);
+            inizioArchi.aggiungi(destinazione.dimensione());
+            if(espansore.isFinale(stato)) {
+                finali.set(s);
+                richiesti.set(s);
+            }
+            int numeroSuccessori = espansore.espandi(stato);
+            long[] successori = espansore.getSuccessori();
+            for(int i = 0; i < numeroSuccessori; i++){
+                int g = espansore.getTransizioni()[i];
+                if(rete.getOsservabilita(g) < 0) {
+                    int id = locali.aggiungi(successori, i * parole);
+                    destinazione.aggiungi(id >= 0 ? id : -id - 1);
+                    etichetta.aggiungi(rete.getRilevanza(g));
+                    continue;
+                }
+                int id = ingressi.aggiungi(successori, i * parole);
+                uscite.aggiungi(s);
+                uscite.aggiungi(rete.getOsservabilita(g));
+                uscite.aggiungi(id >= 0 ? id : -id - 1);
+                uscite.aggiungi(rete.getRilevanza(g));
+                richiesti.set(s);
+            }
+        }
+        inizioArchi.aggiungi(destinazione.dimensione());
+
+        EspressioneRegolare[] linguaggio = LinguaggiCammini.calcola(locali.dimensione(), inizioArchi.toArray(), destinazione.toArray(), etichetta.toArray(), 0, richiesti, fabbrica);
+        EspressioneRegolare finale = fabbrica.vuoto();
+        for(int s = finali.nextSetBit(0); s >= 0; s = finali.nextSetBit(s + 1))
+            finale = fabbrica.alternativa(finale, linguaggio[s]);
+
+        //le uscite con la stessa etichetta e la stessa chiusura di arrivo vengono fuse
+        HashMap<Long, Integer> indiceUscita = new HashMap<>();
+        ArrayList<long[]> chiavi = new ArrayList<>();
+        ArrayList<EspressioneRegolare> espressioni = new ArrayList<>();
+        for(int u = 0; u < uscite.dimensione(); u += 4){
+            long chiave = ((long) uscite.get(u + 1) << 32) | uscite.get(u + 2);
+            EspressioneRegolare cammini = fabbrica.concatenazione(linguaggio[uscite.get(u)], fabbrica.simbolo(uscite.get(u + 3)));
+            Integer indice = indiceUscita.get(chiave);
+            if(indice == null) {
+                indiceUscita.put(chiave, espressioni.size());
+                chiavi.add(new long[]{chiave, espressioni.size()});
+                espressioni.add(cammini);
+            }
+            else
+                espressioni.set(indice, fabbrica.alternativa(espressioni.get(indice), cammini));
+        }
+        chiavi.sort(Comparator.comparingLong(c -> c[0]));
+        int[] etichette = new int[chiavi.size()];
+        int[] arrivi = new int[chiavi.size()];
+        EspressioneRegolare[] espressioniOrdinate = new EspressioneRegolare[chiavi.size()];
+        for(int i = 0; i < chiavi.size(); i++){
+            etichette[i] = (int) (chiavi.get(i)[0] >>> 32);
+            arrivi[i] = (int) chiavi.get(i)[0];
+            espressioniOrdinate[i] = espressioni.get((int) chiavi.get(i)[1]);
+        }
+        return new Chiusura(locali.dimensione(), finale, etichette, arrivi, espressioniOrdinate);
+    }
+
+    /**
+     * Classe rappresentante il risultato dell'esplorazione di una chiusura silenziosa.
+     */
+    static final class Chiusura {
+
+        private final int numeroStati;
+        private final EspressioneRegolare finale;
+        private final int[] etichetta;
+        private final int[] destinazione;
+        private final EspressioneRegolare[] espressione;
+
+        /**
+         * Costruttore della classe Chiusura.
+         * @param numeroStati Numero di stati della chiusura.
+         * @param finale Espressione dei cammini dall'ingresso agli stati finali.
+         * @param etichetta Etichetta di osservabilità di ogni uscita (uscite ordinate per etichetta e destinazione).
+         * @param destinazione Chiusura di arrivo di ogni uscita.
+         * @param espressione Espressione dei cammini di ogni uscita.
+         */
+        private Chiusura(int numeroStati, EspressioneRegolare finale, int[] etichetta, int[] destinazione, EspressioneRegolare[] espressione){
+            this.numeroStati = numeroStati;
+            this.finale = finale;
+            this.etichetta = etichetta;
+            this.destinazione = destinazione;
+            this.espressione = espressione;
+        }
+
+        /**
+         * Restituisce il numero di stati della chiusura.
+         * @return Numero di stati.
+         */
+        int numeroStati(){
+            return numeroStati;
+        }
+
+        /**
+         * Restituisce l'espressione dei cammini dall'ingresso agli stati finali della chiusura.
+         * @return Espressione dei cammini (∅ se la chiusura non contiene stati finali).
+         */
+        EspressioneRegolare getFinale(){
+            return finale;
+        }
+
+        /**
+         * Restituisce il numero di uscite della chiusura.
+         * @return Numero di uscite.
+         */
+        int numeroUscite(){
+            return etichetta.length;
+        }
+
+        /**
+         * Restituisce l'etichetta di osservabilità dell'uscita.
+         * @param u Indice dell'uscita.
+         * @return Indice dell'etichetta.
+         */
+        int getEtichetta(int u){
+            return etichetta[u];
+        }
+
+        /**
+         * Restituisce la chiusura di arrivo dell'uscita.
+         * @param u Indice dell'uscita.
+         * @return Identificatore dello stato di ingresso della chiusura di arrivo.
+         */
+        int getDestinazione(int u){
+            return destinazione[u];
+        }
+
+        /**
+         * Restituisce l'espressione dei cammini dall'ingresso fino alla transizione osservabile dell'uscita compresa.
+         * @param u Indice dell'uscita.
+         * @return Espressione dell'uscita.
+         */
+        EspressioneRegolare getEspressione(int u){
+            return espressione[u];
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package algoritmi;
+
+import struttureDati.FileMappato;
+import struttureDati.MetricheEsplorazione;
+import struttureDati.Osservazione;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.SpazioComportamentale;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * Classe che esplora in memoria esterna lo spazio comportamentale di una rete di automi, per gli spazi i cui stati non
+ * stanno nello heap. La visita procede per livelli con rilevamento ritardato dei duplicati:
+ * - gli stati di un livello sono in un file ordinato e vengono espansi in ordine; i successori sono accumulati in un
+ *   OrdinamentoEsterno (buffer fuori dallo heap, scritto su disco in run ordinati oltre la soglia di memoria);
+ * - al termine del livello i successori ordinati e senza duplicati vengono fusi con il file ordinato degli stati
+ *   visitati: quelli nuovi formano il livello successivo e ricevono identificatori consecutivi nell'ordine del file;
+ * - gli archi vengono scritti sequenzialmente (gli stati sono espansi nell'ordine dei loro identificatori) insieme allo
+ *   stato di arrivo; alla fine un ordinamento per stato di arrivo e una fusione con gli stati visitati ne ricavano
+ *   l'identificatore, che viene riportato nell'ordine degli archi con un ultimo ordinamento.
+ * Gli array dello spazio e gli stati codificati vengono scritti in file che vengono poi mappati in memoria (vedi
+ * FileMappato) ed eliminati, per cui nello heap restano solo l'insieme degli stati finali (un bit per stato) e i buffer
+ * di lettura e scrittura. La numerazione degli stati è diversa da quella della visita in memoria, ma lo spazio è lo
+ * stesso a meno di un isomorfismo.
+ */
+final class EsplorazioneEsterna {
+
+    /**
+     * Costruttore privato: la classe espone solo metodi statici.
+     */
+    private EsplorazioneEsterna(){
+    }
+
+    /**
+     * Genera lo spazio comportamentale della rete in memoria esterna.
+     * @param rete Rete compilata.
+     * @param osservazione Osservazione che vincola lo spazio, può essere null.
+     * @param filtro Filtro degli stati morti, può essere null.
+     * @param cartella Cartella in cui creare i file temporanei.
+     * @param byteMemoria Dimensione del buffer fuori dallo heap di ogni ordinamento (soglia oltre la quale i record
+     *                    vengono scritti su disco).
+     * @param massimoRun Numero massimo di run fusi in una sola passata.
+     * @param metriche Metriche in cui registrare l'esplorazione (null per non registrarla); frontiera e stati visitati
+     *                 vengono aggiornati a ogni livello (senza fattore di carico e memoria, perché gli stati sono su disco).
+     * @return Spazio comportamentale su file mappati.
+     * @throws UncheckedIOException Se non è possibile leggere o scrivere i file temporanei.
+     */
+    static SpazioComportamentale genera(ReteAutomiCompilata rete, Osservazione osservazione, FiltroStatiMorti filtro, Path cartella, long byteMemoria, int massimoRun,
+                                        MetricheEsplorazione metriche){
+        try {
+            Path lavoro = Files.createTempDirectory(cartella, "esplorazione");
+            try {
+                return genera(rete, osservazione, new EspansoreStati(rete, osservazione, filtro, null, metriche), lavoro, byteMemoria, massimoRun, metriche);
+            }
+            finally {
+                elimina(lavoro);
+            }
+        }
+        catch(IOException e) {
+            throw new UncheckedIOException("Esplorazione in memoria esterna non riuscita", e);
+        }
+    }
+
+    /**
+     * Esegue l'esplorazione nella cartella di lavoro.
+     */
+    private static SpazioComportamentale genera(ReteAutomiCompilata rete, Osservazione osservazione, EspansoreStati espansore, Path lavoro, long byteMemoria, int massimoRun,
+                                                MetricheEsplorazione metriche) throws IOException {
+        int parole = espansore.numeroParole();
+        Path fileStati = lavoro.resolve("stati.bin");
+        Path fileInizio = lavoro.resolve("inizio.bin");
+        Path fileTransizioni = lavoro.resolve("transizioni.bin");
+        Path fileDestinazioni = lavoro.resolve("destinazioni.bin");
+        Path fileVisitati = lavoro.resolve("visitati.bin");
+        Path fileLivello = lavoro.resolve("livello.bin");
+        BitSet finali = new BitSet();
+        long[] stato = new long[parole];
+        long[] record = new long[parole + 1];
+        int numeroStati = 1;
+        long numeroArchi = 0;
+
+        try(OrdinamentoEsterno archi = new OrdinamentoEsterno(lavoro, parole + 1, byteMemoria, massimoRun, false)) {
+            //stato iniziale: primo livello e primo stato visitato (identificatore 0)
+            System.arraycopy(espansore.statoIniziale(), 0, record, 0, parole);
+            try(OrdinamentoEsterno.Scrittura stati = new OrdinamentoEsterno.Scrittura(fileStati);
+                OrdinamentoEsterno.Scrittura inizio = new OrdinamentoEsterno.Scrittura(fileInizio);
+                OrdinamentoEsterno.Scrittura transizioni = new OrdinamentoEsterno.Scrittura(fileTransizioni);
+                OrdinamentoEsterno candidati = new OrdinamentoEsterno(lavoro, parole, byteMemoria, massimoRun, true)) {
+                try(OrdinamentoEsterno.Scrittura livello = new OrdinamentoEsterno.Scrittura(fileLivello);
+                    OrdinamentoEsterno.Scrittura visitati = new OrdinamentoEsterno.Scrittura(fileVisitati)) {
+                    livello.scriviLong(record, 0, parole);
+                    visitati.scriviLong(record, 0, parole + 1);
+                    stati.scriviLong(record, 0, parole);
+                }
+                int espansi = 0;
+                int dimensioneLivello = 1;
+                while(dimensioneLivello > 0){
+                    if(metriche != null) {
+                        espansore.scaricaMetriche();
+                        metriche.aggiornaFrontiera(dimensioneLivello);
+                        metriche.aggiornaVisitati(numeroStati, 0, 0);
+                    }
+                    //espansione del livello
+                    candidati.ricomincia();
+                    try(OrdinamentoEsterno.Lettura livello = new OrdinamentoEsterno.Lettura(fileLivello)) {
+                        while(livello.leggiLong(stato, 0, parole)){
+                            inizio.scriviInt((int) numeroArchi);
+                            if(espansore.isFinale(stato))
+                                finali.set(espansi);
+                            espansi++;
+                            int numeroSuccessori = espansore.espandi(stato);
+                            long[] successori = espansore.getSuccessori();
+                            for(int i = 0; i < numeroSuccessori; i++){
+                                if(numeroArchi == Integer.MAX_VALUE)
+                                    throw new IllegalStateException("Lo spazio comportamentale ha troppi archi");
+                                transizioni.scriviInt(espansore.getTransizioni()[i]);
+                                System.arraycopy(successori, i * parole, record, 0, parole);
+                                record[parole] = numeroArchi++;
+                                archi.aggiungi(record, 0);
+                                candidati.aggiungi(successori, i * parole);
+                            }
+                        }
+                    }
+                    //rilevamento dei duplicati: fusione dei successori con gli stati visitati
+                    Path nuoviVisitati = lavoro.resolve("visitati-nuovi.bin");
+                    dimensioneLivello = 0;
+                    try(OrdinamentoEsterno.Lettore successori = candidati.ordina();
+                        OrdinamentoEsterno.Lettura vecchi = new OrdinamentoEsterno.Lettura(fileVisitati);
+                        OrdinamentoEsterno.Scrittura visitati = new OrdinamentoEsterno.Scrittura(nuoviVisitati);
+                        OrdinamentoEsterno.Scrittura livello = new OrdinamentoEsterno.Scrittura(fileLivello)) {
+                        long[] visitato = new long[parole + 1];
+                        boolean altroVisitato = vecchi.leggiLong(visitato, 0, parole + 1);
+                        while(successori.leggi(stato)){
+                            int c = -1;
+                            while(altroVisitato && (c = OrdinamentoEsterno.confronta(visitato, 0, stato, 0, parole)) < 0){
+                                visitati.scriviLong(visitato, 0, parole + 1);
+                                altroVisitato = vecchi.leggiLong(visitato, 0, parole + 1);
+                            }
+                            if(altroVisitato && c == 0)
+                                continue;
+                            if(numeroStati == Integer.MAX_VALUE)
+                                throw new IllegalStateException("Lo spazio comportamentale ha troppi stati");
+                            System.arraycopy(stato, 0, record, 0, parole);
+                            record[parole] = numeroStati++;
+                            visitati.scriviLong(record, 0, parole + 1);
+                            livello.scriviLong(stato, 0, parole);
+                            stati.scriviLong(stato, 0, parole);
+                            dimensioneLivello++;
+                        }
+                        while(altroVisitato){
+                            visitati.scriviLong(visitato, 0, parole + 1);
+                            altroVisitato = vecchi.leggiLong(visitato, 0, parole + 1);
+                        }
+                    }
+                    Files.move(nuoviVisitati, fileVisitati, StandardCopyOption.REPLACE_EXISTING);
+                }
+                inizio.scriviInt((int) numeroArchi);
+                if(metriche != null) {
+                    espansore.scaricaMetriche();
+                    metriche.aggiornaFrontiera(0);
+                    metriche.aggiornaVisitati(numeroStati, 0, 0);
+                }
+            }
+
+            //identificatori degli stati di arrivo: fusione degli archi (ordinati per stato di arrivo) con gli stati visitati
+            try(OrdinamentoEsterno destinazioni = new OrdinamentoEsterno(lavoro, 2, byteMemoria, massimoRun, false)) {
+                try(OrdinamentoEsterno.Lettore ordinati = archi.ordina();
+                    OrdinamentoEsterno.Lettura visitati = new OrdinamentoEsterno.Lettura(fileVisitati)) {
+                    long[] visitato = new long[parole + 1];
+                    long[] coppia = new long[2];
+                    boolean altroVisitato = visitati.leggiLong(visitato, 0, parole + 1);
+                    while(ordinati.leggi(record)){
+                        while(altroVisitato && OrdinamentoEsterno.confronta(visitato, 0, record, 0, parole) < 0)
+                            altroVisitato = visitati.leggiLong(visitato, 0, parole + 1);
+                        coppia[0] = record[parole];
+                        coppia[1] = visitato[parole];
+                        destinazioni.aggiungi(coppia, 0);
+                    }
+                }
+                archi.ricomincia();
+                try(OrdinamentoEsterno.Lettore ordinate = destinazioni.ordina();
+                    OrdinamentoEsterno.Scrittura scrittura = new OrdinamentoEsterno.Scrittura(fileDestinazioni)) {
+                    long[] coppia = new long[2];
+                    while(ordinate.leggi(coppia))
+                        scrittura.scriviInt((int) coppia[1]);
+                }
+            }
+        }
+
+        try(FileChannel inizio = FileChannel.open(fileInizio, StandardOpenOption.READ);
+            FileChannel destinazioni = FileChannel.open(fileDestinazioni, StandardOpenOption.READ);
+            FileChannel transizioni = FileChannel.open(fileTransizioni, StandardOpenOption.READ);
+            FileChannel stati = FileChannel.open(fileStati, StandardOpenOption.READ)) {
+            IntBuffer[] inizioArchi = FileMappato.mappaInteri(inizio, 0, numeroStati + 1L);
+            IntBuffer[] destinazione = FileMappato.mappaInteri(destinazioni, 0, numeroArchi);
+            IntBuffer[] transizione = FileMappato.mappaInteri(transizioni, 0, numeroArchi);
+            LongBuffer[] statiMappati = FileMappato.mappaLong(stati, 0, (long) numeroStati * parole);
+            return SpazioComportamentale.create(rete, osservazione, statiMappati, inizioArchi, destinazione, transizione, finali);
+        }
+    }
+
+    /**
+     * Elimina la cartella di lavoro con i file che contiene; i file che non possono essere eliminati perché ancora
+     * mappati (su alcuni sistemi operativi) vengono eliminati all'uscita.
+     */
+    private static void elimina(Path cartella) throws IOException {
+        try(DirectoryStream<Path> file = Files.newDirectoryStream(cartella)) {
+            for(Path p : file)
+                try {
+                    Files.deleteIfExists(p);
+                }
+                catch(IOException e) {
+                    p.toFile().deleteOnExit();
+                }
+        }
+        try {
+            Files.deleteIfExists(cartella);
+        }
+        catch(IOException e) {
+            cartella.toFile().deleteOnExit();
+        }
+    }
+}
@@ -0,0 +1,655 @@
+package algoritmi;
+
+import struttureDati.AutomaCompilato;
+import struttureDati.CodificaStatoGlobale;
+import struttureDati.InsiemeStatiVisitati;
+import struttureDati.ListaInteri;
+import struttureDati.MetricheEsplorazione;
+import struttureDati.Osservazione;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.SpazioComportamentale;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Classe che esplora lo spazio comportamentale di una rete di automi scomponendola in sottoreti (gruppi di componenti).
+ * I link tra componenti della stessa sottorete sono interni, quelli tra sottoreti diverse sono di taglio.
+ * Per ogni sottorete viene costruito, in parallelo su un ForkJoinPool, lo spazio locale: stati dei suoi componenti e
+ * contenuto dei suoi link interni, in cui gli eventi dei link di taglio entranti sono sempre disponibili e quelli dei
+ * link di taglio uscenti sono sempre accodabili. Con un'osservazione lo spazio locale è il prodotto con l'osservazione
+ * proiettata sulla sottorete: le transizioni osservabili della sottorete avanzano l'osservazione come nello spazio
+ * globale, mentre gli archi dell'osservazione etichettati con etichette di altre sottoreti possono essere percorsi
+ * senza eseguire transizioni. Vengono potati gli stati locali da cui non è raggiungibile uno stato con i link interni
+ * vuoti e l'osservazione in uno stato finale. Ogni comportamento della rete coerente con l'osservazione si proietta su
+ * un cammino di ogni spazio locale, per cui nessuno di questi comportamenti viene perso.
+ * Gli spazi locali vengono poi combinati da un join che è il loro prodotto: uno stato del join è formato
+ * dall'identificatore di uno stato locale per ogni sottorete e dal contenuto dei link di taglio. Per ogni arco locale
+ * di una sottorete il join controlla solo i link di taglio (evento in testa al link entrante, posto libero nei link
+ * uscenti) e sincronizza l'osservazione: se l'arco avanza l'osservazione, le altre sottoreti seguono il proprio arco
+ * dell'osservazione verso lo stesso stato. I vincoli dei link interni sono già stati verificati dagli spazi locali e
+ * gli stati locali potati non vengono mai raggiunti, per cui il join non ricalcola le transizioni abilitate della
+ * rete; gli stati globali dello spazio prodotto vengono ricomposti dagli stati locali solo al termine della visita.
+ * Il join è eseguito in parallelo da EsplorazioneParallela.
+ * Poiché ogni stato del join corrisponde a un solo stato globale, il join ha tanti stati quanti gli stati globali
+ * raggiungibili che nessuno spazio locale ha potato: la scomposizione riduce lo spazio quando gli spazi locali vincolati
+ * dall'osservazione escludono molti stati globali, ma non rende esplorabile una rete il cui spazio (vincolato
+ * dall'osservazione) non è comunque esplorabile. Senza osservazione la potatura riguarda solo gli stati da cui una
+ * sottorete non può svuotare i propri link interni e lo spazio ha in genere quasi la stessa dimensione di quello
+ * monolitico.
+ */
+class EsplorazioneModulare {
+
+    /**
+     * Spazio locale di una sottorete, con archi in formato CSR (transizioni globali della rete; -1 per gli archi in cui
+     * avanza solo l'osservazione).
+     */
+    private static class Sottorete extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final ReteAutomiCompilata rete;
+        private final int[] componenti;
+        private final int[] ruoloLink; //indice del link tra quelli interni, -1 se di taglio entrante o uscente, -2 se estraneo
+        private final int[] linkInterni;
+        private final Osservazione osservazione;
+        private final BitSet estranee; //etichette di osservabilità di transizioni di altre sottoreti
+        private CodificaStatoGlobale codifica;
+        private int[] campoLunghezza;
+        private int[] inizioArchi;
+        private int[] destinazione;
+        private int[] transizione;
+        private int[] statoOsservazione; //stato dell'osservazione di ogni stato locale (null senza osservazione)
+        private InsiemeStatiVisitati stati;
+        private BitSet finali;
+        private BitSet vivi;
+
+        private Sottorete(ReteAutomiCompilata rete, int[] componenti, int[] parti, int parte, Osservazione osservazione){
+            this.rete = rete;
+            this.componenti = componenti;
+            this.osservazione = osservazione;
+            this.ruoloLink = new int[rete.numeroLink()];
+            ListaInteri interni = ListaInteri.create();
+            for(int l = 0; l < rete.numeroLink(); l++){
+                boolean sorgente = parti[rete.getSorgenteLink(l)] == parte;
+                boolean destinazione = parti[rete.getDestinazioneLink(l)] == parte;
+                if(sorgente && destinazione) {
+                    ruoloLink[l] = interni.dimensione();
+                    interni.aggiungi(l);
+                }
+                else
+                    ruoloLink[l] = sorgente || destinazione ? -1 : -2;
+            }
+            this.linkInterni = interni.toArray();
+            this.estranee = new BitSet();
+            for(int g = 0; g < rete.numeroTransizioni(); g++)
+                if(parti[rete.getComponenteTransizione(g)] != parte && rete.getOsservabilita(g) >= 0)
+                    estranee.set(rete.getOsservabilita(g));
+        }
+
+        /**
+         * Costruisce lo spazio locale della sottorete con una visita in ampiezza e ne calcola gli stati vivi.
+         */
+        @Override
+        protected void compute() {
+            //campi: stati dei componenti, poi lunghezza e posizioni (evento + 1) di ogni link interno
+            ListaInteri larghezze = ListaInteri.create();
+            for(int c : componenti)
+                larghezze.aggiungi(CodificaStatoGlobale.bitNecessari(Math.max(rete.getComponente(c).numeroStati() - 1, 0)));
+            campoLunghezza = new int[linkInterni.length];
+            for(int i = 0; i < linkInterni.length; i++){
+                campoLunghezza[i] = larghezze.dimensione();
+                larghezze.aggiungi(CodificaStatoGlobale.bitNecessari(rete.getCapacita(linkInterni[i])));
+                for(int k = 0; k < rete.getCapacita(linkInterni[i]); k++)
+                    larghezze.aggiungi(CodificaStatoGlobale.bitNecessari(rete.getSimboli().numeroEventi()));
+            }
+            codifica = CodificaStatoGlobale.create(larghezze.toArray());
+            //lo stato dell'osservazione occupa una parola dopo lo stato locale codificato
+            int paroleLocali = codifica.numeroParole();
+            long[] stato = new long[paroleLocali + (osservazione == null ? 0 : 1)];
+            long[] successore = new long[stato.length];
+            for(int j = 0; j < componenti.length; j++)
+                codifica.set(stato, j, rete.getComponente(componenti[j]).getStatoIniziale());
+
+            InsiemeStatiVisitati visitati = InsiemeStatiVisitati.create(stato.length);
+            ListaInteri inizio = ListaInteri.create();
+            ListaInteri destinazioni = ListaInteri.create();
+            ListaInteri transizioni = ListaInteri.create();
+            ListaInteri osservati = ListaInteri.create();
+            BitSet finali = new BitSet();
+            visitati.aggiungi(stato);
+            for(int s = 0; s < visitati.dimensione(); s++){
+                visitati.leggi(s, stato);
+                inizio.aggiungi(destinazioni.dimensione());
+                int o = osservazione == null ? 0 : (int) stato[paroleLocali];
+                osservati.aggiungi(o);
+                if(isFinale(stato) && (osservazione == null || osservazione.isFinale(o)))
+                    finali.set(s);
+                for(int j = 0; j < componenti.length; j++){
+                    AutomaCompilato automa = rete.getComponente(componenti[j]);
+                    int base = rete.primaTransizione(componenti[j]);
+                    int p = codifica.get(stato, j);
+                    for(int t = automa.inizioTransizioni(p); t < automa.fineTransizioni(p); t++){
+                        if(!isAbilitata(stato, automa, base + t, t))
+                            continue;
+                        successore(stato, j, automa, base + t, t, successore);
+                        int etichetta = rete.getOsservabilita(base + t);
+                        if(osservazione == null || etichetta < 0) {
+                            aggiungiArco(visitati, destinazioni, transizioni, successore, base + t);
+                            continue;
+                        }
+                        for(int b = osservazione.inizioArchi(o); b < osservazione.fineArchi(o); b++){
+                            if(osservazione.getEtichetta(b) == etichetta) {
+                                successore[paroleLocali] = osservazione.getArrivo(b);
+                                aggiungiArco(visitati, destinazioni, transizioni, successore, base + t);
+                            }
+                        }
+                    }
+                }
+                if(osservazione == null)
+                    continue;
+                //archi dell'osservazione prodotti da altre sottoreti
+                for(int b = osservazione.inizioArchi(o); b < osservazione.fineArchi(o); b++){
+                    if(estranee.get(osservazione.getEtichetta(b))) {
+                        System.arraycopy(stato, 0, successore, 0, stato.length);
+                        successore[paroleLocali] = osservazione.getArrivo(b);
+                        aggiungiArco(visitati, destinazioni, transizioni, successore, -1);
+                    }
+                }
+            }
+            inizio.aggiungi(destinazioni.dimensione());
+            inizioArchi = inizio.toArray();
+            destinazione = destinazioni.toArray();
+            transizione = transizioni.toArray();
+            statoOsservazione = osservazione == null ? null : osservati.toArray();
+            stati = visitati;
+            this.finali = finali;
+            vivi = coRaggiungibili(visitati.dimensione(), finali);
+        }
+
+        /**
+         * Aggiunge un arco dello spazio locale verso il successore.
+         */
+        private static void aggiungiArco(InsiemeStatiVisitati visitati, ListaInteri destinazioni, ListaInteri transizioni, long[] successore, int g){
+            int id = visitati.aggiungi(successore);
+            destinazioni.aggiungi(id >= 0 ? id : -id - 1);
+            transizioni.aggiungi(g);
+        }
+
+        /**
+         * Controlla se una transizione di un componente della sottorete è abilitata nello stato locale: l'evento in
+         * ingresso da un link interno deve essere in testa al link e gli eventi in uscita su link interni devono poter
+         * essere accodati; i link di taglio non pongono vincoli.
+         */
+        private boolean isAbilitata(long[] stato, AutomaCompilato automa, int g, int t){
+            int ingresso = rete.getLinkIngresso(g) < 0 ? -1 : ruoloLink[rete.getLinkIngresso(g)];
+            if(ingresso >= 0 && (codifica.get(stato, campoLunghezza[ingresso]) == 0
+                    || codifica.get(stato, campoLunghezza[ingresso] + 1) != automa.getIngresso(t) + 1))
+                return false;
+            for(int k = 0; k < rete.numeroEventiUscita(g); k++){
+                int i = ruoloLink[rete.getLinkUscita(g, k)];
+                if(i < 0)
+                    continue;
+                int accodati = 0;
+                for(int h = 0; h < rete.numeroEventiUscita(g); h++)
+                    if(ruoloLink[rete.getLinkUscita(g, h)] == i)
+                        accodati++;
+                if(codifica.get(stato, campoLunghezza[i]) - (ingresso == i ? 1 : 0) + accodati > rete.getCapacita(linkInterni[i]))
+                    return false;
+            }
+            return true;
+        }
+
+        /**
+         * Calcola lo stato locale raggiunto eseguendo una transizione abilitata del componente j-esimo della sottorete.
+         */
+        private void successore(long[] stato, int j, AutomaCompilato automa, int g, int t, long[] successore){
+            System.arraycopy(stato, 0, successore, 0, stato.length);
+            codifica.set(successore, j, automa.getArrivo(t));
+            int ingresso = rete.getLinkIngresso(g) < 0 ? -1 : ruoloLink[rete.getLinkIngresso(g)];
+            if(ingresso >= 0) {
+                int lunghezza = codifica.get(successore, campoLunghezza[ingresso]);
+                int prima = campoLunghezza[ingresso] + 1;
+                for(int k = 1; k < lunghezza; k++)
+                    codifica.set(successore, prima + k - 1, codifica.get(successore, prima + k));
+                codifica.set(successore, prima + lunghezza - 1, 0);
+                codifica.set(successore, campoLunghezza[ingresso], lunghezza - 1);
+            }
+            for(int k = 0; k < rete.numeroEventiUscita(g); k++){
+                int i = ruoloLink[rete.getLinkUscita(g, k)];
+                if(i < 0)
+                    continue;
+                int lunghezza = codifica.get(successore, campoLunghezza[i]);
+                codifica.set(successore, campoLunghezza[i] + 1 + lunghezza, automa.getEventoUscita(t, k) + 1);
+                codifica.set(successore, campoLunghezza[i], lunghezza + 1);
+            }
+        }
+
+        /**
+         * Controlla se tutti i link interni sono vuoti nello stato locale.
+         */
+        private boolean isFinale(long[] stato){
+            for(int campo : campoLunghezza)
+                if(codifica.get(stato, campo) != 0)
+                    return false;
+            return true;
+        }
+
+        /**
+         * Calcola gli stati locali da cui è raggiungibile uno stato finale (visita all'indietro dai finali).
+         */
+        private BitSet coRaggiungibili(int n, BitSet finali){
+            int[] inizioEntranti = new int[n + 1];
+            for(int d : destinazione)
+                inizioEntranti[d + 1]++;
+            for(int s = 0; s < n; s++)
+                inizioEntranti[s + 1] += inizioEntranti[s];
+            int[] entranti = new int[destinazione.length];
+            int[] riempimento = new int[n];
+            for(int s = 0; s < n; s++)
+                for(int a = inizioArchi[s]; a < inizioArchi[s + 1]; a++)
+                    entranti[inizioEntranti[destinazione[a]] + riempimento[destinazione[a]]++] = s;
+            BitSet coRaggiungibili = (BitSet) finali.clone();
+            int[] coda = new int[n];
+            int fine = 0;
+            for(int s = finali.nextSetBit(0); s >= 0; s = finali.nextSetBit(s + 1))
+                coda[fine++] = s;
+            for(int testa = 0; testa < fine; testa++){
+                int s = coda[testa];
+                for(int i = inizioEntranti[s]; i < inizioEntranti[s + 1]; i++){
+                    if(!coRaggiungibili.get(entranti[i])) {
+                        coRaggiungibili.set(entranti[i]);
+                        coda[fine++] = entranti[i];
+                    }
+                }
+            }
+            return coRaggiungibili;
+        }
+
+        /**
+         * Scrive nello stato globale gli stati dei componenti e il contenuto dei link interni dello stato locale u.
+         * @param u Identificatore dello stato locale.
+         * @param globale Stato globale codificato (i campi dei link interni oltre la loro lunghezza devono essere nulli).
+         * @param locale Array di lavoro per lo stato locale.
+         */
+        private void componi(int u, long[] globale, long[] locale){
+            CodificaStatoGlobale codificaRete = rete.getCodifica();
+            stati.leggi(u, locale);
+            for(int j = 0; j < componenti.length; j++)
+                codificaRete.set(globale, componenti[j], codifica.get(locale, j));
+            for(int i = 0; i < linkInterni.length; i++){
+                int l = linkInterni[i];
+                int lunghezza = codifica.get(locale, campoLunghezza[i]);
+                codificaRete.set(globale, rete.getCampoLunghezza(l), lunghezza);
+                for(int k = 0; k < lunghezza; k++)
+                    codificaRete.set(globale, rete.getCampoPosizione(l, k), rete.getCodiceEvento(l, codifica.get(locale, campoLunghezza[i] + 1 + k) - 1));
+            }
+        }
+
+        /**
+         * Cerca l'arco uscente dallo stato locale u con la transizione g (-1 per un arco dell'osservazione) che porta
+         * l'osservazione nello stato o.
+         * @return Stato locale di arrivo, -1 se l'arco non esiste.
+         */
+        private int arrivo(int u, int g, int o){
+            for(int a = inizioArchi[u]; a < inizioArchi[u + 1]; a++)
+                if(transizione[a] == g && (statoOsservazione == null || statoOsservazione[destinazione[a]] == o))
+                    return destinazione[a];
+            return -1;
+        }
+    }
+
+    /**
+     * Espansore degli stati del join. Uno stato del join è formato dal contenuto dei link di taglio (codificato come
+     * nello stato globale, con i codici locali degli eventi di ogni link) seguito dagli identificatori degli stati
+     * locali delle sottoreti, due per parola; lo stato dell'osservazione è quello degli stati locali, che coincide in
+     * tutte le sottoreti. I successori seguono gli archi locali vivi di ogni sottorete (vedi EsplorazioneModulare), in
+     * ordine di sottorete e di arco, e con un filtro degli stati morti vengono scartati quelli il cui stato globale è
+     * morto. Nelle metriche sono contati solo i blocchi per link di taglio pieno (quelli dei link interni sono già
+     * esclusi dagli spazi locali).
+     */
+    private static class EspansoreJoin extends EspansoreStati {
+        private final ReteAutomiCompilata rete;
+        private final Sottorete[] sottoreti;
+        private final CodificaStatoGlobale taglio;
+        private final int[] campoTaglio; //campo della lunghezza di ogni link di taglio nella codifica del taglio, -1 per gli altri
+        private final FiltroStatiMorti filtro;
+        private final MetricheEsplorazione.Registro registro;
+        private final int paroleTaglio;
+        private final int paroleRete;
+        private final int paroleSpazio;
+        private final int parole;
+        private final boolean osservazione;
+        private final int[] locali;
+        private final int[] arrivi;
+        private final int[] ultimaTransizione; //ultima transizione di ogni componente nell'espansione corrente
+        private final long[] successore;
+        private final long[] globale;
+        private final long[][] statiLocali;
+        private long[] successori;
+        private int[] transizioni;
+
+        private EspansoreJoin(ReteAutomiCompilata rete, Osservazione osservazione, FiltroStatiMorti filtro, MetricheEsplorazione metriche,
+                              Sottorete[] sottoreti, CodificaStatoGlobale taglio, int[] campoTaglio){
+            super(rete, osservazione, null, null, null);
+            this.rete = rete;
+            this.sottoreti = sottoreti;
+            this.taglio = taglio;
+            this.campoTaglio = campoTaglio;
+            this.filtro = filtro;
+            this.registro = metriche == null ? null : metriche.registro();
+            this.paroleTaglio = taglio.numeroParole();
+            this.paroleRete = rete.numeroParole();
+            this.paroleSpazio = super.numeroParole();
+            this.parole = paroleTaglio + (sottoreti.length + 1) / 2;
+            this.osservazione = osservazione != null;
+            this.locali = new int[sottoreti.length];
+            this.arrivi = new int[sottoreti.length];
+            this.ultimaTransizione = new int[rete.numeroComponenti()];
+            this.successore = new long[parole];
+            this.globale = new long[paroleSpazio];
+            this.statiLocali = new long[sottoreti.length][];
+            for(int i = 0; i < sottoreti.length; i++)
+                statiLocali[i] = new long[sottoreti[i].stati.numeroParole()];
+            this.successori = new long[parole];
+            this.transizioni = new int[1];
+        }
+
+        @Override
+        int numeroParole(){
+            return parole;
+        }
+
+        @Override
+        long[] statoIniziale(){
+            //link di taglio vuoti e stato locale iniziale (identificatore 0) in ogni sottorete
+            return new long[parole];
+        }
+
+        @Override
+        boolean isFinale(long[] stato){
+            for(int l = 0; l < campoTaglio.length; l++)
+                if(campoTaglio[l] >= 0 && taglio.get(stato, campoTaglio[l]) != 0)
+                    return false;
+            for(int i = 0; i < sottoreti.length; i++)
+                if(!sottoreti[i].finali.get(locale(stato, i)))
+                    return false;
+            return true;
+        }
+
+        @Override
+        void statoSpazio(long[] stato, long[] destinazione){
+            Arrays.fill(destinazione, 0, paroleSpazio, 0);
+            for(int i = 0; i < sottoreti.length; i++)
+                sottoreti[i].componi(locale(stato, i), destinazione, statiLocali[i]);
+            CodificaStatoGlobale codificaRete = rete.getCodifica();
+            for(int l = 0; l < campoTaglio.length; l++){
+                if(campoTaglio[l] < 0)
+                    continue;
+                int lunghezza = taglio.get(stato, campoTaglio[l]);
+                codificaRete.set(destinazione, rete.getCampoLunghezza(l), lunghezza);
+                for(int k = 0; k < lunghezza; k++)
+                    codificaRete.set(destinazione, rete.getCampoPosizione(l, k), taglio.get(stato, campoTaglio[l] + 1 + k));
+            }
+            if(osservazione)
+                destinazione[paroleRete] = sottoreti[0].statoOsservazione[locale(stato, 0)];
+        }
+
+        @Override
+        int espandi(long[] stato){
+            for(int i = 0; i < locali.length; i++)
+                locali[i] = locale(stato, i);
+            Arrays.fill(ultimaTransizione, -1);
+            int o = osservazione ? sottoreti[0].statoOsservazione[locali[0]] : 0;
+            int numero = 0;
+            boolean diramazione = false;
+            for(int i = 0; i < sottoreti.length; i++){
+                Sottorete sottorete = sottoreti[i];
+                for(int a = sottorete.inizioArchi[locali[i]]; a < sottorete.inizioArchi[locali[i] + 1]; a++){
+                    int g = sottorete.transizione[a];
+                    int d = sottorete.destinazione[a];
+                    if(g < 0 || !sottorete.vivi.get(d) || !sincronizza(stato, g))
+                        continue;
+                    //le altre sottoreti seguono l'osservazione, se è avanzata
+                    int o2 = osservazione ? sottorete.statoOsservazione[d] : 0;
+                    boolean vivo = true;
+                    for(int j = 0; j < sottoreti.length && vivo; j++){
+                        arrivi[j] = j == i ? d : o2 == o ? locali[j] : sottoreti[j].arrivo(locali[j], -1, o2);
+                        vivo = arrivi[j] >= 0 && sottoreti[j].vivi.get(arrivi[j]);
+                    }
+                    if(!vivo)
+                        continue;
+                    Arrays.fill(successore, paroleTaglio, parole, 0);
+                    for(int j = 0; j < sottoreti.length; j++)
+                        successore[paroleTaglio + j / 2] |= (long) arrivi[j] << (j % 2 * 32);
+                    if(filtro != null) {
+                        statoSpazio(successore, globale);
+                        if(filtro.isMorto(globale))
+                            continue;
+                    }
+                    int c = rete.getComponenteTransizione(g);
+                    diramazione |= ultimaTransizione[c] >= 0 && ultimaTransizione[c] != g;
+                    ultimaTransizione[c] = g;
+                    if((numero + 1) * parole > successori.length) {
+                        successori = Arrays.copyOf(successori, Math.max(successori.length * 2, (numero + 1) * parole));
+                        transizioni = Arrays.copyOf(transizioni, Math.max(transizioni.length * 2, numero + 1));
+                    }
+                    System.arraycopy(successore, 0, successori, numero * parole, parole);
+                    transizioni[numero++] = g;
+                }
+            }
+            if(registro != null)
+                registro.registraEspansione(numero, diramazione);
+            return numero;
+        }
+
+        /**
+         * Controlla i link di taglio della transizione g nello stato del join e scrive in successore il loro contenuto
+         * dopo la transizione: l'evento in ingresso, se arriva da un link di taglio, deve esserne in testa e gli eventi
+         * in uscita su link di taglio devono trovare posto. Il link di ingresso e quelli di uscita di una transizione
+         * sono sempre diversi tra loro se di taglio, perché collegano sottoreti diverse nei due versi.
+         * @return TRUE se la transizione è compatibile con i link di taglio, FALSE altrimenti.
+         */
+        private boolean sincronizza(long[] stato, int g){
+            System.arraycopy(stato, 0, successore, 0, paroleTaglio);
+            int c = rete.getComponenteTransizione(g);
+            int t = g - rete.primaTransizione(c);
+            AutomaCompilato automa = rete.getComponente(c);
+            int l = rete.getLinkIngresso(g);
+            if(l >= 0 && campoTaglio[l] >= 0) {
+                int campo = campoTaglio[l];
+                int lunghezza = taglio.get(successore, campo);
+                if(lunghezza == 0 || taglio.get(successore, campo + 1) != rete.getCodiceEvento(l, automa.getIngresso(t)))
+                    return false;
+                for(int k = 1; k < lunghezza; k++)
+                    taglio.set(successore, campo + k, taglio.get(successore, campo + 1 + k));
+                taglio.set(successore, campo + lunghezza, 0);
+                taglio.set(successore, campo, lunghezza - 1);
+            }
+            for(int k = 0; k < rete.numeroEventiUscita(g); k++){
+                int u = rete.getLinkUscita(g, k);
+                if(campoTaglio[u] < 0)
+                    continue;
+                int lunghezza = taglio.get(successore, campoTaglio[u]);
+                if(lunghezza == rete.getCapacita(u)) {
+                    if(registro != null)
+                        registro.registraBufferPieno();
+                    return false;
+                }
+                taglio.set(successore, campoTaglio[u] + 1 + lunghezza, rete.getCodiceEvento(u, automa.getEventoUscita(t, k)));
+                taglio.set(successore, campoTaglio[u], lunghezza + 1);
+            }
+            return true;
+        }
+
+        /**
+         * Restituisce l'identificatore dello stato locale della sottorete i nello stato del join.
+         */
+        private int locale(long[] stato, int i){
+            return (int) (stato[paroleTaglio + i / 2] >>> (i % 2 * 32));
+        }
+
+        @Override
+        int espandiCompleto(long[] stato){
+            return espandi(stato);
+        }
+
+        @Override
+        long[] getSuccessori(){
+            return successori;
+        }
+
+        @Override
+        int[] getTransizioni(){
+            return transizioni;
+        }
+
+        @Override
+        void scaricaMetriche(){
+            if(registro != null)
+                registro.scarica();
+        }
+    }
+
+    /**
+     * Costruttore privato: la classe espone solo metodi statici.
+     */
+    private EsplorazioneModulare(){
+    }
+
+    /**
+     * Genera lo spazio comportamentale della rete come join degli spazi locali delle sottoreti.
+     * @param rete Rete compilata.
+     * @param parti Sottorete (da 0 a numero di sottoreti - 1) di ogni componente.
+     * @param numeroThread Numero di thread con cui costruire gli spazi locali ed eseguire il join.
+     * @param osservazione Osservazione che vincola l'esplorazione (null per l'esplorazione completa).
+     * @param filtro Filtro degli stati morti da scartare durante il join (null per non scartare alcuno stato).
+     * @param compressioneStati TRUE per conservare gli stati dello spazio prodotto compressi ad albero (InsiemeStatiCompressi).
+     * @param metriche Metriche in cui registrare il join come le visite di EsplorazioneParallela (null per non registrarlo).
+     * @return Spazio comportamentale della rete, con la stessa diagnosi di quello generato senza scomposizione e la stessa
+     * numerazione per qualsiasi numero di thread.
+     * @throws IllegalArgumentException se la partizione non assegna ogni componente a una sottorete.
+     */
+    static SpazioComportamentale genera(ReteAutomiCompilata rete, int[] parti, int numeroThread, Osservazione osservazione,
+                                        FiltroStatiMorti filtro, boolean compressioneStati, MetricheEsplorazione metriche){
+        Sottorete[] sottoreti = sottoreti(rete, parti, osservazione);
+        ForkJoinPool pool = new ForkJoinPool(numeroThread);
+        try {
+            pool.invoke(new RecursiveAction() {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute() {
+                    invokeAll(sottoreti);
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+        //codifica del contenuto dei link di taglio: lunghezza e posizioni di ogni link, come nello stato globale
+        int[] campoTaglio = new int[rete.numeroLink()];
+        ListaInteri larghezze = ListaInteri.create();
+        for(int l = 0; l < rete.numeroLink(); l++){
+            campoTaglio[l] = -1;
+            if(parti[rete.getSorgenteLink(l)] == parti[rete.getDestinazioneLink(l)])
+                continue;
+            campoTaglio[l] = larghezze.dimensione();
+            larghezze.aggiungi(CodificaStatoGlobale.bitNecessari(rete.getCapacita(l)));
+            for(int k = 0; k < rete.getCapacita(l); k++)
+                larghezze.aggiungi(CodificaStatoGlobale.bitNecessari(rete.numeroEventiLink(l)));
+        }
+        CodificaStatoGlobale taglio = CodificaStatoGlobale.create(larghezze.toArray());
+        return EsplorazioneParallela.genera(rete, numeroThread, osservazione,
+                () -> new EspansoreJoin(rete, osservazione, filtro, metriche, sottoreti, taglio, campoTaglio), compressioneStati, metriche);
+    }
+
+    /**
+     * Controlla la partizione e crea le sottoreti.
+     */
+    private static Sottorete[] sottoreti(ReteAutomiCompilata rete, int[] parti, Osservazione osservazione){
+        if(parti.length != rete.numeroComponenti())
+            throw new IllegalArgumentException("La partizione deve assegnare una sottorete a ognuno dei " + rete.numeroComponenti() + " componenti");
+        int numeroParti = 0;
+        for(int p : parti){
+            if(p < 0)
+                throw new IllegalArgumentException("Sottorete non valida nella partizione: " + p);
+            numeroParti = Math.max(numeroParti, p + 1);
+        }
+        ArrayList<ListaInteri> componenti = new ArrayList<>();
+        for(int p = 0; p < numeroParti; p++)
+            componenti.add(ListaInteri.create());
+        for(int c = 0; c < parti.length; c++)
+            componenti.get(parti[c]).aggiungi(c);
+        ArrayList<Sottorete> sottoreti = new ArrayList<>();
+        for(int p = 0; p < numeroParti; p++)
+            if(componenti.get(p).dimensione() > 0)
+                sottoreti.add(new Sottorete(rete, componenti.get(p).toArray(), parti, p, osservazione));
+        return sottoreti.toArray(new Sottorete[0]);
+    }
+
+    /**
+     * Suddivide i componenti della rete in sottoreti lungo i link: partendo da un componente per sottorete, unisce
+     * ripetutamente le due sottoreti collegate dal maggior numero di link (a parità, quelle con meno componenti),
+     * finché non resta il numero di sottoreti richiesto; le sottoreti non collegate vengono unite a partire dalle più
+     * piccole. In questo modo i link di taglio, su cui si sincronizza il join, sono pochi.
+     * @param rete Rete compilata.
+     * @param numeroSottoreti Numero di sottoreti desiderato.
+     * @return Sottorete (da 0 a numero di sottoreti - 1) di ogni componente.
+     */
+    static int[] partiziona(ReteAutomiCompilata rete, int numeroSottoreti){
+        int n = rete.numeroComponenti();
+        int[] parti = new int[n];
+        int[] dimensione = new int[n];
+        int[][] collegamenti = new int[n][n];
+        for(int c = 0; c < n; c++){
+            parti[c] = c;
+            dimensione[c] = 1;
+        }
+        for(int l = 0; l < rete.numeroLink(); l++){
+            int a = rete.getSorgenteLink(l);
+            int b = rete.getDestinazioneLink(l);
+            if(a != b) {
+                collegamenti[a][b]++;
+                collegamenti[b][a]++;
+            }
+        }
+        for(int rimaste = n; rimaste > Math.max(numeroSottoreti, 1); rimaste--){
+            int migliorA = -1, migliorB = -1;
+            for(int a = 0; a < n; a++){
+                if(dimensione[a] == 0)
+                    continue;
+                for(int b = a + 1; b < n; b++){
+                    if(dimensione[b] == 0)
+                        continue;
+                    if(migliorA < 0 || collegamenti[a][b] > collegamenti[migliorA][migliorB]
+                            || collegamenti[a][b] == collegamenti[migliorA][migliorB]
+                            && dimensione[a] + dimensione[b] < dimensione[migliorA] + dimensione[migliorB]) {
+                        migliorA = a;
+                        migliorB = b;
+                    }
+                }
+            }
+            //unione di migliorB in migliorA
+            dimensione[migliorA] += dimensione[migliorB];
+            dimensione[migliorB] = 0;
+            for(int c = 0; c < n; c++){
+                collegamenti[migliorA][c] += collegamenti[migliorB][c];
+                collegamenti[c][migliorA] = collegamenti[migliorA][c];
+                if(parti[c] == migliorB)
+                    parti[c] = migliorA;
+            }
+            collegamenti[migliorA][migliorA] = 0;
+        }
+        //numerazione compatta delle sottoreti
+        int[] numero = new int[n];
+        Arrays.fill(numero, -1);
+        int sottoreti = 0;
+        for(int c = 0; c < n; c++){
+            if(numero[parti[c]] < 0)
+                numero[parti[c]] = sottoreti++;
+            parti[c] = numero[parti[c]];
+        }
+        return parti;
+    }
+}
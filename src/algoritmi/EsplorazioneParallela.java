@@ -0,0 +1,244 @@
+package algoritmi;
+
+import struttureDati.InsiemeStati;
+import struttureDati.InsiemeStatiCompressi;
+import struttureDati.InsiemeStatiVisitati;
+import struttureDati.InsiemeStatiVisitatiConcorrente;
+import struttureDati.ListaInteri;
+import struttureDati.MetricheEsplorazione;
+import struttureDati.Osservazione;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.SpazioComportamentale;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * Classe che esplora in parallelo lo spazio comportamentale di una rete di automi.
+ * La visita procede per livelli: la frontiera di ogni livello è suddivisa in blocchi che vengono espansi da un
+ * ForkJoinPool (con work stealing tra i thread); i successori vengono inseriti in un insieme di stati visitati
+ * concorrente, che assegna loro un identificatore provvisorio. Al termine, gli stati vengono rinumerati con una visita
+ * in ampiezza del grafo ottenuto che segue lo stesso ordine degli archi della visita sequenziale: lo spazio prodotto
+ * è quindi identico a quello di GeneratoreSpazioComportamentale.genera(rete).
+ * Gli stati visitati possono avere una rappresentazione diversa da quella degli stati dello spazio, scelta da
+ * un'estensione di EspansoreStati (ad esempio gli stati locali delle sottoreti e il contenuto dei link di taglio nel
+ * join di EsplorazioneModulare): al termine ogni stato visitato viene convertito nello stato dello spazio
+ * corrispondente (vedi EspansoreStati.statoSpazio), che deve essere diverso per stati visitati diversi.
+ */
+class EsplorazioneParallela {
+
+    private static final int DIMENSIONE_BLOCCO = 256;
+
+    /**
+     * Risultato dell'espansione di un blocco della frontiera.
+     */
+    private static class Blocco {
+        private int[] numeroArchi; //numero di archi uscenti da ogni stato del blocco
+        private ListaInteri destinazione = ListaInteri.create();
+        private ListaInteri transizione = ListaInteri.create();
+        private ListaInteri idNuovi = ListaInteri.create();
+        private long[] nuovi = new long[64];
+    }
+
+    /**
+     * Compito che espande i blocchi della frontiera in un intervallo, suddividendolo ricorsivamente.
+     */
+    private static class Espansione extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Supplier<EspansoreStati> espansori;
+        private final InsiemeStatiVisitatiConcorrente visitati;
+        private final long[] frontiera;
+        private final int dimensioneFrontiera;
+        private final Blocco[] blocchi;
+        private final int primo;
+        private final int ultimo;
+
+        private Espansione(Supplier<EspansoreStati> espansori, InsiemeStatiVisitatiConcorrente visitati, long[] frontiera,
+                           int dimensioneFrontiera, Blocco[] blocchi, int primo, int ultimo){
+            this.espansori = espansori;
+            this.visitati = visitati;
+            this.frontiera = frontiera;
+            this.dimensioneFrontiera = dimensioneFrontiera;
+            this.blocchi = blocchi;
+            this.primo = primo;
+            this.ultimo = ultimo;
+        }
+
+        @Override
+        protected void compute() {
+            if(ultimo - primo > 1) {
+                int medio = (primo + ultimo) >>> 1;
+                invokeAll(new Espansione(espansori, visitati, frontiera, dimensioneFrontiera, blocchi, primo, medio),
+                        new Espansione(espansori, visitati, frontiera, dimensioneFrontiera, blocchi, medio, ultimo));
+                return;
+            }
+            EspansoreStati espansore = espansori.get();
+            int parole = espansore.numeroParole();
+            int inizio = primo * DIMENSIONE_BLOCCO;
+            int fine = Math.min(dimensioneFrontiera, inizio + DIMENSIONE_BLOCCO);
+            Blocco blocco = new Blocco();
+            blocco.numeroArchi = new int[fine - inizio];
+            long[] stato = new long[parole];
+            for(int i = inizio; i < fine; i++){
+                System.arraycopy(frontiera, i * parole, stato, 0, parole);
+                int numeroSuccessori = espansore.espandi(stato);
+                long[] successori = espansore.getSuccessori();
+                blocco.numeroArchi[i - inizio] = numeroSuccessori;
+                for(int k = 0; k < numeroSuccessori; k++){
+                    int id = visitati.aggiungi(successori, k * parole);
+                    if(id >= 0) {
+                        int posizione = blocco.idNuovi.dimensione() * parole;
+                        if(posizione + parole > blocco.nuovi.length)
+                            blocco.nuovi = Arrays.copyOf(blocco.nuovi, Math.max(blocco.nuovi.length * 2, posizione + parole));
+                        System.arraycopy(successori, k * parole, blocco.nuovi, posizione, parole);
+                        blocco.idNuovi.aggiungi(id);
+                    }
+                    blocco.destinazione.aggiungi(id >= 0 ? id : -id - 1);
+                    blocco.transizione.aggiungi(espansore.getTransizioni()[k]);
+                }
+            }
+            espansore.scaricaMetriche();
+            blocchi[primo] = blocco;
+        }
+    }
+
+    /**
+     * Costruttore privato: la classe espone solo metodi statici.
+     */
+    private EsplorazioneParallela(){
+    }
+
+    /**
+     * Genera in parallelo lo spazio comportamentale della rete.
+     * @param rete Rete compilata.
+     * @param numeroThread Numero di thread da usare.
+     * @param osservazione Osservazione che vincola l'esplorazione (null per l'esplorazione completa).
+     * @param filtro Filtro degli stati morti da scartare durante l'esplorazione (null per non scartare alcuno stato).
+     * @param compressioneStati TRUE per conservare gli stati dello spazio prodotto compressi ad albero (InsiemeStatiCompressi).
+     * @param metriche Metriche in cui registrare l'esplorazione (null per non registrarla); i contatori sono condivisi dai
+     *                 thread, mentre frontiera e stati visitati vengono aggiornati a ogni livello.
+     * @return Spazio comportamentale della rete, identico a quello generato sequenzialmente con le stesse opzioni.
+     */
+    static SpazioComportamentale genera(ReteAutomiCompilata rete, int numeroThread, Osservazione osservazione, FiltroStatiMorti filtro,
+                                        boolean compressioneStati, MetricheEsplorazione metriche){
+        return genera(rete, numeroThread, osservazione, () -> new EspansoreStati(rete, osservazione, filtro, null, metriche), compressioneStati, metriche);
+    }
+
+    /**
+     * Genera in parallelo lo spazio comportamentale della rete, calcolando i successori con gli espansori indicati.
+     * @param rete Rete compilata.
+     * @param numeroThread Numero di thread da usare.
+     * @param osservazione Osservazione che vincola l'esplorazione (null per l'esplorazione completa).
+     * @param espansori Fornitore degli espansori (uno per ogni compito, perché un espansore non è utilizzabile da più
+     *                  thread); gli stati che producono vengono convertiti in stati dello spazio con statoSpazio.
+     * @param compressioneStati TRUE per conservare gli stati dello spazio prodotto compressi ad albero (InsiemeStatiCompressi).
+     * @param metriche Metriche in cui aggiornare frontiera e stati visitati a ogni livello (null per non aggiornarle);
+     *                 le espansioni sono registrate dagli espansori.
+     * @return Spazio comportamentale della rete, con gli stati convertiti in stati dello spazio.
+     */
+    static SpazioComportamentale genera(ReteAutomiCompilata rete, int numeroThread, Osservazione osservazione, Supplier<EspansoreStati> espansori,
+                                        boolean compressioneStati, MetricheEsplorazione metriche){
+        EspansoreStati espansore = espansori.get();
+        int parole = espansore.numeroParole();
+        int paroleSpazio = rete.numeroParole() + (osservazione == null ? 0 : 1);
+        InsiemeStatiVisitatiConcorrente visitati = InsiemeStatiVisitatiConcorrente.create(parole, numeroThread);
+        int[] inizioArchi = new int[1024];
+        int[] numeroArchi = new int[1024];
+        ListaInteri destinazione = ListaInteri.create();
+        ListaInteri transizione = ListaInteri.create();
+
+        long[] frontiera = espansore.statoIniziale();
+        int[] idFrontiera = {visitati.aggiungi(frontiera)};
+        ForkJoinPool pool = new ForkJoinPool(numeroThread);
+        try {
+            while(idFrontiera.length > 0){
+                if(metriche != null) {
+                    metriche.aggiornaFrontiera(idFrontiera.length);
+                    metriche.aggiornaVisitati(visitati.dimensione(), visitati.fattoreCarico(), visitati.byteOccupati());
+                }
+                Blocco[] blocchi = new Blocco[(idFrontiera.length + DIMENSIONE_BLOCCO - 1) / DIMENSIONE_BLOCCO];
+                pool.invoke(new Espansione(espansori, visitati, frontiera, idFrontiera.length, blocchi, 0, blocchi.length));
+
+                //raccolta (sequenziale) degli archi e della nuova frontiera nell'ordine dei blocchi
+                if(visitati.dimensione() > inizioArchi.length) {
+                    inizioArchi = Arrays.copyOf(inizioArchi, Math.max(visitati.dimensione(), inizioArchi.length * 2));
+                    numeroArchi = Arrays.copyOf(numeroArchi, inizioArchi.length);
+                }
+                int numeroNuovi = 0;
+                for(Blocco blocco : blocchi)
+                    numeroNuovi += blocco.idNuovi.dimensione();
+                long[] nuovaFrontiera = new long[numeroNuovi * parole];
+                int[] nuoviId = new int[numeroNuovi];
+                int sorgente = 0;
+                int nuovi = 0;
+                for(Blocco blocco : blocchi){
+                    int arco = 0;
+                    for(int i = 0; i < blocco.numeroArchi.length; i++, sorgente++){
+                        inizioArchi[idFrontiera[sorgente]] = destinazione.dimensione();
+                        numeroArchi[idFrontiera[sorgente]] = blocco.numeroArchi[i];
+                        for(int k = 0; k < blocco.numeroArchi[i]; k++, arco++){
+                            destinazione.aggiungi(blocco.destinazione.get(arco));
+                            transizione.aggiungi(blocco.transizione.get(arco));
+                        }
+                    }
+                    System.arraycopy(blocco.nuovi, 0, nuovaFrontiera, nuovi * parole, blocco.idNuovi.dimensione() * parole);
+                    for(int i = 0; i < blocco.idNuovi.dimensione(); i++)
+                        nuoviId[nuovi++] = blocco.idNuovi.get(i);
+                }
+                frontiera = nuovaFrontiera;
+                idFrontiera = nuoviId;
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        //rinumerazione canonica: visita in ampiezza del grafo con identificatori provvisori
+        int numeroStati = visitati.dimensione();
+        int[] nuovoId = new int[numeroStati];
+        Arrays.fill(nuovoId, -1);
+        int[] ordine = new int[numeroStati];
+        int[] inizioCanonico = new int[numeroStati + 1];
+        int[] destinazioneCanonica = new int[destinazione.dimensione()];
+        int[] transizioneCanonica = new int[transizione.dimensione()];
+        nuovoId[0] = 0;
+        int scoperti = 1;
+        int arco = 0;
+        for(int i = 0; i < numeroStati; i++){
+            int u = ordine[i];
+            inizioCanonico[i] = arco;
+            for(int a = inizioArchi[u]; a < inizioArchi[u] + numeroArchi[u]; a++, arco++){
+                int d = destinazione.get(a);
+                if(nuovoId[d] < 0) {
+                    nuovoId[d] = scoperti;
+                    ordine[scoperti++] = d;
+                }
+                destinazioneCanonica[arco] = nuovoId[d];
+                transizioneCanonica[arco] = transizione.get(a);
+            }
+        }
+        inizioCanonico[numeroStati] = arco;
+
+        long[] statiProvvisori = new long[numeroStati * parole];
+        visitati.copiaStati(statiProvvisori);
+        InsiemeStati stati = compressioneStati ? InsiemeStatiCompressi.create(paroleSpazio, numeroStati) : InsiemeStatiVisitati.create(paroleSpazio, numeroStati);
+        BitSet finali = new BitSet(numeroStati);
+        long[] stato = new long[parole];
+        long[] statoSpazio = new long[paroleSpazio];
+        for(int i = 0; i < numeroStati; i++){
+            System.arraycopy(statiProvvisori, ordine[i] * parole, stato, 0, parole);
+            espansore.statoSpazio(stato, statoSpazio);
+            stati.aggiungi(statoSpazio);
+            if(espansore.isFinale(stato))
+                finali.set(i);
+        }
+        stati.compatta();
+        if(metriche != null) {
+            metriche.aggiornaFrontiera(0);
+            metriche.aggiornaVisitati(stati);
+        }
+        return SpazioComportamentale.create(rete, osservazione, stati, inizioCanonico, destinazioneCanonica, transizioneCanonica, finali);
+    }
+}
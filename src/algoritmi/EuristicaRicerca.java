@@ -0,0 +1,15 @@
+package algoritmi;
+
+/**
+ * Interfaccia che rappresenta l'euristica di una ricerca migliore-prima nello spazio degli stati di una rete (vedi
+ * RicercaStati): gli stati con stima minore vengono espansi per primi.
+ */
+public interface EuristicaRicerca {
+
+    /**
+     * Stima la distanza dello stato dall'obiettivo.
+     * @param stato Stato codificato (da non modificare).
+     * @return Stima della distanza (minore è più promettente).
+     */
+    int stima(long[] stato);
+}
@@ -0,0 +1,91 @@
+package algoritmi;
+
+import struttureDati.AutomaCompilato;
+import struttureDati.ReteAutomiCompilata;
+
+import java.util.BitSet;
+
+/**
+ * Classe che riconosce, durante l'esplorazione, gli stati globali che sicuramente non possono raggiungere uno stato finale.
+ * Per ogni componente e per ogni suo stato viene precalcolato l'insieme degli eventi che il componente potrà ancora
+ * consumare (eventi in ingresso alle transizioni raggiungibili da quello stato nel grafo del componente).
+ * Uno stato globale è morto se un link contiene un evento che il componente destinazione non potrà mai consumare:
+ * il link non potrà più svuotarsi e quindi nessuno stato finale è raggiungibile.
+ * Il controllo è conservativo: uno stato non riconosciuto come morto può comunque essere eliminato dalla potatura finale.
+ */
+public class FiltroStatiMorti {
+
+    private final ReteAutomiCompilata rete;
+    private final BitSet[][] consumabili; //eventi consumabili da ogni stato di ogni componente
+
+    /**
+     * Costruttore della classe FiltroStatiMorti.
+     * @param rete Rete compilata.
+     * @param consumabili Eventi consumabili da ogni stato di ogni componente.
+     */
+    private FiltroStatiMorti(ReteAutomiCompilata rete, BitSet[][] consumabili){
+        this.rete = rete;
+        this.consumabili = consumabili;
+    }
+
+    /**
+     * Permette di creare in modo statico il filtro per la rete indicata.
+     * @param rete Rete compilata.
+     * @return Istanza della classe FiltroStatiMorti.
+     */
+    public static FiltroStatiMorti create(ReteAutomiCompilata rete){
+        BitSet[][] consumabili = new BitSet[rete.numeroComponenti()][];
+        for(int c = 0; c < rete.numeroComponenti(); c++)
+            consumabili[c] = eventiConsumabili(rete.getComponente(c));
+        return new FiltroStatiMorti(rete, consumabili);
+    }
+
+    /**
+     * Calcola per ogni stato dell'automa gli eventi in ingresso alle transizioni raggiungibili da quello stato,
+     * con una visita in ampiezza da ogni stato (gli automi componenti sono piccoli rispetto allo spazio comportamentale).
+     */
+    private static BitSet[] eventiConsumabili(AutomaCompilato automa){
+        int n = automa.numeroStati();
+        BitSet[] consumabili = new BitSet[n];
+        int[] coda = new int[n];
+        for(int s = 0; s < n; s++){
+            BitSet eventi = new BitSet();
+            boolean[] raggiunti = new boolean[n];
+            int testa = 0, fine = 0;
+            coda[fine++] = s;
+            raggiunti[s] = true;
+            while(testa < fine){
+                int x = coda[testa++];
+                for(int t = automa.inizioTransizioni(x); t < automa.fineTransizioni(x); t++){
+                    if(automa.getIngresso(t) >= 0)
+                        eventi.set(automa.getIngresso(t));
+                    if(!raggiunti[automa.getArrivo(t)]) {
+                        raggiunti[automa.getArrivo(t)] = true;
+                        coda[fine++] = automa.getArrivo(t);
+                    }
+                }
+            }
+            consumabili[s] = eventi;
+        }
+        return consumabili;
+    }
+
+    /**
+     * Controlla se lo stato globale è sicuramente morto (non può raggiungere alcuno stato finale).
+     * @param stato Stato globale codificato.
+     * @return TRUE se lo stato è morto, FALSE se potrebbe raggiungere uno stato finale.
+     */
+    public boolean isMorto(long[] stato){
+        for(int l = 0; l < rete.numeroLink(); l++){
+            int lunghezza = rete.getLunghezzaLink(stato, l);
+            if(lunghezza == 0)
+                continue;
+            int d = rete.getDestinazioneLink(l);
+            BitSet eventi = consumabili[d][rete.getStatoComponente(stato, d)];
+            for(int k = 0; k < lunghezza; k++)
+                if(!eventi.get(rete.getEventoLink(stato, l, k)))
+                    return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,60 @@
+package algoritmi;
+
+import struttureDati.Diagnosticatore;
+import struttureDati.EspressioneRegolare;
+import struttureDati.FabbricaEspressioni;
+import struttureDati.InsiemeStatiVisitati;
+import struttureDati.ListaInteri;
+import struttureDati.ReteAutomiCompilata;
+
+import java.util.ArrayList;
+
+/**
+ * Classe che compila (una volta sola, fuori linea) il diagnosticatore di una rete di automi.
+ * Partendo dallo stato iniziale, per ogni stato di ingresso si esplora la sua chiusura silenziosa (visita in ampiezza
+ * con le sole transizioni non osservabili); gli stati di arrivo delle transizioni osservabili uscenti diventano a loro
+ * volta stati di ingresso, fino a esaurirli. Per ogni chiusura si calcolano con LinguaggiCammini le espressioni dei
+ * cammini dall'ingresso agli stati finali e agli stati da cui escono transizioni osservabili.
+ * Gli stati morti (riconosciuti da FiltroStatiMorti) non vengono esplorati.
+ */
+public class GeneratoreDiagnosticatore {
+
+    /**
+     * Costruttore privato: la classe espone solo metodi statici.
+     */
+    private GeneratoreDiagnosticatore(){
+    }
+
+    /**
+     * Compila il diagnosticatore della rete.
+     * @param rete Rete compilata.
+     * @return Diagnosticatore della rete.
+     */
+    public static Diagnosticatore genera(ReteAutomiCompilata rete){
+        FabbricaEspressioni fabbrica = FabbricaEspressioni.create();
+        EsploratoreChiusure esploratore = new EsploratoreChiusure(rete);
+        InsiemeStatiVisitati ingressi = InsiemeStatiVisitati.create(rete.numeroParole());
+        ArrayList<EspressioneRegolare> finale = new ArrayList<>();
+        ListaInteri inizioArchi = ListaInteri.create();
+        ListaInteri etichetta = ListaInteri.create();
+        ListaInteri destinazione = ListaInteri.create();
+        ArrayList<EspressioneRegolare> espressione = new ArrayList<>();
+        long[] stato = new long[rete.numeroParole()];
+
+        ingressi.aggiungi(rete.statoIniziale());
+        for(int c = 0; c < ingressi.dimensione(); c++){
+            ingressi.leggi(c, stato);
+            EsploratoreChiusure.Chiusura chiusura = esploratore.esplora(stato, ingressi, fabbrica);
+            finale.add(chiusura.getFinale());
+            inizioArchi.aggiungi(destinazione.dimensione());
+            for(int u = 0; u < chiusura.numeroUscite(); u++){
+                etichetta.aggiungi(chiusura.getEtichetta(u));
+                destinazione.aggiungi(chiusura.getDestinazione(u));
+                espressione.add(chiusura.getEspressione(u));
+            }
+        }
+        inizioArchi.aggiungi(destinazione.dimensione());
+        ingressi.compatta();
+        return Diagnosticatore.create(rete, fabbrica, ingressi, finale.toArray(new EspressioneRegolare[0]), inizioArchi.toArray(), etichetta.toArray(), destinazione.toArray(), espressione.toArray(new EspressioneRegolare[0]));
+    }
+}
@@ -0,0 +1,148 @@
+package algoritmi;
+
+import struttureDati.InsiemeStati;
+import struttureDati.InsiemeStatiCompressi;
+import struttureDati.InsiemeStatiVisitati;
+import struttureDati.ListaInteri;
+import struttureDati.MetricheEsplorazione;
+import struttureDati.Osservazione;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.SpazioComportamentale;
+
+import java.util.BitSet;
+
+/**
+ * Classe che genera lo spazio comportamentale di una rete di automi tramite una visita in ampiezza degli stati globali.
+ * Gli stati visitati sono memorizzati in forma codificata in un InsiemeStatiVisitati (o, se richiesto dalle opzioni,
+ * compressi ad albero in un InsiemeStatiCompressi): poiché gli identificatori
+ * sono assegnati nell'ordine di scoperta, l'insieme stesso funge da coda della visita (lo stato i-esimo viene
+ * espanso all'i-esimo passo) e gli archi vengono prodotti già ordinati per stato di partenza.
+ */
+public class GeneratoreSpazioComportamentale {
+
+    private static final int PERIODO_METRICHE = 4096; //stati espansi tra due aggiornamenti di frontiera e stati visitati
+
+    /**
+     * Costruttore privato: la classe espone solo metodi statici.
+     */
+    private GeneratoreSpazioComportamentale(){
+    }
+
+    /**
+     * Genera lo spazio comportamentale della rete a partire dal suo stato globale iniziale.
+     * @param rete Rete compilata.
+     * @return Spazio comportamentale (non potato) della rete.
+     */
+    public static SpazioComportamentale genera(ReteAutomiCompilata rete){
+        return genera(rete, OpzioniEsplorazione.create());
+    }
+
+    /**
+     * Genera lo spazio comportamentale della rete con le opzioni indicate.
+     * Con più di un thread la visita è eseguita in parallelo (vedi EsplorazioneParallela); il risultato è comunque
+     * identico (stessa numerazione di stati e archi) a quello della visita sequenziale.
+     * Con la potatura in linea gli stati riconosciuti come morti da FiltroStatiMorti non vengono inseriti nello spazio
+     * (né espansi); lo spazio va comunque potato con Potatura.pota per eliminare tutti gli stati non co-raggiungibili.
+     * Con un'osservazione viene esplorato solo il prodotto della rete con l'osservazione (vedi EspansoreStati):
+     * lo spazio ottenuto contiene solo i comportamenti coerenti con l'osservazione.
+     * Con una cartella di memoria esterna la visita è eseguita su disco (vedi EsplorazioneEsterna) e il numero di
+     * thread viene ignorato: lo spazio ottenuto è lo stesso, con una diversa numerazione degli stati.
+     * Con la riduzione a ordini parziali (vedi RiduzioneOrdiniParziali) la visita è sequenziale e in memoria (il numero
+     * di thread viene ignorato) e lo spazio ottenuto è più piccolo, ma con la stessa diagnosi: uno stato viene espanso
+     * completamente quando uno dei successori del suo insieme ampio è già stato espanso (identificatore non maggiore del
+     * suo), per cui ogni ciclo dello spazio contiene uno stato espanso completamente.
+     * Con una scomposizione in sottoreti (partizione o numero di sottoreti maggiore di 1) gli spazi delle sottoreti
+     * (vincolati dall'osservazione) vengono costruiti in parallelo e combinati da un join eseguito come la visita
+     * parallela (vedi EsplorazioneModulare): lo spazio ottenuto ha la stessa diagnosi, ma non contiene gli stati da cui
+     * una sottorete non può più svuotare i propri link interni o completare l'osservazione. Il join resta una visita
+     * degli stati globali, per cui non rende esplorabili reti il cui spazio monolitico non lo è.
+     * Con delle metriche (vedi MetricheEsplorazione) ogni espansione viene registrata durante la visita, mentre
+     * frontiera e stati visitati vengono aggiornati periodicamente (a ogni livello nelle visite parallela ed esterna).
+     * @param rete Rete compilata.
+     * @param opzioni Opzioni di esplorazione.
+     * @return Spazio comportamentale della rete.
+     * @throws IllegalArgumentException se la riduzione a ordini parziali è richiesta insieme alla visita in memoria esterna
+     * o se la scomposizione in sottoreti è richiesta insieme alla visita in memoria esterna o alla riduzione a ordini
+     * parziali.
+     */
+    public static SpazioComportamentale genera(ReteAutomiCompilata rete, OpzioniEsplorazione opzioni){
+        FiltroStatiMorti filtro = opzioni.isPotaturaInLinea() ? FiltroStatiMorti.create(rete) : null;
+        Osservazione osservazione = opzioni.getOsservazione();
+        RiduzioneOrdiniParziali riduzione = opzioni.isRiduzioneOrdiniParziali() ? new RiduzioneOrdiniParziali(rete) : null;
+        MetricheEsplorazione metriche = opzioni.getMetriche();
+        if(metriche != null)
+            metriche.azzera();
+        if(riduzione != null && opzioni.getCartellaMemoriaEsterna() != null)
+            throw new IllegalArgumentException("La riduzione a ordini parziali richiede la visita in memoria");
+        boolean modulare = opzioni.getPartizione() != null || opzioni.getNumeroSottoreti() > 1;
+        if(modulare && (riduzione != null || opzioni.getCartellaMemoriaEsterna() != null))
+            throw new IllegalArgumentException("La scomposizione in sottoreti richiede la visita in memoria senza riduzione a ordini parziali");
+        if(modulare) {
+            int[] partizione = opzioni.getPartizione() != null ? opzioni.getPartizione()
+                    : EsplorazioneModulare.partiziona(rete, opzioni.getNumeroSottoreti());
+            return EsplorazioneModulare.genera(rete, partizione, opzioni.getNumeroThread(), osservazione, filtro, opzioni.isCompressioneStati(), metriche);
+        }
+        if(opzioni.getCartellaMemoriaEsterna() != null)
+            return EsplorazioneEsterna.genera(rete, osservazione, filtro, opzioni.getCartellaMemoriaEsterna(), opzioni.getSogliaMemoria(), opzioni.getMassimoRun(), metriche);
+        if(opzioni.getNumeroThread() > 1 && riduzione == null)
+            return EsplorazioneParallela.genera(rete, opzioni.getNumeroThread(), osservazione, filtro, opzioni.isCompressioneStati(), metriche);
+        EspansoreStati espansore = new EspansoreStati(rete, osservazione, filtro, riduzione, metriche);
+        int parole = espansore.numeroParole();
+        InsiemeStati visitati = opzioni.isCompressioneStati() ? InsiemeStatiCompressi.create(parole) : InsiemeStatiVisitati.create(parole);
+        ListaInteri inizioArchi = ListaInteri.create();
+        ListaInteri destinazione = ListaInteri.create();
+        ListaInteri transizione = ListaInteri.create();
+        BitSet finali = new BitSet();
+        long[] stato = new long[parole];
+        long[] successore = new long[parole];
+
+        visitati.aggiungi(espansore.statoIniziale());
+        for(int s = 0; s < visitati.dimensione(); s++){
+            if(metriche != null && s % PERIODO_METRICHE == 0) {
+                espansore.scaricaMetriche();
+                metriche.aggiornaFrontiera(visitati.dimensione() - s);
+                metriche.aggiornaVisitati(visitati);
+            }
+            visitati.leggi(s, stato);
+            inizioArchi.aggiungi(destinazione.dimensione());
+            if(espansore.isFinale(stato))
+                finali.set(s);
+            int numeroSuccessori = espansore.espandi(stato);
+            long[] successori = espansore.getSuccessori();
+            //condizione sui cicli: un insieme ampio che porta a uno stato già espanso viene sostituito da tutte le transizioni
+            for(int i = 0; i < numeroSuccessori && espansore.isRidotto(); i++){
+                System.arraycopy(successori, i * parole, successore, 0, parole);
+                int id = visitati.cerca(successore);
+                if(id >= 0 && id <= s) {
+                    numeroSuccessori = espansore.espandiCompleto(stato);
+                    successori = espansore.getSuccessori();
+                }
+            }
+            for(int i = 0; i < numeroSuccessori; i++){
+                int id = visitati.aggiungi(successori, i * parole);
+                destinazione.aggiungi(id >= 0 ? id : -id - 1);
+                transizione.aggiungi(espansore.getTransizioni()[i]);
+            }
+        }
+        inizioArchi.aggiungi(destinazione.dimensione());
+        visitati.compatta();
+        if(metriche != null) {
+            espansore.scaricaMetriche();
+            metriche.aggiornaFrontiera(0);
+            metriche.aggiornaVisitati(visitati);
+        }
+        return SpazioComportamentale.create(rete, osservazione, visitati, inizioArchi.toArray(), destinazione.toArray(), transizione.toArray(), finali);
+    }
+
+    /**
+     * Genera lo spazio comportamentale della rete usando il numero di thread indicato.
+     * @param rete Rete compilata.
+     * @param numeroThread Numero di thread da usare (1 per la visita sequenziale).
+     * @return Spazio comportamentale (non potato) della rete.
+     */
+    public static SpazioComportamentale genera(ReteAutomiCompilata rete, int numeroThread){
+        OpzioniEsplorazione opzioni = OpzioniEsplorazione.create();
+        opzioni.setNumeroThread(numeroThread);
+        return genera(rete, opzioni);
+    }
+}
@@ -0,0 +1,398 @@
+package algoritmi;
+
+import struttureDati.AutomaCompilato;
+import struttureDati.CodificaStatoGlobale;
+import struttureDati.FabbricaBdd;
+import struttureDati.ListaInteri;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.SpazioSimbolico;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Classe che genera in forma simbolica (con BDD) lo spazio comportamentale di una rete di automi, per le reti i cui
+ * stati globali sono troppi per essere enumerati uno alla volta.
+ * Ogni bit della codifica degli stati globali (stati dei componenti, lunghezze e contenuti dei link) diventa una
+ * variabile booleana; le variabili sono ordinate per campo, con ogni componente seguito dai link su cui scrive, in modo
+ * che i campi che cambiano insieme siano vicini. Ogni transizione è una relazione tra i soli campi che modifica (stato
+ * del suo componente e link da cui legge o su cui scrive); gli altri campi restano invariati e non compaiono nella
+ * relazione. Il comportamento FIFO dei link è descritto posizione per posizione, senza enumerarne i contenuti: per ogni
+ * lunghezza del link la relazione confronta la testa con l'evento consumato, fa scorrere di una posizione gli eventi
+ * successivi (uguaglianza tra il campo corrente di una posizione e quello successivo della precedente) e scrive gli
+ * eventi accodati a partire dalla nuova lunghezza, per cui la sua dimensione è polinomiale nella capacità e nel numero
+ * di bit dei codici degli eventi. La relazione vale sugli stati che rispettano la codifica (posizioni oltre la
+ * lunghezza vuote, codici validi nelle altre), quindi su tutti gli stati raggiungibili.
+ * Le transizioni che modificano gli stessi campi sono unite in un'unica relazione.
+ * Gli stati raggiungibili sono calcolati con una visita in ampiezza per immagini successive a partire dallo stato
+ * iniziale; lo spazio potato con una visita all'indietro (per controimmagini) dagli stati finali, ristretta agli stati
+ * raggiungibili. Lo spazio non è vincolato da osservazioni.
+ */
+public class GeneratoreSpazioSimbolico {
+
+    private static final int SOGLIA_COMPATTAZIONE = 1 << 20;
+
+    private final ReteAutomiCompilata rete;
+    private final CodificaStatoGlobale codifica;
+    private final FabbricaBdd fabbrica;
+    private final int[] primoBit;
+    private final int[] campoBit;
+    private final int[] posizioneBit;
+    private final int[] primoACorrente;
+    private final ArrayList<int[]> campiGruppo;
+    private final ArrayList<int[]> correnteAPrimo;
+    private int[] relazioneGruppo;
+    private int[] cuboCorrente;
+    private int[] cuboPrimo;
+    private int[] relazioneTransizione;
+    private int[] gruppoTransizione;
+    private int sogliaCompattazione;
+
+    /**
+     * Costruttore della classe GeneratoreSpazioSimbolico: assegna le variabili ai bit della codifica.
+     * @param rete Rete compilata.
+     */
+    private GeneratoreSpazioSimbolico(ReteAutomiCompilata rete){
+        this.rete = rete;
+        this.codifica = rete.getCodifica();
+        ArrayList<Integer> ordine = new ArrayList<>();
+        for(int c = 0; c < rete.numeroComponenti(); c++){
+            ordine.add(c);
+            for(int l = 0; l < rete.numeroLink(); l++){
+                if(rete.getSorgenteLink(l) != c)
+                    continue;
+                ordine.add(rete.getCampoLunghezza(l));
+                for(int k = 0; k < rete.getCapacita(l); k++)
+                    ordine.add(rete.getCampoPosizione(l, k));
+            }
+        }
+        //il bit più significativo di ogni campo precede gli altri
+        this.primoBit = new int[codifica.numeroCampi()];
+        int numeroBit = 0;
+        for(int campo : ordine){
+            primoBit[campo] = numeroBit;
+            numeroBit += codifica.larghezza(campo);
+        }
+        this.campoBit = new int[numeroBit];
+        this.posizioneBit = new int[numeroBit];
+        for(int campo : ordine)
+            for(int j = 0; j < codifica.larghezza(campo); j++){
+                int i = bit(campo, j);
+                campoBit[i] = campo;
+                posizioneBit[i] = j;
+            }
+        this.fabbrica = FabbricaBdd.create(2 * numeroBit);
+        this.primoACorrente = new int[2 * numeroBit];
+        for(int v = 0; v < primoACorrente.length; v++)
+            primoACorrente[v] = v & ~1;
+        this.campiGruppo = new ArrayList<>();
+        this.correnteAPrimo = new ArrayList<>();
+        this.sogliaCompattazione = SOGLIA_COMPATTAZIONE;
+    }
+
+    /**
+     * Genera lo spazio comportamentale simbolico della rete.
+     * @param rete Rete compilata.
+     * @return Spazio simbolico con gli stati raggiungibili e lo spazio potato.
+     */
+    public static SpazioSimbolico genera(ReteAutomiCompilata rete){
+        GeneratoreSpazioSimbolico generatore = new GeneratoreSpazioSimbolico(rete);
+        generatore.costruisciRelazioni();
+        return generatore.visita();
+    }
+
+    /**
+     * Calcola gli stati raggiungibili, quelli finali e lo spazio potato, con il numero di archi di entrambi gli spazi.
+     */
+    private SpazioSimbolico visita(){
+        //stati raggiungibili: visita in ampiezza per immagini
+        int[] insiemi = new int[3];
+        insiemi[0] = stato(rete.statoIniziale(), tuttiCampi(), false);
+        insiemi[1] = insiemi[0];
+        int iterazioni = 0;
+        while(insiemi[1] != FabbricaBdd.FALSO){
+            int nuovi = fabbrica.e(immagine(insiemi[1]), fabbrica.non(insiemi[0]));
+            insiemi[0] = fabbrica.o(insiemi[0], nuovi);
+            insiemi[1] = nuovi;
+            iterazioni++;
+            compattaSeNecessario(insiemi);
+        }
+        int raggiungibili = insiemi[0];
+
+        //stati finali: tutti i link vuoti
+        int vuoti = FabbricaBdd.VERO;
+        for(int l = 0; l < rete.numeroLink(); l++)
+            vuoti = fabbrica.e(vuoti, valore(rete.getCampoLunghezza(l), 0, false));
+        int finali = fabbrica.e(raggiungibili, vuoti);
+
+        //spazio potato: visita all'indietro dagli stati finali, ristretta agli stati raggiungibili
+        insiemi = new int[]{raggiungibili, finali, finali, finali};
+        while(insiemi[3] != FabbricaBdd.FALSO){
+            int nuovi = fabbrica.e(fabbrica.e(controimmagine(insiemi[3], -1), insiemi[0]), fabbrica.non(insiemi[2]));
+            insiemi[2] = fabbrica.o(insiemi[2], nuovi);
+            insiemi[3] = nuovi;
+            compattaSeNecessario(insiemi);
+        }
+        raggiungibili = insiemi[0];
+        finali = insiemi[1];
+        int potati = insiemi[2];
+
+        //ogni transizione abilitata in uno stato è un arco (il successore di uno stato raggiungibile è raggiungibile)
+        BigInteger archi = BigInteger.ZERO;
+        BigInteger archiPotati = BigInteger.ZERO;
+        for(int g = 0; g < relazioneTransizione.length; g++){
+            archi = archi.add(conta(fabbrica.e(raggiungibili, controimmagine(raggiungibili, g))));
+            archiPotati = archiPotati.add(conta(fabbrica.e(potati, controimmagine(potati, g))));
+        }
+        insiemi = new int[]{raggiungibili, finali, potati};
+        fabbrica.compatta(insiemi);
+        return SpazioSimbolico.create(rete, fabbrica, campoBit, posizioneBit, insiemi[0], insiemi[1], insiemi[2], archi, archiPotati, iterazioni);
+    }
+
+    /**
+     * Costruisce la relazione di ogni transizione e le relazioni dei gruppi di transizioni che modificano gli stessi campi.
+     */
+    private void costruisciRelazioni(){
+        int numeroTransizioni = rete.numeroTransizioni();
+        relazioneTransizione = new int[numeroTransizioni];
+        gruppoTransizione = new int[numeroTransizioni];
+        HashMap<String, Integer> gruppi = new HashMap<>();
+        ArrayList<Integer> relazioni = new ArrayList<>();
+        for(int g = 0; g < numeroTransizioni; g++){
+            int[] campi = campiModificati(g);
+            relazioneTransizione[g] = relazione(g, campi);
+            Integer gruppo = gruppi.get(Arrays.toString(campi));
+            if(gruppo == null) {
+                gruppo = campiGruppo.size();
+                gruppi.put(Arrays.toString(campi), gruppo);
+                campiGruppo.add(campi);
+                relazioni.add(FabbricaBdd.FALSO);
+                int[] mappa = new int[fabbrica.numeroVariabili()];
+                for(int v = 0; v < mappa.length; v++)
+                    mappa[v] = v;
+                for(int campo : campi)
+                    for(int j = 0; j < codifica.larghezza(campo); j++)
+                        mappa[2 * bit(campo, j)] = 2 * bit(campo, j) + 1;
+                correnteAPrimo.add(mappa);
+            }
+            gruppoTransizione[g] = gruppo;
+            relazioni.set(gruppo, fabbrica.o(relazioni.get(gruppo), relazioneTransizione[g]));
+        }
+        int numeroGruppi = campiGruppo.size();
+        relazioneGruppo = new int[numeroGruppi];
+        cuboCorrente = new int[numeroGruppi];
+        cuboPrimo = new int[numeroGruppi];
+        for(int i = 0; i < numeroGruppi; i++){
+            relazioneGruppo[i] = relazioni.get(i);
+            int[] campi = campiGruppo.get(i);
+            int numero = 0;
+            for(int campo : campi)
+                numero += codifica.larghezza(campo);
+            int[] correnti = new int[numero];
+            int[] primi = new int[numero];
+            numero = 0;
+            for(int campo : campi)
+                for(int j = 0; j < codifica.larghezza(campo); j++){
+                    correnti[numero] = 2 * bit(campo, j);
+                    primi[numero++] = 2 * bit(campo, j) + 1;
+                }
+            cuboCorrente[i] = fabbrica.cubo(correnti);
+            cuboPrimo[i] = fabbrica.cubo(primi);
+        }
+    }
+
+    /**
+     * Restituisce i campi modificati da una transizione (ordinati): lo stato del componente e tutti i campi dei link da
+     * cui legge o su cui scrive.
+     */
+    private int[] campiModificati(int g){
+        ArrayList<Integer> link = new ArrayList<>();
+        if(rete.getLinkIngresso(g) >= 0)
+            link.add(rete.getLinkIngresso(g));
+        for(int k = 0; k < rete.numeroEventiUscita(g); k++)
+            if(!link.contains(rete.getLinkUscita(g, k)))
+                link.add(rete.getLinkUscita(g, k));
+        ArrayList<Integer> campi = new ArrayList<>();
+        campi.add(rete.getComponenteTransizione(g));
+        for(int l : link){
+            campi.add(rete.getCampoLunghezza(l));
+            for(int k = 0; k < rete.getCapacita(l); k++)
+                campi.add(rete.getCampoPosizione(l, k));
+        }
+        int[] risultato = new int[campi.size()];
+        for(int i = 0; i < risultato.length; i++)
+            risultato[i] = campi.get(i);
+        Arrays.sort(risultato);
+        return risultato;
+    }
+
+    /**
+     * Costruisce la relazione di una transizione: stato del componente prima e dopo la transizione e, per ogni link
+     * modificato, la relazione tra i suoi campi correnti e successivi.
+     */
+    private int relazione(int g, int[] campi){
+        int c = rete.getComponenteTransizione(g);
+        int t = g - rete.primaTransizione(c);
+        AutomaCompilato automa = rete.getComponente(c);
+        int risultato = fabbrica.e(valore(c, automa.getPartenza(t), false), valore(c, automa.getArrivo(t), true));
+        for(int campo : campi)
+            for(int l = 0; l < rete.numeroLink(); l++){
+                if(rete.getCampoLunghezza(l) != campo)
+                    continue;
+                //codici degli eventi accodati nel link, nell'ordine in cui vengono emessi
+                ListaInteri accodati = ListaInteri.create();
+                for(int k = 0; k < rete.numeroEventiUscita(g); k++)
+                    if(rete.getLinkUscita(g, k) == l)
+                        accodati.aggiungi(rete.getCodiceEvento(l, automa.getEventoUscita(t, k)));
+                int testa = rete.getLinkIngresso(g) == l ? rete.getCodiceEvento(l, automa.getIngresso(t)) : -1;
+                risultato = fabbrica.e(risultato, relazioneLink(l, testa, accodati.toArray()));
+            }
+        return risultato;
+    }
+
+    /**
+     * Costruisce la relazione tra i campi correnti e successivi di un link modificato da una transizione: l'unione, per
+     * ogni lunghezza corrente con cui la transizione è abilitata, della lunghezza successiva, della testa consumata,
+     * dello scorrimento degli eventi rimasti e degli eventi accodati (le posizioni oltre la nuova lunghezza si svuotano).
+     * @param testa Codice dell'evento consumato dalla testa del link (0 se il link non lo trasporta), -1 se la
+     *              transizione non consuma dal link.
+     * @param accodati Codici degli eventi accodati nel link.
+     */
+    private int relazioneLink(int l, int testa, int[] accodati){
+        if(testa == 0)
+            return FabbricaBdd.FALSO;
+        int consumati = testa > 0 ? 1 : 0;
+        int capacita = rete.getCapacita(l);
+        int risultato = FabbricaBdd.FALSO;
+        for(int lunghezza = consumati; lunghezza <= capacita && lunghezza - consumati + accodati.length <= capacita; lunghezza++){
+            int rimasti = lunghezza - consumati;
+            int nuovaLunghezza = rimasti + accodati.length;
+            int relazione = fabbrica.e(valore(rete.getCampoLunghezza(l), lunghezza, false), valore(rete.getCampoLunghezza(l), nuovaLunghezza, true));
+            if(testa > 0)
+                relazione = fabbrica.e(relazione, valore(rete.getCampoPosizione(l, 0), testa, false));
+            for(int k = 0; k < capacita; k++){
+                int campo = rete.getCampoPosizione(l, k);
+                if(k < rimasti)
+                    relazione = fabbrica.e(relazione, uguali(rete.getCampoPosizione(l, k + consumati), campo));
+                else
+                    relazione = fabbrica.e(relazione, valore(campo, k < nuovaLunghezza ? accodati[k - rimasti] : 0, true));
+            }
+            risultato = fabbrica.o(risultato, relazione);
+        }
+        return risultato;
+    }
+
+    /**
+     * Restituisce il BDD delle coppie di stati in cui il campo successivo indicato è uguale al campo corrente indicato
+     * (i due campi devono avere la stessa larghezza).
+     */
+    private int uguali(int campoCorrente, int campoSuccessivo){
+        int risultato = FabbricaBdd.VERO;
+        for(int j = 0; j < codifica.larghezza(campoCorrente); j++){
+            int corrente = 2 * bit(campoCorrente, j);
+            int successivo = 2 * bit(campoSuccessivo, j) + 1;
+            int bitUguali = fabbrica.o(fabbrica.e(fabbrica.letterale(corrente, true), fabbrica.letterale(successivo, true)),
+                    fabbrica.e(fabbrica.letterale(corrente, false), fabbrica.letterale(successivo, false)));
+            risultato = fabbrica.e(risultato, bitUguali);
+        }
+        return risultato;
+    }
+
+    /**
+     * Calcola l'immagine di un insieme di stati: gli stati raggiungibili con una transizione.
+     * Per ogni gruppo si quantificano i campi modificati correnti e si rinominano quelli successivi in correnti.
+     */
+    private int immagine(int insieme){
+        int risultato = FabbricaBdd.FALSO;
+        for(int i = 0; i < relazioneGruppo.length; i++)
+            risultato = fabbrica.o(risultato, fabbrica.rinomina(fabbrica.eEsiste(insieme, relazioneGruppo[i], cuboCorrente[i]), primoACorrente));
+        return risultato;
+    }
+
+    /**
+     * Calcola la controimmagine di un insieme di stati: gli stati da cui l'insieme è raggiungibile con una transizione.
+     * @param g Transizione da considerare, -1 per tutte le transizioni.
+     */
+    private int controimmagine(int insieme, int g){
+        int risultato = FabbricaBdd.FALSO;
+        for(int i = 0; i < relazioneGruppo.length; i++){
+            if(g >= 0 && gruppoTransizione[g] != i)
+                continue;
+            int relazione = g >= 0 ? relazioneTransizione[g] : relazioneGruppo[i];
+            int successivi = fabbrica.rinomina(insieme, correnteAPrimo.get(i));
+            risultato = fabbrica.o(risultato, fabbrica.eEsiste(relazione, successivi, cuboPrimo[i]));
+        }
+        return risultato;
+    }
+
+    /**
+     * Restituisce il BDD dello stato (o degli stati successivi, se primo è TRUE) con i campi indicati uguali a quelli dello
+     * stato codificato.
+     */
+    private int stato(long[] stato, int[] campi, boolean primo){
+        int risultato = FabbricaBdd.VERO;
+        for(int campo : campi)
+            risultato = fabbrica.e(risultato, valore(campo, codifica.get(stato, campo), primo));
+        return risultato;
+    }
+
+    /**
+     * Restituisce il BDD degli stati (correnti o successivi) con il campo uguale al valore indicato.
+     */
+    private int valore(int campo, int valore, boolean primo){
+        int risultato = FabbricaBdd.VERO;
+        for(int j = 0; j < codifica.larghezza(campo); j++)
+            risultato = fabbrica.e(risultato, fabbrica.letterale(2 * bit(campo, j) + (primo ? 1 : 0), ((valore >>> j) & 1) != 0));
+        return risultato;
+    }
+
+    /**
+     * Restituisce tutti i campi della codifica.
+     */
+    private int[] tuttiCampi(){
+        int[] campi = new int[codifica.numeroCampi()];
+        for(int i = 0; i < campi.length; i++)
+            campi[i] = i;
+        return campi;
+    }
+
+    /**
+     * Restituisce l'indice del j-esimo bit (a partire dal meno significativo) di un campo.
+     */
+    private int bit(int campo, int j){
+        return primoBit[campo] + codifica.larghezza(campo) - 1 - j;
+    }
+
+    /**
+     * Calcola il numero di stati di un insieme (BDD sulle sole variabili correnti).
+     */
+    private BigInteger conta(int insieme){
+        return fabbrica.numeroSoluzioni(insieme).shiftRight(campoBit.length);
+    }
+
+    /**
+     * Compatta la fabbrica quando il numero di nodi supera la soglia, conservando le relazioni, i cubi e gli insiemi
+     * indicati (che vengono aggiornati con i nuovi indici).
+     */
+    private void compattaSeNecessario(int[] insiemi){
+        if(fabbrica.numeroNodi() < sogliaCompattazione)
+            return;
+        int gruppi = relazioneGruppo.length;
+        int transizioni = relazioneTransizione.length;
+        int[] radici = new int[3 * gruppi + transizioni + insiemi.length];
+        System.arraycopy(relazioneGruppo, 0, radici, 0, gruppi);
+        System.arraycopy(cuboCorrente, 0, radici, gruppi, gruppi);
+        System.arraycopy(cuboPrimo, 0, radici, 2 * gruppi, gruppi);
+        System.arraycopy(relazioneTransizione, 0, radici, 3 * gruppi, transizioni);
+        System.arraycopy(insiemi, 0, radici, 3 * gruppi + transizioni, insiemi.length);
+        fabbrica.compatta(radici);
+        System.arraycopy(radici, 0, relazioneGruppo, 0, gruppi);
+        System.arraycopy(radici, gruppi, cuboCorrente, 0, gruppi);
+        System.arraycopy(radici, 2 * gruppi, cuboPrimo, 0, gruppi);
+        System.arraycopy(radici, 3 * gruppi, relazioneTransizione, 0, transizioni);
+        System.arraycopy(radici, 3 * gruppi + transizioni, insiemi, 0, insiemi.length);
+        sogliaCompattazione = Math.max(sogliaCompattazione, 2 * fabbrica.numeroNodi());
+    }
+}
@@ -0,0 +1,145 @@
+package algoritmi;
+
+import struttureDati.Osservazione;
+import struttureDati.ReteAutomiCompilata;
+
+import java.util.Arrays;
+
+/**
+ * Classe che genera su richiesta i successori di uno stato della rete, uno alla volta: dopo inizia vengono calcolate
+ * solo le transizioni abilitate, mentre ogni successore viene calcolato da prossimo, per cui una ricerca che si ferma
+ * al primo successore utile non paga il calcolo degli altri (a differenza di EspansoreStati, che li calcola tutti).
+ * Lo stato può essere seguito dallo stato di un'osservazione che vincola la ricerca, con la stessa semantica
+ * dell'esplorazione dello spazio comportamentale (vedi EspansoreStati).
+ * L'ordine dei successori è quello degli archi dello spazio comportamentale.
+ * Un'istanza non è utilizzabile contemporaneamente da più thread (usa buffer interni).
+ */
+public class IteratoreSuccessori {
+
+    private final ReteAutomiCompilata rete;
+    private final Osservazione osservazione;
+    private final int paroleRete;
+    private final int parole;
+    private final int[] abilitate;
+    private final long[] stato;
+    private final long[] successore;
+    private int numeroAbilitate;
+    private int prossimaAbilitata;
+    private int prossimoArco; //prossimo arco dell'osservazione da considerare per la transizione corrente (-1: nessuna)
+    private int transizione;
+
+    /**
+     * Costruttore della classe IteratoreSuccessori.
+     * @param rete Rete compilata.
+     * @param osservazione Osservazione che vincola i successori (null per nessun vincolo).
+     */
+    private IteratoreSuccessori(ReteAutomiCompilata rete, Osservazione osservazione){
+        this.rete = rete;
+        this.osservazione = osservazione;
+        this.paroleRete = rete.numeroParole();
+        this.parole = paroleRete + (osservazione == null ? 0 : 1);
+        this.abilitate = new int[Math.max(1, rete.massimoTransizioniAbilitate())];
+        this.stato = new long[parole];
+        this.successore = new long[parole];
+        this.prossimoArco = -1;
+        this.transizione = -1;
+    }
+
+    /**
+     * Permette di creare in modo statico un iteratore dei successori.
+     * @param rete Rete compilata.
+     * @param osservazione Osservazione che vincola i successori (null per nessun vincolo).
+     * @return Istanza della classe IteratoreSuccessori.
+     */
+    public static IteratoreSuccessori create(ReteAutomiCompilata rete, Osservazione osservazione){
+        return new IteratoreSuccessori(rete, osservazione);
+    }
+
+    /**
+     * Restituisce il numero di parole di uno stato (stato globale codificato più, se presente, lo stato dell'osservazione).
+     * @return Numero di parole.
+     */
+    public int numeroParole(){
+        return parole;
+    }
+
+    /**
+     * Restituisce lo stato iniziale.
+     * @return Stato iniziale codificato.
+     */
+    public long[] statoIniziale(){
+        return Arrays.copyOf(rete.statoIniziale(), parole);
+    }
+
+    /**
+     * Controlla se lo stato è finale: tutti i link sono vuoti e (se presente) l'osservazione è in uno stato finale.
+     * @param stato Stato codificato.
+     * @return TRUE se lo stato è finale, FALSE altrimenti.
+     */
+    public boolean isFinale(long[] stato){
+        return rete.isFinale(stato) && (osservazione == null || osservazione.isFinale((int) stato[paroleRete]));
+    }
+
+    /**
+     * Prepara l'iterazione dei successori dello stato, calcolandone le transizioni abilitate.
+     * @param stato Stato codificato (viene copiato).
+     */
+    public void inizia(long[] stato){
+        System.arraycopy(stato, 0, this.stato, 0, parole);
+        numeroAbilitate = rete.transizioniAbilitate(this.stato, abilitate);
+        prossimaAbilitata = 0;
+        prossimoArco = -1;
+        transizione = -1;
+    }
+
+    /**
+     * Calcola il prossimo successore dello stato indicato in inizia.
+     * @return TRUE se è stato calcolato un successore (leggibile con getSuccessore e getTransizione), FALSE se i
+     * successori sono finiti.
+     */
+    public boolean prossimo(){
+        while(true){
+            if(prossimoArco >= 0) {
+                //archi dell'osservazione ancora da considerare per la transizione osservabile corrente
+                int o = (int) stato[paroleRete];
+                int etichetta = rete.getOsservabilita(transizione);
+                for(int a = prossimoArco; a < osservazione.fineArchi(o); a++){
+                    if(osservazione.getEtichetta(a) == etichetta) {
+                        successore[paroleRete] = osservazione.getArrivo(a);
+                        prossimoArco = a + 1;
+                        return true;
+                    }
+                }
+                prossimoArco = -1;
+            }
+            if(prossimaAbilitata == numeroAbilitate)
+                return false;
+            transizione = abilitate[prossimaAbilitata++];
+            rete.successore(stato, transizione, successore);
+            if(osservazione == null)
+                return true;
+            int o = (int) stato[paroleRete];
+            if(rete.getOsservabilita(transizione) < 0) {
+                successore[paroleRete] = o;
+                return true;
+            }
+            prossimoArco = osservazione.inizioArchi(o);
+        }
+    }
+
+    /**
+     * Restituisce il buffer con l'ultimo successore calcolato da prossimo (sovrascritto dalla chiamata successiva).
+     * @return Successore codificato.
+     */
+    public long[] getSuccessore(){
+        return successore;
+    }
+
+    /**
+     * Restituisce la transizione globale dell'ultimo successore calcolato da prossimo.
+     * @return Indice globale della transizione.
+     */
+    public int getTransizione(){
+        return transizione;
+    }
+}
@@ -0,0 +1,338 @@
+package algoritmi;
+
+import struttureDati.EspressioneRegolare;
+import struttureDati.FabbricaEspressioni;
+import struttureDati.ListaInteri;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Classe che calcola, per i nodi di un grafo con archi etichettati (in formato CSR), l'espressione regolare P(v) delle
+ * sequenze di etichette dei cammini che vanno dal nodo iniziale al nodo v (gli archi con etichetta -1 sono ε).
+ * Le componenti fortemente connesse raggiungibili dal nodo iniziale vengono elaborate in ordine topologico, per cui
+ * quando si elabora una componente i linguaggi dei suoi predecessori sono già noti:
+ * - un nodo che non fa parte di un ciclo ha P(v) = ∪ P(p) r sui suoi archi entranti p -(r)-> v (più ε se è il nodo iniziale);
+ * - per una componente con dei cicli si esegue l'eliminazione degli stati sulla sola componente, con un nodo iniziale α
+ *   collegato a ogni nodo v della componente dall'espressione degli archi entranti dall'esterno e un nodo finale per
+ *   ogni nodo di cui serve il linguaggio (quelli richiesti e quelli con archi verso altre componenti). Prima
+ *   dell'eliminazione i nodi collegati tra loro in entrambi i versi da cammini ε, che hanno lo stesso linguaggio,
+ *   vengono fusi in un solo nodo; i nodi rimasti sono eliminati in ordine di numero di predecessori per numero di
+ *   successori (vedi EliminazioneStati).
+ * Poiché le espressioni sono condivise, ogni P(p) viene costruito una sola volta per quanti siano i suoi successori e,
+ * se le componenti sono piccole, il costo è quasi lineare nel numero di archi. L'eliminazione in una componente di n
+ * nodi (dopo la fusione) costa O(n^3) e le espressioni prodotte possono crescere esponenzialmente con n, per cui le
+ * componenti grandi dominano il costo; calcolaUnione e calcolaUnioni limitano i nodi finali a uno per componente e
+ * per gruppo di nodi richiesti, ma non cambiano questo limite.
+ */
+final class LinguaggiCammini {
+
+    /**
+     * Costruttore privato: la classe espone solo metodi statici.
+     */
+    private LinguaggiCammini(){
+    }
+
+    /**
+     * Calcola i linguaggi dei cammini dal nodo iniziale ai nodi richiesti.
+     * @param numeroNodi Numero di nodi del grafo.
+     * @param inizioArchi Inizio degli archi uscenti da ogni nodo (numeroNodi + 1 elementi).
+     * @param destinazione Nodo di arrivo di ogni arco.
+     * @param etichetta Etichetta di ogni arco (indice del simbolo, -1 per ε).
+     * @param iniziale Nodo iniziale.
+     * @param richiesti Nodi di cui si vuole il linguaggio.
+     * @param fabbrica Fabbrica con cui costruire le espressioni.
+     * @return Linguaggio dei cammini verso ogni nodo richiesto (∅ se il nodo non è raggiungibile); per gli altri nodi
+     * il valore può essere null.
+     */
+    static EspressioneRegolare[] calcola(int numeroNodi, int[] inizioArchi, int[] destinazione, int[] etichetta, int iniziale, BitSet richiesti, FabbricaEspressioni fabbrica){
+        EspressioneRegolare[] linguaggio = new EspressioneRegolare[numeroNodi];
+        elabora(numeroNodi, inizioArchi, destinazione, etichetta, iniziale, richiesti, null, null, linguaggio, fabbrica);
+        for(int v = richiesti.nextSetBit(0); v >= 0; v = richiesti.nextSetBit(v + 1))
+            if(linguaggio[v] == null)
+                linguaggio[v] = fabbrica.vuoto();
+        return linguaggio;
+    }
+
+    /**
+     * Calcola l'unione dei linguaggi dei cammini dal nodo iniziale ai nodi richiesti. Equivale all'unione dei risultati
+     * di calcola, ma in ogni componente con dei cicli i nodi richiesti sono collegati con ε a un unico nodo finale (un
+     * pozzo), invece di avere ognuno il proprio: l'eliminazione produce meno espressioni ed è più veloce.
+     * @param numeroNodi Numero di nodi del grafo.
+     * @param inizioArchi Inizio degli archi uscenti da ogni nodo (numeroNodi + 1 elementi).
+     * @param destinazione Nodo di arrivo di ogni arco.
+     * @param etichetta Etichetta di ogni arco (indice del simbolo, -1 per ε).
+     * @param iniziale Nodo iniziale.
+     * @param richiesti Nodi di cui si vuole l'unione dei linguaggi.
+     * @param fabbrica Fabbrica con cui costruire le espressioni.
+     * @return Unione dei linguaggi dei cammini verso i nodi richiesti (∅ se nessuno è raggiungibile).
+     */
+    static EspressioneRegolare calcolaUnione(int numeroNodi, int[] inizioArchi, int[] destinazione, int[] etichetta, int iniziale, BitSet richiesti, FabbricaEspressioni fabbrica){
+        int[] gruppo = new int[numeroNodi];
+        Arrays.fill(gruppo, -1);
+        for(int v = richiesti.nextSetBit(0); v >= 0; v = richiesti.nextSetBit(v + 1))
+            gruppo[v] = 0;
+        return calcolaUnioni(numeroNodi, inizioArchi, destinazione, etichetta, iniziale, gruppo, 1, fabbrica)[0];
+    }
+
+    /**
+     * Calcola, per ogni gruppo di nodi, l'unione dei linguaggi dei cammini dal nodo iniziale ai nodi del gruppo. Come in
+     * calcolaUnione, in ogni componente con dei cicli i nodi di uno stesso gruppo sono collegati con ε a un unico pozzo
+     * (uno per ogni gruppo presente nella componente).
+     * @param numeroNodi Numero di nodi del grafo.
+     * @param inizioArchi Inizio degli archi uscenti da ogni nodo (numeroNodi + 1 elementi).
+     * @param destinazione Nodo di arrivo di ogni arco.
+     * @param etichetta Etichetta di ogni arco (indice del simbolo, -1 per ε).
+     * @param iniziale Nodo iniziale.
+     * @param gruppo Gruppo di ogni nodo (-1 per i nodi di cui non serve il linguaggio).
+     * @param numeroGruppi Numero di gruppi.
+     * @param fabbrica Fabbrica con cui costruire le espressioni.
+     * @return Unione dei linguaggi dei cammini verso i nodi di ogni gruppo (∅ se nessuno è raggiungibile).
+     */
+    static EspressioneRegolare[] calcolaUnioni(int numeroNodi, int[] inizioArchi, int[] destinazione, int[] etichetta, int iniziale, int[] gruppo, int numeroGruppi, FabbricaEspressioni fabbrica){
+        EspressioneRegolare[] unioni = new EspressioneRegolare[numeroGruppi];
+        Arrays.fill(unioni, fabbrica.vuoto());
+        elabora(numeroNodi, inizioArchi, destinazione, etichetta, iniziale, null, gruppo, unioni, new EspressioneRegolare[numeroNodi], fabbrica);
+        return unioni;
+    }
+
+    /**
+     * Elabora le componenti in ordine topologico calcolando i linguaggi dei nodi con archi verso altre componenti e,
+     * se non si calcolano le unioni (gruppo null), dei nodi richiesti; altrimenti accumula in unioni l'unione dei
+     * linguaggi dei nodi di ogni gruppo, calcolata con un pozzo per componente e gruppo.
+     */
+    private static void elabora(int numeroNodi, int[] inizioArchi, int[] destinazione, int[] etichetta, int iniziale, BitSet richiesti,
+                                int[] gruppo, EspressioneRegolare[] unioni, EspressioneRegolare[] linguaggio, FabbricaEspressioni fabbrica){
+        boolean unione = gruppo != null;
+        int[] componente = componentiFortementeConnesse(numeroNodi, inizioArchi, destinazione, iniziale);
+        int numeroComponenti = 0;
+        for(int v = 0; v < numeroNodi; v++)
+            numeroComponenti = Math.max(numeroComponenti, componente[v] + 1);
+
+        //archi entranti (formato CSR) e nodi di ogni componente
+        int[] inizioEntranti = new int[numeroNodi + 1];
+        int[] inizioMembri = new int[numeroComponenti + 1];
+        for(int v = 0; v < numeroNodi; v++){
+            if(componente[v] < 0)
+                continue;
+            inizioMembri[componente[v] + 1]++;
+            for(int a = inizioArchi[v]; a < inizioArchi[v + 1]; a++)
+                inizioEntranti[destinazione[a] + 1]++;
+        }
+        for(int v = 0; v < numeroNodi; v++)
+            inizioEntranti[v + 1] += inizioEntranti[v];
+        for(int c = 0; c < numeroComponenti; c++)
+            inizioMembri[c + 1] += inizioMembri[c];
+        int[] entranti = new int[inizioEntranti[numeroNodi]];
+        int[] membri = new int[inizioMembri[numeroComponenti]];
+        int[] riempimento = new int[Math.max(numeroNodi, numeroComponenti)];
+        BitSet obiettivi = unione ? new BitSet(numeroNodi) : (BitSet) richiesti.clone();
+        for(int v = 0; v < numeroNodi; v++){
+            if(componente[v] < 0)
+                continue;
+            for(int a = inizioArchi[v]; a < inizioArchi[v + 1]; a++){
+                int d = destinazione[a];
+                entranti[inizioEntranti[d] + riempimento[d]++] = a;
+                if(componente[d] != componente[v])
+                    obiettivi.set(v);
+            }
+        }
+        Arrays.fill(riempimento, 0);
+        for(int v = 0; v < numeroNodi; v++)
+            if(componente[v] >= 0)
+                membri[inizioMembri[componente[v]] + riempimento[componente[v]]++] = v;
+        //origine di ogni arco entrante
+        int[] origine = new int[inizioArchi[numeroNodi]];
+        for(int v = 0; v < numeroNodi; v++)
+            for(int a = inizioArchi[v]; a < inizioArchi[v + 1]; a++)
+                origine[a] = v;
+
+        //le componenti sono numerate in ordine topologico inverso: si elaborano dall'ultima alla prima
+        int[] locale = new int[numeroNodi];
+        int[] pozzo = unione ? new int[unioni.length] : null; //indice del pozzo di ogni gruppo nella componente, -1 se assente
+        if(unione)
+            Arrays.fill(pozzo, -1);
+        for(int c = numeroComponenti - 1; c >= 0; c--){
+            int inizio = inizioMembri[c], fine = inizioMembri[c + 1];
+            int k = fine - inizio;
+            if(k == 1 && !haCappio(membri[inizio], inizioArchi, destinazione)) {
+                int v = membri[inizio];
+                linguaggio[v] = entrata(v, iniziale, componente, inizioEntranti, entranti, origine, etichetta, linguaggio, fabbrica);
+                if(unione && gruppo[v] >= 0)
+                    unioni[gruppo[v]] = fabbrica.alternativa(unioni[gruppo[v]], linguaggio[v]);
+                continue;
+            }
+            for(int i = 0; i < k; i++)
+                locale[membri[inizio + i]] = i;
+            //i nodi della componente collegati in entrambi i versi da cammini ε hanno lo stesso linguaggio: ogni
+            //classe diventa un solo nodo dell'eliminazione
+            int[] classe = classiEpsilon(membri, inizio, k, c, componente, locale, inizioArchi, destinazione, etichetta);
+            int numeroClassi = 0;
+            for(int i = 0; i < k; i++)
+                numeroClassi = Math.max(numeroClassi, classe[i] + 1);
+            ListaInteri uscite = ListaInteri.create();
+            ListaInteri gruppiComponente = ListaInteri.create();
+            for(int i = 0; i < k; i++){
+                int v = membri[inizio + i];
+                if(obiettivi.get(v))
+                    uscite.aggiungi(v);
+                if(unione && gruppo[v] >= 0 && pozzo[gruppo[v]] < 0) {
+                    pozzo[gruppo[v]] = gruppiComponente.dimensione();
+                    gruppiComponente.aggiungi(gruppo[v]);
+                }
+            }
+            int alfa = numeroClassi;
+            int primoPozzo = alfa + 1 + uscite.dimensione();
+            EliminazioneStati grafo = EliminazioneStati.create(primoPozzo + gruppiComponente.dimensione(), fabbrica);
+            for(int i = 0; i < k; i++){
+                int v = membri[inizio + i];
+                grafo.aggiungiArco(alfa, classe[i], entrata(v, iniziale, componente, inizioEntranti, entranti, origine, etichetta, linguaggio, fabbrica));
+                for(int a = inizioArchi[v]; a < inizioArchi[v + 1]; a++){
+                    int d = destinazione[a];
+                    if(componente[d] == c && (etichetta[a] >= 0 || classe[locale[d]] != classe[i]))
+                        grafo.aggiungiArco(classe[i], classe[locale[d]], fabbrica.simbolo(etichetta[a]));
+                }
+            }
+            for(int u = 0; u < uscite.dimensione(); u++)
+                grafo.aggiungiArco(classe[locale[uscite.get(u)]], alfa + 1 + u, fabbrica.epsilon());
+            for(int i = 0; i < k && unione; i++){
+                int g = gruppo[membri[inizio + i]];
+                if(g >= 0)
+                    grafo.aggiungiArco(classe[i], primoPozzo + pozzo[g], fabbrica.epsilon());
+            }
+            BitSet nodi = new BitSet(numeroClassi);
+            nodi.set(0, numeroClassi);
+            grafo.elimina(nodi);
+            for(int u = 0; u < uscite.dimensione(); u++)
+                linguaggio[uscite.get(u)] = grafo.getArco(alfa, alfa + 1 + u);
+            for(int j = 0; j < gruppiComponente.dimensione(); j++){
+                int g = gruppiComponente.get(j);
+                unioni[g] = fabbrica.alternativa(unioni[g], grafo.getArco(alfa, primoPozzo + j));
+                pozzo[g] = -1;
+            }
+        }
+    }
+
+    /**
+     * Calcola l'espressione dei cammini che entrano nel nodo v da altre componenti (ε se v è il nodo iniziale).
+     */
+    private static EspressioneRegolare entrata(int v, int iniziale, int[] componente, int[] inizioEntranti, int[] entranti, int[] origine, int[] etichetta, EspressioneRegolare[] linguaggio, FabbricaEspressioni fabbrica){
+        EspressioneRegolare risultato = v == iniziale ? fabbrica.epsilon() : fabbrica.vuoto();
+        for(int i = inizioEntranti[v]; i < inizioEntranti[v + 1]; i++){
+            int a = entranti[i];
+            int p = origine[a];
+            if(componente[p] != componente[v])
+                risultato = fabbrica.alternativa(risultato, fabbrica.concatenazione(linguaggio[p], fabbrica.simbolo(etichetta[a])));
+        }
+        return risultato;
+    }
+
+    /**
+     * Controlla se il nodo ha un arco verso se stesso.
+     */
+    private static boolean haCappio(int v, int[] inizioArchi, int[] destinazione){
+        for(int a = inizioArchi[v]; a < inizioArchi[v + 1]; a++)
+            if(destinazione[a] == v)
+                return true;
+        return false;
+    }
+
+    /**
+     * Calcola le componenti fortemente connesse dei nodi raggiungibili dal nodo iniziale (algoritmo di Tarjan in
+     * versione iterativa). Le componenti sono numerate da 0 nell'ordine in cui vengono chiuse, che è un ordine
+     * topologico inverso: ogni componente ha un numero maggiore di quello delle componenti che raggiunge.
+     * @return Indice della componente di ogni nodo, -1 per i nodi non raggiungibili.
+     */
+    private static int[] componentiFortementeConnesse(int numeroNodi, int[] inizioArchi, int[] destinazione, int iniziale){
+        int[] indice = new int[numeroNodi];
+        int[] componente = new int[numeroNodi];
+        Arrays.fill(indice, -1);
+        Arrays.fill(componente, -1);
+        tarjan(iniziale, inizioArchi, destinazione, indice, componente, new int[numeroNodi], new int[numeroNodi], 0, 0);
+        return componente;
+    }
+
+    /**
+     * Calcola le classi dei nodi di una componente collegati in entrambi i versi da cammini di soli archi ε interni
+     * alla componente (le componenti fortemente connesse del sottografo degli archi ε).
+     * @return Classe di ogni nodo della componente, indicizzata dalla posizione del nodo tra i membri.
+     */
+    private static int[] classiEpsilon(int[] membri, int inizio, int k, int c, int[] componente, int[] locale, int[] inizioArchi, int[] destinazione, int[] etichetta){
+        //sottografo degli archi ε della componente, con i nodi numerati da 0 a k - 1
+        int[] inizioLocale = new int[k + 1];
+        ListaInteri destinazioni = ListaInteri.create();
+        for(int i = 0; i < k; i++){
+            int v = membri[inizio + i];
+            for(int a = inizioArchi[v]; a < inizioArchi[v + 1]; a++)
+                if(etichetta[a] < 0 && componente[destinazione[a]] == c)
+                    destinazioni.aggiungi(locale[destinazione[a]]);
+            inizioLocale[i + 1] = destinazioni.dimensione();
+        }
+        int[] destinazioneLocale = destinazioni.toArray();
+        int[] indice = new int[k];
+        int[] classe = new int[k];
+        Arrays.fill(indice, -1);
+        Arrays.fill(classe, -1);
+        int[] minimo = new int[k];
+        int[] arco = new int[k];
+        int contatore = 0, numeroClassi = 0;
+        for(int i = 0; i < k; i++){
+            if(indice[i] >= 0)
+                continue;
+            long visita = tarjan(i, inizioLocale, destinazioneLocale, indice, classe, minimo, arco, contatore, numeroClassi);
+            contatore = (int) (visita >>> 32);
+            numeroClassi = (int) visita;
+        }
+        return classe;
+    }
+
+    /**
+     * Visita in profondità (algoritmo di Tarjan in versione iterativa) i nodi raggiungibili dalla radice non ancora
+     * visitati, assegnando a ognuno l'indice della sua componente fortemente connessa.
+     * @param indice Ordine di visita di ogni nodo, -1 per i nodi non visitati (viene aggiornato).
+     * @param componente Componente di ogni nodo, -1 per i nodi non ancora assegnati (viene aggiornato).
+     * @param minimo Array di lavoro (un elemento per nodo).
+     * @param arco Array di lavoro (un elemento per nodo).
+     * @param contatore Numero di nodi già visitati.
+     * @param numeroComponenti Numero di componenti già chiuse.
+     * @return Nuovo numero di nodi visitati (32 bit alti) e di componenti chiuse (32 bit bassi).
+     */
+    private static long tarjan(int radice, int[] inizioArchi, int[] destinazione, int[] indice, int[] componente, int[] minimo, int[] arco, int contatore, int numeroComponenti){
+        ListaInteri pila = ListaInteri.create();
+        ListaInteri chiamate = ListaInteri.create();
+        indice[radice] = minimo[radice] = contatore++;
+        arco[radice] = inizioArchi[radice];
+        pila.aggiungi(radice);
+        chiamate.aggiungi(radice);
+        while(chiamate.dimensione() > 0){
+            int v = chiamate.get(chiamate.dimensione() - 1);
+            if(arco[v] < inizioArchi[v + 1]) {
+                int d = destinazione[arco[v]++];
+                if(indice[d] < 0) {
+                    indice[d] = minimo[d] = contatore++;
+                    arco[d] = inizioArchi[d];
+                    pila.aggiungi(d);
+                    chiamate.aggiungi(d);
+                }
+                else if(componente[d] < 0)
+                    minimo[v] = Math.min(minimo[v], indice[d]);
+                continue;
+            }
+            //tutti gli archi di v sono stati visitati: chiusura della chiamata
+            chiamate.rimuoviUltimo();
+            if(chiamate.dimensione() > 0) {
+                int padre = chiamate.get(chiamate.dimensione() - 1);
+                minimo[padre] = Math.min(minimo[padre], minimo[v]);
+            }
+            if(minimo[v] == indice[v]) {
+                int t;
+                do {
+                    t = pila.rimuoviUltimo();
+                    componente[t] = numeroComponenti;
+                } while(t != v);
+                numeroComponenti++;
+            }
+        }
+        return ((long) contatore << 32) | numeroComponenti;
+    }
+}
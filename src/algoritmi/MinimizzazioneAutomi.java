@@ -0,0 +1,532 @@
+package algoritmi;
+
+import struttureDati.Automa;
+import struttureDati.Evento;
+import struttureDati.Link;
+import struttureDati.ReteAutomi;
+import struttureDati.Stato;
+import struttureDati.Transizione;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Classe che minimizza gli automi componenti di una rete rispetto alla bisimulazione forte, prima della composizione.
+ * Due stati di un automa sono bisimili se per ogni transizione uscente dall'uno l'altro ha una transizione con la stessa
+ * etichetta (evento in ingresso, eventi in uscita, etichette di osservabilità e di rilevanza) diretta a uno stato
+ * bisimile: sostituire ogni classe di stati bisimili con un solo stato non cambia il comportamento del componente nella
+ * rete, né quindi le sequenze di etichette dello spazio comportamentale e la diagnosi, mentre il numero di stati globali
+ * (prodotto del numero di stati dei componenti) può ridursi in modo esponenziale.
+ * Le classi sono calcolate con l'algoritmo di raffinamento di partizioni di Paige e Tarjan in tempo O(m log n): i
+ * blocchi vengono separati rispetto a insiemi di stati (splitter) scegliendo ogni volta la metà più piccola di un blocco
+ * composto, con contatori delle transizioni per stato, etichetta e blocco composto per la separazione a tre vie.
+ * Poiché un automa non può contenere due transizioni tra gli stessi stati con gli stessi eventi (vedi Automa.valida),
+ * gli stati bisimili raggiunti da uno stesso stato con gli stessi eventi ma etichette diverse vengono tenuti separati:
+ * dopo il raffinamento tutti gli stati in conflitto diventano classi a sé in una sola passata e il raffinamento viene
+ * ripetuto una volta sola, per cui il costo complessivo resta O(m log n).
+ */
+public class MinimizzazioneAutomi {
+
+    /**
+     * Costruttore privato: la classe espone solo metodi statici.
+     */
+    private MinimizzazioneAutomi(){
+    }
+
+    /**
+     * Minimizza ogni automa della rete e ricostruisce la rete con gli automi minimizzati e gli stessi link.
+     * @param rete Rete di automi.
+     * @return Rete con gli automi minimizzati (la rete stessa se tutti gli automi sono già minimi).
+     */
+    public static ReteAutomi minimizza(ReteAutomi rete){
+        IdentityHashMap<Automa, Automa> minimizzati = new IdentityHashMap<>();
+        ArrayList<Automa> automi = new ArrayList<>();
+        boolean ridotta = false;
+        for(Automa automa : rete.getAutomi()){
+            Automa minimo = minimizza(automa);
+            minimizzati.put(automa, minimo);
+            automi.add(minimo);
+            ridotta |= minimo != automa;
+        }
+        if(!ridotta)
+            return rete;
+        ArrayList<Link> link = new ArrayList<>();
+        for(Link l : rete.getLink())
+            link.add(Link.create(l.getId(), minimizzati.get(l.getSorgente()), minimizzati.get(l.getDestinazione()), l.getCapacita()));
+        return ReteAutomi.create(rete.getId(), rete.getNome(), automi, link);
+    }
+
+    /**
+     * Minimizza l'automa rispetto alla bisimulazione forte: ogni classe di stati bisimili è rappresentata da uno dei suoi
+     * stati (lo stato iniziale per la sua classe), con le transizioni uscenti dal rappresentante redirette verso i
+     * rappresentanti delle classi di arrivo. Stati e transizioni mantengono identificatori e nomi originali.
+     * @param automa Automa da minimizzare (valido).
+     * @return Automa minimizzato (l'automa stesso se è già minimo).
+     */
+    public static Automa minimizza(Automa automa){
+        ArrayList<Stato> stati = automa.getStati();
+        ArrayList<Transizione> transizioni = automa.getTransizioni();
+        int n = stati.size();
+        int m = transizioni.size();
+        HashMap<Stato, Integer> indici = new HashMap<>(n * 2);
+        for(int s = 0; s < n; s++)
+            indici.put(stati.get(s), s);
+        int[] partenza = new int[m];
+        int[] arrivo = new int[m];
+        int[] etichetta = new int[m];
+        HashMap<List<Object>, Integer> etichette = new HashMap<>();
+        for(int t = 0; t < m; t++){
+            Transizione transizione = transizioni.get(t);
+            partenza[t] = indici.get(transizione.getStatoPartenza());
+            arrivo[t] = indici.get(transizione.getStatoArrivo());
+            List<Object> chiave = Arrays.asList(transizione.getEventoIngresso(), eventiUscita(transizione),
+                    transizione.getEtichettaOsservabilita(), transizione.getEtichettaRilevanza());
+            Integer e = etichette.get(chiave);
+            if(e == null) {
+                e = etichette.size();
+                etichette.put(chiave, e);
+            }
+            etichetta[t] = e;
+        }
+        int iniziale = indici.get(automa.getStatoCorrente());
+
+        int[] classe = new Raffinamento(n, m, partenza, arrivo, etichetta, etichette.size(), new int[n]).calcola();
+        int numeroClassi = numeraClassi(classe);
+        if(numeroClassi == n)
+            return automa;
+        //stati di arrivo in conflitto: raggiunti da uno stesso stato con gli stessi eventi ma etichette diverse e
+        //bisimili a un altro stato di arrivo in conflitto; diventano tutti insieme classi a sé e il raffinamento viene
+        //ripetuto una sola volta a partire dalla nuova partizione (che può solo separare altri stati, senza creare
+        //nuovi conflitti)
+        HashMap<List<Object>, Integer> firme = new HashMap<>();
+        int[] partizione = classe.clone();
+        boolean conflitti = false;
+        for(int t = 0; t < m; t++){
+            Transizione transizione = transizioni.get(t);
+            List<Object> firma = Arrays.asList(partenza[t], transizione.getEventoIngresso(), eventiUscita(transizione), classe[arrivo[t]]);
+            Integer precedente = firme.putIfAbsent(firma, t);
+            if(precedente != null && etichetta[precedente] != etichetta[t]) {
+                partizione[arrivo[t]] = numeroClassi++;
+                conflitti = true;
+            }
+        }
+        if(conflitti) {
+            numeraClassi(partizione);
+            classe = new Raffinamento(n, m, partenza, arrivo, etichetta, etichette.size(), partizione).calcola();
+            numeroClassi = numeraClassi(classe);
+            if(numeroClassi == n)
+                return automa;
+        }
+        int[] rappresentante = new int[numeroClassi];
+        Arrays.fill(rappresentante, -1);
+        rappresentante[classe[iniziale]] = iniziale;
+        for(int s = 0; s < n; s++)
+            if(rappresentante[classe[s]] < 0)
+                rappresentante[classe[s]] = s;
+        //transizioni del quoziente: quelle uscenti dai rappresentanti, senza ripetizioni
+        firme.clear();
+        ArrayList<Integer> conservate = new ArrayList<>();
+        for(int t = 0; t < m; t++){
+            if(rappresentante[classe[partenza[t]]] != partenza[t])
+                continue;
+            Transizione transizione = transizioni.get(t);
+            List<Object> firma = Arrays.asList(partenza[t], transizione.getEventoIngresso(), eventiUscita(transizione), classe[arrivo[t]]);
+            if(firme.putIfAbsent(firma, t) == null)
+                conservate.add(t);
+        }
+        ArrayList<Stato> statiMinimi = new ArrayList<>();
+        for(int s = 0; s < n; s++)
+            if(rappresentante[classe[s]] == s)
+                statiMinimi.add(stati.get(s));
+        ArrayList<Transizione> transizioniMinime = new ArrayList<>();
+        for(int t : conservate){
+            Transizione transizione = transizioni.get(t);
+            ArrayList<Evento> uscita = transizione.getEventiUscita() == null ? null : new ArrayList<>(transizione.getEventiUscita());
+            transizioniMinime.add(Transizione.create(transizione.getId(), stati.get(partenza[t]), stati.get(rappresentante[classe[arrivo[t]]]),
+                    transizione.getEventoIngresso(), uscita, transizione.getEtichettaOsservabilita(), transizione.getEtichettaRilevanza()));
+        }
+        return Automa.create(automa.getId(), automa.getNome(), statiMinimi, transizioniMinime, stati.get(iniziale));
+    }
+
+    /**
+     * Rinumera le classi di una partizione in modo denso, nell'ordine degli stati, e ne restituisce il numero.
+     */
+    private static int numeraClassi(int[] classe){
+        int massimo = 0;
+        for(int c : classe)
+            massimo = Math.max(massimo, c + 1);
+        int[] numero = new int[massimo];
+        Arrays.fill(numero, -1);
+        int numeroClassi = 0;
+        for(int s = 0; s < classe.length; s++){
+            if(numero[classe[s]] < 0)
+                numero[classe[s]] = numeroClassi++;
+            classe[s] = numero[classe[s]];
+        }
+        return numeroClassi;
+    }
+
+    /**
+     * Restituisce gli eventi in uscita dalla transizione (lista vuota se non ne ha), per confrontare transizioni.
+     */
+    private static List<Evento> eventiUscita(Transizione transizione){
+        return transizione.getEventiUscita() == null ? Collections.<Evento>emptyList() : transizione.getEventiUscita();
+    }
+
+    /**
+     * Classe che calcola la partizione più grossolana stabile (bisimulazione forte) che raffina una partizione iniziale,
+     * con l'algoritmo di Paige e Tarjan.
+     * Gli stati sono tenuti in una partizione raffinabile: un array di stati in cui ogni blocco occupa un intervallo
+     * contiguo e gli stati marcati di un blocco ne occupano l'inizio. I blocchi composti (unioni di blocchi rispetto a cui
+     * la partizione è stabile) sono liste di blocchi. Ogni transizione punta al contatore delle transizioni con la sua
+     * etichetta che escono dal suo stato di partenza ed entrano nel blocco composto del suo stato di arrivo.
+     */
+    private static class Raffinamento {
+
+        private final int n;
+        private final int[] partenza;
+        private final int[] arrivo;
+        private final int[] etichetta;
+        private final int numeroEtichette;
+        private final int[] inizioEntranti;
+        private final int[] entranti;
+
+        private final int[] elementi;
+        private final int[] posizione;
+        private final int[] blocco;
+        private final int[] inizioBlocco;
+        private final int[] fineBlocco;
+        private final int[] marcati;
+        private final int[] composto;
+        private final int[] bloccoSuccessivo;
+        private final int[] bloccoPrecedente;
+        private int numeroBlocchi;
+        private final int[] toccati;
+        private int numeroToccati;
+
+        private final int[] primoBlocco;
+        private final int[] blocchiComposto;
+        private final int[] dimensioneComposto;
+        private final boolean[] inCoda;
+        private final int[] coda;
+        private int numeroCoda;
+        private int numeroComposti;
+
+        private final int[] contatore; //contatore puntato da ogni transizione
+        private int[] conteggio;
+        private int numeroContatori;
+        private final int[] nuovoContatore;
+        private final int[] timbro;
+        private int timbroCorrente;
+
+        /**
+         * Costruttore della classe Raffinamento: crea la partizione iniziale con un blocco per ogni classe iniziale, tutti
+         * nello stesso blocco composto.
+         */
+        private Raffinamento(int n, int m, int[] partenza, int[] arrivo, int[] etichetta, int numeroEtichette, int[] classeIniziale){
+            this.n = n;
+            this.partenza = partenza;
+            this.arrivo = arrivo;
+            this.etichetta = etichetta;
+            this.numeroEtichette = numeroEtichette;
+            this.inizioEntranti = new int[n + 1];
+            for(int t = 0; t < m; t++)
+                inizioEntranti[arrivo[t] + 1]++;
+            for(int s = 0; s < n; s++)
+                inizioEntranti[s + 1] += inizioEntranti[s];
+            this.entranti = new int[m];
+            int[] riempimento = Arrays.copyOf(inizioEntranti, n);
+            for(int t = 0; t < m; t++)
+                entranti[riempimento[arrivo[t]]++] = t;
+
+            this.elementi = new int[n];
+            this.posizione = new int[n];
+            this.blocco = new int[n];
+            this.inizioBlocco = new int[n];
+            this.fineBlocco = new int[n];
+            this.marcati = new int[n];
+            this.composto = new int[n];
+            this.bloccoSuccessivo = new int[n];
+            this.bloccoPrecedente = new int[n];
+            this.toccati = new int[n];
+            this.primoBlocco = new int[n];
+            this.blocchiComposto = new int[n];
+            this.dimensioneComposto = new int[n];
+            this.inCoda = new boolean[n];
+            this.coda = new int[n];
+            this.contatore = new int[m];
+            this.conteggio = new int[Math.max(m, 1)];
+            this.nuovoContatore = new int[n];
+            this.timbro = new int[n];
+            Arrays.fill(timbro, -1);
+
+            //blocchi iniziali (ordinamento per classe con counting sort)
+            int numeroClassi = 0;
+            for(int c : classeIniziale)
+                numeroClassi = Math.max(numeroClassi, c + 1);
+            int[] inizioClasse = new int[numeroClassi + 1];
+            for(int s = 0; s < n; s++)
+                inizioClasse[classeIniziale[s] + 1]++;
+            for(int c = 0; c < numeroClassi; c++)
+                inizioClasse[c + 1] += inizioClasse[c];
+            riempimento = Arrays.copyOf(inizioClasse, numeroClassi);
+            for(int s = 0; s < n; s++){
+                int p = riempimento[classeIniziale[s]]++;
+                elementi[p] = s;
+                posizione[s] = p;
+                blocco[s] = classeIniziale[s];
+            }
+            numeroComposti = n == 0 ? 0 : 1;
+            primoBlocco[0] = -1;
+            for(int b = numeroClassi - 1; b >= 0; b--){
+                inizioBlocco[b] = inizioClasse[b];
+                fineBlocco[b] = inizioClasse[b + 1];
+                composto[b] = 0;
+                aggiungiAlComposto(b, 0);
+            }
+            numeroBlocchi = numeroClassi;
+            dimensioneComposto[0] = n;
+            if(numeroClassi >= 2)
+                accoda(0);
+
+            //un contatore per ogni stato ed etichetta (transizioni verso l'intero insieme degli stati)
+            int[] inizioUscenti = new int[n + 1];
+            for(int t = 0; t < m; t++)
+                inizioUscenti[partenza[t] + 1]++;
+            for(int s = 0; s < n; s++)
+                inizioUscenti[s + 1] += inizioUscenti[s];
+            int[] uscenti = new int[m];
+            riempimento = Arrays.copyOf(inizioUscenti, n);
+            for(int t = 0; t < m; t++)
+                uscenti[riempimento[partenza[t]]++] = t;
+            int[] ultimoStato = new int[numeroEtichette];
+            int[] contatoreEtichetta = new int[numeroEtichette];
+            Arrays.fill(ultimoStato, -1);
+            for(int s = 0; s < n; s++){
+                for(int k = inizioUscenti[s]; k < inizioUscenti[s + 1]; k++){
+                    int t = uscenti[k];
+                    int e = etichetta[t];
+                    if(ultimoStato[e] != s) {
+                        ultimoStato[e] = s;
+                        contatoreEtichetta[e] = nuovoContatore();
+                    }
+                    contatore[t] = contatoreEtichetta[e];
+                    conteggio[contatore[t]]++;
+                }
+            }
+        }
+
+        /**
+         * Calcola la partizione stabile.
+         * @return Classe (blocco) di ogni stato, numerate da 0 in modo denso.
+         */
+        private int[] calcola(){
+            //stabilità iniziale rispetto all'intero insieme: separazione per presenza di transizioni con ogni etichetta
+            int m = etichetta.length;
+            int[] inizioEtichetta = new int[numeroEtichette + 1];
+            for(int t = 0; t < m; t++)
+                inizioEtichetta[etichetta[t] + 1]++;
+            for(int e = 0; e < numeroEtichette; e++)
+                inizioEtichetta[e + 1] += inizioEtichetta[e];
+            int[] perEtichetta = new int[m];
+            int[] riempimento = Arrays.copyOf(inizioEtichetta, numeroEtichette);
+            for(int t = 0; t < m; t++)
+                perEtichetta[riempimento[etichetta[t]]++] = t;
+            for(int e = 0; e < numeroEtichette; e++){
+                for(int i = inizioEtichetta[e]; i < inizioEtichetta[e + 1]; i++)
+                    marca(partenza[perEtichetta[i]]);
+                separaMarcati();
+            }
+
+            int[] gruppo = new int[m];
+            int[] inizioGruppo = new int[numeroEtichette + 1];
+            int[] etichetteToccate = new int[numeroEtichette];
+            int[] dimensioneGruppo = new int[numeroEtichette];
+            while(numeroCoda > 0){
+                int x = coda[--numeroCoda];
+                inCoda[x] = false;
+                if(blocchiComposto[x] < 2)
+                    continue;
+                //splitter: il più piccolo tra i primi due blocchi del composto
+                int b = primoBlocco[x];
+                int altro = bloccoSuccessivo[b];
+                if(fineBlocco[altro] - inizioBlocco[altro] < fineBlocco[b] - inizioBlocco[b])
+                    b = altro;
+                rimuoviDalComposto(b, x);
+                dimensioneComposto[x] -= fineBlocco[b] - inizioBlocco[b];
+                if(blocchiComposto[x] >= 2)
+                    accoda(x);
+                int y = numeroComposti++;
+                primoBlocco[y] = -1;
+                blocchiComposto[y] = 0;
+                aggiungiAlComposto(b, y);
+                composto[b] = y;
+                dimensioneComposto[y] = fineBlocco[b] - inizioBlocco[b];
+
+                //transizioni entranti nello splitter, raggruppate per etichetta
+                int numeroEtichetteToccate = 0;
+                int numeroTransizioni = 0;
+                for(int i = inizioBlocco[b]; i < fineBlocco[b]; i++){
+                    int s = elementi[i];
+                    for(int k = inizioEntranti[s]; k < inizioEntranti[s + 1]; k++){
+                        int e = etichetta[entranti[k]];
+                        if(dimensioneGruppo[e]++ == 0)
+                            etichetteToccate[numeroEtichetteToccate++] = e;
+                        numeroTransizioni++;
+                    }
+                }
+                int somma = 0;
+                for(int i = 0; i < numeroEtichetteToccate; i++){
+                    int e = etichetteToccate[i];
+                    inizioGruppo[e] = somma;
+                    somma += dimensioneGruppo[e];
+                    dimensioneGruppo[e] = inizioGruppo[e];
+                }
+                for(int i = inizioBlocco[b]; i < fineBlocco[b]; i++){
+                    int s = elementi[i];
+                    for(int k = inizioEntranti[s]; k < inizioEntranti[s + 1]; k++)
+                        gruppo[dimensioneGruppo[etichetta[entranti[k]]]++] = entranti[k];
+                }
+                for(int i = 0; i < numeroEtichetteToccate; i++){
+                    int e = etichetteToccate[i];
+                    separa(gruppo, inizioGruppo[e], dimensioneGruppo[e]);
+                    dimensioneGruppo[e] = 0;
+                }
+            }
+
+            //numerazione densa dei blocchi nell'ordine degli stati
+            int[] classe = new int[n];
+            int[] numero = new int[numeroBlocchi];
+            Arrays.fill(numero, -1);
+            int numeroClassi = 0;
+            for(int s = 0; s < n; s++){
+                if(numero[blocco[s]] < 0)
+                    numero[blocco[s]] = numeroClassi++;
+                classe[s] = numero[blocco[s]];
+            }
+            return classe;
+        }
+
+        /**
+         * Separa i blocchi rispetto alle transizioni gruppo[inizio..fine), con la stessa etichetta ed entranti nello
+         * splitter B, appena tolto dal blocco composto S: prima rispetto agli stati con una transizione verso B, poi
+         * rispetto a quelli che non ne hanno verso S - B; infine aggiorna i contatori.
+         */
+        private void separa(int[] gruppo, int inizio, int fine){
+            timbroCorrente++;
+            for(int i = inizio; i < fine; i++){
+                int s = partenza[gruppo[i]];
+                if(timbro[s] != timbroCorrente) {
+                    timbro[s] = timbroCorrente;
+                    nuovoContatore[s] = nuovoContatore();
+                }
+                conteggio[nuovoContatore[s]]++;
+            }
+            for(int i = inizio; i < fine; i++)
+                marca(partenza[gruppo[i]]);
+            separaMarcati();
+            for(int i = inizio; i < fine; i++){
+                int t = gruppo[i];
+                if(conteggio[nuovoContatore[partenza[t]]] == conteggio[contatore[t]])
+                    marca(partenza[t]);
+            }
+            separaMarcati();
+            for(int i = inizio; i < fine; i++){
+                int t = gruppo[i];
+                conteggio[contatore[t]]--;
+                contatore[t] = nuovoContatore[partenza[t]];
+            }
+        }
+
+        /**
+         * Marca lo stato spostandolo nella parte iniziale del suo blocco.
+         */
+        private void marca(int s){
+            int b = blocco[s];
+            int primoNonMarcato = inizioBlocco[b] + marcati[b];
+            if(posizione[s] < primoNonMarcato)
+                return;
+            int altro = elementi[primoNonMarcato];
+            elementi[posizione[s]] = altro;
+            posizione[altro] = posizione[s];
+            elementi[primoNonMarcato] = s;
+            posizione[s] = primoNonMarcato;
+            if(marcati[b]++ == 0)
+                toccati[numeroToccati++] = b;
+        }
+
+        /**
+         * Separa ogni blocco con stati marcati nella parte marcata (nuovo blocco nello stesso composto) e nel resto.
+         */
+        private void separaMarcati(){
+            for(int i = 0; i < numeroToccati; i++){
+                int b = toccati[i];
+                int parteMarcata = marcati[b];
+                marcati[b] = 0;
+                if(parteMarcata == fineBlocco[b] - inizioBlocco[b])
+                    continue;
+                int nuovo = numeroBlocchi++;
+                inizioBlocco[nuovo] = inizioBlocco[b];
+                fineBlocco[nuovo] = inizioBlocco[b] + parteMarcata;
+                inizioBlocco[b] = fineBlocco[nuovo];
+                for(int p = inizioBlocco[nuovo]; p < fineBlocco[nuovo]; p++)
+                    blocco[elementi[p]] = nuovo;
+                int x = composto[b];
+                composto[nuovo] = x;
+                aggiungiAlComposto(nuovo, x);
+                if(blocchiComposto[x] >= 2)
+                    accoda(x);
+            }
+            numeroToccati = 0;
+        }
+
+        /**
+         * Inserisce il blocco in testa alla lista dei blocchi del composto.
+         */
+        private void aggiungiAlComposto(int b, int x){
+            bloccoPrecedente[b] = -1;
+            bloccoSuccessivo[b] = primoBlocco[x];
+            if(primoBlocco[x] >= 0)
+                bloccoPrecedente[primoBlocco[x]] = b;
+            primoBlocco[x] = b;
+            blocchiComposto[x]++;
+        }
+
+        /**
+         * Toglie il blocco dalla lista dei blocchi del composto.
+         */
+        private void rimuoviDalComposto(int b, int x){
+            if(bloccoPrecedente[b] >= 0)
+                bloccoSuccessivo[bloccoPrecedente[b]] = bloccoSuccessivo[b];
+            else
+                primoBlocco[x] = bloccoSuccessivo[b];
+            if(bloccoSuccessivo[b] >= 0)
+                bloccoPrecedente[bloccoSuccessivo[b]] = bloccoPrecedente[b];
+            blocchiComposto[x]--;
+        }
+
+        /**
+         * Inserisce il composto nella coda dei composti con almeno due blocchi, se non è già presente.
+         */
+        private void accoda(int x){
+            if(!inCoda[x]) {
+                inCoda[x] = true;
+                coda[numeroCoda++] = x;
+            }
+        }
+
+        /**
+         * Crea un nuovo contatore azzerato.
+         */
+        private int nuovoContatore(){
+            if(numeroContatori == conteggio.length)
+                conteggio = Arrays.copyOf(conteggio, conteggio.length * 2);
+            conteggio[numeroContatori] = 0;
+            return numeroContatori++;
+        }
+    }
+}
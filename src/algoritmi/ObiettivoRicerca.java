@@ -0,0 +1,17 @@
+package algoritmi;
+
+/**
+ * Interfaccia che rappresenta l'obiettivo di una ricerca nello spazio degli stati di una rete (vedi RicercaStati):
+ * viene valutata su ogni arco generato, per cui può riguardare sia lo stato raggiunto sia la transizione eseguita
+ * (ad esempio il verificarsi di un'etichetta di rilevanza).
+ */
+public interface ObiettivoRicerca {
+
+    /**
+     * Controlla se l'obiettivo è raggiunto.
+     * @param stato Stato codificato raggiunto (da non modificare).
+     * @param transizione Indice globale della transizione con cui è stato raggiunto lo stato, -1 per lo stato iniziale.
+     * @return TRUE se l'obiettivo è raggiunto, FALSE altrimenti.
+     */
+    boolean isRaggiunto(long[] stato, int transizione);
+}
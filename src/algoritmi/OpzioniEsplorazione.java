@@ -0,0 +1,245 @@
+package algoritmi;
+
+import struttureDati.MetricheEsplorazione;
+import struttureDati.Osservazione;
+
+import java.nio.file.Path;
+
+/**
+ * Classe rappresentante le opzioni di esplorazione dello spazio comportamentale di una rete di automi.
+ */
+public class OpzioniEsplorazione {
+
+    private int numeroThread;
+    private boolean potaturaInLinea;
+    private Osservazione osservazione;
+    private Path cartellaMemoriaEsterna;
+    private long sogliaMemoria;
+    private int massimoRun;
+    private boolean riduzioneOrdiniParziali;
+    private boolean compressioneStati;
+    private MetricheEsplorazione metriche;
+    private int numeroSottoreti;
+    private int[] partizione;
+
+    /**
+     * Costruttore della classe OpzioniEsplorazione.
+     */
+    private OpzioniEsplorazione(){
+        this.numeroThread = 1;
+        this.potaturaInLinea = false;
+        this.osservazione = null;
+        this.cartellaMemoriaEsterna = null;
+        this.sogliaMemoria = 64L << 20;
+        this.massimoRun = 64;
+        this.riduzioneOrdiniParziali = false;
+        this.compressioneStati = false;
+        this.metriche = null;
+        this.numeroSottoreti = 1;
+        this.partizione = null;
+    }
+
+    /**
+     * Permette di creare in modo statico le opzioni predefinite (visita sequenziale in memoria, nessuna potatura in linea,
+     * nessuna osservazione, nessuna riduzione a ordini parziali, stati non compressi, nessuna metrica, nessuna scomposizione in
+     * sottoreti).
+     * @return Istanza della classe OpzioniEsplorazione.
+     */
+    public static OpzioniEsplorazione create(){
+        return new OpzioniEsplorazione();
+    }
+
+    /**
+     * Restituisce il numero di thread usati per l'esplorazione.
+     * @return Numero di thread (1 per la visita sequenziale).
+     */
+    public int getNumeroThread() {
+        return numeroThread;
+    }
+
+    /**
+     * Permette di settare il numero di thread usati per l'esplorazione.
+     * @param numeroThread Numero di thread (1 per la visita sequenziale).
+     */
+    public void setNumeroThread(int numeroThread) {
+        this.numeroThread = numeroThread;
+    }
+
+    /**
+     * Indica se durante l'esplorazione vengono scartati gli stati che sicuramente non possono raggiungere uno stato finale.
+     * @return TRUE se la potatura in linea è attiva, FALSE altrimenti.
+     */
+    public boolean isPotaturaInLinea() {
+        return potaturaInLinea;
+    }
+
+    /**
+     * Permette di attivare o disattivare la potatura in linea (vedi FiltroStatiMorti).
+     * @param potaturaInLinea TRUE per scartare durante l'esplorazione gli stati che sicuramente non possono raggiungere uno stato finale.
+     */
+    public void setPotaturaInLinea(boolean potaturaInLinea) {
+        this.potaturaInLinea = potaturaInLinea;
+    }
+
+    /**
+     * Restituisce l'osservazione che vincola l'esplorazione.
+     * @return Osservazione, null se viene esplorato l'intero spazio comportamentale.
+     */
+    public Osservazione getOsservazione() {
+        return osservazione;
+    }
+
+    /**
+     * Permette di settare l'osservazione che vincola l'esplorazione.
+     * @param osservazione Osservazione (null per esplorare l'intero spazio comportamentale).
+     */
+    public void setOsservazione(Osservazione osservazione) {
+        this.osservazione = osservazione;
+    }
+
+    /**
+     * Restituisce la cartella in cui vengono scritti i file temporanei dell'esplorazione in memoria esterna.
+     * @return Cartella dei file temporanei, null se l'esplorazione avviene in memoria.
+     */
+    public Path getCartellaMemoriaEsterna() {
+        return cartellaMemoriaEsterna;
+    }
+
+    /**
+     * Permette di attivare l'esplorazione in memoria esterna (vedi EsplorazioneEsterna), per gli spazi i cui stati non
+     * stanno nello heap: frontiera, stati visitati e archi vengono scritti in file temporanei nella cartella indicata.
+     * @param cartellaMemoriaEsterna Cartella dei file temporanei (null per esplorare in memoria).
+     */
+    public void setCartellaMemoriaEsterna(Path cartellaMemoriaEsterna) {
+        this.cartellaMemoriaEsterna = cartellaMemoriaEsterna;
+    }
+
+    /**
+     * Restituisce la soglia di memoria dell'esplorazione in memoria esterna.
+     * @return Dimensione in byte di ogni buffer fuori dallo heap (64 MB se non specificata).
+     */
+    public long getSogliaMemoria() {
+        return sogliaMemoria;
+    }
+
+    /**
+     * Permette di settare la soglia di memoria dell'esplorazione in memoria esterna: i record accumulati in un buffer
+     * fuori dallo heap oltre questa dimensione vengono ordinati e scritti su disco. L'esplorazione usa al più tre buffer.
+     * @param sogliaMemoria Dimensione in byte di ogni buffer.
+     */
+    public void setSogliaMemoria(long sogliaMemoria) {
+        this.sogliaMemoria = sogliaMemoria;
+    }
+
+    /**
+     * Restituisce il numero massimo di file ordinati fusi in una sola passata dall'esplorazione in memoria esterna.
+     * @return Numero massimo di file fusi insieme (64 se non specificato).
+     */
+    public int getMassimoRun() {
+        return massimoRun;
+    }
+
+    /**
+     * Permette di settare il numero massimo di file ordinati fusi in una sola passata dall'esplorazione in memoria
+     * esterna (oltre questo numero la fusione avviene in più passate).
+     * @param massimoRun Numero massimo di file fusi insieme (almeno 2).
+     */
+    public void setMassimoRun(int massimoRun) {
+        this.massimoRun = massimoRun;
+    }
+
+    /**
+     * Indica se durante l'esplorazione viene applicata la riduzione a ordini parziali.
+     * @return TRUE se la riduzione a ordini parziali è attiva, FALSE altrimenti.
+     */
+    public boolean isRiduzioneOrdiniParziali() {
+        return riduzioneOrdiniParziali;
+    }
+
+    /**
+     * Permette di attivare o disattivare la riduzione a ordini parziali (vedi RiduzioneOrdiniParziali): lo spazio
+     * ottenuto contiene meno stati e archi, ma ha la stessa diagnosi. La visita è sempre sequenziale e in memoria.
+     * @param riduzioneOrdiniParziali TRUE per esplorare, dove possibile, solo le transizioni di un componente.
+     */
+    public void setRiduzioneOrdiniParziali(boolean riduzioneOrdiniParziali) {
+        this.riduzioneOrdiniParziali = riduzioneOrdiniParziali;
+    }
+
+    /**
+     * Indica se gli stati visitati vengono memorizzati compressi ad albero.
+     * @return TRUE se la compressione degli stati è attiva, FALSE altrimenti.
+     */
+    public boolean isCompressioneStati() {
+        return compressioneStati;
+    }
+
+    /**
+     * Permette di attivare o disattivare la compressione ad albero degli stati visitati (vedi InsiemeStatiCompressi),
+     * che riduce la memoria per stato quando stati dei componenti e contenuti dei link si ripetono in molti stati globali,
+     * al costo di una visita più lenta. Non ha effetto sull'esplorazione in memoria esterna.
+     * @param compressioneStati TRUE per memorizzare gli stati compressi ad albero.
+     */
+    public void setCompressioneStati(boolean compressioneStati) {
+        this.compressioneStati = compressioneStati;
+    }
+
+    /**
+     * Restituisce le metriche in cui viene registrato l'andamento dell'esplorazione.
+     * @return Metriche, null se l'esplorazione non viene misurata.
+     */
+    public MetricheEsplorazione getMetriche() {
+        return metriche;
+    }
+
+    /**
+     * Permette di settare le metriche in cui registrare l'andamento dell'esplorazione (vedi MetricheEsplorazione):
+     * stati espansi e transizioni esplorate, frontiera, stati visitati, link pieni e diramazioni non deterministiche.
+     * Le metriche vengono azzerate all'inizio di ogni esplorazione.
+     * @param metriche Metriche (null per non misurare l'esplorazione).
+     */
+    public void setMetriche(MetricheEsplorazione metriche) {
+        this.metriche = metriche;
+    }
+
+    /**
+     * Restituisce il numero di sottoreti in cui scomporre la rete se non è settata una partizione.
+     * @return Numero di sottoreti (1 per l'esplorazione monolitica).
+     */
+    public int getNumeroSottoreti() {
+        return numeroSottoreti;
+    }
+
+    /**
+     * Permette di settare il numero di sottoreti in cui scomporre la rete (vedi EsplorazioneModulare): i componenti
+     * vengono raggruppati lungo i link in modo che le sottoreti condividano pochi link, gli spazi delle sottoreti vengono
+     * costruiti in parallelo (con il numero di thread delle opzioni) e poi combinati da un join parallelo, il loro
+     * prodotto sincronizzato sui link condivisi e sull'osservazione. Il join ha comunque uno stato per ogni stato globale
+     * non potato dagli spazi locali, per cui la scomposizione non rende esplorabili reti il cui spazio monolitico non lo
+     * è. Ignorato se è settata una partizione.
+     * @param numeroSottoreti Numero di sottoreti (1 per l'esplorazione monolitica).
+     * @throws IllegalArgumentException se il numero di sottoreti non è positivo.
+     */
+    public void setNumeroSottoreti(int numeroSottoreti) {
+        if(numeroSottoreti <= 0)
+            throw new IllegalArgumentException("Il numero di sottoreti deve essere positivo");
+        this.numeroSottoreti = numeroSottoreti;
+    }
+
+    /**
+     * Restituisce la partizione dei componenti in sottoreti.
+     * @return Sottorete di ogni componente (nell'ordine dei componenti della rete compilata), null se non settata.
+     */
+    public int[] getPartizione() {
+        return partizione;
+    }
+
+    /**
+     * Permette di settare esplicitamente la partizione dei componenti in sottoreti (vedi setNumeroSottoreti), ad esempio
+     * per raggruppare i componenti di un impianto noti per essere debolmente accoppiati.
+     * @param partizione Sottorete (da 0 a numero di sottoreti - 1) di ogni componente, nell'ordine dei componenti della
+     *                   rete compilata (null per ricavarla dal numero di sottoreti).
+     */
+    public void setPartizione(int[] partizione) {
+        this.partizione = partizione;
+    }
+}
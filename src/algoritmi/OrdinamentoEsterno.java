@@ -0,0 +1,485 @@
+package algoritmi;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * Classe che ordina in memoria esterna una sequenza di record di lunghezza fissa (larghezza long ciascuno), confrontati
+ * lessicograficamente parola per parola.
+ * I record vengono accumulati in un buffer fuori dallo heap (allocato una sola volta); quando il buffer è pieno viene
+ * ordinato ed eventualmente privato dei duplicati, e viene scritto su disco come run ordinato. Alla fine i run vengono
+ * fusi (in più passate se sono più di massimoRun): se tutti i record stanno nel buffer non viene scritto nulla su disco.
+ * Nello heap resta solo l'array degli indici usato per ordinare il buffer (un intero per record).
+ * I file dei run vengono creati nella cartella indicata ed eliminati appena non servono più o alla chiusura.
+ */
+final class OrdinamentoEsterno implements AutoCloseable {
+
+    private static final int BYTE_BUFFER_FILE = 1 << 18;
+
+    private final Path cartella;
+    private final int larghezza;
+    private final int massimoRun;
+    private final boolean eliminaDuplicati;
+    private final LongBuffer memoria;
+    private final int capacita; //numero massimo di record nel buffer
+    private int numeroRecord;
+    private int[] ordine;
+    private final ArrayList<Path> run = new ArrayList<>();
+
+    /**
+     * Costruttore della classe OrdinamentoEsterno.
+     * @param cartella Cartella in cui creare i file dei run.
+     * @param larghezza Numero di long di ogni record.
+     * @param byteMemoria Dimensione in byte del buffer fuori dallo heap (soglia oltre la quale i record vengono scritti su disco).
+     * @param massimoRun Numero massimo di run fusi in una sola passata (almeno 2).
+     * @param eliminaDuplicati TRUE per restituire una sola copia di ogni record.
+     */
+    OrdinamentoEsterno(Path cartella, int larghezza, long byteMemoria, int massimoRun, boolean eliminaDuplicati){
+        this.cartella = cartella;
+        this.larghezza = larghezza;
+        this.massimoRun = Math.max(2, massimoRun);
+        this.eliminaDuplicati = eliminaDuplicati;
+        this.capacita = (int) Math.max(1, Math.min(Integer.MAX_VALUE / 8 / larghezza, byteMemoria / (8L * larghezza)));
+        this.memoria = ByteBuffer.allocateDirect(capacita * larghezza * 8).order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+
+    /**
+     * Aggiunge un record (scrivendo su disco il buffer se è pieno).
+     * @param parole Array che contiene il record.
+     * @param inizio Indice della prima parola del record.
+     * @throws IOException Se non è possibile scrivere il run.
+     */
+    void aggiungi(long[] parole, int inizio) throws IOException {
+        if(numeroRecord == capacita)
+            scriviRun();
+        memoria.position(numeroRecord * larghezza);
+        memoria.put(parole, inizio, larghezza);
+        numeroRecord++;
+    }
+
+    /**
+     * Termina l'inserimento e restituisce i record in ordine (senza duplicati se richiesto). Dopo questa chiamata non
+     * è più possibile aggiungere record.
+     * @return Lettore dei record ordinati.
+     * @throws IOException Se non è possibile leggere o scrivere i run.
+     */
+    Lettore ordina() throws IOException {
+        if(run.isEmpty())
+            return new LettoreMemoria(ordinaMemoria());
+        if(numeroRecord > 0)
+            scriviRun();
+        while(run.size() > massimoRun){
+            ArrayList<Path> gruppo = new ArrayList<>(run.subList(0, massimoRun));
+            run.subList(0, massimoRun).clear();
+            Path fuso = Files.createTempFile(cartella, "run", ".bin");
+            try(Lettore lettore = new LettoreFusione(gruppo); Scrittura scrittura = new Scrittura(fuso)) {
+                long[] record = new long[larghezza];
+                while(lettore.leggi(record))
+                    scrittura.scriviLong(record, 0, larghezza);
+            }
+            for(Path p : gruppo)
+                Files.deleteIfExists(p);
+            run.add(fuso);
+        }
+        return new LettoreFusione(new ArrayList<>(run));
+    }
+
+    /**
+     * Svuota l'ordinamento (eliminando i run scritti) per riusarlo con altri record, senza allocare un nuovo buffer.
+     * @throws IOException Se non è possibile eliminare un file.
+     */
+    void ricomincia() throws IOException {
+        close();
+        numeroRecord = 0;
+    }
+
+    /**
+     * Elimina i file dei run rimasti.
+     * @throws IOException Se non è possibile eliminare un file.
+     */
+    @Override
+    public void close() throws IOException {
+        for(Path p : run)
+            Files.deleteIfExists(p);
+        run.clear();
+    }
+
+    /**
+     * Ordina il buffer e scrive su disco i record in un nuovo run.
+     */
+    private void scriviRun() throws IOException {
+        int numero = ordinaMemoria();
+        Path file = Files.createTempFile(cartella, "run", ".bin");
+        try(Scrittura scrittura = new Scrittura(file)) {
+            long[] record = new long[larghezza];
+            for(int i = 0; i < numero; i++){
+                leggiMemoria(ordine[i], record);
+                scrittura.scriviLong(record, 0, larghezza);
+            }
+        }
+        run.add(file);
+        numeroRecord = 0;
+    }
+
+    /**
+     * Ordina gli indici dei record del buffer (eliminando i duplicati se richiesto).
+     * @return Numero di record ordinati (i primi elementi di ordine).
+     */
+    private int ordinaMemoria(){
+        if(ordine == null)
+            ordine = new int[capacita];
+        for(int i = 0; i < numeroRecord; i++)
+            ordine[i] = i;
+        quicksort(0, numeroRecord - 1);
+        if(!eliminaDuplicati || numeroRecord == 0)
+            return numeroRecord;
+        int numero = 1;
+        for(int i = 1; i < numeroRecord; i++)
+            if(confrontaMemoria(ordine[i], ordine[numero - 1]) != 0)
+                ordine[numero++] = ordine[i];
+        return numero;
+    }
+
+    /**
+     * Ordina gli indici tra basso e alto compresi (quicksort con partizione a tre vie, che gestisce bene i record
+     * ripetuti; la ricorsione avviene sulla parte più piccola).
+     */
+    private void quicksort(int basso, int alto){
+        while(alto - basso > 16){
+            int medio = (basso + alto) >>> 1;
+            if(confrontaMemoria(ordine[medio], ordine[basso]) < 0) scambia(medio, basso);
+            if(confrontaMemoria(ordine[alto], ordine[basso]) < 0) scambia(alto, basso);
+            if(confrontaMemoria(ordine[alto], ordine[medio]) < 0) scambia(alto, medio);
+            int perno = ordine[medio];
+            int minori = basso, i = basso, maggiori = alto;
+            while(i <= maggiori){
+                int c = confrontaMemoria(ordine[i], perno);
+                if(c < 0)
+                    scambia(minori++, i++);
+                else if(c > 0)
+                    scambia(i, maggiori--);
+                else
+                    i++;
+            }
+            if(minori - basso < alto - maggiori) {
+                quicksort(basso, minori - 1);
+                basso = maggiori + 1;
+            }
+            else {
+                quicksort(maggiori + 1, alto);
+                alto = minori - 1;
+            }
+        }
+        for(int i = basso + 1; i <= alto; i++)
+            for(int j = i; j > basso && confrontaMemoria(ordine[j], ordine[j - 1]) < 0; j--)
+                scambia(j, j - 1);
+    }
+
+    /**
+     * Scambia due posizioni dell'array degli indici.
+     */
+    private void scambia(int i, int j){
+        int t = ordine[i];
+        ordine[i] = ordine[j];
+        ordine[j] = t;
+    }
+
+    /**
+     * Confronta due record del buffer.
+     */
+    private int confrontaMemoria(int a, int b){
+        int baseA = a * larghezza, baseB = b * larghezza;
+        for(int k = 0; k < larghezza; k++){
+            int c = Long.compare(memoria.get(baseA + k), memoria.get(baseB + k));
+            if(c != 0)
+                return c;
+        }
+        return 0;
+    }
+
+    /**
+     * Copia un record del buffer nell'array di destinazione.
+     */
+    private void leggiMemoria(int r, long[] destinazione){
+        int base = r * larghezza;
+        for(int k = 0; k < larghezza; k++)
+            destinazione[k] = memoria.get(base + k);
+    }
+
+    /**
+     * Confronta lessicograficamente due record di n parole.
+     * @param a Primo array.
+     * @param inizioA Prima parola del primo record.
+     * @param b Secondo array.
+     * @param inizioB Prima parola del secondo record.
+     * @param n Numero di parole da confrontare.
+     * @return Valore negativo, zero o positivo se il primo record è minore, uguale o maggiore del secondo.
+     */
+    static int confronta(long[] a, int inizioA, long[] b, int inizioB, int n){
+        for(int k = 0; k < n; k++){
+            int c = Long.compare(a[inizioA + k], b[inizioB + k]);
+            if(c != 0)
+                return c;
+        }
+        return 0;
+    }
+
+    /**
+     * Classe astratta rappresentante un lettore sequenziale di record ordinati.
+     */
+    abstract static class Lettore implements AutoCloseable {
+
+        /**
+         * Legge il record successivo.
+         * @param destinazione Array in cui copiare il record.
+         * @return TRUE se è stato letto un record, FALSE se i record sono finiti.
+         * @throws IOException Se non è possibile leggere i run.
+         */
+        abstract boolean leggi(long[] destinazione) throws IOException;
+
+        @Override
+        public void close() throws IOException {
+        }
+    }
+
+    /**
+     * Lettore dei record rimasti tutti nel buffer.
+     */
+    private final class LettoreMemoria extends Lettore {
+
+        private final int numero;
+        private int prossimo;
+
+        private LettoreMemoria(int numero){
+            this.numero = numero;
+        }
+
+        @Override
+        boolean leggi(long[] destinazione){
+            if(prossimo == numero)
+                return false;
+            leggiMemoria(ordine[prossimo++], destinazione);
+            return true;
+        }
+    }
+
+    /**
+     * Lettore che fonde più run ordinati (con un heap binario sui record correnti dei run).
+     */
+    private final class LettoreFusione extends Lettore {
+
+        private final Lettura[] letture;
+        private final long[] correnti; //record corrente di ogni run
+        private final int[] heap;
+        private int dimensioneHeap;
+        private final long[] ultimo;
+        private boolean primo = true;
+
+        private LettoreFusione(ArrayList<Path> file) throws IOException {
+            letture = new Lettura[file.size()];
+            correnti = new long[file.size() * larghezza];
+            heap = new int[file.size()];
+            ultimo = new long[larghezza];
+            for(int i = 0; i < letture.length; i++){
+                letture[i] = new Lettura(file.get(i));
+                if(letture[i].leggiLong(correnti, i * larghezza, larghezza))
+                    inserisci(i);
+            }
+        }
+
+        @Override
+        boolean leggi(long[] destinazione) throws IOException {
+            while(dimensioneHeap > 0){
+                int r = heap[0];
+                System.arraycopy(correnti, r * larghezza, destinazione, 0, larghezza);
+                if(letture[r].leggiLong(correnti, r * larghezza, larghezza))
+                    scendi(0);
+                else {
+                    heap[0] = heap[--dimensioneHeap];
+                    scendi(0);
+                }
+                if(eliminaDuplicati && !primo && confronta(destinazione, 0, ultimo, 0, larghezza) == 0)
+                    continue;
+                primo = false;
+                System.arraycopy(destinazione, 0, ultimo, 0, larghezza);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Inserisce nell'heap il run indicato.
+         */
+        private void inserisci(int r){
+            int i = dimensioneHeap++;
+            heap[i] = r;
+            while(i > 0 && minore(heap[i], heap[(i - 1) / 2])){
+                int padre = (i - 1) / 2;
+                int t = heap[i];
+                heap[i] = heap[padre];
+                heap[padre] = t;
+                i = padre;
+            }
+        }
+
+        /**
+         * Riporta nella posizione corretta dell'heap l'elemento in posizione i.
+         */
+        private void scendi(int i){
+            while(true){
+                int minimo = i, sinistro = 2 * i + 1, destro = 2 * i + 2;
+                if(sinistro < dimensioneHeap && minore(heap[sinistro], heap[minimo]))
+                    minimo = sinistro;
+                if(destro < dimensioneHeap && minore(heap[destro], heap[minimo]))
+                    minimo = destro;
+                if(minimo == i)
+                    return;
+                int t = heap[i];
+                heap[i] = heap[minimo];
+                heap[minimo] = t;
+                i = minimo;
+            }
+        }
+
+        /**
+         * Confronta i record correnti di due run.
+         */
+        private boolean minore(int a, int b){
+            return confronta(correnti, a * larghezza, correnti, b * larghezza, larghezza) < 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            for(Lettura lettura : letture)
+                lettura.close();
+        }
+    }
+
+    /**
+     * Classe che scrive sequenzialmente interi e long (little endian) in un file attraverso un buffer fuori dallo heap.
+     */
+    static final class Scrittura implements AutoCloseable {
+
+        private final FileChannel canale;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BYTE_BUFFER_FILE).order(ByteOrder.LITTLE_ENDIAN);
+
+        /**
+         * Costruttore della classe Scrittura (il file viene creato o troncato).
+         * @param file Percorso del file.
+         * @throws IOException Se non è possibile aprire il file.
+         */
+        Scrittura(Path file) throws IOException {
+            this.canale = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        /**
+         * Scrive un intero.
+         * @param valore Valore da scrivere.
+         * @throws IOException Se non è possibile scrivere il file.
+         */
+        void scriviInt(int valore) throws IOException {
+            if(buffer.remaining() < 4)
+                svuota();
+            buffer.putInt(valore);
+        }
+
+        /**
+         * Scrive n long consecutivi di un array.
+         * @param parole Array da scrivere.
+         * @param inizio Indice del primo long.
+         * @param n Numero di long.
+         * @throws IOException Se non è possibile scrivere il file.
+         */
+        void scriviLong(long[] parole, int inizio, int n) throws IOException {
+            for(int k = 0; k < n; k++){
+                if(buffer.remaining() < 8)
+                    svuota();
+                buffer.putLong(parole[inizio + k]);
+            }
+        }
+
+        /**
+         * Scrive nel file il contenuto del buffer.
+         */
+        private void svuota() throws IOException {
+            buffer.flip();
+            while(buffer.hasRemaining())
+                canale.write(buffer);
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                svuota();
+            }
+            finally {
+                canale.close();
+            }
+        }
+    }
+
+    /**
+     * Classe che legge sequenzialmente long (little endian) da un file attraverso un buffer fuori dallo heap.
+     */
+    static final class Lettura implements AutoCloseable {
+
+        private final FileChannel canale;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BYTE_BUFFER_FILE).order(ByteOrder.LITTLE_ENDIAN);
+
+        /**
+         * Costruttore della classe Lettura.
+         * @param file Percorso del file.
+         * @throws IOException Se non è possibile aprire il file.
+         */
+        Lettura(Path file) throws IOException {
+            this.canale = FileChannel.open(file, StandardOpenOption.READ);
+            buffer.limit(0);
+        }
+
+        /**
+         * Legge n long consecutivi.
+         * @param destinazione Array di destinazione.
+         * @param inizio Indice in cui copiare il primo long.
+         * @param n Numero di long.
+         * @return TRUE se i long sono stati letti, FALSE se il file è finito.
+         * @throws IOException Se non è possibile leggere il file o il file termina a metà di un record.
+         */
+        boolean leggiLong(long[] destinazione, int inizio, int n) throws IOException {
+            for(int k = 0; k < n; k++){
+                if(buffer.remaining() < 8 && !riempi()) {
+                    if(k == 0)
+                        return false;
+                    throw new IOException("File di record troncato");
+                }
+                destinazione[inizio + k] = buffer.getLong();
+            }
+            return true;
+        }
+
+        /**
+         * Legge nel buffer il blocco successivo del file.
+         * @return FALSE se il file è finito.
+         */
+        private boolean riempi() throws IOException {
+            buffer.compact();
+            while(buffer.position() < 8)
+                if(canale.read(buffer) < 0)
+                    break;
+            buffer.flip();
+            return buffer.remaining() >= 8;
+        }
+
+        @Override
+        public void close() throws IOException {
+            canale.close();
+        }
+    }
+}
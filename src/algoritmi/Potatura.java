@@ -0,0 +1,122 @@
+package algoritmi;
+
+import struttureDati.InsiemeStati;
+import struttureDati.InsiemeStatiCompressi;
+import struttureDati.InsiemeStatiVisitati;
+import struttureDati.SpazioComportamentale;
+
+import java.util.BitSet;
+
+/**
+ * Classe che pota uno spazio comportamentale, eliminando gli stati (e gli archi) da cui non è possibile raggiungere
+ * alcuno stato finale. Gli stati co-raggiungibili sono calcolati con una visita all'indietro a partire dagli stati
+ * finali sulla lista di adiacenza inversa, in tempo lineare nel numero di stati e di archi.
+ */
+public class Potatura {
+
+    /**
+     * Costruttore privato: la classe espone solo metodi statici.
+     */
+    private Potatura(){
+    }
+
+    /**
+     * Calcola l'insieme degli stati dello spazio da cui è raggiungibile almeno uno stato finale.
+     * @param spazio Spazio comportamentale.
+     * @return Insieme degli stati co-raggiungibili.
+     */
+    public static BitSet statiCoRaggiungibili(SpazioComportamentale spazio){
+        int n = spazio.numeroStati();
+        //lista di adiacenza inversa in formato CSR
+        int[] inizioEntranti = new int[n + 1];
+        for(int a = 0; a < spazio.numeroArchi(); a++)
+            inizioEntranti[spazio.getDestinazione(a) + 1]++;
+        for(int s = 0; s < n; s++)
+            inizioEntranti[s + 1] += inizioEntranti[s];
+        int[] entranti = new int[spazio.numeroArchi()];
+        int[] riempimento = new int[n];
+        for(int s = 0; s < n; s++){
+            for(int a = spazio.inizioArchi(s); a < spazio.fineArchi(s); a++){
+                int d = spazio.getDestinazione(a);
+                entranti[inizioEntranti[d] + riempimento[d]++] = s;
+            }
+        }
+
+        BitSet coRaggiungibili = new BitSet(n);
+        int[] coda = new int[n];
+        int testa = 0, fine = 0;
+        for(int s = 0; s < n; s++){
+            if(spazio.isFinale(s)) {
+                coRaggiungibili.set(s);
+                coda[fine++] = s;
+            }
+        }
+        while(testa < fine){
+            int s = coda[testa++];
+            for(int i = inizioEntranti[s]; i < inizioEntranti[s + 1]; i++){
+                if(!coRaggiungibili.get(entranti[i])) {
+                    coRaggiungibili.set(entranti[i]);
+                    coda[fine++] = entranti[i];
+                }
+            }
+        }
+        return coRaggiungibili;
+    }
+
+    /**
+     * Pota lo spazio comportamentale mantenendo solo gli stati co-raggiungibili (e gli archi tra di essi).
+     * Gli stati mantengono l'ordine relativo, per cui lo stato iniziale resta lo stato 0; se lo stato iniziale non è
+     * co-raggiungibile lo spazio potato è vuoto.
+     * @param spazio Spazio comportamentale da potare.
+     * @return Spazio comportamentale potato.
+     */
+    public static SpazioComportamentale pota(SpazioComportamentale spazio){
+        int n = spazio.numeroStati();
+        BitSet vivi = statiCoRaggiungibili(spazio);
+        if(n == 0 || !vivi.get(0))
+            vivi.clear();
+        int[] nuovoId = new int[n];
+        int numeroVivi = 0;
+        int numeroArchi = 0;
+        for(int s = 0; s < n; s++){
+            nuovoId[s] = vivi.get(s) ? numeroVivi++ : -1;
+            if(vivi.get(s))
+                for(int a = spazio.inizioArchi(s); a < spazio.fineArchi(s); a++)
+                    if(vivi.get(spazio.getDestinazione(a)))
+                        numeroArchi++;
+        }
+
+        int[] inizioArchi = new int[numeroVivi + 1];
+        int[] destinazione = new int[numeroArchi];
+        int[] transizione = new int[numeroArchi];
+        BitSet finali = new BitSet(numeroVivi);
+        InsiemeStati stati = null;
+        if(spazio.getStati() instanceof InsiemeStatiCompressi)
+            stati = InsiemeStatiCompressi.create(spazio.numeroParole(), numeroVivi);
+        else if(spazio.conservaStati())
+            stati = InsiemeStatiVisitati.create(spazio.numeroParole(), numeroVivi);
+        long[] stato = stati == null ? null : new long[stati.numeroParole()];
+        int arco = 0;
+        for(int s = vivi.nextSetBit(0); s >= 0; s = vivi.nextSetBit(s + 1)){
+            int id = nuovoId[s];
+            inizioArchi[id] = arco;
+            if(spazio.isFinale(s))
+                finali.set(id);
+            if(stati != null) {
+                spazio.getStatoGlobale(s, stato);
+                stati.aggiungi(stato);
+            }
+            for(int a = spazio.inizioArchi(s); a < spazio.fineArchi(s); a++){
+                int d = spazio.getDestinazione(a);
+                if(vivi.get(d)) {
+                    destinazione[arco] = nuovoId[d];
+                    transizione[arco++] = spazio.getTransizione(a);
+                }
+            }
+        }
+        inizioArchi[numeroVivi] = arco;
+        if(stati != null)
+            stati.compatta();
+        return SpazioComportamentale.create(spazio.getRete(), spazio.getOsservazione(), stati, inizioArchi, destinazione, transizione, finali);
+    }
+}
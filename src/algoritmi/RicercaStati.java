@@ -0,0 +1,379 @@
+package algoritmi;
+
+import struttureDati.Etichetta;
+import struttureDati.InsiemeStatiVisitati;
+import struttureDati.ListaInteri;
+import struttureDati.Osservazione;
+import struttureDati.ReteAutomiCompilata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Classe che cerca nello spazio degli stati di una rete un arco che soddisfa un obiettivo (raggiungibilità di uno stato,
+ * verificarsi di un'etichetta...) senza costruire lo spazio comportamentale: i successori vengono generati uno alla
+ * volta (vedi IteratoreSuccessori) e l'obiettivo viene valutato su ogni arco appena generato, per cui la ricerca si
+ * ferma non appena la risposta è nota. Il risultato è un cammino testimone, cioè la sequenza delle transizioni che
+ * dallo stato iniziale porta all'arco che soddisfa l'obiettivo.
+ * Strategie disponibili:
+ * - AMPIEZZA: visita in ampiezza, il testimone ha il numero minimo di transizioni;
+ * - PROFONDITA: visita in profondità, con memoria proporzionale alla profondità per gli stati in esplorazione;
+ * - PROFONDITA_LIMITATA: visita in profondità dei soli cammini con al più profonditaMassima transizioni (uno stato già
+ *   visitato viene rivisitato se raggiunto con un cammino più corto, per cui la ricerca è completa entro il limite);
+ * - MIGLIORE_PRIMA: espande per primo lo stato scoperto con stima minore secondo l'euristica (a parità di stima, quello
+ *   scoperto per primo).
+ * Gli stati visitati sono conservati in un InsiemeStatiVisitati, per cui la ricerca termina anche su spazi con cicli.
+ * Un'istanza non è utilizzabile contemporaneamente da più thread.
+ */
+public class RicercaStati {
+
+    /**
+     * Strategie di visita dello spazio degli stati.
+     */
+    public enum Strategia {AMPIEZZA, PROFONDITA, PROFONDITA_LIMITATA, MIGLIORE_PRIMA}
+
+    private final ReteAutomiCompilata rete;
+    private Strategia strategia;
+    private int profonditaMassima;
+    private EuristicaRicerca euristica;
+    private Osservazione osservazione;
+    //risultati dell'ultima ricerca
+    private long[] statoRaggiunto;
+    private int statiVisitati;
+    private long successoriGenerati;
+
+    /**
+     * Costruttore della classe RicercaStati.
+     * @param rete Rete compilata.
+     */
+    private RicercaStati(ReteAutomiCompilata rete){
+        this.rete = rete;
+        this.strategia = Strategia.AMPIEZZA;
+        this.profonditaMassima = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Permette di creare in modo statico una ricerca in ampiezza senza osservazione.
+     * @param rete Rete compilata.
+     * @return Istanza della classe RicercaStati.
+     */
+    public static RicercaStati create(ReteAutomiCompilata rete){
+        return new RicercaStati(rete);
+    }
+
+    /**
+     * Restituisce l'obiettivo "si verifica l'etichetta di rilevanza indicata".
+     * @param etichetta Etichetta di rilevanza.
+     * @return Obiettivo raggiunto dalle transizioni con l'etichetta di rilevanza indicata.
+     * @throws IllegalArgumentException se l'etichetta non compare nella tabella dei simboli della rete.
+     */
+    public ObiettivoRicerca etichettaRilevanza(Etichetta etichetta){
+        int indice = rete.getSimboli().cercaEtichetta(etichetta);
+        if(indice < 0)
+            throw new IllegalArgumentException("Etichetta " + etichetta + " non presente nella rete");
+        return (stato, transizione) -> transizione >= 0 && rete.getRilevanza(transizione) == indice;
+    }
+
+    /**
+     * Restituisce l'obiettivo "è raggiunto uno stato finale": tutti i link sono vuoti e, se la ricerca è vincolata da
+     * un'osservazione, l'osservazione è in uno stato finale.
+     * @return Obiettivo raggiunto dagli stati finali.
+     */
+    public ObiettivoRicerca statoFinale(){
+        return (stato, transizione) -> rete.isFinale(stato)
+                && (osservazione == null || osservazione.isFinale((int) stato[rete.numeroParole()]));
+    }
+
+    /**
+     * Restituisce la strategia di visita.
+     * @return Strategia di visita.
+     */
+    public Strategia getStrategia() {
+        return strategia;
+    }
+
+    /**
+     * Permette di settare la strategia di visita.
+     * @param strategia Strategia di visita.
+     */
+    public void setStrategia(Strategia strategia) {
+        this.strategia = strategia;
+    }
+
+    /**
+     * Restituisce il numero massimo di transizioni dei cammini considerati dalla strategia PROFONDITA_LIMITATA.
+     * @return Profondità massima.
+     */
+    public int getProfonditaMassima() {
+        return profonditaMassima;
+    }
+
+    /**
+     * Permette di settare il numero massimo di transizioni dei cammini considerati dalla strategia PROFONDITA_LIMITATA.
+     * @param profonditaMassima Profondità massima (non negativa).
+     * @throws IllegalArgumentException se la profondità massima è negativa.
+     */
+    public void setProfonditaMassima(int profonditaMassima) {
+        if(profonditaMassima < 0)
+            throw new IllegalArgumentException("La profondità massima non può essere negativa");
+        this.profonditaMassima = profonditaMassima;
+    }
+
+    /**
+     * Restituisce l'euristica della strategia MIGLIORE_PRIMA.
+     * @return Euristica, null se non settata.
+     */
+    public EuristicaRicerca getEuristica() {
+        return euristica;
+    }
+
+    /**
+     * Permette di settare l'euristica della strategia MIGLIORE_PRIMA.
+     * @param euristica Euristica.
+     */
+    public void setEuristica(EuristicaRicerca euristica) {
+        this.euristica = euristica;
+    }
+
+    /**
+     * Restituisce l'osservazione che vincola la ricerca.
+     * @return Osservazione, null se la ricerca non è vincolata.
+     */
+    public Osservazione getOsservazione() {
+        return osservazione;
+    }
+
+    /**
+     * Permette di settare l'osservazione che vincola la ricerca: gli stati sono seguiti dallo stato dell'osservazione
+     * (vedi IteratoreSuccessori).
+     * @param osservazione Osservazione (null per non vincolare la ricerca).
+     */
+    public void setOsservazione(Osservazione osservazione) {
+        this.osservazione = osservazione;
+    }
+
+    /**
+     * Controlla se esiste un arco che soddisfa l'obiettivo.
+     * @param obiettivo Obiettivo della ricerca.
+     * @return TRUE se l'obiettivo è raggiungibile (entro la profondità massima con PROFONDITA_LIMITATA), FALSE altrimenti.
+     */
+    public boolean isRaggiungibile(ObiettivoRicerca obiettivo){
+        return cerca(obiettivo) != null;
+    }
+
+    /**
+     * Cerca un arco che soddisfa l'obiettivo, fermandosi al primo trovato.
+     * @param obiettivo Obiettivo della ricerca.
+     * @return Cammino testimone (indici globali delle transizioni dallo stato iniziale all'arco che soddisfa l'obiettivo;
+     * vuoto se l'obiettivo è soddisfatto dallo stato iniziale), null se l'obiettivo non è raggiungibile.
+     * @throws IllegalStateException se la strategia è MIGLIORE_PRIMA e non è stata settata un'euristica.
+     */
+    public int[] cerca(ObiettivoRicerca obiettivo){
+        if(strategia == Strategia.MIGLIORE_PRIMA && euristica == null)
+            throw new IllegalStateException("La ricerca migliore-prima richiede un'euristica");
+        IteratoreSuccessori iteratore = IteratoreSuccessori.create(rete, osservazione);
+        long[] iniziale = iteratore.statoIniziale();
+        statoRaggiunto = null;
+        statiVisitati = 0;
+        successoriGenerati = 0;
+        if(obiettivo.isRaggiunto(iniziale, -1)) {
+            statoRaggiunto = iniziale;
+            return new int[0];
+        }
+        InsiemeStatiVisitati visitati = InsiemeStatiVisitati.create(iteratore.numeroParole());
+        visitati.aggiungi(iniziale);
+        try {
+            switch (strategia) {
+                case PROFONDITA:
+                    return cercaInProfondita(obiettivo, visitati, iteratore, Integer.MAX_VALUE);
+                case PROFONDITA_LIMITATA:
+                    return cercaInProfondita(obiettivo, visitati, iteratore, profonditaMassima);
+                default:
+                    return cercaConCoda(obiettivo, visitati, iteratore);
+            }
+        } finally {
+            statiVisitati = visitati.dimensione();
+        }
+    }
+
+    /**
+     * Visita in profondità con una pila di iteratori (uno per livello), ognuno dei quali genera i successori del
+     * proprio stato solo quando la visita torna al suo livello. Il cammino dalla radice allo stato in cima alla pila è
+     * il testimone in caso di successo.
+     */
+    private int[] cercaInProfondita(ObiettivoRicerca obiettivo, InsiemeStatiVisitati visitati, IteratoreSuccessori radice,
+                                    int limite){
+        if(limite == 0)
+            return null;
+        ArrayList<IteratoreSuccessori> pila = new ArrayList<>();
+        pila.add(radice);
+        radice.inizia(radice.statoIniziale());
+        ListaInteri profondita = ListaInteri.create(); //profondità minima a cui è stato raggiunto ogni stato visitato
+        profondita.aggiungi(0);
+        ListaInteri cammino = ListaInteri.create();
+        int livello = 0;
+        while(livello >= 0){
+            IteratoreSuccessori iteratore = pila.get(livello);
+            if(!iteratore.prossimo()) {
+                if(livello-- > 0)
+                    cammino.rimuoviUltimo();
+                continue;
+            }
+            successoriGenerati++;
+            long[] successore = iteratore.getSuccessore();
+            int g = iteratore.getTransizione();
+            if(obiettivo.isRaggiunto(successore, g)) {
+                statoRaggiunto = successore.clone();
+                cammino.aggiungi(g);
+                return cammino.toArray();
+            }
+            if(livello + 1 >= limite)
+                continue;
+            int id = visitati.aggiungi(successore);
+            if(id >= 0)
+                profondita.aggiungi(livello + 1);
+            else if(limite < Integer.MAX_VALUE && profondita.get(-id - 1) > livello + 1)
+                profondita.set(-id - 1, livello + 1);
+            else
+                continue;
+            if(++livello == pila.size())
+                pila.add(IteratoreSuccessori.create(rete, osservazione));
+            pila.get(livello).inizia(successore);
+            cammino.aggiungi(g);
+        }
+        return null;
+    }
+
+    /**
+     * Visita in ampiezza (coda) o migliore-prima (heap ordinato per stima e ordine di scoperta) degli stati visitati,
+     * con il padre e la transizione di ogni stato per ricostruire il testimone.
+     */
+    private int[] cercaConCoda(ObiettivoRicerca obiettivo, InsiemeStatiVisitati visitati, IteratoreSuccessori iteratore){
+        boolean miglioriPrima = strategia == Strategia.MIGLIORE_PRIMA;
+        ListaInteri padre = ListaInteri.create();
+        ListaInteri transizione = ListaInteri.create();
+        padre.aggiungi(-1);
+        transizione.aggiungi(-1);
+        long[] stato = new long[iteratore.numeroParole()];
+        //coda della visita in ampiezza: gli stati vengono espansi nell'ordine degli identificatori
+        int prossimo = 0;
+        //heap della visita migliore-prima: chiave = (stima << 32) | identificatore
+        long[] heap = new long[miglioriPrima ? 64 : 0];
+        int dimensioneHeap = 0;
+        if(miglioriPrima) {
+            System.arraycopy(iteratore.statoIniziale(), 0, stato, 0, stato.length);
+            heap[dimensioneHeap++] = chiave(euristica.stima(stato), 0);
+        }
+        while(miglioriPrima ? dimensioneHeap > 0 : prossimo < visitati.dimensione()){
+            int u;
+            if(miglioriPrima) {
+                u = (int) heap[0];
+                heap[0] = heap[--dimensioneHeap];
+                scendi(heap, dimensioneHeap, 0);
+            } else
+                u = prossimo++;
+            visitati.leggi(u, stato);
+            iteratore.inizia(stato);
+            while(iteratore.prossimo()){
+                successoriGenerati++;
+                long[] successore = iteratore.getSuccessore();
+                int g = iteratore.getTransizione();
+                if(obiettivo.isRaggiunto(successore, g)) {
+                    statoRaggiunto = successore.clone();
+                    return testimone(padre, transizione, u, g);
+                }
+                int id = visitati.aggiungi(successore);
+                if(id < 0)
+                    continue;
+                padre.aggiungi(u);
+                transizione.aggiungi(g);
+                if(miglioriPrima) {
+                    if(dimensioneHeap == heap.length)
+                        heap = Arrays.copyOf(heap, heap.length * 2);
+                    heap[dimensioneHeap] = chiave(euristica.stima(successore), id);
+                    sali(heap, dimensioneHeap++);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Calcola la chiave di uno stato nell'heap: la stima (con segno) occupa i 32 bit alti e l'identificatore (non
+     * negativo) quelli bassi, per cui l'ordine dei long corrisponde a quello delle stime e, a parità di stima, degli
+     * identificatori.
+     */
+    private static long chiave(int stima, int id){
+        return (long) stima << 32 | id;
+    }
+
+    /**
+     * Ripristina la proprietà dello heap (minimo in radice) facendo salire l'elemento in posizione i.
+     */
+    private static void sali(long[] heap, int i){
+        long elemento = heap[i];
+        while(i > 0 && heap[(i - 1) / 2] > elemento){
+            heap[i] = heap[(i - 1) / 2];
+            i = (i - 1) / 2;
+        }
+        heap[i] = elemento;
+    }
+
+    /**
+     * Ripristina la proprietà dello heap (minimo in radice) facendo scendere l'elemento in posizione i.
+     */
+    private static void scendi(long[] heap, int dimensione, int i){
+        long elemento = heap[i];
+        while(2 * i + 1 < dimensione){
+            int figlio = 2 * i + 1;
+            if(figlio + 1 < dimensione && heap[figlio + 1] < heap[figlio])
+                figlio++;
+            if(heap[figlio] >= elemento)
+                break;
+            heap[i] = heap[figlio];
+            i = figlio;
+        }
+        heap[i] = elemento;
+    }
+
+    /**
+     * Ricostruisce il cammino testimone risalendo i padri dallo stato u e aggiungendo la transizione finale g.
+     */
+    private static int[] testimone(ListaInteri padre, ListaInteri transizione, int u, int g){
+        ListaInteri cammino = ListaInteri.create();
+        cammino.aggiungi(g);
+        for(int v = u; padre.get(v) >= 0; v = padre.get(v))
+            cammino.aggiungi(transizione.get(v));
+        int[] inverso = cammino.toArray();
+        for(int i = 0, j = inverso.length - 1; i < j; i++, j--){
+            int temp = inverso[i];
+            inverso[i] = inverso[j];
+            inverso[j] = temp;
+        }
+        return inverso;
+    }
+
+    /**
+     * Restituisce lo stato in cui è stato raggiunto l'obiettivo nell'ultima ricerca.
+     * @return Stato codificato raggiunto, null se l'ultima ricerca non ha trovato l'obiettivo.
+     */
+    public long[] getStatoRaggiunto() {
+        return statoRaggiunto == null ? null : statoRaggiunto.clone();
+    }
+
+    /**
+     * Restituisce il numero di stati distinti visitati dall'ultima ricerca.
+     * @return Numero di stati visitati.
+     */
+    public int getStatiVisitati() {
+        return statiVisitati;
+    }
+
+    /**
+     * Restituisce il numero di successori (archi) generati dall'ultima ricerca.
+     * @return Numero di successori generati.
+     */
+    public long getSuccessoriGenerati() {
+        return successoriGenerati;
+    }
+}
@@ -0,0 +1,205 @@
+package algoritmi;
+
+import struttureDati.AutomaCompilato;
+import struttureDati.ReteAutomiCompilata;
+
+import java.util.Arrays;
+
+/**
+ * Classe che riduce le transizioni da esplorare in uno stato globale (riduzione a ordini parziali con insiemi ampi).
+ * Transizioni di componenti diversi sono indipendenti quando entrambe abilitate: ogni link ha una sola sorgente e una
+ * sola destinazione, per cui l'unico contatto tra due componenti è un link su cui uno accoda in fondo e l'altro consuma
+ * dalla testa, operazioni che commutano e non si disabilitano. Eseguirle in tutti gli ordini moltiplica gli stati senza
+ * cambiare le sequenze di etichette: basta quindi esplorare le transizioni abilitate di un insieme di componenti S
+ * (insieme ampio), purché:
+ * - nessuna sia osservabile o rilevante (le sequenze di etichette osservate e di rilevanza restano le stesse);
+ * - nessuna transizione di S non abilitata possa essere abilitata dai componenti fuori da S prima che S si muova: una
+ *   transizione che consuma da un link non vuoto la cui testa è un evento diverso dal suo resta bloccata (solo il suo
+ *   componente può togliere la testa), mentre per una transizione in attesa su un link vuoto viene aggiunto a S il
+ *   componente sorgente del link e per una transizione bloccata da un link pieno il componente destinazione del link
+ *   (chiusura dell'insieme, come negli insiemi testardi);
+ * - i componenti fuori da S da soli non possano raggiungere uno stato finale (tutti i link vuoti), cosa garantita se un
+ *   link consumato da un componente di S non è vuoto; altrimenti le transizioni di S non devono accodare eventi, per
+ *   non rendere non finale uno stato finale.
+ * Per ogni componente con transizioni abilitate viene calcolata la chiusura e viene scelto l'insieme ammissibile con
+ * meno transizioni. La condizione sui cicli (nessun ciclo dello spazio ridotto può rimandare per sempre le transizioni
+ * escluse) è a carico della visita, che espande completamente uno stato quando un suo successore nell'insieme ampio è
+ * già stato espanso.
+ * Lo spazio ridotto ha gli stessi stati finali raggiungibili con le stesse sequenze di etichette, per cui la diagnosi
+ * (a parità di osservazione) è la stessa, anche se espressa con un'espressione regolare diversa.
+ * Un'istanza non è utilizzabile contemporaneamente da più thread (usa buffer interni).
+ */
+final class RiduzioneOrdiniParziali {
+
+    private final ReteAutomiCompilata rete;
+    private final boolean[] visibile;
+    private final boolean[] conUscita;
+    private final int[][] linkIngressoComponente;
+    private final int[] inizioComponente;
+    private final int[] fineComponente;
+    private final boolean[] inInsieme;
+    private final int[] insieme;
+    private final int[] migliore;
+
+    /**
+     * Costruttore della classe RiduzioneOrdiniParziali: precalcola l'impronta statica delle transizioni.
+     * @param rete Rete compilata.
+     */
+    RiduzioneOrdiniParziali(ReteAutomiCompilata rete){
+        this.rete = rete;
+        int numeroTransizioni = rete.numeroTransizioni();
+        this.visibile = new boolean[numeroTransizioni];
+        this.conUscita = new boolean[numeroTransizioni];
+        for(int g = 0; g < numeroTransizioni; g++){
+            visibile[g] = rete.getOsservabilita(g) >= 0 || rete.getRilevanza(g) >= 0;
+            conUscita[g] = rete.numeroEventiUscita(g) > 0;
+        }
+        int numeroComponenti = rete.numeroComponenti();
+        int[] numeroIngressi = new int[numeroComponenti];
+        for(int l = 0; l < rete.numeroLink(); l++)
+            numeroIngressi[rete.getDestinazioneLink(l)]++;
+        this.linkIngressoComponente = new int[numeroComponenti][];
+        for(int c = 0; c < numeroComponenti; c++)
+            linkIngressoComponente[c] = new int[numeroIngressi[c]];
+        Arrays.fill(numeroIngressi, 0);
+        for(int l = 0; l < rete.numeroLink(); l++){
+            int c = rete.getDestinazioneLink(l);
+            linkIngressoComponente[c][numeroIngressi[c]++] = l;
+        }
+        this.inizioComponente = new int[numeroComponenti];
+        this.fineComponente = new int[numeroComponenti];
+        this.inInsieme = new boolean[numeroComponenti];
+        this.insieme = new int[numeroComponenti];
+        this.migliore = new int[Math.max(rete.massimoTransizioniAbilitate(), 1)];
+    }
+
+    /**
+     * Sceglie l'insieme ampio tra le transizioni abilitate nello stato, spostandolo all'inizio dell'array.
+     * @param stato Stato globale codificato.
+     * @param abilitate Transizioni abilitate nello stato, ordinate per componente (come da transizioniAbilitate).
+     * @param numeroAbilitate Numero di transizioni abilitate.
+     * @return Numero di transizioni dell'insieme ampio (numeroAbilitate se lo stato va espanso completamente).
+     */
+    int riduci(long[] stato, int[] abilitate, int numeroAbilitate){
+        Arrays.fill(inizioComponente, 0);
+        Arrays.fill(fineComponente, 0);
+        for(int i = 0; i < numeroAbilitate; ){
+            int c = rete.getComponenteTransizione(abilitate[i]);
+            int j = i;
+            while(j < numeroAbilitate && rete.getComponenteTransizione(abilitate[j]) == c)
+                j++;
+            inizioComponente[c] = i;
+            fineComponente[c] = j;
+            i = j;
+        }
+        int dimensioneMigliore = numeroAbilitate;
+        for(int c = 0; c < inizioComponente.length; c++){
+            if(fineComponente[c] == inizioComponente[c] || fineComponente[c] - inizioComponente[c] >= dimensioneMigliore)
+                continue;
+            int numeroComponenti = chiusura(stato, c, abilitate, dimensioneMigliore);
+            int dimensione = 0;
+            for(int i = 0; i < numeroComponenti; i++)
+                dimensione += fineComponente[insieme[i]] - inizioComponente[insieme[i]];
+            if(numeroComponenti > 0 && dimensione < dimensioneMigliore && finaleRispettato(stato, abilitate, numeroComponenti)) {
+                dimensioneMigliore = 0;
+                for(int i = 0; i < numeroComponenti; i++)
+                    for(int k = inizioComponente[insieme[i]]; k < fineComponente[insieme[i]]; k++)
+                        migliore[dimensioneMigliore++] = abilitate[k];
+            }
+            for(int i = 0; i < numeroComponenti; i++)
+                inInsieme[insieme[i]] = false;
+        }
+        if(dimensioneMigliore < numeroAbilitate)
+            System.arraycopy(migliore, 0, abilitate, 0, dimensioneMigliore);
+        return dimensioneMigliore;
+    }
+
+    /**
+     * Calcola in insieme[0..n) la chiusura del componente c (marcata in inInsieme) e ne restituisce la dimensione n;
+     * restituisce 0 se la chiusura contiene una transizione abilitata visibile o almeno massimo transizioni abilitate.
+     */
+    private int chiusura(long[] stato, int c, int[] abilitate, int massimo){
+        int numero = 0;
+        int dimensione = 0;
+        insieme[numero++] = c;
+        inInsieme[c] = true;
+        for(int i = 0; i < numero; i++){
+            int d = insieme[i];
+            for(int k = inizioComponente[d]; k < fineComponente[d]; k++)
+                if(visibile[abilitate[k]])
+                    return annulla(numero);
+            dimensione += fineComponente[d] - inizioComponente[d];
+            if(dimensione >= massimo)
+                return annulla(numero);
+            //le transizioni non abilitate devono restarlo finché i componenti dell'insieme non si muovono
+            AutomaCompilato automa = rete.getComponente(d);
+            int base = rete.primaTransizione(d);
+            int s = rete.getStatoComponente(stato, d);
+            for(int t = automa.inizioTransizioni(s); t < automa.fineTransizioni(s); t++){
+                int g = base + t;
+                if(abilitata(g, abilitate, inizioComponente[d], fineComponente[d]))
+                    continue;
+                int l = rete.getLinkIngresso(g);
+                if(l >= 0 && rete.getLunghezzaLink(stato, l) == 0) {
+                    numero = aggiungi(rete.getSorgenteLink(l), numero);
+                    continue;
+                }
+                if(l >= 0 && rete.getEventoLink(stato, l, 0) != automa.getIngresso(t))
+                    continue;
+                for(int k = 0; k < rete.numeroEventiUscita(g); k++){
+                    int u = rete.getLinkUscita(g, k);
+                    if(rete.getLunghezzaLink(stato, u) == rete.getCapacita(u))
+                        numero = aggiungi(rete.getDestinazioneLink(u), numero);
+                }
+            }
+        }
+        return numero;
+    }
+
+    /**
+     * Aggiunge un componente alla chiusura, se non già presente.
+     */
+    private int aggiungi(int c, int numero){
+        if(!inInsieme[c]) {
+            inInsieme[c] = true;
+            insieme[numero++] = c;
+        }
+        return numero;
+    }
+
+    /**
+     * Ripulisce i componenti marcati da una chiusura non ammissibile.
+     */
+    private int annulla(int numero){
+        for(int i = 0; i < numero; i++)
+            inInsieme[insieme[i]] = false;
+        return 0;
+    }
+
+    /**
+     * Controlla se la transizione g è tra quelle abilitate in abilitate[inizio..fine).
+     */
+    private static boolean abilitata(int g, int[] abilitate, int inizio, int fine){
+        for(int i = inizio; i < fine; i++)
+            if(abilitate[i] == g)
+                return true;
+        return false;
+    }
+
+    /**
+     * Controlla che i componenti fuori dall'insieme non possano raggiungere da soli uno stato finale che le transizioni
+     * dell'insieme renderebbero non finale.
+     */
+    private boolean finaleRispettato(long[] stato, int[] abilitate, int numeroComponenti){
+        boolean accoda = false;
+        for(int i = 0; i < numeroComponenti; i++){
+            int d = insieme[i];
+            for(int l : linkIngressoComponente[d])
+                if(rete.getLunghezzaLink(stato, l) > 0)
+                    return true;
+            for(int k = inizioComponente[d]; k < fineComponente[d]; k++)
+                accoda |= conUscita[abilitate[k]];
+        }
+        return !accoda;
+    }
+}
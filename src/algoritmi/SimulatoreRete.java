@@ -0,0 +1,225 @@
+package algoritmi;
+
+import struttureDati.ListaInteri;
+import struttureDati.MetricheEsplorazione;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.TracciaSimulazione;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Classe che simula il comportamento di una rete di automi, per analisi "what-if" su molte esecuzioni casuali.
+ * Ogni componente si comporta come un attore che consuma gli eventi dai propri link entranti (le sue code di messaggi)
+ * e accoda gli eventi in uscita sui link uscenti; poiché i link hanno capacità limitata, un componente che deve
+ * accodare un evento su un link pieno resta bloccato finché il destinatario non lo consuma (contropressione).
+ * A ogni passo lo scheduler sceglie a caso uno dei componenti con transizioni abilitate e, se il componente ne ha più
+ * di una, risolve il non determinismo scegliendo a caso una di esse; le scelte dipendono solo dal seme, per cui una
+ * simulazione è riproducibile. La simulazione termina quando nessun componente può avanzare o dopo il numero massimo
+ * di passi.
+ * Le simulazioni sono compiti leggeri (uno stato globale codificato e un generatore casuale, senza un thread per
+ * componente), per cui se ne possono eseguire decine di migliaia in parallelo: vengono suddivise in blocchi eseguiti
+ * da un ForkJoinPool con work stealing tra i thread. Il seme di ogni simulazione dipende solo dal seme di partenza e
+ * dalla sua posizione, per cui il risultato non dipende dal numero di thread.
+ */
+public class SimulatoreRete {
+
+    private static final int DIMENSIONE_BLOCCO = 64; //simulazioni eseguite da un compito senza suddividerlo
+
+    /**
+     * Classe che esegue le simulazioni di un thread, riusando gli array di lavoro tra una simulazione e l'altra.
+     */
+    private static class Esecutore {
+        private final ReteAutomiCompilata rete;
+        private final MetricheEsplorazione.Registro registro;
+        private final int[] abilitate;
+        private final ListaInteri passi;
+        private long[] stato;
+        private long[] successore;
+
+        /**
+         * Costruttore della classe Esecutore.
+         * @param rete Rete compilata da simulare.
+         * @param metriche Metriche in cui registrare i passi (null per non registrarli).
+         */
+        private Esecutore(ReteAutomiCompilata rete, MetricheEsplorazione metriche){
+            this.rete = rete;
+            this.registro = metriche == null ? null : metriche.registro();
+            this.abilitate = new int[Math.max(1, rete.massimoTransizioniAbilitate())];
+            this.passi = ListaInteri.create();
+            this.successore = new long[rete.numeroParole()];
+        }
+
+        /**
+         * Esegue una simulazione a partire dallo stato iniziale della rete.
+         * @param seme Seme delle scelte casuali.
+         * @param massimoPassi Numero massimo di transizioni da eseguire.
+         * @return Traccia della simulazione.
+         */
+        private TracciaSimulazione simula(long seme, int massimoPassi){
+            SplittableRandom casuale = new SplittableRandom(seme);
+            stato = rete.statoIniziale();
+            passi.svuota();
+            TracciaSimulazione.Esito esito = TracciaSimulazione.Esito.LIMITE_PASSI;
+            while(passi.dimensione() < massimoPassi){
+                int numero = rete.transizioniAbilitate(stato, abilitate, registro);
+                if(numero == 0) {
+                    esito = TracciaSimulazione.Esito.QUIESCENZA;
+                    break;
+                }
+                int g = scegli(numero, casuale);
+                rete.successore(stato, g, successore);
+                long[] temp = stato;
+                stato = successore;
+                successore = temp;
+                passi.aggiungi(g);
+            }
+            return TracciaSimulazione.create(rete, seme, passi.toArray(), stato.clone(), esito);
+        }
+
+        /**
+         * Sceglie a caso un componente tra quelli con transizioni abilitate e poi una delle sue transizioni abilitate
+         * (le transizioni abilitate di un componente sono contigue, vedi ReteAutomiCompilata.transizioniAbilitate).
+         */
+        private int scegli(int numero, SplittableRandom casuale){
+            int componenti = 0;
+            boolean diramazione = false;
+            for(int i = 0; i < numero; i++){
+                if(i == 0 || rete.getComponenteTransizione(abilitate[i]) != rete.getComponenteTransizione(abilitate[i - 1]))
+                    componenti++;
+                else
+                    diramazione = true;
+            }
+            if(registro != null)
+                registro.registraEspansione(numero, diramazione);
+            int scelto = casuale.nextInt(componenti);
+            int inizio = 0;
+            for(int k = 0; k < scelto; k++){
+                int c = rete.getComponenteTransizione(abilitate[inizio]);
+                while(rete.getComponenteTransizione(abilitate[inizio]) == c)
+                    inizio++;
+            }
+            int fine = inizio + 1;
+            while(fine < numero && rete.getComponenteTransizione(abilitate[fine]) == rete.getComponenteTransizione(abilitate[inizio]))
+                fine++;
+            return abilitate[fine - inizio == 1 ? inizio : inizio + casuale.nextInt(fine - inizio)];
+        }
+    }
+
+    /**
+     * Compito che esegue le simulazioni in un intervallo, suddividendolo ricorsivamente.
+     */
+    private static class Simulazioni extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final ReteAutomiCompilata rete;
+        private final long semeBase;
+        private final int massimoPassi;
+        private final MetricheEsplorazione metriche;
+        private final TracciaSimulazione[] tracce;
+        private final int primo;
+        private final int ultimo;
+
+        private Simulazioni(ReteAutomiCompilata rete, long semeBase, int massimoPassi, MetricheEsplorazione metriche,
+                            TracciaSimulazione[] tracce, int primo, int ultimo){
+            this.rete = rete;
+            this.semeBase = semeBase;
+            this.massimoPassi = massimoPassi;
+            this.metriche = metriche;
+            this.tracce = tracce;
+            this.primo = primo;
+            this.ultimo = ultimo;
+        }
+
+        @Override
+        protected void compute() {
+            if(ultimo - primo > DIMENSIONE_BLOCCO) {
+                int medio = (primo + ultimo) >>> 1;
+                invokeAll(new Simulazioni(rete, semeBase, massimoPassi, metriche, tracce, primo, medio),
+                        new Simulazioni(rete, semeBase, massimoPassi, metriche, tracce, medio, ultimo));
+                return;
+            }
+            Esecutore esecutore = new Esecutore(rete, metriche);
+            for(int i = primo; i < ultimo; i++)
+                tracce[i] = esecutore.simula(seme(semeBase, i), massimoPassi);
+            if(esecutore.registro != null)
+                esecutore.registro.scarica();
+        }
+    }
+
+    /**
+     * Costruttore privato: la classe espone solo metodi statici.
+     */
+    private SimulatoreRete(){
+    }
+
+    /**
+     * Esegue una simulazione della rete.
+     * @param rete Rete compilata da simulare.
+     * @param seme Seme delle scelte casuali (con lo stesso seme si ottiene la stessa traccia).
+     * @param massimoPassi Numero massimo di transizioni da eseguire.
+     * @return Traccia della simulazione.
+     * @throws IllegalArgumentException se il numero massimo di passi è negativo.
+     */
+    public static TracciaSimulazione simula(ReteAutomiCompilata rete, long seme, int massimoPassi){
+        if(massimoPassi < 0)
+            throw new IllegalArgumentException("Il numero massimo di passi non può essere negativo");
+        return new Esecutore(rete, null).simula(seme, massimoPassi);
+    }
+
+    /**
+     * Esegue in parallelo più simulazioni indipendenti della rete, usando tutti i processori disponibili.
+     * @param rete Rete compilata da simulare.
+     * @param semeBase Seme da cui derivare quelli delle singole simulazioni.
+     * @param numeroSimulazioni Numero di simulazioni.
+     * @param massimoPassi Numero massimo di transizioni da eseguire in ogni simulazione.
+     * @return Tracce delle simulazioni, nell'ordine.
+     */
+    public static TracciaSimulazione[] simula(ReteAutomiCompilata rete, long semeBase, int numeroSimulazioni, int massimoPassi){
+        return simula(rete, semeBase, numeroSimulazioni, massimoPassi, Runtime.getRuntime().availableProcessors(), null);
+    }
+
+    /**
+     * Esegue in parallelo più simulazioni indipendenti della rete. La simulazione i-esima ha seme seme(semeBase, i),
+     * per cui può essere ripetuta singolarmente con simula(rete, traccia.getSeme(), massimoPassi).
+     * @param rete Rete compilata da simulare.
+     * @param semeBase Seme da cui derivare quelli delle singole simulazioni.
+     * @param numeroSimulazioni Numero di simulazioni.
+     * @param massimoPassi Numero massimo di transizioni da eseguire in ogni simulazione.
+     * @param numeroThread Numero di thread da usare.
+     * @param metriche Metriche in cui registrare i passi (null per non registrarli): ogni passo è registrato come
+     *                 l'espansione di uno stato, con le transizioni bloccate da un link pieno.
+     * @return Tracce delle simulazioni, nell'ordine (identiche per qualsiasi numero di thread).
+     * @throws IllegalArgumentException se il numero di simulazioni o il numero massimo di passi è negativo o il numero
+     * di thread non è positivo.
+     */
+    public static TracciaSimulazione[] simula(ReteAutomiCompilata rete, long semeBase, int numeroSimulazioni, int massimoPassi,
+                                              int numeroThread, MetricheEsplorazione metriche){
+        if(numeroSimulazioni < 0 || massimoPassi < 0)
+            throw new IllegalArgumentException("Il numero di simulazioni e il numero massimo di passi non possono essere negativi");
+        if(numeroThread <= 0)
+            throw new IllegalArgumentException("Il numero di thread deve essere positivo");
+        TracciaSimulazione[] tracce = new TracciaSimulazione[numeroSimulazioni];
+        ForkJoinPool pool = new ForkJoinPool(numeroThread);
+        try {
+            pool.invoke(new Simulazioni(rete, semeBase, massimoPassi, metriche, tracce, 0, numeroSimulazioni));
+        } finally {
+            pool.shutdown();
+        }
+        return tracce;
+    }
+
+    /**
+     * Restituisce il seme della simulazione i-esima di un insieme di simulazioni, mescolando i bit del seme di partenza
+     * e della posizione (funzione di finalizzazione di SplitMix64), in modo che simulazioni vicine siano indipendenti.
+     * @param semeBase Seme di partenza dell'insieme di simulazioni.
+     * @param i Posizione della simulazione.
+     * @return Seme della simulazione.
+     */
+    public static long seme(long semeBase, int i){
+        long z = semeBase + (i + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
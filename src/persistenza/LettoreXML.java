@@ -0,0 +1,338 @@
+package persistenza;
+
+import struttureDati.Automa;
+import struttureDati.Etichetta;
+import struttureDati.Evento;
+import struttureDati.Link;
+import struttureDati.ReteAutomi;
+import struttureDati.Stato;
+import struttureDati.TipoEtichetta;
+import struttureDati.Transizione;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Classe che legge automi e reti di automi dal formato XML scritto da ScrittoreXML.
+ * La lettura avviene in streaming (StAX) in una sola passata, senza costruire l'albero del documento: stati, eventi,
+ * etichette e transizioni vengono creati man mano che si incontrano i rispettivi elementi e i riferimenti per
+ * identificatore sono risolti con delle mappe hash, per cui tempo e memoria crescono linearmente con la dimensione del
+ * modello. I riferimenti in avanti sono ammessi: uno stato o un evento citato prima della sua dichiarazione viene creato
+ * subito e ne viene impostato il nome quando si incontra l'elemento corrispondente.
+ * Formato (gli elementi evento possono comparire anche dentro un automa letto da solo):
+ * <pre>
+ * &lt;rete id="1" nome="R"&gt;
+ *   &lt;evento id="1" nome="e1"/&gt;
+ *   &lt;automa id="1" nome="C1" iniziale="10"&gt;
+ *     &lt;stato id="10" nome="s10"/&gt;
+ *     &lt;transizione id="t1" partenza="10" arrivo="11" ingresso="1" osservabilita="o1" rilevanza="f1"&gt;
+ *       &lt;uscita evento="2"/&gt;
+ *     &lt;/transizione&gt;
+ *   &lt;/automa&gt;
+ *   &lt;link id="L1" sorgente="1" destinazione="2" capacita="1"/&gt;
+ * &lt;/rete&gt;
+ * </pre>
+ * Gli attributi ingresso, osservabilita e rilevanza sono facoltativi. Gli errori di formato e i modelli non validi
+ * vengono segnalati con una XMLStreamException.
+ */
+public class LettoreXML {
+
+    private final XMLStreamReader lettore;
+    private final HashMap<Integer, Evento> eventi = new HashMap<>();
+    private final HashMap<String, Etichetta> etichetteOsservabilita = new HashMap<>();
+    private final HashMap<String, Etichetta> etichetteRilevanza = new HashMap<>();
+
+    /**
+     * Costruttore della classe LettoreXML.
+     * @param lettore Lettore StAX posizionato all'inizio del documento.
+     */
+    private LettoreXML(XMLStreamReader lettore){
+        this.lettore = lettore;
+    }
+
+    /**
+     * Legge una rete di automi da un file XML.
+     * @param file Percorso del file.
+     * @return Rete di automi letta.
+     * @throws IOException Se non è possibile leggere il file.
+     * @throws XMLStreamException Se il documento non è nel formato atteso o la rete non è valida.
+     */
+    public static ReteAutomi leggiRete(Path file) throws IOException, XMLStreamException {
+        try(InputStream ingresso = new BufferedInputStream(Files.newInputStream(file))) {
+            return leggiRete(ingresso);
+        }
+    }
+
+    /**
+     * Legge una rete di automi da un flusso XML (il flusso non viene chiuso).
+     * @param ingresso Flusso da cui leggere.
+     * @return Rete di automi letta.
+     * @throws XMLStreamException Se il documento non è nel formato atteso o la rete non è valida.
+     */
+    public static ReteAutomi leggiRete(InputStream ingresso) throws XMLStreamException {
+        XMLStreamReader lettore = creaLettore(ingresso);
+        try {
+            LettoreXML xml = new LettoreXML(lettore);
+            xml.radice("rete");
+            ReteAutomi rete = xml.rete();
+            xml.controllaEventi();
+            return rete;
+        }
+        finally {
+            lettore.close();
+        }
+    }
+
+    /**
+     * Legge un automa da un file XML (con radice automa).
+     * @param file Percorso del file.
+     * @return Automa letto.
+     * @throws IOException Se non è possibile leggere il file.
+     * @throws XMLStreamException Se il documento non è nel formato atteso o l'automa non è valido.
+     */
+    public static Automa leggiAutoma(Path file) throws IOException, XMLStreamException {
+        try(InputStream ingresso = new BufferedInputStream(Files.newInputStream(file))) {
+            return leggiAutoma(ingresso);
+        }
+    }
+
+    /**
+     * Legge un automa da un flusso XML con radice automa (il flusso non viene chiuso).
+     * @param ingresso Flusso da cui leggere.
+     * @return Automa letto.
+     * @throws XMLStreamException Se il documento non è nel formato atteso o l'automa non è valido.
+     */
+    public static Automa leggiAutoma(InputStream ingresso) throws XMLStreamException {
+        XMLStreamReader lettore = creaLettore(ingresso);
+        try {
+            LettoreXML xml = new LettoreXML(lettore);
+            xml.radice("automa");
+            Automa automa = xml.automa();
+            xml.controllaEventi();
+            return automa;
+        }
+        finally {
+            lettore.close();
+        }
+    }
+
+    /**
+     * Crea un lettore StAX che non risolve DTD ed entità esterne.
+     */
+    private static XMLStreamReader creaLettore(InputStream ingresso) throws XMLStreamException {
+        XMLInputFactory fabbrica = XMLInputFactory.newInstance();
+        fabbrica.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        fabbrica.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return fabbrica.createXMLStreamReader(ingresso);
+    }
+
+    /**
+     * Avanza fino all'elemento radice e controlla che abbia il nome atteso.
+     */
+    private void radice(String nome) throws XMLStreamException {
+        while(lettore.getEventType() != XMLStreamConstants.START_ELEMENT)
+            lettore.next();
+        atteso(nome);
+    }
+
+    /**
+     * Legge l'elemento rete (il lettore è posizionato sul suo inizio).
+     */
+    private ReteAutomi rete() throws XMLStreamException {
+        int id = intero("id");
+        String nome = lettore.getAttributeValue(null, "nome");
+        ArrayList<Automa> automi = new ArrayList<>();
+        HashMap<Integer, Automa> indiceAutomi = new HashMap<>();
+        //i link possono citare automi dichiarati dopo di loro: vengono risolti alla fine
+        ArrayList<String[]> link = new ArrayList<>();
+        while(lettore.nextTag() == XMLStreamConstants.START_ELEMENT){
+            switch(lettore.getLocalName()) {
+                case "evento":
+                    evento();
+                    break;
+                case "automa":
+                    Automa automa = automa();
+                    if(indiceAutomi.put(automa.getId(), automa) != null)
+                        throw errore("automa " + automa.getId() + " ripetuto");
+                    automi.add(automa);
+                    break;
+                case "link":
+                    link.add(new String[]{obbligatorio("id"), obbligatorio("sorgente"), obbligatorio("destinazione"), obbligatorio("capacita")});
+                    lettore.nextTag();
+                    break;
+                default:
+                    throw errore("elemento inatteso " + lettore.getLocalName());
+            }
+        }
+        ArrayList<Link> collegamenti = new ArrayList<>(link.size());
+        for(String[] l : link)
+            collegamenti.add(Link.create(l[0], automaRiferito(indiceAutomi, l[1]), automaRiferito(indiceAutomi, l[2]), intero(l[3], "capacita")));
+        ReteAutomi rete = ReteAutomi.create(id, nome, automi, collegamenti);
+        if(rete == null)
+            throw errore("rete " + nome + " non valida");
+        return rete;
+    }
+
+    /**
+     * Legge un elemento automa (il lettore è posizionato sul suo inizio e alla fine è sulla sua chiusura).
+     */
+    private Automa automa() throws XMLStreamException {
+        int id = intero("id");
+        String nome = lettore.getAttributeValue(null, "nome");
+        int iniziale = intero("iniziale");
+        HashMap<Integer, Stato> indiceStati = new HashMap<>();
+        ArrayList<Stato> stati = new ArrayList<>();
+        ArrayList<Transizione> transizioni = new ArrayList<>();
+        while(lettore.nextTag() == XMLStreamConstants.START_ELEMENT){
+            switch(lettore.getLocalName()) {
+                case "evento":
+                    evento();
+                    break;
+                case "stato":
+                    //uno stato già citato da una transizione viene completato con il nome
+                    int idStato = intero("id");
+                    Stato stato = indiceStati.get(idStato);
+                    if(stato == null) {
+                        stato = Stato.create(idStato, null);
+                        indiceStati.put(idStato, stato);
+                    }
+                    else if(stato.getNome() != null)
+                        throw errore("stato " + idStato + " ripetuto nell'automa " + nome);
+                    stato.setNome(obbligatorio("nome"));
+                    stati.add(stato);
+                    lettore.nextTag();
+                    break;
+                case "transizione":
+                    transizioni.add(transizione(indiceStati));
+                    break;
+                default:
+                    throw errore("elemento inatteso " + lettore.getLocalName());
+            }
+        }
+        Automa automa = Automa.create(id, nome, stati, transizioni, indiceStati.get(iniziale));
+        if(automa == null)
+            throw errore("automa " + nome + " non valido");
+        return automa;
+    }
+
+    /**
+     * Legge un elemento transizione con i suoi eventi in uscita.
+     */
+    private Transizione transizione(HashMap<Integer, Stato> indiceStati) throws XMLStreamException {
+        String id = obbligatorio("id");
+        Stato partenza = indiceStati.computeIfAbsent(intero("partenza"), s -> Stato.create(s, null));
+        Stato arrivo = indiceStati.computeIfAbsent(intero("arrivo"), s -> Stato.create(s, null));
+        String ingresso = lettore.getAttributeValue(null, "ingresso");
+        Evento eventoIngresso = ingresso == null ? null : eventoRiferito(intero(ingresso, "ingresso"));
+        Etichetta osservabilita = etichetta(lettore.getAttributeValue(null, "osservabilita"), etichetteOsservabilita, TipoEtichetta.ETICHETTAOSSERVABILITA);
+        Etichetta rilevanza = etichetta(lettore.getAttributeValue(null, "rilevanza"), etichetteRilevanza, TipoEtichetta.ETICHETTARILEVANZA);
+        ArrayList<Evento> uscita = null;
+        while(lettore.nextTag() == XMLStreamConstants.START_ELEMENT){
+            atteso("uscita");
+            if(uscita == null)
+                uscita = new ArrayList<>();
+            uscita.add(eventoRiferito(intero("evento")));
+            lettore.nextTag();
+        }
+        return Transizione.create(id, partenza, arrivo, eventoIngresso, uscita, osservabilita, rilevanza);
+    }
+
+    /**
+     * Legge un elemento evento (un evento già citato viene completato con il nome).
+     */
+    private void evento() throws XMLStreamException {
+        Evento evento = eventoRiferito(intero("id"));
+        if(evento.getNome() != null)
+            throw errore("evento " + evento.getId() + " ripetuto");
+        evento.setNome(obbligatorio("nome"));
+        lettore.nextTag();
+    }
+
+    /**
+     * Controlla che tutti gli eventi citati dalle transizioni siano stati dichiarati.
+     */
+    private void controllaEventi() throws XMLStreamException {
+        for(Evento evento : eventi.values())
+            if(evento.getNome() == null)
+                throw errore("evento " + evento.getId() + " non dichiarato");
+    }
+
+    /**
+     * Restituisce l'evento con l'identificatore indicato, creandolo se non è ancora stato incontrato.
+     */
+    private Evento eventoRiferito(int id){
+        return eventi.computeIfAbsent(id, e -> Evento.create(e, null));
+    }
+
+    /**
+     * Restituisce l'etichetta con l'identificatore indicato (sempre la stessa istanza), null se l'identificatore è null.
+     */
+    private static Etichetta etichetta(String id, HashMap<String, Etichetta> etichette, TipoEtichetta tipo){
+        if(id == null)
+            return null;
+        return etichette.computeIfAbsent(id, e -> Etichetta.create(e, tipo));
+    }
+
+    /**
+     * Restituisce l'automa con l'identificatore indicato.
+     */
+    private Automa automaRiferito(HashMap<Integer, Automa> indiceAutomi, String id) throws XMLStreamException {
+        Automa automa = indiceAutomi.get(intero(id, "automa"));
+        if(automa == null)
+            throw errore("automa " + id + " inesistente");
+        return automa;
+    }
+
+    /**
+     * Controlla che il lettore sia posizionato sull'inizio dell'elemento indicato.
+     */
+    private void atteso(String nome) throws XMLStreamException {
+        if(!lettore.getLocalName().equals(nome))
+            throw errore("atteso elemento " + nome + ", trovato " + lettore.getLocalName());
+    }
+
+    /**
+     * Restituisce il valore di un attributo obbligatorio dell'elemento corrente.
+     */
+    private String obbligatorio(String attributo) throws XMLStreamException {
+        String valore = lettore.getAttributeValue(null, attributo);
+        if(valore == null)
+            throw errore("attributo " + attributo + " mancante nell'elemento " + lettore.getLocalName());
+        return valore;
+    }
+
+    /**
+     * Restituisce il valore intero di un attributo obbligatorio dell'elemento corrente.
+     */
+    private int intero(String attributo) throws XMLStreamException {
+        return intero(obbligatorio(attributo), attributo);
+    }
+
+    /**
+     * Converte in intero il valore di un attributo.
+     */
+    private int intero(String valore, String attributo) throws XMLStreamException {
+        try {
+            return Integer.parseInt(valore.trim());
+        }
+        catch(NumberFormatException e) {
+            throw errore("valore non intero " + valore + " per l'attributo " + attributo);
+        }
+    }
+
+    /**
+     * Crea l'eccezione per un errore nel documento, con la sua posizione.
+     */
+    private XMLStreamException errore(String messaggio){
+        return new XMLStreamException(messaggio, lettore.getLocation());
+    }
+}
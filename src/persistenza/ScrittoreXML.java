@@ -0,0 +1,218 @@
+package persistenza;
+
+import struttureDati.Automa;
+import struttureDati.Evento;
+import struttureDati.Link;
+import struttureDati.ReteAutomi;
+import struttureDati.Stato;
+import struttureDati.Transizione;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+
+/**
+ * Classe che scrive automi e reti di automi nel formato XML letto da LettoreXML.
+ * La scrittura avviene in streaming (StAX) senza costruire l'albero del documento; gli eventi vengono raccolti in una
+ * passata preliminare sulle transizioni e dichiarati una sola volta in testa al documento.
+ */
+public class ScrittoreXML {
+
+    private final XMLStreamWriter scrittore;
+    private int livello;
+
+    /**
+     * Costruttore della classe ScrittoreXML.
+     * @param scrittore Scrittore StAX.
+     */
+    private ScrittoreXML(XMLStreamWriter scrittore){
+        this.scrittore = scrittore;
+    }
+
+    /**
+     * Scrive una rete di automi in un file XML (il file viene sovrascritto).
+     * @param rete Rete da scrivere.
+     * @param file Percorso del file.
+     * @throws IOException Se non è possibile scrivere il file.
+     * @throws XMLStreamException Se si verifica un errore durante la scrittura.
+     */
+    public static void scriviRete(ReteAutomi rete, Path file) throws IOException, XMLStreamException {
+        try(OutputStream uscita = new BufferedOutputStream(Files.newOutputStream(file))) {
+            scriviRete(rete, uscita);
+        }
+    }
+
+    /**
+     * Scrive una rete di automi in un flusso XML (il flusso non viene chiuso).
+     * @param rete Rete da scrivere.
+     * @param uscita Flusso in cui scrivere.
+     * @throws XMLStreamException Se si verifica un errore durante la scrittura.
+     */
+    public static void scriviRete(ReteAutomi rete, OutputStream uscita) throws XMLStreamException {
+        ScrittoreXML xml = new ScrittoreXML(XMLOutputFactory.newInstance().createXMLStreamWriter(uscita, "UTF-8"));
+        xml.scrittore.writeStartDocument("UTF-8", "1.0");
+        xml.inizio("rete");
+        xml.scrittore.writeAttribute("id", Integer.toString(rete.getId()));
+        if(rete.getNome() != null)
+            xml.scrittore.writeAttribute("nome", rete.getNome());
+        xml.eventi(rete.getAutomi());
+        for(Automa automa : rete.getAutomi())
+            xml.automa(automa, false);
+        for(Link link : rete.getLink()){
+            xml.vuoto("link");
+            xml.scrittore.writeAttribute("id", link.getId());
+            xml.scrittore.writeAttribute("sorgente", Integer.toString(link.getSorgente().getId()));
+            xml.scrittore.writeAttribute("destinazione", Integer.toString(link.getDestinazione().getId()));
+            xml.scrittore.writeAttribute("capacita", Integer.toString(link.getCapacita()));
+        }
+        xml.fine();
+        xml.chiudi();
+    }
+
+    /**
+     * Scrive un automa in un file XML (il file viene sovrascritto).
+     * @param automa Automa da scrivere.
+     * @param file Percorso del file.
+     * @throws IOException Se non è possibile scrivere il file.
+     * @throws XMLStreamException Se si verifica un errore durante la scrittura.
+     */
+    public static void scriviAutoma(Automa automa, Path file) throws IOException, XMLStreamException {
+        try(OutputStream uscita = new BufferedOutputStream(Files.newOutputStream(file))) {
+            scriviAutoma(automa, uscita);
+        }
+    }
+
+    /**
+     * Scrive un automa in un flusso XML, con gli eventi dichiarati al suo interno (il flusso non viene chiuso).
+     * @param automa Automa da scrivere.
+     * @param uscita Flusso in cui scrivere.
+     * @throws XMLStreamException Se si verifica un errore durante la scrittura.
+     */
+    public static void scriviAutoma(Automa automa, OutputStream uscita) throws XMLStreamException {
+        ScrittoreXML xml = new ScrittoreXML(XMLOutputFactory.newInstance().createXMLStreamWriter(uscita, "UTF-8"));
+        xml.scrittore.writeStartDocument("UTF-8", "1.0");
+        xml.automa(automa, true);
+        xml.chiudi();
+    }
+
+    /**
+     * Scrive la dichiarazione degli eventi usati dalle transizioni degli automi (ognuno una sola volta).
+     */
+    private void eventi(Collection<Automa> automi) throws XMLStreamException {
+        LinkedHashMap<Integer, Evento> eventi = new LinkedHashMap<>();
+        for(Automa automa : automi)
+            for(Transizione transizione : automa.getTransizioni()){
+                if(transizione.getEventoIngresso() != null)
+                    eventi.putIfAbsent(transizione.getEventoIngresso().getId(), transizione.getEventoIngresso());
+                if(transizione.getEventiUscita() != null)
+                    for(Evento evento : transizione.getEventiUscita())
+                        eventi.putIfAbsent(evento.getId(), evento);
+            }
+        for(Evento evento : eventi.values()){
+            vuoto("evento");
+            scrittore.writeAttribute("id", Integer.toString(evento.getId()));
+            scrittore.writeAttribute("nome", evento.getNome());
+        }
+    }
+
+    /**
+     * Scrive un elemento automa con i suoi stati e le sue transizioni.
+     * @param conEventi TRUE se gli eventi vanno dichiarati dentro l'automa (automa scritto da solo).
+     */
+    private void automa(Automa automa, boolean conEventi) throws XMLStreamException {
+        inizio("automa");
+        scrittore.writeAttribute("id", Integer.toString(automa.getId()));
+        if(automa.getNome() != null)
+            scrittore.writeAttribute("nome", automa.getNome());
+        //lo stato iniziale è quello corrente al momento della scrittura
+        scrittore.writeAttribute("iniziale", Integer.toString(automa.getStatoCorrente().getID()));
+        if(conEventi) {
+            ArrayList<Automa> automi = new ArrayList<>();
+            automi.add(automa);
+            eventi(automi);
+        }
+        for(Stato stato : automa.getStati()){
+            vuoto("stato");
+            scrittore.writeAttribute("id", Integer.toString(stato.getID()));
+            scrittore.writeAttribute("nome", stato.getNome());
+        }
+        for(Transizione transizione : automa.getTransizioni()){
+            boolean conUscita = transizione.getEventiUscita() != null && !transizione.getEventiUscita().isEmpty();
+            if(conUscita)
+                inizio("transizione");
+            else
+                vuoto("transizione");
+            scrittore.writeAttribute("id", transizione.getId());
+            scrittore.writeAttribute("partenza", Integer.toString(transizione.getStatoPartenza().getID()));
+            scrittore.writeAttribute("arrivo", Integer.toString(transizione.getStatoArrivo().getID()));
+            if(transizione.getEventoIngresso() != null)
+                scrittore.writeAttribute("ingresso", Integer.toString(transizione.getEventoIngresso().getId()));
+            if(transizione.getEtichettaOsservabilita() != null)
+                scrittore.writeAttribute("osservabilita", transizione.getEtichettaOsservabilita().getId());
+            if(transizione.getEtichettaRilevanza() != null)
+                scrittore.writeAttribute("rilevanza", transizione.getEtichettaRilevanza().getId());
+            if(conUscita) {
+                for(Evento evento : transizione.getEventiUscita()){
+                    vuoto("uscita");
+                    scrittore.writeAttribute("evento", Integer.toString(evento.getId()));
+                }
+                fine();
+            }
+        }
+        fine();
+    }
+
+    /**
+     * Apre un elemento con figli su una nuova riga indentata.
+     */
+    private void inizio(String nome) throws XMLStreamException {
+        aCapo();
+        scrittore.writeStartElement(nome);
+        livello++;
+    }
+
+    /**
+     * Scrive un elemento senza figli su una nuova riga indentata.
+     */
+    private void vuoto(String nome) throws XMLStreamException {
+        aCapo();
+        scrittore.writeEmptyElement(nome);
+    }
+
+    /**
+     * Chiude l'ultimo elemento aperto con inizio.
+     */
+    private void fine() throws XMLStreamException {
+        livello--;
+        aCapo();
+        scrittore.writeEndElement();
+    }
+
+    /**
+     * Scrive un ritorno a capo seguito dall'indentazione del livello corrente.
+     */
+    private void aCapo() throws XMLStreamException {
+        StringBuilder spazi = new StringBuilder("\n");
+        for(int i = 0; i < livello; i++)
+            spazi.append("  ");
+        scrittore.writeCharacters(spazi.toString());
+    }
+
+    /**
+     * Termina il documento e svuota lo scrittore.
+     */
+    private void chiudi() throws XMLStreamException {
+        scrittore.writeCharacters("\n");
+        scrittore.writeEndDocument();
+        scrittore.flush();
+        scrittore.close();
+    }
+}
@@ -0,0 +1,605 @@
+package persistenza;
+
+import struttureDati.Automa;
+import struttureDati.Etichetta;
+import struttureDati.Evento;
+import struttureDati.FileMappato;
+import struttureDati.Link;
+import struttureDati.Osservazione;
+import struttureDati.ReteAutomi;
+import struttureDati.ReteAutomiCompilata;
+import struttureDati.SpazioComportamentale;
+import struttureDati.Stato;
+import struttureDati.TipoEtichetta;
+import struttureDati.Transizione;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+/**
+ * Classe che salva e carica in formato binario le reti di automi compilate e gli spazi comportamentali.
+ * Il file (little endian) è composto da un'intestazione (numero magico, versione del formato, tipo di contenuto) e da
+ * sezioni allineate a 8 byte, ognuna preceduta dalla sua lunghezza in byte:
+ * - la rete: tabella degli eventi, tabella delle etichette e, per ogni automa, stati (indici densi) e transizioni
+ *   consecutive con i riferimenti agli stati, agli eventi e alle etichette come indici nelle tabelle; seguono i link;
+ * - solo per gli spazi: numeri di stati e archi, l'eventuale osservazione e gli array CSR dello spazio (inizio degli
+ *   archi, destinazione e transizione di ogni arco), le parole dell'insieme degli stati finali e gli stati globali
+ *   codificati consecutivi (se lo spazio li conserva).
+ * Al caricamento la rete (piccola) viene ricostruita e ricompilata, mentre gli array dello spazio vengono mappati in
+ * memoria con FileChannel.map e usati direttamente, senza copiarli nello heap: uno spazio di grandi dimensioni è
+ * utilizzabile subito e le sue pagine vengono lette dal sistema operativo solo quando servono (solo l'insieme degli
+ * stati finali, un bit per stato, viene copiato). Gli array più grandi di un segmento vengono mappati a pezzi (vedi
+ * FileMappato).
+ * I file non validi o di una versione diversa vengono segnalati con una IOException: le sezioni lette nello heap (la
+ * rete e l'intestazione dello spazio) vengono controllate completamente, per cui un file troncato o corrotto non può
+ * causare altre eccezioni durante il caricamento; degli array mappati vengono invece controllate solo le lunghezze, per
+ * non leggerli tutti al caricamento.
+ */
+public class SnapshotBinario {
+
+    private static final int MAGICO = 0x42445341; //"ASDB"
+    private static final int VERSIONE = 1;
+    private static final int TIPO_RETE = 1;
+    private static final int TIPO_SPAZIO = 2;
+    private static final int DIMENSIONE_INTESTAZIONE = 16;
+    private static final int CAPACITA_MASSIMA = 1 << 16;
+
+    /**
+     * Costruttore privato: la classe espone solo metodi statici.
+     */
+    private SnapshotBinario(){
+    }
+
+    /**
+     * Salva una rete di automi (il file viene sovrascritto).
+     * @param rete Rete da salvare.
+     * @param file Percorso del file.
+     * @throws IOException Se non è possibile scrivere il file.
+     */
+    public static void scriviRete(ReteAutomi rete, Path file) throws IOException {
+        try(Scrittura scrittura = new Scrittura(file)) {
+            intestazione(scrittura, TIPO_RETE);
+            scrittura.inizioSezione();
+            rete(scrittura, rete);
+            scrittura.fineSezione();
+        }
+    }
+
+    /**
+     * Salva uno spazio comportamentale con la sua rete e l'eventuale osservazione (il file viene sovrascritto).
+     * @param spazio Spazio da salvare.
+     * @param file Percorso del file.
+     * @throws IOException Se non è possibile scrivere il file.
+     */
+    public static void scriviSpazio(SpazioComportamentale spazio, Path file) throws IOException {
+        int n = spazio.numeroStati();
+        int parole = spazio.conservaStati() ? spazio.numeroParole() : 0;
+        try(Scrittura scrittura = new Scrittura(file)) {
+            intestazione(scrittura, TIPO_SPAZIO);
+            scrittura.inizioSezione();
+            rete(scrittura, spazio.getRete().getRete());
+            scrittura.fineSezione();
+
+            scrittura.inizioSezione();
+            scrittura.scriviInt(spazio.getRete().numeroParole());
+            scrittura.scriviInt(spazio.getRete().numeroTransizioni());
+            scrittura.scriviInt(n);
+            scrittura.scriviInt(spazio.numeroArchi());
+            scrittura.scriviInt(parole);
+            Osservazione osservazione = spazio.getOsservazione();
+            scrittura.scriviInt(osservazione == null ? -1 : osservazione.numeroStati());
+            if(osservazione != null) {
+                scrittura.scriviInt(osservazione.fineArchi(osservazione.numeroStati() - 1));
+                for(int o = 0; o < osservazione.numeroStati(); o++)
+                    scrittura.scriviInt(osservazione.isFinale(o) ? 1 : 0);
+                for(int o = 0; o < osservazione.numeroStati(); o++)
+                    for(int a = osservazione.inizioArchi(o); a < osservazione.fineArchi(o); a++){
+                        scrittura.scriviInt(o);
+                        scrittura.scriviInt(osservazione.getEtichetta(a));
+                        scrittura.scriviInt(osservazione.getArrivo(a));
+                    }
+            }
+            scrittura.fineSezione();
+
+            scrittura.inizioSezione();
+            for(int s = 0; s <= n; s++)
+                scrittura.scriviInt(s < n ? spazio.inizioArchi(s) : spazio.numeroArchi());
+            scrittura.fineSezione();
+            scrittura.inizioSezione();
+            for(int a = 0; a < spazio.numeroArchi(); a++)
+                scrittura.scriviInt(spazio.getDestinazione(a));
+            scrittura.fineSezione();
+            scrittura.inizioSezione();
+            for(int a = 0; a < spazio.numeroArchi(); a++)
+                scrittura.scriviInt(spazio.getTransizione(a));
+            scrittura.fineSezione();
+
+            scrittura.inizioSezione();
+            long parola = 0;
+            for(int s = 0; s < n; s++){
+                if(spazio.isFinale(s))
+                    parola |= 1L << (s & 63);
+                if((s & 63) == 63 || s == n - 1) {
+                    scrittura.scriviLong(parola);
+                    parola = 0;
+                }
+            }
+            scrittura.fineSezione();
+
+            scrittura.inizioSezione();
+            long[] stato = new long[parole];
+            for(int s = 0; parole > 0 && s < n; s++){
+                spazio.getStatoGlobale(s, stato);
+                for(long p : stato)
+                    scrittura.scriviLong(p);
+            }
+            scrittura.fineSezione();
+        }
+    }
+
+    /**
+     * Carica e compila la rete salvata in un file (di una rete o di uno spazio comportamentale).
+     * @param file Percorso del file.
+     * @return Rete compilata.
+     * @throws IOException Se non è possibile leggere il file o il file non è valido.
+     */
+    public static ReteAutomiCompilata leggiRete(Path file) throws IOException {
+        try(FileChannel canale = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] posizione = {DIMENSIONE_INTESTAZIONE};
+            leggiIntestazione(canale, -1);
+            return rete(leggiSezione(canale, posizione));
+        }
+    }
+
+    /**
+     * Carica uno spazio comportamentale mappando in memoria i suoi array (che restano validi anche dopo la chiusura
+     * del file, finché lo spazio è raggiungibile).
+     * @param file Percorso del file.
+     * @return Spazio comportamentale su buffer mappati.
+     * @throws IOException Se non è possibile leggere il file o il file non è valido.
+     */
+    public static SpazioComportamentale leggiSpazio(Path file) throws IOException {
+        try(FileChannel canale = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] posizione = {DIMENSIONE_INTESTAZIONE};
+            leggiIntestazione(canale, TIPO_SPAZIO);
+            ReteAutomiCompilata rete = rete(leggiSezione(canale, posizione));
+
+            ByteBuffer dati = leggiSezione(canale, posizione);
+            int n, m, paroleStato;
+            Osservazione osservazione = null;
+            try {
+                int parole = dati.getInt();
+                int numeroTransizioni = dati.getInt();
+                if(parole != rete.numeroParole() || numeroTransizioni != rete.numeroTransizioni())
+                    throw new IOException("La rete ricompilata non corrisponde a quella dello spazio salvato");
+                n = dati.getInt();
+                m = dati.getInt();
+                paroleStato = dati.getInt();
+                if(n < 0 || m < 0 || paroleStato < 0)
+                    throw new IOException("Dimensioni dello spazio salvato non valide");
+                int statiOsservazione = dati.getInt();
+                if(statiOsservazione >= 0) {
+                    statiOsservazione = leggiNumero(statiOsservazione, dati, 4);
+                    int archi = leggiNumero(dati.getInt(), dati, 12);
+                    int[] partenza = new int[archi];
+                    int[] etichetta = new int[archi];
+                    int[] arrivo = new int[archi];
+                    BitSet finaliOsservazione = new BitSet(statiOsservazione);
+                    for(int o = 0; o < statiOsservazione; o++)
+                        if(dati.getInt() != 0)
+                            finaliOsservazione.set(o);
+                    for(int a = 0; a < archi; a++){
+                        partenza[a] = leggiIndice(dati, statiOsservazione);
+                        etichetta[a] = dati.getInt();
+                        arrivo[a] = leggiIndice(dati, statiOsservazione);
+                    }
+                    osservazione = Osservazione.create(statiOsservazione, partenza, etichetta, arrivo, finaliOsservazione);
+                }
+            }
+            catch(BufferUnderflowException | IllegalArgumentException e){
+                throw new IOException("Osservazione dello spazio salvato non valida", e);
+            }
+
+            IntBuffer[] inizioArchi = FileMappato.mappaInteri(canale, sezione(canale, posizione, 4L * (n + 1)), n + 1L);
+            IntBuffer[] destinazione = FileMappato.mappaInteri(canale, sezione(canale, posizione, 4L * m), m);
+            IntBuffer[] transizione = FileMappato.mappaInteri(canale, sezione(canale, posizione, 4L * m), m);
+            long paroleFinali = (n + 63) / 64;
+            BitSet finali = BitSet.valueOf(FileMappato.mappaLong(canale, sezione(canale, posizione, 8L * paroleFinali), paroleFinali)[0]);
+            LongBuffer[] stati = FileMappato.mappaLong(canale, sezione(canale, posizione, 8L * n * paroleStato), (long) n * paroleStato);
+            return SpazioComportamentale.create(rete, osservazione, paroleStato > 0 ? stati : null, inizioArchi, destinazione, transizione, finali);
+        }
+    }
+
+    /**
+     * Scrive l'intestazione del file.
+     */
+    private static void intestazione(Scrittura scrittura, int tipo) throws IOException {
+        scrittura.scriviInt(MAGICO);
+        scrittura.scriviInt(VERSIONE);
+        scrittura.scriviInt(tipo);
+        scrittura.scriviInt(0);
+    }
+
+    /**
+     * Legge e controlla l'intestazione del file.
+     * @param tipo Tipo di contenuto atteso (-1 per accettare qualsiasi tipo).
+     */
+    private static void leggiIntestazione(FileChannel canale, int tipo) throws IOException {
+        ByteBuffer intestazione = leggi(canale, 0, DIMENSIONE_INTESTAZIONE);
+        if(intestazione.getInt() != MAGICO)
+            throw new IOException("Il file non è uno snapshot binario");
+        int versione = intestazione.getInt();
+        if(versione != VERSIONE)
+            throw new IOException("Versione dello snapshot non supportata: " + versione + " (attesa " + VERSIONE + ")");
+        int contenuto = intestazione.getInt();
+        if(tipo >= 0 && contenuto != tipo)
+            throw new IOException("Lo snapshot non contiene uno spazio comportamentale");
+    }
+
+    /**
+     * Scrive la sezione della rete.
+     */
+    private static void rete(Scrittura scrittura, ReteAutomi rete) throws IOException {
+        //tabelle degli eventi e delle etichette, nell'ordine in cui vengono incontrati nelle transizioni
+        HashMap<Evento, Integer> eventi = new HashMap<>();
+        ArrayList<Evento> tabellaEventi = new ArrayList<>();
+        HashMap<Etichetta, Integer> etichette = new HashMap<>();
+        ArrayList<Etichetta> tabellaEtichette = new ArrayList<>();
+        for(Automa automa : rete.getAutomi())
+            for(Transizione transizione : automa.getTransizioni()){
+                indice(eventi, tabellaEventi, transizione.getEventoIngresso());
+                if(transizione.getEventiUscita() != null)
+                    for(Evento evento : transizione.getEventiUscita())
+                        indice(eventi, tabellaEventi, evento);
+                indice(etichette, tabellaEtichette, transizione.getEtichettaOsservabilita());
+                indice(etichette, tabellaEtichette, transizione.getEtichettaRilevanza());
+            }
+
+        scrittura.scriviInt(rete.getId());
+        scrittura.scriviStringa(rete.getNome());
+        scrittura.scriviInt(tabellaEventi.size());
+        for(Evento evento : tabellaEventi){
+            scrittura.scriviInt(evento.getId());
+            scrittura.scriviStringa(evento.getNome());
+        }
+        scrittura.scriviInt(tabellaEtichette.size());
+        for(Etichetta etichetta : tabellaEtichette){
+            scrittura.scriviStringa(etichetta.getId());
+            scrittura.scriviInt(etichetta.getTipoEtichetta().ordinal());
+        }
+
+        IdentityHashMap<Automa, Integer> automi = new IdentityHashMap<>();
+        scrittura.scriviInt(rete.getAutomi().size());
+        for(Automa automa : rete.getAutomi()){
+            automi.put(automa, automi.size());
+            scrittura.scriviInt(automa.getId());
+            scrittura.scriviStringa(automa.getNome());
+            HashMap<Stato, Integer> stati = new HashMap<>();
+            scrittura.scriviInt(automa.getStati().size());
+            for(Stato stato : automa.getStati()){
+                stati.put(stato, stati.size());
+                scrittura.scriviInt(stato.getID());
+                scrittura.scriviStringa(stato.getNome());
+            }
+            //lo stato iniziale è quello corrente al momento del salvataggio
+            scrittura.scriviInt(stati.get(automa.getStatoCorrente()));
+            scrittura.scriviInt(automa.getTransizioni().size());
+            for(Transizione transizione : automa.getTransizioni()){
+                scrittura.scriviStringa(transizione.getId());
+                scrittura.scriviInt(stati.get(transizione.getStatoPartenza()));
+                scrittura.scriviInt(stati.get(transizione.getStatoArrivo()));
+                scrittura.scriviInt(indice(eventi, tabellaEventi, transizione.getEventoIngresso()));
+                scrittura.scriviInt(indice(etichette, tabellaEtichette, transizione.getEtichettaOsservabilita()));
+                scrittura.scriviInt(indice(etichette, tabellaEtichette, transizione.getEtichettaRilevanza()));
+                ArrayList<Evento> uscita = transizione.getEventiUscita();
+                scrittura.scriviInt(uscita == null ? -1 : uscita.size());
+                if(uscita != null)
+                    for(Evento evento : uscita)
+                        scrittura.scriviInt(eventi.get(evento));
+            }
+        }
+        scrittura.scriviInt(rete.getLink().size());
+        for(Link link : rete.getLink()){
+            scrittura.scriviStringa(link.getId());
+            scrittura.scriviInt(automi.get(link.getSorgente()));
+            scrittura.scriviInt(automi.get(link.getDestinazione()));
+            scrittura.scriviInt(link.getCapacita());
+        }
+    }
+
+    /**
+     * Ricostruisce e compila la rete dalla sua sezione.
+     */
+    private static ReteAutomiCompilata rete(ByteBuffer dati) throws IOException {
+        try {
+            return leggiRete(dati);
+        }
+        catch(BufferUnderflowException | IllegalArgumentException e){
+            throw new IOException("Sezione della rete non valida", e);
+        }
+    }
+
+    /**
+     * Ricostruisce e compila la rete dalla sua sezione, controllando gli indici e i numeri di elementi letti.
+     */
+    private static ReteAutomiCompilata leggiRete(ByteBuffer dati) throws IOException {
+        TipoEtichetta[] tipi = TipoEtichetta.values();
+        int id = dati.getInt();
+        String nome = leggiStringa(dati);
+        Evento[] eventi = new Evento[leggiNumero(dati.getInt(), dati, 8)];
+        for(int e = 0; e < eventi.length; e++)
+            eventi[e] = Evento.create(dati.getInt(), leggiStringa(dati));
+        Etichetta[] etichette = new Etichetta[leggiNumero(dati.getInt(), dati, 8)];
+        for(int e = 0; e < etichette.length; e++)
+            etichette[e] = Etichetta.create(leggiStringa(dati), tipi[leggiIndice(dati, tipi.length)]);
+
+        ArrayList<Automa> automi = new ArrayList<>();
+        int numeroAutomi = leggiNumero(dati.getInt(), dati, 16);
+        for(int c = 0; c < numeroAutomi; c++){
+            int idAutoma = dati.getInt();
+            String nomeAutoma = leggiStringa(dati);
+            ArrayList<Stato> stati = new ArrayList<>();
+            int numeroStati = leggiNumero(dati.getInt(), dati, 8);
+            for(int s = 0; s < numeroStati; s++)
+                stati.add(Stato.create(dati.getInt(), leggiStringa(dati)));
+            Stato iniziale = stati.get(leggiIndice(dati, stati.size()));
+            ArrayList<Transizione> transizioni = new ArrayList<>();
+            int numeroTransizioni = leggiNumero(dati.getInt(), dati, 28);
+            for(int t = 0; t < numeroTransizioni; t++){
+                String idTransizione = leggiStringa(dati);
+                Stato partenza = stati.get(leggiIndice(dati, stati.size()));
+                Stato arrivo = stati.get(leggiIndice(dati, stati.size()));
+                int ingresso = leggiIndiceOpzionale(dati, eventi.length);
+                int osservabilita = leggiIndiceOpzionale(dati, etichette.length);
+                int rilevanza = leggiIndiceOpzionale(dati, etichette.length);
+                int numeroUscite = dati.getInt();
+                ArrayList<Evento> uscita = numeroUscite < 0 ? null : new ArrayList<>(leggiNumero(numeroUscite, dati, 4));
+                for(int k = 0; k < numeroUscite; k++)
+                    uscita.add(eventi[leggiIndice(dati, eventi.length)]);
+                transizioni.add(Transizione.create(idTransizione, partenza, arrivo, ingresso < 0 ? null : eventi[ingresso], uscita,
+                        osservabilita < 0 ? null : etichette[osservabilita], rilevanza < 0 ? null : etichette[rilevanza]));
+            }
+            Automa automa = Automa.create(idAutoma, nomeAutoma, stati, transizioni, iniziale);
+            if(automa == null)
+                throw new IOException("L'automa " + nomeAutoma + " salvato non è valido");
+            automi.add(automa);
+        }
+        ArrayList<Link> link = new ArrayList<>();
+        int numeroLink = leggiNumero(dati.getInt(), dati, 16);
+        for(int l = 0; l < numeroLink; l++){
+            String idLink = leggiStringa(dati);
+            Automa sorgente = automi.get(leggiIndice(dati, automi.size()));
+            Automa destinazione = automi.get(leggiIndice(dati, automi.size()));
+            //la codifica degli stati globali ha un campo per ogni posizione del link: una capacità enorme è un file corrotto
+            int capacita = dati.getInt();
+            if(capacita > CAPACITA_MASSIMA)
+                throw new IOException("Capacità del link " + idLink + " non valida: " + capacita);
+            link.add(Link.create(idLink, sorgente, destinazione, capacita));
+        }
+        ReteAutomi rete = ReteAutomi.create(id, nome, automi, link);
+        if(rete == null)
+            throw new IOException("La rete " + nome + " salvata non è valida");
+        return ReteAutomiCompilata.compila(rete);
+    }
+
+    /**
+     * Controlla un numero di elementi letto: deve essere non negativo e gli elementi (di almeno il numero di byte
+     * indicato) devono stare nella parte rimanente della sezione, per cui un file corrotto non può causare allocazioni
+     * enormi.
+     */
+    private static int leggiNumero(int numero, ByteBuffer dati, int byteElemento) throws IOException {
+        if(numero < 0 || (long) numero * byteElemento > dati.remaining())
+            throw new IOException("Numero di elementi non valido: " + numero);
+        return numero;
+    }
+
+    /**
+     * Legge un indice e controlla che sia compreso tra 0 (incluso) e la dimensione della tabella (esclusa).
+     */
+    private static int leggiIndice(ByteBuffer dati, int dimensione) throws IOException {
+        int indice = dati.getInt();
+        if(indice < 0 || indice >= dimensione)
+            throw new IOException("Indice " + indice + " non valido (dimensione " + dimensione + ")");
+        return indice;
+    }
+
+    /**
+     * Legge un indice che può valere -1 (elemento assente) e controlla che sia minore della dimensione della tabella.
+     */
+    private static int leggiIndiceOpzionale(ByteBuffer dati, int dimensione) throws IOException {
+        int indice = dati.getInt();
+        if(indice < -1 || indice >= dimensione)
+            throw new IOException("Indice " + indice + " non valido (dimensione " + dimensione + ")");
+        return indice;
+    }
+
+    /**
+     * Restituisce l'indice dell'elemento nella tabella, aggiungendolo se non è presente (-1 per null).
+     */
+    private static <T> int indice(HashMap<T, Integer> indici, ArrayList<T> tabella, T elemento){
+        if(elemento == null)
+            return -1;
+        Integer indice = indici.get(elemento);
+        if(indice == null) {
+            indice = tabella.size();
+            indici.put(elemento, indice);
+            tabella.add(elemento);
+        }
+        return indice;
+    }
+
+    /**
+     * Legge una stringa (lunghezza in byte, -1 per null, seguita dai byte UTF-8).
+     */
+    private static String leggiStringa(ByteBuffer dati) throws IOException {
+        int lunghezza = dati.getInt();
+        if(lunghezza < 0)
+            return null;
+        leggiNumero(lunghezza, dati, 1);
+        byte[] byteStringa = new byte[lunghezza];
+        dati.get(byteStringa);
+        return new String(byteStringa, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Legge nello heap la sezione che inizia alla posizione indicata e avanza la posizione alla sezione successiva.
+     */
+    private static ByteBuffer leggiSezione(FileChannel canale, long[] posizione) throws IOException {
+        long lunghezza = leggi(canale, posizione[0], 8).getLong();
+        if(lunghezza < 0 || lunghezza > Integer.MAX_VALUE || lunghezza > canale.size() - posizione[0] - 8)
+            throw new IOException("Sezione dello snapshot non valida");
+        ByteBuffer sezione = leggi(canale, posizione[0] + 8, (int) lunghezza);
+        posizione[0] += 8 + allinea(lunghezza);
+        return sezione;
+    }
+
+    /**
+     * Controlla la lunghezza della sezione che inizia alla posizione indicata e avanza la posizione alla sezione
+     * successiva.
+     * @return Posizione del primo byte del contenuto della sezione.
+     */
+    private static long sezione(FileChannel canale, long[] posizione, long attesa) throws IOException {
+        long lunghezza = leggi(canale, posizione[0], 8).getLong();
+        if(lunghezza != attesa)
+            throw new IOException("Sezione dello snapshot di lunghezza " + lunghezza + " invece di " + attesa);
+        long inizio = posizione[0] + 8;
+        if(lunghezza > canale.size() - inizio)
+            throw new IOException("Snapshot troncato");
+        posizione[0] = inizio + allinea(lunghezza);
+        return inizio;
+    }
+
+    /**
+     * Legge nello heap il numero di byte indicato a partire dalla posizione indicata.
+     */
+    private static ByteBuffer leggi(FileChannel canale, long posizione, int lunghezza) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(lunghezza).order(ByteOrder.LITTLE_ENDIAN);
+        while(buffer.hasRemaining())
+            if(canale.read(buffer, posizione + buffer.position()) < 0)
+                throw new IOException("Snapshot troncato");
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Arrotonda la lunghezza al multiplo di 8 successivo.
+     */
+    private static long allinea(long lunghezza){
+        return (lunghezza + 7) & ~7L;
+    }
+
+    /**
+     * Classe che scrive il file in modo sequenziale attraverso un buffer, tenendo traccia delle sezioni aperte.
+     */
+    private static final class Scrittura implements AutoCloseable {
+
+        private final FileChannel canale;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        private long posizione; //posizione nel file del primo byte del buffer
+        private long inizioSezione = -1;
+
+        /**
+         * Costruttore della classe Scrittura (il file viene creato o troncato).
+         */
+        private Scrittura(Path file) throws IOException {
+            this.canale = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        /**
+         * Apre una sezione riservando lo spazio per la sua lunghezza.
+         */
+        private void inizioSezione() throws IOException {
+            scriviLong(0);
+            inizioSezione = posizione + buffer.position();
+        }
+
+        /**
+         * Chiude la sezione aperta scrivendone la lunghezza e aggiungendo i byte di allineamento.
+         */
+        private void fineSezione() throws IOException {
+            long lunghezza = posizione + buffer.position() - inizioSezione;
+            for(long i = lunghezza; i < allinea(lunghezza); i++)
+                spazio(1).put((byte) 0);
+            svuota();
+            ByteBuffer campo = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(0, lunghezza);
+            while(campo.hasRemaining())
+                canale.write(campo, inizioSezione - 8 + campo.position());
+            inizioSezione = -1;
+        }
+
+        /**
+         * Scrive un intero.
+         */
+        private void scriviInt(int valore) throws IOException {
+            spazio(4).putInt(valore);
+        }
+
+        /**
+         * Scrive un long.
+         */
+        private void scriviLong(long valore) throws IOException {
+            spazio(8).putLong(valore);
+        }
+
+        /**
+         * Scrive una stringa come lunghezza in byte (-1 per null) seguita dai byte UTF-8.
+         */
+        private void scriviStringa(String stringa) throws IOException {
+            if(stringa == null) {
+                scriviInt(-1);
+                return;
+            }
+            byte[] byteStringa = stringa.getBytes(StandardCharsets.UTF_8);
+            scriviInt(byteStringa.length);
+            for(int i = 0; i < byteStringa.length; ){
+                int blocco = Math.min(byteStringa.length - i, buffer.capacity());
+                spazio(blocco).put(byteStringa, i, blocco);
+                i += blocco;
+            }
+        }
+
+        /**
+         * Restituisce il buffer dopo essersi assicurato che contenga almeno il numero di byte liberi indicato.
+         */
+        private ByteBuffer spazio(int byteRichiesti) throws IOException {
+            if(buffer.remaining() < byteRichiesti)
+                svuota();
+            return buffer;
+        }
+
+        /**
+         * Scrive nel file il contenuto del buffer.
+         */
+        private void svuota() throws IOException {
+            buffer.flip();
+            while(buffer.hasRemaining())
+                posizione += canale.write(buffer, posizione);
+            buffer.clear();
+        }
+
+        /**
+         * Scrive il contenuto rimasto nel buffer e chiude il file.
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                svuota();
+            }
+            finally {
+                canale.close();
+            }
+        }
+    }
+}
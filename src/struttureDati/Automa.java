@@ -1,6 +1,12 @@
 package struttureDati;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Classe rappresentante un automa.
@@ -18,6 +24,9 @@ public class Automa {
     private ArrayList<Stato> stati; //possibile trasformare in HashSet (no controllo su insieme)
     private ArrayList<Transizione> transizioni; //possibile trasformare in HashSet (no controllo su insieme)
     private Stato statoCorrente; //inizialmente lo stato corrente sarà lo stato iniziale
+    private IndiceTransizioni indice; //costruito alla creazione dell'automa
+    private MetricheEsplorazione metriche; //null se le esecuzioni non vengono misurate
+    private CacheTransizioni cache; //null se le transizioni abilitate vengono sempre calcolate con l'indice
 
     /**
      * Costruttore della classe Automa.
@@ -28,6 +37,8 @@ public class Automa {
      * @param statoIniziale Stato iniziale dell'automa.
      */
     private Automa(int id, String nome, ArrayList<Stato> stati, ArrayList<Transizione> transizioni, Stato statoIniziale){
+        this.id = id;
+        this.nome = nome;
         this.stati = stati;
         this.transizioni = transizioni;
         this.statoCorrente = statoIniziale;
@@ -44,72 +55,260 @@ public class Automa {
      * @return Istanza di un automa valido oppure null (se l'automa non è valido).
      */
     public static Automa create(int id, String nome, ArrayList<Stato> stati, ArrayList<Transizione> transizioni, Stato statoIniziale){
-        Automa automa = new Automa(id,nome,stati,transizioni,statoIniziale);
         //controllo che l'automa sia veramente un automa.
-        if(checkAutoma(automa))
+        RisultatoValidazione risultato = valida(stati, transizioni, statoIniziale);
+        if(risultato.isValido()) {
+            Automa automa = new Automa(id,nome,stati,transizioni,statoIniziale);
+            automa.indice = IndiceTransizioni.create(transizioni);
             return automa;
+        }
         else{
             System.out.println("Automa non corretto");
+            System.out.print(risultato);
             return null;
         }
     }
 
     /**
-     * Controlla la validità dell'automa:
-     * - non ci sono stati ripetuti;
-     * - non ci sono transizioni ripetute;
+     * Controlla la validità di un automa in tempo lineare nel numero di stati e di transizioni, riportando tutte le violazioni:
+     * - non ci sono stati ripetuti (stesso identificatore o stesso nome);
      * - lo stato iniziale è uno stato dell'automa;
+     * - non ci sono transizioni ripetute (stesso identificatore oppure stessi stati ed eventi);
+     * - le transizioni collegano stati dell'automa;
      * - da ogni stato esce almeno una transizione;
-     * - non esistono stati isolati
-     * @param automa Automa da controllare.
-     * @return TRUE se l'automa da controllare è valido, FALSE altrimenti.
-     */
-    private static boolean checkAutoma(Automa automa) {
-        //controllo stati duplicati
-        for(int i = 0; i < automa.getStati().size() - 1; i++){
-            for(int j = i; j < automa.getStati().size(); j++){
-                if(automa.getStati().get(i).equals(automa.getStati().get(j)))
-                    return false;
+     * - non esistono stati isolati (non collegati ad altri stati da alcuna transizione);
+     * - ogni stato è raggiungibile dallo stato iniziale.
+     * @param stati Insieme di stati dell'automa.
+     * @param transizioni Insieme di transizioni dell'automa.
+     * @param statoIniziale Stato iniziale dell'automa.
+     * @return Risultato della validazione con l'elenco di tutte le violazioni riscontrate.
+     */
+    public static RisultatoValidazione valida(ArrayList<Stato> stati, ArrayList<Transizione> transizioni, Stato statoIniziale) {
+        RisultatoValidazione risultato = RisultatoValidazione.create();
+        if(stati == null)
+            stati = new ArrayList<>();
+        if(transizioni == null)
+            transizioni = new ArrayList<>();
+
+        //controllo stati duplicati: ad ogni stato (distinto) viene associato un indice denso
+        HashMap<Stato, Integer> indiciStati = new HashMap<>(stati.size() * 2);
+        HashSet<String> nomiStati = new HashSet<>(stati.size() * 2);
+        for(Stato stato : stati){
+            if(indiciStati.containsKey(stato)) {
+                risultato.aggiungi(Violazione.Tipo.STATO_DUPLICATO, stato, "stato " + stato + " ripetuto (id " + stato.getID() + ")");
+                continue;
             }
+            if(stato.getNome() != null && !nomiStati.add(stato.getNome()))
+                risultato.aggiungi(Violazione.Tipo.NOME_STATO_DUPLICATO, stato, "nome di stato " + stato.getNome() + " ripetuto");
+            indiciStati.put(stato, indiciStati.size());
         }
+        int numeroStati = indiciStati.size();
+        Stato[] statiDistinti = new Stato[numeroStati];
+        for(Map.Entry<Stato, Integer> voce : indiciStati.entrySet())
+            statiDistinti[voce.getValue()] = voce.getKey();
+
         //controllo che lo stato iniziale sia uno degli stati dell'automa
-        if(!automa.getStati().contains(automa.getStatoCorrente()))
-            return false;
-        //controllo transizioni duplicate
-        for(int i = 0; i < automa.getTransizioni().size() - 1; i++){
-            for(int j = i; j < automa.getTransizioni().size(); j++){
-                if(automa.getTransizioni().get(i).equals(automa.getTransizioni().get(j)))
-                    return false;
+        Integer iniziale = statoIniziale == null ? null : indiciStati.get(statoIniziale);
+        if(iniziale == null)
+            risultato.aggiungi(Violazione.Tipo.STATO_INIZIALE_NON_VALIDO, statoIniziale, "lo stato iniziale " + statoIniziale + " non appartiene all'automa");
+
+        //controllo transizioni duplicate e transizioni tra stati sconosciuti
+        HashSet<String> idTransizioni = new HashSet<>(transizioni.size() * 2);
+        HashSet<List<Integer>> firmeTransizioni = new HashSet<>(transizioni.size() * 2);
+        int[] partenza = new int[transizioni.size()];
+        int[] arrivo = new int[transizioni.size()];
+        int[] uscenti = new int[numeroStati + 1];
+        boolean[] collegato = new boolean[numeroStati];
+        for(int t = 0; t < transizioni.size(); t++){
+            Transizione transizione = transizioni.get(t);
+            partenza[t] = -1;
+            if(!idTransizioni.add(transizione.getId())) {
+                risultato.aggiungi(Violazione.Tipo.TRANSIZIONE_DUPLICATA, transizione, "transizione " + transizione.getId() + " ripetuta");
+                continue;
+            }
+            if(!firmeTransizioni.add(firma(transizione))) {
+                risultato.aggiungi(Violazione.Tipo.TRANSIZIONE_DUPLICATA, transizione, "transizione " + transizione.getId() + " con stati ed eventi uguali a un'altra transizione");
+                continue;
+            }
+            Integer p = transizione.getStatoPartenza() == null ? null : indiciStati.get(transizione.getStatoPartenza());
+            Integer a = transizione.getStatoArrivo() == null ? null : indiciStati.get(transizione.getStatoArrivo());
+            if(p == null || a == null) {
+                risultato.aggiungi(Violazione.Tipo.STATO_SCONOSCIUTO, transizione, "la transizione " + transizione.getId() + " collega stati che non appartengono all'automa");
+                continue;
+            }
+            partenza[t] = p;
+            arrivo[t] = a;
+            uscenti[p + 1]++;
+            if(!p.equals(a)) {
+                collegato[p] = true;
+                collegato[a] = true;
             }
         }
-        //controllo che da ogni stato esca almeno una transizione
-        for (int i = 0; i < automa.getStati().size(); i++){
-            boolean transizioneUscente = false;
-            for(int j = 0; j < automa.getTransizioni().size(); j++){
-                if(automa.getTransizioni().get(j).getStatoPartenza().equals(automa.getStati().get(i))) {
-                    transizioneUscente = true;
-                    break;
+
+        //controllo che da ogni stato esca almeno una transizione e che non esistano stati isolati
+        for(int s = 0; s < numeroStati; s++){
+            if(uscenti[s + 1] == 0)
+                risultato.aggiungi(Violazione.Tipo.STATO_SENZA_TRANSIZIONI_USCENTI, statiDistinti[s], "dallo stato " + statiDistinti[s] + " non esce alcuna transizione");
+            if(!collegato[s] && numeroStati > 1)
+                risultato.aggiungi(Violazione.Tipo.STATO_ISOLATO, statiDistinti[s], "lo stato " + statiDistinti[s] + " è isolato");
+        }
+
+        //controllo raggiungibilità dallo stato iniziale (visita in ampiezza sulla lista di adiacenza compatta)
+        if(iniziale != null){
+            for(int s = 0; s < numeroStati; s++)
+                uscenti[s + 1] += uscenti[s];
+            int[] adiacenza = new int[uscenti[numeroStati]];
+            int[] riempimento = Arrays.copyOf(uscenti, numeroStati);
+            for(int t = 0; t < transizioni.size(); t++)
+                if(partenza[t] >= 0)
+                    adiacenza[riempimento[partenza[t]]++] = arrivo[t];
+            BitSet raggiunti = new BitSet(numeroStati);
+            int[] coda = new int[numeroStati];
+            int testa = 0, fine = 0;
+            coda[fine++] = iniziale;
+            raggiunti.set(iniziale);
+            while(testa < fine){
+                int s = coda[testa++];
+                for(int i = uscenti[s]; i < uscenti[s + 1]; i++){
+                    if(!raggiunti.get(adiacenza[i])) {
+                        raggiunti.set(adiacenza[i]);
+                        coda[fine++] = adiacenza[i];
+                    }
                 }
-                if (!transizioneUscente)
-                    return false;
             }
+            for(int s = raggiunti.nextClearBit(0); s < numeroStati; s = raggiunti.nextClearBit(s + 1))
+                risultato.aggiungi(Violazione.Tipo.STATO_NON_RAGGIUNGIBILE, statiDistinti[s], "lo stato " + statiDistinti[s] + " non è raggiungibile dallo stato iniziale");
         }
-        //TODO: controllo stati isolati
 
-        return true;
+        return risultato;
+    }
 
+    /**
+     * Restituisce la firma di una transizione: identificatori degli stati di partenza e di arrivo, dell'evento in ingresso
+     * e degli eventi in uscita (due transizioni con la stessa firma sono considerate ripetute).
+     * @param transizione Transizione di cui calcolare la firma.
+     * @return Firma della transizione.
+     */
+    private static List<Integer> firma(Transizione transizione){
+        ArrayList<Integer> firma = new ArrayList<>();
+        firma.add(transizione.getStatoPartenza() == null ? null : transizione.getStatoPartenza().getID());
+        firma.add(transizione.getStatoArrivo() == null ? null : transizione.getStatoArrivo().getID());
+        firma.add(transizione.getEventoIngresso() == null ? null : transizione.getEventoIngresso().getId());
+        if(transizione.getEventiUscita() != null)
+            for(Evento evento : transizione.getEventiUscita())
+                firma.add(evento.getId());
+        return firma;
     }
 
     /**
      * Data una lista di eventi disponibili in input controlla se ci siano transizioni eseguibili.
      * Nel caso in cui siano presenti, aggiorna lo stato corrente e fornisce l'insieme di eventi in uscita della transizione.
-     * @param eventiDisponibili
+     * In presenza di non determinismo viene eseguito il primo ramo abilitato nell'ordine di getTransizioniAbilitate:
+     * prima le transizioni senza evento in ingresso, poi quelle abilitate da ciascun evento disponibile, raggruppate
+     * nell'ordine della prima occorrenza degli eventi nella lista (le ripetizioni di un evento non abilitano altri rami);
+     * all'interno di ogni gruppo le transizioni seguono l'ordine dell'insieme di transizioni. Gli altri rami sono
+     * eseguibili con esegui(Transizione).
+     * Con la cache attiva (vedi setCapacitaCache) i rami vengono presi dalla cache, senza ricalcolarli.
+     * @param eventiDisponibili Lista degli eventi disponibili in ingresso.
+     * @return Lista degli eventi in uscita della transizione eseguita, null se non ci sono transizioni abilitate.
      */
     public ArrayList<Evento> esegui(ArrayList<Evento> eventiDisponibili){
-        //TODO: esecuzione automa dati eventi disponibli. Bisogna gestire il non determinismo.
-        //Non determinismo: posso andare in stati diversi oppure nello stesso stato, ma avere eventi in uscita diversi
-        //TODO: gestire il caso in cui il buffer in uscita sia pieno.
-        return null;
+        //il caso in cui il buffer in uscita sia pieno è gestito a livello di rete (ReteAutomiCompilata)
+        if(cache != null) {
+            Transizione[] rami = cache.getTransizioniAbilitate(indice, statoCorrente, eventiDisponibili);
+            if(metriche != null)
+                metriche.registraEsecuzione(rami.length);
+            return rami.length == 0 ? null : esegui(rami[0]);
+        }
+        ArrayList<Transizione> abilitate = getTransizioniAbilitate(eventiDisponibili);
+        if(metriche != null)
+            metriche.registraEsecuzione(abilitate.size());
+        if(abilitate.isEmpty())
+            return null;
+        return esegui(abilitate.get(0));
+    }
+
+    /**
+     * Esegue la transizione indicata (uno dei rami non deterministici abilitati), aggiornando lo stato corrente.
+     * @param transizione Transizione da eseguire.
+     * @return Lista degli eventi in uscita della transizione (eventualmente vuota).
+     * @throws IllegalArgumentException se la transizione non parte dallo stato corrente.
+     */
+    public ArrayList<Evento> esegui(Transizione transizione){
+        if(!statoCorrente.equals(transizione.getStatoPartenza()))
+            throw new IllegalArgumentException("La transizione " + transizione.getId() + " non parte dallo stato corrente " + statoCorrente);
+        statoCorrente = transizione.getStatoArrivo();
+        return transizione.getEventiUscita() == null ? new ArrayList<>() : transizione.getEventiUscita();
+    }
+
+    /**
+     * Restituisce tutte le transizioni eseguibili dallo stato corrente dati gli eventi disponibili in input,
+     * ovvero tutti i rami non deterministici tra cui scegliere.
+     * @param eventiDisponibili Lista degli eventi disponibili in ingresso.
+     * @return Lista delle transizioni abilitate, eventualmente vuota.
+     */
+    public ArrayList<Transizione> getTransizioniAbilitate(ArrayList<Evento> eventiDisponibili){
+        if(cache != null)
+            return new ArrayList<>(Arrays.asList(cache.getTransizioniAbilitate(indice, statoCorrente, eventiDisponibili)));
+        return indice.getTransizioniAbilitate(statoCorrente, eventiDisponibili);
+    }
+
+    /**
+     * Restituisce la cache dei rami non deterministici dell'automa.
+     * @return Cache, null se la cache non è attiva.
+     */
+    public CacheTransizioni getCache() {
+        return cache;
+    }
+
+    /**
+     * Permette di attivare la cache dei rami non deterministici (vedi CacheTransizioni), utile nelle simulazioni lunghe
+     * in cui l'automa si trova molte volte nello stesso stato con gli stessi eventi disponibili, o di disattivarla.
+     * @param capacita Numero massimo di coppie (stato, eventi disponibili) memorizzate, 0 per disattivare la cache.
+     */
+    public void setCapacitaCache(int capacita) {
+        this.cache = capacita > 0 ? CacheTransizioni.create(capacita) : null;
+    }
+
+    /**
+     * Restituisce le metriche in cui vengono registrate le esecuzioni dell'automa.
+     * @return Metriche, null se le esecuzioni non vengono misurate.
+     */
+    public MetricheEsplorazione getMetriche() {
+        return metriche;
+    }
+
+    /**
+     * Permette di settare le metriche in cui registrare le esecuzioni dell'automa (numero di esecuzioni e frequenza
+     * delle scelte tra più transizioni abilitate).
+     * @param metriche Metriche (null per non misurare le esecuzioni).
+     */
+    public void setMetriche(MetricheEsplorazione metriche) {
+        this.metriche = metriche;
+    }
+
+    /**
+     * Restituisce l'indice delle transizioni dell'automa.
+     * @return Indice delle transizioni dell'automa.
+     */
+    public IndiceTransizioni getIndice() {
+        return indice;
+    }
+
+    /**
+     * Restituisce l'identificatore univoco dell'automa.
+     * @return Identificatore univoco dell'automa.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Restituisce il nome univoco dell'automa.
+     * @return Nome univoco dell'automa.
+     */
+    public String getNome() {
+        return nome;
     }
 
     /**
@@ -142,6 +341,9 @@ public class Automa {
      */
     public void setTransizioni(ArrayList<Transizione> transizioni) {
         this.transizioni = transizioni;
+        this.indice = IndiceTransizioni.create(transizioni);
+        if(cache != null)
+            cache.svuota();
     }
 
     /**
@@ -160,8 +362,15 @@ public class Automa {
         this.statoCorrente = statoCorrente;
     }
 
-    //TODO:equals
+    /**
+     * Restituisce una rappresentazione testuale dell'automa.
+     * @return Rappresentazione testuale dell'automa (nome).
+     */
+    @Override
+    public String toString() {
+        return nome;
+    }
 
-    //TODO: XML
+    //TODO:equals
 }
 
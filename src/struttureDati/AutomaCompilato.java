@@ -0,0 +1,330 @@
+package struttureDati;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Classe rappresentante la forma compilata (immutabile) di un automa.
+ * Stati, transizioni, eventi ed etichette sono rappresentati da indici interi densi:
+ * - gli stati sono numerati nell'ordine dell'insieme di stati dell'automa;
+ * - eventi ed etichette sono numerati dalla tabella dei simboli (condivisibile tra più automi);
+ * - le transizioni sono numerate ordinandole per (stato di partenza, evento in ingresso), in modo che le transizioni
+ *   uscenti da uno stato occupino un intervallo contiguo (formato CSR) e, al suo interno, quelle con lo stesso evento
+ *   in ingresso siano a loro volta contigue (per prime quelle senza evento in ingresso).
+ * Tutte le informazioni sulle transizioni sono memorizzate in array di interi; l'indice -1 indica l'assenza
+ * dell'evento in ingresso o dell'etichetta.
+ */
+public class AutomaCompilato {
+
+    private final TabellaSimboli simboli;
+    private final Stato[] stati;
+    private final Transizione[] transizioni;
+    private final HashMap<Stato, Integer> indiciStati;
+    private final int statoIniziale;
+    private final int[] inizioTransizioni; //transizioni uscenti dallo stato s: [inizioTransizioni[s], inizioTransizioni[s+1])
+    private final int[] partenza;
+    private final int[] arrivo;
+    private final int[] ingresso;
+    private final int[] osservabilita;
+    private final int[] rilevanza;
+    private final int[] inizioUscita; //eventi in uscita dalla transizione t: [inizioUscita[t], inizioUscita[t+1])
+    private final int[] eventiUscita;
+
+    /**
+     * Costruttore della classe AutomaCompilato.
+     */
+    private AutomaCompilato(TabellaSimboli simboli, Stato[] stati, Transizione[] transizioni, HashMap<Stato, Integer> indiciStati, int statoIniziale,
+                            int[] inizioTransizioni, int[] partenza, int[] arrivo, int[] ingresso, int[] osservabilita, int[] rilevanza,
+                            int[] inizioUscita, int[] eventiUscita){
+        this.simboli = simboli;
+        this.stati = stati;
+        this.transizioni = transizioni;
+        this.indiciStati = indiciStati;
+        this.statoIniziale = statoIniziale;
+        this.inizioTransizioni = inizioTransizioni;
+        this.partenza = partenza;
+        this.arrivo = arrivo;
+        this.ingresso = ingresso;
+        this.osservabilita = osservabilita;
+        this.rilevanza = rilevanza;
+        this.inizioUscita = inizioUscita;
+        this.eventiUscita = eventiUscita;
+    }
+
+    /**
+     * Compila l'automa usando una nuova tabella dei simboli.
+     * @param automa Automa (valido) da compilare.
+     * @return Forma compilata dell'automa.
+     */
+    public static AutomaCompilato compila(Automa automa){
+        return compila(automa, TabellaSimboli.create());
+    }
+
+    /**
+     * Compila l'automa usando la tabella dei simboli indicata (che viene estesa con gli eventi e le etichette dell'automa).
+     * Lo stato corrente dell'automa diventa lo stato iniziale della forma compilata.
+     * @param automa Automa (valido) da compilare.
+     * @param simboli Tabella dei simboli da usare.
+     * @return Forma compilata dell'automa.
+     * @throws IllegalArgumentException se una transizione fa riferimento a uno stato che non appartiene all'automa.
+     */
+    public static AutomaCompilato compila(Automa automa, TabellaSimboli simboli){
+        ArrayList<Stato> listaStati = automa.getStati();
+        ArrayList<Transizione> listaTransizioni = automa.getTransizioni();
+        int numeroStati = listaStati.size();
+        int numeroTransizioni = listaTransizioni.size();
+
+        Stato[] stati = listaStati.toArray(new Stato[0]);
+        HashMap<Stato, Integer> indiciStati = new HashMap<>(numeroStati * 2);
+        for(int s = 0; s < numeroStati; s++)
+            indiciStati.putIfAbsent(stati[s], s);
+
+        //indici "grezzi" nell'ordine della lista delle transizioni
+        int[] partenzaGrezza = new int[numeroTransizioni];
+        int[] ingressoGrezzo = new int[numeroTransizioni];
+        for(int t = 0; t < numeroTransizioni; t++){
+            Transizione transizione = listaTransizioni.get(t);
+            partenzaGrezza[t] = indice(indiciStati, transizione.getStatoPartenza());
+            ingressoGrezzo[t] = simboli.indiceEvento(transizione.getEventoIngresso());
+        }
+
+        //ordinamento per (partenza, ingresso) stabile rispetto all'ordine della lista: counting sort sugli stati,
+        //poi ordinamento per ingresso all'interno di ogni stato
+        int[] inizioTransizioni = new int[numeroStati + 1];
+        for(int t = 0; t < numeroTransizioni; t++)
+            inizioTransizioni[partenzaGrezza[t] + 1]++;
+        for(int s = 0; s < numeroStati; s++)
+            inizioTransizioni[s + 1] += inizioTransizioni[s];
+        long[] ordine = new long[numeroTransizioni];
+        int[] riempimento = Arrays.copyOf(inizioTransizioni, numeroStati);
+        for(int t = 0; t < numeroTransizioni; t++)
+            ordine[riempimento[partenzaGrezza[t]]++] = ((long) (ingressoGrezzo[t] + 1) << 32) | t;
+        for(int s = 0; s < numeroStati; s++)
+            Arrays.sort(ordine, inizioTransizioni[s], inizioTransizioni[s + 1]);
+
+        Transizione[] transizioni = new Transizione[numeroTransizioni];
+        int[] partenza = new int[numeroTransizioni];
+        int[] arrivo = new int[numeroTransizioni];
+        int[] ingresso = new int[numeroTransizioni];
+        int[] osservabilita = new int[numeroTransizioni];
+        int[] rilevanza = new int[numeroTransizioni];
+        int[] inizioUscita = new int[numeroTransizioni + 1];
+        int[] eventiUscita = new int[16];
+        int numeroEventiUscita = 0;
+        for(int t = 0; t < numeroTransizioni; t++){
+            int originale = (int) ordine[t];
+            Transizione transizione = listaTransizioni.get(originale);
+            transizioni[t] = transizione;
+            partenza[t] = partenzaGrezza[originale];
+            arrivo[t] = indice(indiciStati, transizione.getStatoArrivo());
+            ingresso[t] = ingressoGrezzo[originale];
+            osservabilita[t] = simboli.indiceEtichetta(transizione.getEtichettaOsservabilita());
+            rilevanza[t] = simboli.indiceEtichetta(transizione.getEtichettaRilevanza());
+            inizioUscita[t] = numeroEventiUscita;
+            if(transizione.getEventiUscita() != null){
+                for(Evento evento : transizione.getEventiUscita()){
+                    if(numeroEventiUscita == eventiUscita.length)
+                        eventiUscita = Arrays.copyOf(eventiUscita, eventiUscita.length * 2);
+                    eventiUscita[numeroEventiUscita++] = simboli.indiceEvento(evento);
+                }
+            }
+        }
+        inizioUscita[numeroTransizioni] = numeroEventiUscita;
+
+        int statoIniziale = automa.getStatoCorrente() == null ? -1 : indice(indiciStati, automa.getStatoCorrente());
+        return new AutomaCompilato(simboli, stati, transizioni, indiciStati, statoIniziale, inizioTransizioni, partenza, arrivo,
+                ingresso, osservabilita, rilevanza, inizioUscita, Arrays.copyOf(eventiUscita, numeroEventiUscita));
+    }
+
+    /**
+     * Restituisce l'indice dello stato, controllando che appartenga all'automa.
+     */
+    private static int indice(HashMap<Stato, Integer> indiciStati, Stato stato){
+        Integer indice = indiciStati.get(stato);
+        if(indice == null)
+            throw new IllegalArgumentException("Stato " + stato + " non appartenente all'automa");
+        return indice;
+    }
+
+    /**
+     * Restituisce la tabella dei simboli usata per la compilazione.
+     * @return Tabella dei simboli.
+     */
+    public TabellaSimboli getSimboli() {
+        return simboli;
+    }
+
+    /**
+     * Restituisce il numero di stati dell'automa.
+     * @return Numero di stati.
+     */
+    public int numeroStati(){
+        return stati.length;
+    }
+
+    /**
+     * Restituisce il numero di transizioni dell'automa.
+     * @return Numero di transizioni.
+     */
+    public int numeroTransizioni(){
+        return transizioni.length;
+    }
+
+    /**
+     * Restituisce l'indice dello stato iniziale.
+     * @return Indice dello stato iniziale.
+     */
+    public int getStatoIniziale() {
+        return statoIniziale;
+    }
+
+    /**
+     * Restituisce lo stato associato all'indice.
+     * @param s Indice dello stato.
+     * @return Stato associato all'indice.
+     */
+    public Stato getStato(int s){
+        return stati[s];
+    }
+
+    /**
+     * Restituisce l'indice dello stato indicato.
+     * @param stato Stato di cui si vuole l'indice.
+     * @return Indice dello stato, -1 se lo stato non appartiene all'automa.
+     */
+    public int indiceStato(Stato stato){
+        Integer indice = indiciStati.get(stato);
+        return indice == null ? -1 : indice;
+    }
+
+    /**
+     * Restituisce la transizione associata all'indice.
+     * @param t Indice della transizione.
+     * @return Transizione associata all'indice.
+     */
+    public Transizione getTransizione(int t){
+        return transizioni[t];
+    }
+
+    /**
+     * Restituisce l'indice della prima transizione uscente dallo stato indicato.
+     * @param s Indice dello stato.
+     * @return Indice della prima transizione uscente.
+     */
+    public int inizioTransizioni(int s){
+        return inizioTransizioni[s];
+    }
+
+    /**
+     * Restituisce l'indice successivo all'ultima transizione uscente dallo stato indicato.
+     * @param s Indice dello stato.
+     * @return Indice successivo all'ultima transizione uscente.
+     */
+    public int fineTransizioni(int s){
+        return inizioTransizioni[s + 1];
+    }
+
+    /**
+     * Restituisce l'indice della prima transizione uscente dallo stato indicato con l'evento in ingresso indicato.
+     * Le transizioni cercate occupano l'intervallo [inizioTransizioni(s, e), fineTransizioni(s, e)).
+     * @param s Indice dello stato.
+     * @param e Indice dell'evento in ingresso (-1 per le transizioni senza evento in ingresso).
+     * @return Indice della prima transizione cercata.
+     */
+    public int inizioTransizioni(int s, int e){
+        int basso = inizioTransizioni[s];
+        int alto = inizioTransizioni[s + 1];
+        while(basso < alto){
+            int medio = (basso + alto) >>> 1;
+            if(ingresso[medio] < e)
+                basso = medio + 1;
+            else
+                alto = medio;
+        }
+        return basso;
+    }
+
+    /**
+     * Restituisce l'indice successivo all'ultima transizione uscente dallo stato indicato con l'evento in ingresso indicato.
+     * @param s Indice dello stato.
+     * @param e Indice dell'evento in ingresso (-1 per le transizioni senza evento in ingresso).
+     * @return Indice successivo all'ultima transizione cercata.
+     */
+    public int fineTransizioni(int s, int e){
+        int basso = inizioTransizioni[s];
+        int alto = inizioTransizioni[s + 1];
+        while(basso < alto){
+            int medio = (basso + alto) >>> 1;
+            if(ingresso[medio] <= e)
+                basso = medio + 1;
+            else
+                alto = medio;
+        }
+        return basso;
+    }
+
+    /**
+     * Restituisce l'indice dello stato di partenza della transizione.
+     * @param t Indice della transizione.
+     * @return Indice dello stato di partenza.
+     */
+    public int getPartenza(int t){
+        return partenza[t];
+    }
+
+    /**
+     * Restituisce l'indice dello stato di arrivo della transizione.
+     * @param t Indice della transizione.
+     * @return Indice dello stato di arrivo.
+     */
+    public int getArrivo(int t){
+        return arrivo[t];
+    }
+
+    /**
+     * Restituisce l'indice dell'evento in ingresso alla transizione.
+     * @param t Indice della transizione.
+     * @return Indice dell'evento in ingresso, -1 se la transizione non ha evento in ingresso.
+     */
+    public int getIngresso(int t){
+        return ingresso[t];
+    }
+
+    /**
+     * Restituisce l'indice dell'etichetta di osservabilità della transizione.
+     * @param t Indice della transizione.
+     * @return Indice dell'etichetta di osservabilità, -1 se la transizione non è osservabile.
+     */
+    public int getOsservabilita(int t){
+        return osservabilita[t];
+    }
+
+    /**
+     * Restituisce l'indice dell'etichetta di rilevanza della transizione.
+     * @param t Indice della transizione.
+     * @return Indice dell'etichetta di rilevanza, -1 se la transizione non è rilevante.
+     */
+    public int getRilevanza(int t){
+        return rilevanza[t];
+    }
+
+    /**
+     * Restituisce il numero di eventi in uscita dalla transizione.
+     * @param t Indice della transizione.
+     * @return Numero di eventi in uscita.
+     */
+    public int numeroEventiUscita(int t){
+        return inizioUscita[t + 1] - inizioUscita[t];
+    }
+
+    /**
+     * Restituisce l'indice del k-esimo evento in uscita dalla transizione.
+     * @param t Indice della transizione.
+     * @param k Posizione dell'evento nella lista degli eventi in uscita.
+     * @return Indice dell'evento in uscita.
+     */
+    public int getEventoUscita(int t, int k){
+        return eventiUscita[inizioUscita[t] + k];
+    }
+}
@@ -0,0 +1,185 @@
+package struttureDati;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Classe rappresentante una cache di dimensione limitata dei rami non deterministici di un automa: associa a una coppia
+ * (stato corrente, eventi disponibili) le transizioni abilitate, nell'ordine in cui le restituisce l'indice delle
+ * transizioni (ogni transizione conserva i propri eventi in uscita).
+ * Gli eventi disponibili sono rappresentati dagli identificatori degli eventi distinti nell'ordine della loro prima
+ * occorrenza: le ripetizioni di un evento non abilitano nuove transizioni, mentre l'ordine determina quello dei rami
+ * (e quindi il ramo eseguito da Automa.esegui).
+ * Quando la cache è piena viene rimossa la coppia usata meno di recente (LRU). Successi, fallimenti e rimozioni vengono
+ * contati per poter scegliere la capacità.
+ * Un'istanza non è utilizzabile contemporaneamente da più thread.
+ */
+public class CacheTransizioni {
+
+    /**
+     * Classe rappresentante la chiave di una voce della cache.
+     */
+    private static class Chiave {
+        private final int stato;
+        private final int[] eventi;
+        private final int hash;
+
+        /**
+         * Costruttore della classe Chiave.
+         * @param stato Identificatore dello stato corrente.
+         * @param eventi Identificatori degli eventi disponibili distinti, nell'ordine della prima occorrenza.
+         */
+        private Chiave(int stato, int[] eventi){
+            this.stato = stato;
+            this.eventi = eventi;
+            this.hash = 31 * Integer.hashCode(stato) + Arrays.hashCode(eventi);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(this == obj)
+                return true;
+            if(obj == null || !obj.getClass().equals(this.getClass()))
+                return false;
+            Chiave c = (Chiave) obj;
+            return stato == c.stato && Arrays.equals(eventi, c.eventi);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private final int capacita;
+    private final LinkedHashMap<Chiave, Transizione[]> voci;
+    private long successi;
+    private long fallimenti;
+    private long rimozioni;
+
+    /**
+     * Costruttore della classe CacheTransizioni.
+     * @param capacita Numero massimo di voci.
+     */
+    private CacheTransizioni(int capacita){
+        this.capacita = capacita;
+        //ordine di accesso: la prima voce è quella usata meno di recente
+        this.voci = new LinkedHashMap<Chiave, Transizione[]>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Chiave, Transizione[]> eldest) {
+                if(size() <= CacheTransizioni.this.capacita)
+                    return false;
+                rimozioni++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Permette di creare in modo statico una cache vuota.
+     * @param capacita Numero massimo di coppie (stato, eventi disponibili) memorizzate.
+     * @return Istanza della classe CacheTransizioni.
+     * @throws IllegalArgumentException se la capacità non è positiva.
+     */
+    public static CacheTransizioni create(int capacita){
+        if(capacita <= 0)
+            throw new IllegalArgumentException("La capacità della cache deve essere positiva");
+        return new CacheTransizioni(capacita);
+    }
+
+    /**
+     * Restituisce le transizioni abilitate dallo stato dati gli eventi disponibili, calcolandole con l'indice e
+     * memorizzandole se non sono già nella cache.
+     * @param indice Indice delle transizioni dell'automa.
+     * @param stato Stato corrente.
+     * @param eventiDisponibili Lista degli eventi disponibili (può essere null).
+     * @return Transizioni abilitate (da non modificare), eventualmente nessuna.
+     */
+    public Transizione[] getTransizioniAbilitate(IndiceTransizioni indice, Stato stato, ArrayList<Evento> eventiDisponibili){
+        Chiave chiave = new Chiave(stato.getID(), IndiceTransizioni.eventiDistinti(eventiDisponibili));
+        Transizione[] abilitate = voci.get(chiave);
+        if(abilitate != null) {
+            successi++;
+            return abilitate;
+        }
+        fallimenti++;
+        abilitate = indice.getTransizioniAbilitate(stato, eventiDisponibili).toArray(new Transizione[0]);
+        voci.put(chiave, abilitate);
+        return abilitate;
+    }
+
+    /**
+     * Svuota la cache (da usare quando cambiano le transizioni dell'automa); le statistiche non vengono azzerate.
+     */
+    public void svuota(){
+        voci.clear();
+    }
+
+    /**
+     * Restituisce il numero massimo di voci della cache.
+     * @return Capacità della cache.
+     */
+    public int getCapacita() {
+        return capacita;
+    }
+
+    /**
+     * Restituisce il numero di voci presenti nella cache.
+     * @return Numero di voci.
+     */
+    public int dimensione(){
+        return voci.size();
+    }
+
+    /**
+     * Restituisce il numero di richieste soddisfatte dalla cache.
+     * @return Numero di successi.
+     */
+    public long getSuccessi() {
+        return successi;
+    }
+
+    /**
+     * Restituisce il numero di richieste per cui le transizioni abilitate sono state calcolate con l'indice.
+     * @return Numero di fallimenti.
+     */
+    public long getFallimenti() {
+        return fallimenti;
+    }
+
+    /**
+     * Restituisce il numero di voci rimosse perché la cache era piena.
+     * @return Numero di rimozioni.
+     */
+    public long getRimozioni() {
+        return rimozioni;
+    }
+
+    /**
+     * Restituisce la frazione delle richieste soddisfatte dalla cache.
+     * @return Tasso di successo, 0 se non ci sono state richieste.
+     */
+    public double tassoSuccesso(){
+        long richieste = successi + fallimenti;
+        return richieste == 0 ? 0 : (double) successi / richieste;
+    }
+
+    /**
+     * Azzera i contatori di successi, fallimenti e rimozioni.
+     */
+    public void azzeraStatistiche(){
+        successi = 0;
+        fallimenti = 0;
+        rimozioni = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "cache " + voci.size() + "/" + capacita + ": " + successi + " successi, " + fallimenti + " fallimenti, "
+                + rimozioni + " rimozioni";
+    }
+}
@@ -0,0 +1,100 @@
+package struttureDati;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Interfaccia che rappresenta le chiusure silenziose di una rete (stati di credenza) con le loro uscite osservabili,
+ * sulle quali si calcola la diagnosi di un'osservazione avanzando una frontiera etichetta per etichetta.
+ * Gli archi uscenti da una chiusura sono contigui e ordinati per etichetta di osservabilità; ogni arco è decorato con
+ * l'espressione dei cammini dall'ingresso della chiusura fino alla transizione osservabile compresa.
+ */
+public interface ChiusureSilenziose {
+
+    /**
+     * Restituisce l'indice del primo arco uscente dalla chiusura.
+     * @param c Indice della chiusura.
+     * @return Indice del primo arco.
+     */
+    int inizioArchi(int c);
+
+    /**
+     * Restituisce l'indice successivo all'ultimo arco uscente dalla chiusura.
+     * @param c Indice della chiusura.
+     * @return Indice successivo all'ultimo arco.
+     */
+    int fineArchi(int c);
+
+    /**
+     * Restituisce l'etichetta di osservabilità dell'arco.
+     * @param a Indice dell'arco.
+     * @return Indice dell'etichetta nella tabella dei simboli della rete.
+     */
+    int getEtichetta(int a);
+
+    /**
+     * Restituisce la chiusura di arrivo dell'arco.
+     * @param a Indice dell'arco.
+     * @return Indice della chiusura di arrivo.
+     */
+    int getDestinazione(int a);
+
+    /**
+     * Restituisce l'espressione dei cammini che percorrono l'arco.
+     * @param a Indice dell'arco.
+     * @return Espressione regolare sulle etichette di rilevanza.
+     */
+    EspressioneRegolare getEspressione(int a);
+
+    /**
+     * Restituisce l'espressione dei cammini dall'ingresso della chiusura a uno dei suoi stati finali.
+     * @param c Indice della chiusura.
+     * @return Espressione dei cammini (∅ se la chiusura non contiene stati finali).
+     */
+    EspressioneRegolare getFinale(int c);
+
+    /**
+     * Avanza una frontiera di chiusure (ognuna con l'espressione dei cammini che la raggiungono) con un'etichetta
+     * osservata: i cammini che entrano in ogni chiusura di arrivo vengono prima raccolti e poi uniti in una sola volta.
+     * @param frontiera Chiusure correnti con l'espressione dei cammini che vi entrano.
+     * @param o Indice dell'etichetta osservata.
+     * @param fabbrica Fabbrica con cui costruire le espressioni.
+     * @return Nuova frontiera (vuota se l'etichetta non è compatibile con alcuna chiusura).
+     */
+    default HashMap<Integer, EspressioneRegolare> avanza(Map<Integer, EspressioneRegolare> frontiera, int o, FabbricaEspressioni fabbrica){
+        HashMap<Integer, ArrayList<EspressioneRegolare>> cammini = new HashMap<>();
+        for(Map.Entry<Integer, EspressioneRegolare> voce : frontiera.entrySet()){
+            int c = voce.getKey();
+            //primo arco con etichetta maggiore o uguale a o (ricerca binaria)
+            int basso = inizioArchi(c), fine = fineArchi(c), alto = fine;
+            while(basso < alto){
+                int medio = (basso + alto) >>> 1;
+                if(getEtichetta(medio) < o)
+                    basso = medio + 1;
+                else
+                    alto = medio;
+            }
+            for(int a = basso; a < fine && getEtichetta(a) == o; a++)
+                cammini.computeIfAbsent(getDestinazione(a), d -> new ArrayList<>()).add(fabbrica.concatenazione(voce.getValue(), getEspressione(a)));
+        }
+        HashMap<Integer, EspressioneRegolare> successiva = new HashMap<>();
+        for(Map.Entry<Integer, ArrayList<EspressioneRegolare>> voce : cammini.entrySet())
+            successiva.put(voce.getKey(), fabbrica.alternativa(voce.getValue()));
+        return successiva;
+    }
+
+    /**
+     * Calcola la diagnosi corrispondente a una frontiera di chiusure: l'unione dei cammini che terminano in uno stato
+     * finale di una delle chiusure.
+     * @param frontiera Chiusure correnti con l'espressione dei cammini che vi entrano.
+     * @param fabbrica Fabbrica con cui costruire le espressioni.
+     * @return Espressione regolare della diagnosi.
+     */
+    default EspressioneRegolare chiudi(Map<Integer, EspressioneRegolare> frontiera, FabbricaEspressioni fabbrica){
+        ArrayList<EspressioneRegolare> cammini = new ArrayList<>();
+        for(Map.Entry<Integer, EspressioneRegolare> voce : frontiera.entrySet())
+            cammini.add(fabbrica.concatenazione(voce.getValue(), getFinale(voce.getKey())));
+        return fabbrica.alternativa(cammini);
+    }
+}
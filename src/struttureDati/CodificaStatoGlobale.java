@@ -0,0 +1,112 @@
+package struttureDati;
+
+/**
+ * Classe rappresentante la codifica compatta (a bit) di uno stato globale in un array di long.
+ * Lo stato è suddiviso in campi di larghezza fissa (da 0 a 32 bit): ogni campo è contenuto interamente in una parola
+ * (un campo che non entra nei bit rimasti liberi di una parola inizia nella parola successiva).
+ * La codifica non alloca memoria: lettura e scrittura dei campi operano direttamente sull'array passato come parametro.
+ */
+public class CodificaStatoGlobale {
+
+    private final int[] parola;
+    private final int[] scostamento;
+    private final long[] maschera;
+    private final int numeroParole;
+
+    /**
+     * Costruttore della classe CodificaStatoGlobale.
+     * @param parola Parola (indice nell'array) in cui si trova ogni campo.
+     * @param scostamento Posizione del bit meno significativo di ogni campo all'interno della sua parola.
+     * @param maschera Maschera (non traslata) di ogni campo.
+     * @param numeroParole Numero di parole necessarie per contenere tutti i campi.
+     */
+    private CodificaStatoGlobale(int[] parola, int[] scostamento, long[] maschera, int numeroParole){
+        this.parola = parola;
+        this.scostamento = scostamento;
+        this.maschera = maschera;
+        this.numeroParole = numeroParole;
+    }
+
+    /**
+     * Permette di creare in modo statico una codifica con i campi della larghezza indicata.
+     * @param larghezze Larghezza in bit di ogni campo (da 0 a 32).
+     * @return Istanza della classe CodificaStatoGlobale.
+     * @throws IllegalArgumentException se la larghezza di un campo non è compresa tra 0 e 32.
+     */
+    public static CodificaStatoGlobale create(int[] larghezze){
+        int[] parola = new int[larghezze.length];
+        int[] scostamento = new int[larghezze.length];
+        long[] maschera = new long[larghezze.length];
+        int parolaCorrente = 0;
+        int bitOccupati = 0;
+        for(int i = 0; i < larghezze.length; i++){
+            if(larghezze[i] < 0 || larghezze[i] > 32)
+                throw new IllegalArgumentException("Larghezza del campo " + i + " non valida: " + larghezze[i]);
+            if(bitOccupati + larghezze[i] > Long.SIZE) {
+                parolaCorrente++;
+                bitOccupati = 0;
+            }
+            parola[i] = parolaCorrente;
+            scostamento[i] = bitOccupati;
+            maschera[i] = (1L << larghezze[i]) - 1;
+            bitOccupati += larghezze[i];
+        }
+        int numeroParole = bitOccupati == 0 ? parolaCorrente : parolaCorrente + 1;
+        return new CodificaStatoGlobale(parola, scostamento, maschera, Math.max(numeroParole, 1));
+    }
+
+    /**
+     * Calcola il numero di bit necessari per rappresentare i valori da 0 al massimo indicato.
+     * @param massimo Valore massimo da rappresentare (non negativo).
+     * @return Numero di bit necessari.
+     */
+    public static int bitNecessari(int massimo){
+        return Integer.SIZE - Integer.numberOfLeadingZeros(massimo);
+    }
+
+    /**
+     * Restituisce il numero di campi della codifica.
+     * @return Numero di campi.
+     */
+    public int numeroCampi(){
+        return parola.length;
+    }
+
+    /**
+     * Restituisce la larghezza di un campo.
+     * @param campo Indice del campo.
+     * @return Larghezza del campo in bit.
+     */
+    public int larghezza(int campo){
+        return Long.bitCount(maschera[campo]);
+    }
+
+    /**
+     * Restituisce il numero di parole (long) necessarie per codificare uno stato.
+     * @return Numero di parole.
+     */
+    public int numeroParole(){
+        return numeroParole;
+    }
+
+    /**
+     * Legge il valore di un campo.
+     * @param stato Stato codificato.
+     * @param campo Indice del campo.
+     * @return Valore del campo.
+     */
+    public int get(long[] stato, int campo){
+        return (int) ((stato[parola[campo]] >>> scostamento[campo]) & maschera[campo]);
+    }
+
+    /**
+     * Scrive il valore di un campo.
+     * @param stato Stato codificato.
+     * @param campo Indice del campo.
+     * @param valore Valore da scrivere (deve essere rappresentabile con la larghezza del campo).
+     */
+    public void set(long[] stato, int campo, int valore){
+        int p = parola[campo];
+        stato[p] = (stato[p] & ~(maschera[campo] << scostamento[campo])) | ((valore & maschera[campo]) << scostamento[campo]);
+    }
+}
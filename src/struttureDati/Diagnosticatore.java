@@ -0,0 +1,262 @@
+package struttureDati;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Classe rappresentante il diagnosticatore di una rete di automi: un automa i cui stati sono le chiusure silenziose
+ * dello spazio comportamentale e i cui archi sono etichettati con le etichette di osservabilità.
+ * La chiusura silenziosa di uno stato globale (stato di ingresso) contiene gli stati raggiungibili da esso con sole
+ * transizioni non osservabili; da ogni chiusura escono le transizioni osservabili, che portano nella chiusura del
+ * loro stato di arrivo. Ogni arco del diagnosticatore è decorato con l'espressione regolare (sulle etichette di
+ * rilevanza) dei cammini che vanno dall'ingresso della chiusura fino alla transizione osservabile compresa, e ogni
+ * chiusura con l'espressione dei cammini dall'ingresso a uno stato finale.
+ * La diagnosi di un'osservazione si ottiene percorrendo il diagnosticatore etichetta per etichetta, senza esplorare
+ * di nuovo la rete: il costo dipende solo dalla lunghezza dell'osservazione e dal numero di chiusure attraversate.
+ * La chiusura 0 è quella dello stato iniziale della rete.
+ * Il diagnosticatore è immutabile: la fabbrica delle sue espressioni viene congelata alla creazione e ogni diagnosi
+ * costruisce le proprie espressioni in una fabbrica che la estende (vedi nuovaFabbrica), per cui la memoria usata da
+ * una diagnosi viene liberata al suo termine e più diagnosi possono essere calcolate contemporaneamente da più thread.
+ */
+public class Diagnosticatore implements ChiusureSilenziose {
+
+    private final ReteAutomiCompilata rete;
+    private final FabbricaEspressioni fabbrica;
+    private final InsiemeStatiVisitati ingressi;
+    private final EspressioneRegolare[] finale;
+    private final int[] inizioArchi;
+    private final int[] etichetta;
+    private final int[] destinazione;
+    private final EspressioneRegolare[] espressione;
+
+    /**
+     * Costruttore della classe Diagnosticatore.
+     * @param rete Rete compilata.
+     * @param fabbrica Fabbrica con cui sono state costruite le espressioni.
+     * @param ingressi Stati di ingresso delle chiusure (l'identificatore dello stato è quello della chiusura).
+     * @param finale Espressione dei cammini dall'ingresso agli stati finali di ogni chiusura.
+     * @param inizioArchi Inizio degli archi uscenti da ogni chiusura (numeroChiusure + 1 elementi).
+     * @param etichetta Etichetta di osservabilità di ogni arco (archi di una chiusura ordinati per etichetta).
+     * @param destinazione Chiusura di arrivo di ogni arco.
+     * @param espressione Espressione di ogni arco.
+     */
+    private Diagnosticatore(ReteAutomiCompilata rete, FabbricaEspressioni fabbrica, InsiemeStatiVisitati ingressi, EspressioneRegolare[] finale, int[] inizioArchi, int[] etichetta, int[] destinazione, EspressioneRegolare[] espressione){
+        fabbrica.congela();
+        this.rete = rete;
+        this.fabbrica = fabbrica;
+        this.ingressi = ingressi;
+        this.finale = finale;
+        this.inizioArchi = inizioArchi;
+        this.etichetta = etichetta;
+        this.destinazione = destinazione;
+        this.espressione = espressione;
+    }
+
+    /**
+     * Permette di creare in modo statico un'istanza della classe Diagnosticatore.
+     * @param rete Rete compilata.
+     * @param fabbrica Fabbrica con cui sono state costruite le espressioni (viene congelata).
+     * @param ingressi Stati di ingresso delle chiusure (l'identificatore dello stato è quello della chiusura).
+     * @param finale Espressione dei cammini dall'ingresso agli stati finali di ogni chiusura (∅ se non ce ne sono).
+     * @param inizioArchi Inizio degli archi uscenti da ogni chiusura (numeroChiusure + 1 elementi).
+     * @param etichetta Etichetta di osservabilità di ogni arco (archi di una chiusura ordinati per etichetta).
+     * @param destinazione Chiusura di arrivo di ogni arco.
+     * @param espressione Espressione di ogni arco.
+     * @return Istanza della classe Diagnosticatore.
+     */
+    public static Diagnosticatore create(ReteAutomiCompilata rete, FabbricaEspressioni fabbrica, InsiemeStatiVisitati ingressi, EspressioneRegolare[] finale, int[] inizioArchi, int[] etichetta, int[] destinazione, EspressioneRegolare[] espressione){
+        return new Diagnosticatore(rete, fabbrica, ingressi, finale, inizioArchi, etichetta, destinazione, espressione);
+    }
+
+    /**
+     * Calcola la diagnosi di un'osservazione.
+     * @param osservazione Sequenza delle etichette di osservabilità osservate.
+     * @return Espressione regolare della diagnosi (∅ se l'osservazione non è compatibile con la rete).
+     */
+    public EspressioneRegolare diagnosi(ArrayList<Etichetta> osservazione){
+        int[] indici = new int[osservazione.size()];
+        for(int i = 0; i < indici.length; i++){
+            indici[i] = rete.getSimboli().cercaEtichetta(osservazione.get(i));
+            if(indici[i] < 0)
+                return fabbrica.vuoto();
+        }
+        return diagnosi(indici);
+    }
+
+    /**
+     * Calcola la diagnosi di un'osservazione, costruendo le espressioni in una nuova fabbrica.
+     * @param osservazione Sequenza degli indici (nella tabella dei simboli della rete) delle etichette osservate.
+     * @return Espressione regolare della diagnosi (∅ se l'osservazione non è compatibile con la rete).
+     */
+    public EspressioneRegolare diagnosi(int[] osservazione){
+        return diagnosi(osservazione, nuovaFabbrica());
+    }
+
+    /**
+     * Calcola la diagnosi di un'osservazione.
+     * @param osservazione Sequenza degli indici (nella tabella dei simboli della rete) delle etichette osservate.
+     * @param fabbrica Fabbrica con cui costruire le espressioni, che deve estendere quella del diagnosticatore (vedi
+     *                 nuovaFabbrica); può essere condivisa tra più diagnosi dello stesso thread.
+     * @return Espressione regolare della diagnosi (∅ se l'osservazione non è compatibile con la rete).
+     * @throws IllegalArgumentException se la fabbrica non estende quella del diagnosticatore.
+     */
+    public EspressioneRegolare diagnosi(int[] osservazione, FabbricaEspressioni fabbrica){
+        controllaFabbrica(fabbrica);
+        HashMap<Integer, EspressioneRegolare> frontiera = new HashMap<>();
+        frontiera.put(0, fabbrica.epsilon());
+        for(int o : osservazione){
+            frontiera = avanza(frontiera, o, fabbrica);
+            if(frontiera.isEmpty())
+                return fabbrica.vuoto();
+        }
+        return chiudi(frontiera, fabbrica);
+    }
+
+    /**
+     * Avanza una frontiera di chiusure (ognuna con l'espressione dei cammini che la raggiungono) con un'etichetta osservata.
+     * @param frontiera Chiusure correnti con l'espressione dei cammini che vi entrano.
+     * @param o Indice dell'etichetta osservata.
+     * @param fabbrica Fabbrica con cui costruire le espressioni, che deve estendere quella del diagnosticatore.
+     * @return Nuova frontiera (vuota se l'etichetta non è compatibile con alcuna chiusura).
+     * @throws IllegalArgumentException se la fabbrica non estende quella del diagnosticatore.
+     */
+    @Override
+    public HashMap<Integer, EspressioneRegolare> avanza(Map<Integer, EspressioneRegolare> frontiera, int o, FabbricaEspressioni fabbrica){
+        controllaFabbrica(fabbrica);
+        return ChiusureSilenziose.super.avanza(frontiera, o, fabbrica);
+    }
+
+    /**
+     * Calcola la diagnosi corrispondente a una frontiera di chiusure: l'unione dei cammini che terminano in uno stato
+     * finale di una delle chiusure.
+     * @param frontiera Chiusure correnti con l'espressione dei cammini che vi entrano.
+     * @param fabbrica Fabbrica con cui costruire le espressioni, che deve estendere quella del diagnosticatore.
+     * @return Espressione regolare della diagnosi.
+     * @throws IllegalArgumentException se la fabbrica non estende quella del diagnosticatore.
+     */
+    @Override
+    public EspressioneRegolare chiudi(Map<Integer, EspressioneRegolare> frontiera, FabbricaEspressioni fabbrica){
+        controllaFabbrica(fabbrica);
+        return ChiusureSilenziose.super.chiudi(frontiera, fabbrica);
+    }
+
+    /**
+     * Restituisce una nuova fabbrica che estende quella (congelata) delle espressioni del diagnosticatore, in cui
+     * costruire le espressioni di una o più diagnosi.
+     * @return Fabbrica delle espressioni.
+     */
+    public FabbricaEspressioni nuovaFabbrica(){
+        return FabbricaEspressioni.create(fabbrica);
+    }
+
+    /**
+     * Controlla che le espressioni del diagnosticatore possano essere usate come operandi della fabbrica indicata.
+     */
+    private void controllaFabbrica(FabbricaEspressioni altra){
+        if(!altra.estende(fabbrica))
+            throw new IllegalArgumentException("La fabbrica non estende quella del diagnosticatore");
+    }
+
+    /**
+     * Restituisce la rete compilata del diagnosticatore.
+     * @return Rete compilata.
+     */
+    public ReteAutomiCompilata getRete() {
+        return rete;
+    }
+
+    /**
+     * Restituisce gli stati di ingresso delle chiusure.
+     * @return Stati di ingresso (l'identificatore di ogni stato è quello della sua chiusura).
+     */
+    public InsiemeStatiVisitati getIngressi() {
+        return ingressi;
+    }
+
+    /**
+     * Restituisce il numero di chiusure silenziose (stati del diagnosticatore).
+     * @return Numero di chiusure.
+     */
+    public int numeroChiusure(){
+        return finale.length;
+    }
+
+    /**
+     * Restituisce il numero di archi del diagnosticatore.
+     * @return Numero di archi.
+     */
+    public int numeroArchi(){
+        return destinazione.length;
+    }
+
+    /**
+     * Restituisce l'espressione dei cammini dall'ingresso della chiusura a uno dei suoi stati finali.
+     * @param c Indice della chiusura.
+     * @return Espressione dei cammini (∅ se la chiusura non contiene stati finali).
+     */
+    @Override
+    public EspressioneRegolare getFinale(int c){
+        return finale[c];
+    }
+
+    /**
+     * Restituisce l'indice del primo arco uscente dalla chiusura.
+     * @param c Indice della chiusura.
+     * @return Indice del primo arco.
+     */
+    @Override
+    public int inizioArchi(int c){
+        return inizioArchi[c];
+    }
+
+    /**
+     * Restituisce l'indice successivo all'ultimo arco uscente dalla chiusura.
+     * @param c Indice della chiusura.
+     * @return Indice successivo all'ultimo arco.
+     */
+    @Override
+    public int fineArchi(int c){
+        return inizioArchi[c + 1];
+    }
+
+    /**
+     * Restituisce l'etichetta di osservabilità dell'arco.
+     * @param a Indice dell'arco.
+     * @return Indice dell'etichetta nella tabella dei simboli della rete.
+     */
+    @Override
+    public int getEtichetta(int a){
+        return etichetta[a];
+    }
+
+    /**
+     * Restituisce la chiusura di arrivo dell'arco.
+     * @param a Indice dell'arco.
+     * @return Indice della chiusura di arrivo.
+     */
+    @Override
+    public int getDestinazione(int a){
+        return destinazione[a];
+    }
+
+    /**
+     * Restituisce l'espressione dei cammini dall'ingresso della chiusura di partenza fino alla transizione
+     * osservabile dell'arco compresa.
+     * @param a Indice dell'arco.
+     * @return Espressione dell'arco.
+     */
+    @Override
+    public EspressioneRegolare getEspressione(int a){
+        return espressione[a];
+    }
+
+    /**
+     * Restituisce una rappresentazione testuale del diagnosticatore.
+     * @return Rappresentazione testuale (numero di chiusure e di archi).
+     */
+    @Override
+    public String toString() {
+        return "Diagnosticatore di " + rete.getRete() + ": " + numeroChiusure() + " chiusure, " + numeroArchi() + " archi";
+    }
+}
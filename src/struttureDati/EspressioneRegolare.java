@@ -0,0 +1,156 @@
+package struttureDati;
+
+/**
+ * Classe rappresentante un'espressione regolare sulle etichette (di rilevanza) di una rete di automi.
+ * Le espressioni sono immutabili e vengono create solo tramite una FabbricaEspressioni, che garantisce la condivisione
+ * delle sottoespressioni (hash-consing): due espressioni strutturalmente uguali create dalla stessa fabbrica sono
+ * lo stesso oggetto, per cui l'uguaglianza coincide con l'identità e un'espressione è in realtà un grafo aciclico
+ * in cui ogni sottoespressione compare una sola volta.
+ */
+public final class EspressioneRegolare {
+
+    /**
+     * Tipi di espressione regolare.
+     */
+    public enum Tipo {VUOTO, EPSILON, SIMBOLO, CONCATENAZIONE, ALTERNATIVA, STELLA}
+
+    private final int id;
+    private final Tipo tipo;
+    private final int simbolo;
+    private final EspressioneRegolare sinistra;
+    private final EspressioneRegolare destra;
+    private final long dimensione;
+
+    /**
+     * Costruttore della classe EspressioneRegolare (usato dalla fabbrica).
+     * @param id Identificatore dell'espressione nella fabbrica.
+     * @param tipo Tipo di espressione.
+     * @param simbolo Indice del simbolo (solo per il tipo SIMBOLO, altrimenti -1).
+     * @param sinistra Primo operando (null se non previsto dal tipo).
+     * @param destra Secondo operando (null se non previsto dal tipo).
+     */
+    EspressioneRegolare(int id, Tipo tipo, int simbolo, EspressioneRegolare sinistra, EspressioneRegolare destra){
+        this.id = id;
+        this.tipo = tipo;
+        this.simbolo = simbolo;
+        this.sinistra = sinistra;
+        this.destra = destra;
+        this.dimensione = somma(1, somma(sinistra == null ? 0 : sinistra.dimensione, destra == null ? 0 : destra.dimensione));
+    }
+
+    /**
+     * Somma due dimensioni non negative saturando a Long.MAX_VALUE (una dimensione saturata resta tale).
+     */
+    private static long somma(long a, long b){
+        return a > Long.MAX_VALUE - b ? Long.MAX_VALUE : a + b;
+    }
+
+    /**
+     * Restituisce l'identificatore dell'espressione (unico all'interno della fabbrica che l'ha creata).
+     * @return Identificatore dell'espressione.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Restituisce il tipo dell'espressione.
+     * @return Tipo dell'espressione.
+     */
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Restituisce l'indice del simbolo (nella tabella dei simboli della rete).
+     * @return Indice del simbolo, -1 se l'espressione non è un simbolo.
+     */
+    public int getSimbolo() {
+        return simbolo;
+    }
+
+    /**
+     * Restituisce il primo operando (l'unico per la stella).
+     * @return Primo operando, null se l'espressione non ha operandi.
+     */
+    public EspressioneRegolare getSinistra() {
+        return sinistra;
+    }
+
+    /**
+     * Restituisce il secondo operando.
+     * @return Secondo operando, null se l'espressione non ha due operandi.
+     */
+    public EspressioneRegolare getDestra() {
+        return destra;
+    }
+
+    /**
+     * Restituisce la dimensione dell'espressione vista come albero (numero di nodi, contando più volte le
+     * sottoespressioni condivise): è la lunghezza che avrebbe l'espressione scritta per esteso.
+     * @return Dimensione dell'espressione come albero (saturata a Long.MAX_VALUE).
+     */
+    public long getDimensione() {
+        return dimensione;
+    }
+
+    /**
+     * Restituisce una rappresentazione testuale dell'espressione, usando la tabella dei simboli per i nomi delle etichette.
+     * @param simboli Tabella dei simboli della rete (null per usare gli indici dei simboli).
+     * @return Rappresentazione testuale dell'espressione.
+     */
+    public String toString(TabellaSimboli simboli){
+        StringBuilder sb = new StringBuilder();
+        scrivi(sb, simboli, 0);
+        return sb.toString();
+    }
+
+    /**
+     * Scrive l'espressione aggiungendo le parentesi solo dove la precedenza lo richiede
+     * (alternativa 0, concatenazione 1, stella 2).
+     */
+    private void scrivi(StringBuilder sb, TabellaSimboli simboli, int precedenza){
+        switch (tipo){
+            case VUOTO:
+                sb.append('∅');
+                break;
+            case EPSILON:
+                sb.append('ε');
+                break;
+            case SIMBOLO:
+                sb.append(simboli == null ? String.valueOf(simbolo) : simboli.getEtichetta(simbolo).getId());
+                break;
+            case CONCATENAZIONE:
+                if(precedenza > 1)
+                    sb.append('(');
+                sinistra.scrivi(sb, simboli, 1);
+                sb.append(' ');
+                destra.scrivi(sb, simboli, 1);
+                if(precedenza > 1)
+                    sb.append(')');
+                break;
+            case ALTERNATIVA:
+                if(precedenza > 0)
+                    sb.append('(');
+                sinistra.scrivi(sb, simboli, 0);
+                sb.append('|');
+                destra.scrivi(sb, simboli, 0);
+                if(precedenza > 0)
+                    sb.append(')');
+                break;
+            case STELLA:
+                sinistra.scrivi(sb, simboli, 2);
+                sb.append('*');
+                break;
+        }
+    }
+
+    /**
+     * Restituisce una rappresentazione testuale dell'espressione (con gli indici dei simboli).
+     * @return Rappresentazione testuale dell'espressione.
+     */
+    @Override
+    public String toString() {
+        return toString(null);
+    }
+}
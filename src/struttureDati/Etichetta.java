@@ -1,5 +1,7 @@
 package struttureDati;
 
+import java.util.Objects;
+
 /**
  * Classe rappresentante un'etichetta (di osservabilità o di rilevanza)
  */
@@ -68,4 +70,29 @@ public class Etichetta {
     public String toString() {
         return getId();
     }
+
+    /**
+     * Controlla l'uguaglianza tra l'etichetta e l'oggetto passato in input.
+     * Due etichette sono uguali se hanno lo stesso identificatore e lo stesso tipo.
+     * @param obj Oggetto (etichetta) di cui si vuole controllare l'uguaglianza con questa istanza di Etichetta
+     * @return TRUE se le due etichette sono uguali, FALSE altrimenti
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if(this == obj)
+            return true;
+        if(obj == null || !obj.getClass().equals(this.getClass()))
+            return false;
+        Etichetta e = (Etichetta) obj;
+        return Objects.equals(id, e.getId()) && tipoEtichetta == e.getTipoEtichetta();
+    }
+
+    /**
+     * Restituisce il codice hash dell'etichetta (coerente con equals).
+     * @return Codice hash dell'etichetta.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, tipoEtichetta);
+    }
 }
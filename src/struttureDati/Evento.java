@@ -70,16 +70,26 @@ public class Evento {
 
     /**
      * Controlla l'uguaglianza tra l'evento e l'oggetto passato in input.
+     * Due eventi sono uguali se hanno lo stesso identificatore univoco.
      * @param obj Oggetto (evento) di cui si vuole controllare l'uguaglianza con questa istanza di Evento
      * @return TRUE se i due eventi sono uguali, FALSE altrimenti
      */
     @Override
     public boolean equals(Object obj) {
-        if(!obj.getClass().equals(this.getClass()))
+        if(this == obj)
+            return true;
+        if(obj == null || !obj.getClass().equals(this.getClass()))
             return false;
         Evento e = (Evento) obj;
-        if(this.id == e.getId() || this.getNome()==e.getNome())
-            return true;
-        return false;
+        return this.id == e.getId();
+    }
+
+    /**
+     * Restituisce il codice hash dell'evento (coerente con equals).
+     * @return Codice hash dell'evento.
+     */
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(id);
     }
 }
@@ -0,0 +1,505 @@
+package struttureDati;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+/**
+ * Classe che crea diagrammi di decisione binaria ridotti e ordinati (BDD) su un numero fissato di variabili booleane,
+ * condividendo i nodi uguali (hash-consing). Un BDD è identificato dall'indice del suo nodo radice: 0 è la funzione
+ * sempre falsa (FALSO), 1 quella sempre vera (VERO). Ogni nodo interno ha una variabile e due figli (basso per la
+ * variabile falsa, alto per la variabile vera) con variabili di indice maggiore, per cui l'ordine delle variabili è
+ * quello dei loro indici; poiché i figli vengono sempre creati prima del padre, l'indice di un nodo è maggiore di
+ * quello dei suoi figli.
+ * I nodi sono memorizzati in array di interi e cercati in una tabella a indirizzamento aperto prima di essere creati;
+ * i risultati delle operazioni vengono memorizzati in una cache a indirizzamento diretto (una cella per hash, sovrascritta
+ * dalle collisioni). La fabbrica non libera automaticamente i nodi: compatta elimina quelli non raggiungibili dalle
+ * radici indicate.
+ */
+public class FabbricaBdd {
+
+    /**
+     * BDD della funzione sempre falsa.
+     */
+    public static final int FALSO = 0;
+
+    /**
+     * BDD della funzione sempre vera.
+     */
+    public static final int VERO = 1;
+
+    private static final int CAPACITA_INIZIALE = 1 << 12;
+    private static final int OPERAZIONE_E = 1;
+    private static final int OPERAZIONE_O = 2;
+    private static final int OPERAZIONE_NON = 3;
+    private static final int OPERAZIONE_E_ESISTE = 4;
+    private static final int OPERAZIONE_RINOMINA = 5;
+
+    private final int numeroVariabili;
+    private int[] variabile;
+    private int[] basso;
+    private int[] alto;
+    private int numeroNodi;
+    private int[] tabella;
+    private int[] cacheOperazione;
+    private int[] cacheA;
+    private int[] cacheB;
+    private int[] cacheC;
+    private int[] cacheRisultato;
+    private final IdentityHashMap<int[], Integer> rinomine;
+
+    /**
+     * Costruttore della classe FabbricaBdd.
+     * @param numeroVariabili Numero di variabili booleane.
+     */
+    private FabbricaBdd(int numeroVariabili){
+        this.numeroVariabili = numeroVariabili;
+        this.variabile = new int[CAPACITA_INIZIALE];
+        this.basso = new int[CAPACITA_INIZIALE];
+        this.alto = new int[CAPACITA_INIZIALE];
+        this.variabile[FALSO] = numeroVariabili;
+        this.variabile[VERO] = numeroVariabili;
+        this.numeroNodi = 2;
+        this.tabella = new int[CAPACITA_INIZIALE * 2];
+        this.rinomine = new IdentityHashMap<>();
+        creaCache(CAPACITA_INIZIALE);
+    }
+
+    /**
+     * Permette di creare in modo statico una fabbrica di BDD vuota.
+     * @param numeroVariabili Numero di variabili booleane (indici da 0 a numeroVariabili - 1).
+     * @return Istanza della classe FabbricaBdd.
+     */
+    public static FabbricaBdd create(int numeroVariabili){
+        return new FabbricaBdd(numeroVariabili);
+    }
+
+    /**
+     * Restituisce il numero di variabili della fabbrica.
+     * @return Numero di variabili.
+     */
+    public int numeroVariabili(){
+        return numeroVariabili;
+    }
+
+    /**
+     * Restituisce il numero di nodi creati dalla fabbrica (compresi i due nodi terminali).
+     * @return Numero di nodi.
+     */
+    public int numeroNodi(){
+        return numeroNodi;
+    }
+
+    /**
+     * Restituisce la variabile di un nodo.
+     * @param nodo Indice del nodo.
+     * @return Variabile del nodo (numeroVariabili() per i nodi terminali).
+     */
+    public int getVariabile(int nodo){
+        return variabile[nodo];
+    }
+
+    /**
+     * Restituisce il figlio di un nodo corrispondente alla variabile falsa.
+     * @param nodo Indice del nodo (non terminale).
+     * @return Figlio basso del nodo.
+     */
+    public int getBasso(int nodo){
+        return basso[nodo];
+    }
+
+    /**
+     * Restituisce il figlio di un nodo corrispondente alla variabile vera.
+     * @param nodo Indice del nodo (non terminale).
+     * @return Figlio alto del nodo.
+     */
+    public int getAlto(int nodo){
+        return alto[nodo];
+    }
+
+    /**
+     * Restituisce il BDD di un letterale.
+     * @param v Variabile.
+     * @param valore Valore della variabile che rende vero il letterale.
+     * @return BDD di v (se valore è TRUE) o di ¬v.
+     */
+    public int letterale(int v, boolean valore){
+        return valore ? nodo(v, FALSO, VERO) : nodo(v, VERO, FALSO);
+    }
+
+    /**
+     * Restituisce il BDD della congiunzione (positiva) delle variabili indicate, usato per la quantificazione esistenziale.
+     * @param variabili Variabili del cubo (in qualunque ordine).
+     * @return BDD del cubo.
+     */
+    public int cubo(int[] variabili){
+        int[] ordinate = variabili.clone();
+        Arrays.sort(ordinate);
+        int risultato = VERO;
+        for(int i = ordinate.length - 1; i >= 0; i--)
+            if(i == ordinate.length - 1 || ordinate[i] != ordinate[i + 1])
+                risultato = nodo(ordinate[i], FALSO, risultato);
+        return risultato;
+    }
+
+    /**
+     * Restituisce la congiunzione di due BDD.
+     * @param a Primo BDD.
+     * @param b Secondo BDD.
+     * @return BDD di a ∧ b.
+     */
+    public int e(int a, int b){
+        if(a == FALSO || b == FALSO)
+            return FALSO;
+        if(a == VERO || a == b)
+            return b;
+        if(b == VERO)
+            return a;
+        if(a > b) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        int c = posizioneCache(OPERAZIONE_E, a, b, 0);
+        if(cacheOperazione[c] == OPERAZIONE_E && cacheA[c] == a && cacheB[c] == b)
+            return cacheRisultato[c];
+        int v = Math.min(variabile[a], variabile[b]);
+        int r = nodo(v, e(cofattore(a, v, false), cofattore(b, v, false)), e(cofattore(a, v, true), cofattore(b, v, true)));
+        salvaCache(c, OPERAZIONE_E, a, b, 0, r);
+        return r;
+    }
+
+    /**
+     * Restituisce la disgiunzione di due BDD.
+     * @param a Primo BDD.
+     * @param b Secondo BDD.
+     * @return BDD di a ∨ b.
+     */
+    public int o(int a, int b){
+        if(a == VERO || b == VERO)
+            return VERO;
+        if(a == FALSO || a == b)
+            return b;
+        if(b == FALSO)
+            return a;
+        if(a > b) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        int c = posizioneCache(OPERAZIONE_O, a, b, 0);
+        if(cacheOperazione[c] == OPERAZIONE_O && cacheA[c] == a && cacheB[c] == b)
+            return cacheRisultato[c];
+        int v = Math.min(variabile[a], variabile[b]);
+        int r = nodo(v, o(cofattore(a, v, false), cofattore(b, v, false)), o(cofattore(a, v, true), cofattore(b, v, true)));
+        salvaCache(c, OPERAZIONE_O, a, b, 0, r);
+        return r;
+    }
+
+    /**
+     * Restituisce la negazione di un BDD.
+     * @param a BDD.
+     * @return BDD di ¬a.
+     */
+    public int non(int a){
+        if(a <= VERO)
+            return 1 - a;
+        int c = posizioneCache(OPERAZIONE_NON, a, 0, 0);
+        if(cacheOperazione[c] == OPERAZIONE_NON && cacheA[c] == a)
+            return cacheRisultato[c];
+        int r = nodo(variabile[a], non(basso[a]), non(alto[a]));
+        salvaCache(c, OPERAZIONE_NON, a, 0, 0, r);
+        return r;
+    }
+
+    /**
+     * Restituisce la quantificazione esistenziale di un BDD sulle variabili di un cubo.
+     * @param a BDD.
+     * @param cubo Cubo delle variabili da quantificare (vedi cubo).
+     * @return BDD di ∃ variabili. a
+     */
+    public int esiste(int a, int cubo){
+        return eEsiste(a, VERO, cubo);
+    }
+
+    /**
+     * Restituisce la quantificazione esistenziale della congiunzione di due BDD (prodotto relazionale), calcolata
+     * senza costruire la congiunzione: è l'operazione alla base del calcolo dell'immagine di un insieme di stati.
+     * @param a Primo BDD.
+     * @param b Secondo BDD.
+     * @param cubo Cubo delle variabili da quantificare (vedi cubo).
+     * @return BDD di ∃ variabili. (a ∧ b)
+     */
+    public int eEsiste(int a, int b, int cubo){
+        if(a == FALSO || b == FALSO)
+            return FALSO;
+        if(a == VERO && b == VERO)
+            return VERO;
+        int v = Math.min(variabile[a], variabile[b]);
+        while(cubo != VERO && variabile[cubo] < v)
+            cubo = alto[cubo];
+        if(cubo == VERO)
+            return e(a, b);
+        if(a > b) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        int c = posizioneCache(OPERAZIONE_E_ESISTE, a, b, cubo);
+        if(cacheOperazione[c] == OPERAZIONE_E_ESISTE && cacheA[c] == a && cacheB[c] == b && cacheC[c] == cubo)
+            return cacheRisultato[c];
+        int r;
+        if(variabile[cubo] == v) {
+            r = eEsiste(cofattore(a, v, false), cofattore(b, v, false), alto[cubo]);
+            if(r != VERO)
+                r = o(r, eEsiste(cofattore(a, v, true), cofattore(b, v, true), alto[cubo]));
+        }
+        else
+            r = nodo(v, eEsiste(cofattore(a, v, false), cofattore(b, v, false), cubo), eEsiste(cofattore(a, v, true), cofattore(b, v, true), cubo));
+        salvaCache(c, OPERAZIONE_E_ESISTE, a, b, cubo, r);
+        return r;
+    }
+
+    /**
+     * Restituisce il BDD ottenuto sostituendo ogni variabile v con la variabile mappa[v].
+     * La sostituzione deve conservare l'ordine delle variabili che compaiono nel BDD (se v precede w nel BDD, mappa[v]
+     * precede mappa[w]); la stessa mappa (lo stesso array) usata più volte condivide i risultati nella cache.
+     * @param a BDD.
+     * @param mappa Nuova variabile di ogni variabile (di lunghezza numeroVariabili(), non va modificata dopo l'uso).
+     * @return BDD con le variabili sostituite.
+     * @throws IllegalArgumentException se la sostituzione non conserva l'ordine delle variabili del BDD.
+     */
+    public int rinomina(int a, int[] mappa){
+        Integer id = rinomine.get(mappa);
+        if(id == null) {
+            id = rinomine.size();
+            rinomine.put(mappa, id);
+        }
+        return rinomina(a, mappa, id);
+    }
+
+    /**
+     * Sostituisce le variabili del BDD con la mappa di identificatore id.
+     */
+    private int rinomina(int a, int[] mappa, int id){
+        if(a <= VERO)
+            return a;
+        int c = posizioneCache(OPERAZIONE_RINOMINA, a, id, 0);
+        if(cacheOperazione[c] == OPERAZIONE_RINOMINA && cacheA[c] == a && cacheB[c] == id)
+            return cacheRisultato[c];
+        int b = rinomina(basso[a], mappa, id);
+        int h = rinomina(alto[a], mappa, id);
+        int v = mappa[variabile[a]];
+        if(v >= variabile[b] || v >= variabile[h])
+            throw new IllegalArgumentException("La sostituzione non conserva l'ordine delle variabili");
+        int r = nodo(v, b, h);
+        salvaCache(c, OPERAZIONE_RINOMINA, a, id, 0, r);
+        return r;
+    }
+
+    /**
+     * Controlla se un assegnamento delle variabili soddisfa il BDD.
+     * @param a BDD.
+     * @param assegnamento Valore di ogni variabile (di lunghezza numeroVariabili()).
+     * @return TRUE se l'assegnamento soddisfa il BDD, FALSE altrimenti.
+     */
+    public boolean valuta(int a, boolean[] assegnamento){
+        while(a > VERO)
+            a = assegnamento[variabile[a]] ? alto[a] : basso[a];
+        return a == VERO;
+    }
+
+    /**
+     * Calcola il numero di assegnamenti di tutte le variabili della fabbrica che soddisfano il BDD.
+     * @param a BDD.
+     * @return Numero di assegnamenti.
+     */
+    public BigInteger numeroSoluzioni(int a){
+        return soluzioni(a, new HashMap<>()).shiftLeft(variabile[a] == numeroVariabili ? numeroVariabili : variabile[a]);
+    }
+
+    /**
+     * Calcola il numero di assegnamenti delle variabili da quella del nodo in poi che soddisfano il BDD.
+     */
+    private BigInteger soluzioni(int a, HashMap<Integer, BigInteger> memo){
+        if(a <= VERO)
+            return BigInteger.valueOf(a);
+        BigInteger risultato = memo.get(a);
+        if(risultato == null) {
+            risultato = soluzioni(basso[a], memo).shiftLeft(variabile[basso[a]] - variabile[a] - 1)
+                    .add(soluzioni(alto[a], memo).shiftLeft(variabile[alto[a]] - variabile[a] - 1));
+            memo.put(a, risultato);
+        }
+        return risultato;
+    }
+
+    /**
+     * Calcola il numero di nodi (non terminali) di un BDD.
+     * @param a BDD.
+     * @return Numero di nodi raggiungibili dalla radice.
+     */
+    public int dimensione(int a){
+        boolean[] visitati = new boolean[numeroNodi];
+        int[] pila = new int[numeroNodi];
+        int cima = 0;
+        int numero = 0;
+        pila[cima++] = a;
+        while(cima > 0){
+            int n = pila[--cima];
+            if(n <= VERO || visitati[n])
+                continue;
+            visitati[n] = true;
+            numero++;
+            pila[cima++] = basso[n];
+            pila[cima++] = alto[n];
+        }
+        return numero;
+    }
+
+    /**
+     * Elimina i nodi non raggiungibili dalle radici indicate, rinumerando i nodi rimasti (nello stesso ordine), e
+     * svuota la cache delle operazioni. Tutti i BDD ancora in uso devono comparire tra le radici: gli altri indici di
+     * nodo non sono più validi dopo la compattazione.
+     * @param radici Radici dei BDD da conservare, sostituite con i nuovi indici.
+     */
+    public void compatta(int[] radici){
+        boolean[] raggiungibili = new boolean[numeroNodi];
+        int[] pila = new int[numeroNodi];
+        int cima = 0;
+        for(int radice : radici)
+            pila[cima++] = radice;
+        while(cima > 0){
+            int n = pila[--cima];
+            if(n <= VERO || raggiungibili[n])
+                continue;
+            raggiungibili[n] = true;
+            pila[cima++] = basso[n];
+            pila[cima++] = alto[n];
+        }
+        //i figli hanno indici minori del padre, per cui sono già rinumerati quando si incontra il padre
+        int[] nuovo = pila;
+        nuovo[FALSO] = FALSO;
+        nuovo[VERO] = VERO;
+        int numero = 2;
+        for(int n = 2; n < numeroNodi; n++){
+            if(!raggiungibili[n])
+                continue;
+            variabile[numero] = variabile[n];
+            basso[numero] = nuovo[basso[n]];
+            alto[numero] = nuovo[alto[n]];
+            nuovo[n] = numero++;
+        }
+        for(int i = 0; i < radici.length; i++)
+            radici[i] = nuovo[radici[i]];
+        numeroNodi = numero;
+        Arrays.fill(tabella, 0);
+        for(int n = 2; n < numeroNodi; n++)
+            inserisci(n);
+        Arrays.fill(cacheOperazione, 0);
+    }
+
+    /**
+     * Restituisce il cofattore di un BDD rispetto a una variabile non successiva alla sua radice.
+     */
+    private int cofattore(int a, int v, boolean valore){
+        if(variabile[a] != v)
+            return a;
+        return valore ? alto[a] : basso[a];
+    }
+
+    /**
+     * Restituisce il nodo con la variabile e i figli indicati, creandolo se non esiste (un nodo con figli uguali è
+     * ridondante e viene sostituito dal figlio).
+     */
+    private int nodo(int v, int b, int h){
+        if(b == h)
+            return b;
+        int maschera = tabella.length - 1;
+        int i = hash(v, b, h) & maschera;
+        for(int n = tabella[i]; n != 0; n = tabella[i]){
+            if(variabile[n] == v && basso[n] == b && alto[n] == h)
+                return n;
+            i = (i + 1) & maschera;
+        }
+        if(numeroNodi == variabile.length) {
+            raddoppia();
+            return nodo(v, b, h);
+        }
+        int n = numeroNodi++;
+        variabile[n] = v;
+        basso[n] = b;
+        alto[n] = h;
+        tabella[i] = n;
+        return n;
+    }
+
+    /**
+     * Inserisce un nodo esistente nella tabella.
+     */
+    private void inserisci(int n){
+        int maschera = tabella.length - 1;
+        int i = hash(variabile[n], basso[n], alto[n]) & maschera;
+        while(tabella[i] != 0)
+            i = (i + 1) & maschera;
+        tabella[i] = n;
+    }
+
+    /**
+     * Raddoppia gli array dei nodi, la tabella e la cache.
+     */
+    private void raddoppia(){
+        if(variabile.length > Integer.MAX_VALUE / 4)
+            throw new IllegalStateException("Troppi nodi nella fabbrica di BDD");
+        int capacita = variabile.length * 2;
+        variabile = Arrays.copyOf(variabile, capacita);
+        basso = Arrays.copyOf(basso, capacita);
+        alto = Arrays.copyOf(alto, capacita);
+        tabella = new int[capacita * 2];
+        for(int n = 2; n < numeroNodi; n++)
+            inserisci(n);
+        creaCache(capacita);
+    }
+
+    /**
+     * Crea una cache vuota delle operazioni con il numero di celle indicato (potenza di 2).
+     */
+    private void creaCache(int celle){
+        cacheOperazione = new int[celle];
+        cacheA = new int[celle];
+        cacheB = new int[celle];
+        cacheC = new int[celle];
+        cacheRisultato = new int[celle];
+    }
+
+    /**
+     * Restituisce la cella della cache di un'operazione.
+     */
+    private int posizioneCache(int operazione, int a, int b, int c){
+        return hash(operazione * 31 + c, a, b) & (cacheOperazione.length - 1);
+    }
+
+    /**
+     * Memorizza il risultato di un'operazione nella cache.
+     */
+    private void salvaCache(int cella, int operazione, int a, int b, int c, int risultato){
+        cacheOperazione[cella] = operazione;
+        cacheA[cella] = a;
+        cacheB[cella] = b;
+        cacheC[cella] = c;
+        cacheRisultato[cella] = risultato;
+    }
+
+    /**
+     * Calcola il valore hash di una terna di interi.
+     */
+    private static int hash(int x, int y, int z){
+        long h = ((long) x << 42) ^ ((long) y << 21) ^ z;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
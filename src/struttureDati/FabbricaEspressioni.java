@@ -0,0 +1,381 @@
+package struttureDati;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+
+/**
+ * Classe che crea espressioni regolari condividendo le sottoespressioni uguali (hash-consing).
+ * Ogni espressione viene cercata in una tabella (per tipo e identificatori degli operandi) prima di essere creata,
+ * per cui costruire più volte la stessa espressione restituisce sempre lo stesso oggetto e la memoria occupata è
+ * proporzionale al numero di sottoespressioni distinte, non alla lunghezza dell'espressione scritta per esteso.
+ * Durante la costruzione vengono applicate le semplificazioni elementari:
+ * - ∅ r = r ∅ = ∅, ε r = r ε = r;
+ * - ∅ | r = r, r | r = r, r | s = s | r e (r | s) | t = r | (s | t) (le alternative sono catene di operandi ordinati e distinti);
+ * - ∅* = ε* = ε, (r*)* = r*, (ε | r)* = r*, ε | r* = r*.
+ * Una fabbrica può essere congelata, dopo di che non crea più espressioni e può essere letta da più thread; una fabbrica
+ * creata a partire da una fabbrica congelata (la base) cerca le espressioni prima nella base e crea solo quelle nuove,
+ * per cui le espressioni della base possono essere usate come operandi senza duplicarle né modificare la base.
+ */
+public class FabbricaEspressioni {
+
+    private static final int MASSIMO_OPERANDI = 8;
+    private static final int CAPACITA_INIZIALE = 1024;
+    private static final double FATTORE_CARICO_MASSIMO = 0.6;
+
+    private final FabbricaEspressioni base;
+    private final EspressioneRegolare vuoto;
+    private final EspressioneRegolare epsilon;
+    private EspressioneRegolare[] tabella;
+    private int[] hashTabella;
+    private final int primoId; //identificatore della prima espressione creata da questa fabbrica
+    private int prossimoId;
+    private volatile boolean congelata;
+
+    /**
+     * Costruttore della classe FabbricaEspressioni.
+     * @param base Fabbrica congelata da estendere (null per una fabbrica vuota).
+     */
+    private FabbricaEspressioni(FabbricaEspressioni base){
+        this.base = base;
+        this.vuoto = base == null ? new EspressioneRegolare(0, EspressioneRegolare.Tipo.VUOTO, -1, null, null) : base.vuoto;
+        this.epsilon = base == null ? new EspressioneRegolare(1, EspressioneRegolare.Tipo.EPSILON, -1, null, null) : base.epsilon;
+        this.tabella = new EspressioneRegolare[CAPACITA_INIZIALE];
+        this.hashTabella = new int[CAPACITA_INIZIALE];
+        this.primoId = base == null ? 2 : base.prossimoId;
+        this.prossimoId = primoId;
+    }
+
+    /**
+     * Permette di creare in modo statico una fabbrica di espressioni vuota.
+     * @return Istanza della classe FabbricaEspressioni.
+     */
+    public static FabbricaEspressioni create(){
+        return new FabbricaEspressioni(null);
+    }
+
+    /**
+     * Permette di creare in modo statico una fabbrica che estende una fabbrica congelata: le espressioni già presenti
+     * nella base vengono restituite senza crearle di nuovo e gli identificatori delle nuove espressioni seguono quelli
+     * della base. La base non viene modificata, per cui più fabbriche (anche in thread diversi) possono estenderla.
+     * @param base Fabbrica congelata.
+     * @return Istanza della classe FabbricaEspressioni.
+     * @throws IllegalArgumentException se la base non è congelata.
+     */
+    public static FabbricaEspressioni create(FabbricaEspressioni base){
+        if(!base.congelata)
+            throw new IllegalArgumentException("La fabbrica da estendere deve essere congelata");
+        return new FabbricaEspressioni(base);
+    }
+
+    /**
+     * Congela la fabbrica: da questo momento le espressioni già create restano valide ma non se ne possono creare di
+     * nuove, per cui la fabbrica può essere letta da più thread ed estesa (vedi create(FabbricaEspressioni)).
+     */
+    public void congela(){
+        congelata = true;
+    }
+
+    /**
+     * Controlla se la fabbrica è congelata.
+     * @return TRUE se la fabbrica non crea più espressioni, FALSE altrimenti.
+     */
+    public boolean isCongelata(){
+        return congelata;
+    }
+
+    /**
+     * Controlla se la fabbrica è la fabbrica indicata o la estende (anche indirettamente), cioè se le espressioni
+     * create dall'altra fabbrica possono essere usate come operandi di questa.
+     * @param altra Fabbrica da cercare tra le basi.
+     * @return TRUE se la fabbrica coincide con l'altra o la estende, FALSE altrimenti.
+     */
+    public boolean estende(FabbricaEspressioni altra){
+        for(FabbricaEspressioni f = this; f != null; f = f.base)
+            if(f == altra)
+                return true;
+        return false;
+    }
+
+    /**
+     * Restituisce l'espressione che denota il linguaggio vuoto.
+     * @return Espressione ∅.
+     */
+    public EspressioneRegolare vuoto(){
+        return vuoto;
+    }
+
+    /**
+     * Restituisce l'espressione che denota la sola stringa vuota.
+     * @return Espressione ε.
+     */
+    public EspressioneRegolare epsilon(){
+        return epsilon;
+    }
+
+    /**
+     * Restituisce l'espressione formata da un solo simbolo.
+     * @param simbolo Indice del simbolo (etichetta); se negativo viene restituita ε.
+     * @return Espressione del simbolo.
+     */
+    public EspressioneRegolare simbolo(int simbolo){
+        if(simbolo < 0)
+            return epsilon;
+        return cercaOInserisci(EspressioneRegolare.Tipo.SIMBOLO, simbolo, null, null);
+    }
+
+    /**
+     * Restituisce la concatenazione di due espressioni.
+     * @param r Prima espressione.
+     * @param s Seconda espressione.
+     * @return Espressione r s.
+     */
+    public EspressioneRegolare concatenazione(EspressioneRegolare r, EspressioneRegolare s){
+        if(r == vuoto || s == vuoto)
+            return vuoto;
+        if(r == epsilon)
+            return s;
+        if(s == epsilon)
+            return r;
+        return cercaOInserisci(EspressioneRegolare.Tipo.CONCATENAZIONE, -1, r, s);
+    }
+
+    /**
+     * Restituisce l'alternativa (unione) di due espressioni.
+     * Le alternative sono mantenute in forma canonica: una catena r1 | (r2 | (... | rk)) con operandi distinti e
+     * ordinati per identificatore, per cui l'unione di due alternative che hanno operandi in comune li condivide.
+     * Oltre MASSIMO_OPERANDI operandi le catene non vengono più fuse, per non rendere quadratico il costo di costruzione.
+     * @param r Prima espressione.
+     * @param s Seconda espressione.
+     * @return Espressione r | s.
+     */
+    public EspressioneRegolare alternativa(EspressioneRegolare r, EspressioneRegolare s){
+        if(r == vuoto || r == s)
+            return s;
+        if(s == vuoto)
+            return r;
+        if(r == epsilon && accettaEpsilon(s))
+            return s;
+        if(s == epsilon && accettaEpsilon(r))
+            return r;
+        ArrayList<EspressioneRegolare> operandi = new ArrayList<>();
+        if(!fondi(r, s, operandi)) {
+            if(r.getId() > s.getId())
+                return alternativaSemplice(s, r);
+            return alternativaSemplice(r, s);
+        }
+        return catena(operandi);
+    }
+
+    /**
+     * Restituisce l'alternativa (unione) di più espressioni, costruita in una sola volta: gli operandi (e gli operandi
+     * delle alternative tra essi) vengono ordinati ed eliminati i duplicati, per cui il costo è proporzionale al numero
+     * totale di operandi invece che al quadrato, come accadrebbe unendoli a due a due.
+     * @param espressioni Espressioni da unire (la lista non viene modificata).
+     * @return Alternativa delle espressioni (∅ se la lista è vuota).
+     */
+    public EspressioneRegolare alternativa(ArrayList<EspressioneRegolare> espressioni){
+        if(espressioni.size() <= 2) {
+            EspressioneRegolare risultato = vuoto;
+            for(EspressioneRegolare espressione : espressioni)
+                risultato = alternativa(risultato, espressione);
+            return risultato;
+        }
+        ArrayList<EspressioneRegolare> operandi = new ArrayList<>();
+        for(EspressioneRegolare espressione : espressioni)
+            for(EspressioneRegolare e = espressione; e != null; e = coda(e))
+                if(testa(e) != vuoto)
+                    operandi.add(testa(e));
+        if(operandi.isEmpty())
+            return vuoto;
+        operandi.sort(Comparator.comparingInt(EspressioneRegolare::getId));
+        int distinti = 0;
+        for(EspressioneRegolare operando : operandi)
+            if(distinti == 0 || operandi.get(distinti - 1) != operando)
+                operandi.set(distinti++, operando);
+        operandi.subList(distinti, operandi.size()).clear();
+        return catena(operandi);
+    }
+
+    /**
+     * Costruisce la catena di alternative di operandi distinti e ordinati, togliendo ε se un altro operando
+     * contiene già la stringa vuota.
+     */
+    private EspressioneRegolare catena(ArrayList<EspressioneRegolare> operandi){
+        if(operandi.size() > 1 && operandi.get(0) == epsilon) {
+            for(EspressioneRegolare operando : operandi) {
+                if(operando != epsilon && accettaEpsilon(operando)) {
+                    operandi.remove(0);
+                    break;
+                }
+            }
+        }
+        EspressioneRegolare risultato = operandi.get(operandi.size() - 1);
+        for(int i = operandi.size() - 2; i >= 0; i--)
+            risultato = alternativaSemplice(operandi.get(i), risultato);
+        return risultato;
+    }
+
+    /**
+     * Fonde gli operandi di due catene di alternative (ordinate per identificatore) eliminando i duplicati.
+     * @return false se gli operandi sono troppi per essere fusi.
+     */
+    private boolean fondi(EspressioneRegolare r, EspressioneRegolare s, ArrayList<EspressioneRegolare> operandi){
+        while(r != null || s != null){
+            if(operandi.size() > MASSIMO_OPERANDI)
+                return false;
+            EspressioneRegolare testaR = testa(r), testaS = testa(s);
+            if(testaS == null || (testaR != null && testaR.getId() < testaS.getId())) {
+                operandi.add(testaR);
+                r = coda(r);
+            }
+            else if(testaR == null || testaS.getId() < testaR.getId()) {
+                operandi.add(testaS);
+                s = coda(s);
+            }
+            else {
+                operandi.add(testaR);
+                r = coda(r);
+                s = coda(s);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Restituisce il primo operando di una catena di alternative (l'espressione stessa se non è un'alternativa).
+     */
+    private static EspressioneRegolare testa(EspressioneRegolare r){
+        if(r == null)
+            return null;
+        return r.getTipo() == EspressioneRegolare.Tipo.ALTERNATIVA ? r.getSinistra() : r;
+    }
+
+    /**
+     * Restituisce il resto di una catena di alternative dopo il primo operando (null se la catena è finita).
+     */
+    private static EspressioneRegolare coda(EspressioneRegolare r){
+        return r.getTipo() == EspressioneRegolare.Tipo.ALTERNATIVA ? r.getDestra() : null;
+    }
+
+    /**
+     * Restituisce il nodo alternativa con i due operandi indicati, senza semplificazioni.
+     */
+    private EspressioneRegolare alternativaSemplice(EspressioneRegolare r, EspressioneRegolare s){
+        return cercaOInserisci(EspressioneRegolare.Tipo.ALTERNATIVA, -1, r, s);
+    }
+
+    /**
+     * Controlla (in modo conservativo) se il linguaggio dell'espressione contiene la stringa vuota.
+     */
+    private boolean accettaEpsilon(EspressioneRegolare r){
+        return r == epsilon || r.getTipo() == EspressioneRegolare.Tipo.STELLA;
+    }
+
+    /**
+     * Restituisce la chiusura di Kleene di un'espressione.
+     * @param r Espressione.
+     * @return Espressione r*.
+     */
+    public EspressioneRegolare stella(EspressioneRegolare r){
+        if(r == vuoto || r == epsilon)
+            return epsilon;
+        if(r.getTipo() == EspressioneRegolare.Tipo.STELLA)
+            return r;
+        //(ε | r)* = r*
+        if(testa(r) == epsilon)
+            return stella(coda(r));
+        return cercaOInserisci(EspressioneRegolare.Tipo.STELLA, -1, r, null);
+    }
+
+    /**
+     * Restituisce il numero di espressioni distinte create dalla fabbrica (comprese quelle della base).
+     * @return Numero di espressioni distinte.
+     */
+    public int numeroEspressioni(){
+        return prossimoId;
+    }
+
+    /**
+     * Cerca nella tabella l'espressione con il tipo e gli operandi indicati, creandola se non esiste.
+     * La tabella è a indirizzamento aperto con scansione lineare e contiene direttamente le espressioni
+     * (senza oggetti chiave); accanto a ogni cella è memorizzato l'hash dell'espressione, per cui durante la scansione
+     * le espressioni vengono lette solo quando l'hash coincide. Se la fabbrica ne estende un'altra, l'espressione viene
+     * cercata prima nella base.
+     * @throws IllegalStateException se l'espressione non esiste e la fabbrica è congelata.
+     */
+    private EspressioneRegolare cercaOInserisci(EspressioneRegolare.Tipo tipo, int simbolo, EspressioneRegolare sinistra, EspressioneRegolare destra){
+        int h = hash(tipo, simbolo, sinistra, destra);
+        if(base != null) {
+            EspressioneRegolare esistente = base.cerca(h, tipo, simbolo, sinistra, destra);
+            if(esistente != null)
+                return esistente;
+        }
+        int maschera = tabella.length - 1;
+        int i = h & maschera;
+        for(EspressioneRegolare e = tabella[i]; e != null; e = tabella[i]){
+            if(hashTabella[i] == h && e.getTipo() == tipo && e.getSimbolo() == simbolo && e.getSinistra() == sinistra && e.getDestra() == destra)
+                return e;
+            i = (i + 1) & maschera;
+        }
+        if(congelata)
+            throw new IllegalStateException("La fabbrica è congelata: non può creare nuove espressioni");
+        EspressioneRegolare espressione = new EspressioneRegolare(prossimoId++, tipo, simbolo, sinistra, destra);
+        tabella[i] = espressione;
+        hashTabella[i] = h;
+        if(prossimoId - primoId > tabella.length * FATTORE_CARICO_MASSIMO)
+            raddoppia();
+        return espressione;
+    }
+
+    /**
+     * Cerca l'espressione nella tabella della fabbrica e delle sue basi, senza crearla.
+     * @return Espressione trovata, null se non esiste.
+     */
+    private EspressioneRegolare cerca(int h, EspressioneRegolare.Tipo tipo, int simbolo, EspressioneRegolare sinistra, EspressioneRegolare destra){
+        if(base != null) {
+            EspressioneRegolare esistente = base.cerca(h, tipo, simbolo, sinistra, destra);
+            if(esistente != null)
+                return esistente;
+        }
+        int maschera = tabella.length - 1;
+        for(int i = h & maschera; tabella[i] != null; i = (i + 1) & maschera){
+            EspressioneRegolare e = tabella[i];
+            if(hashTabella[i] == h && e.getTipo() == tipo && e.getSimbolo() == simbolo && e.getSinistra() == sinistra && e.getDestra() == destra)
+                return e;
+        }
+        return null;
+    }
+
+    /**
+     * Raddoppia la tabella reinserendo tutte le espressioni.
+     */
+    private void raddoppia(){
+        EspressioneRegolare[] vecchia = tabella;
+        int[] vecchiHash = hashTabella;
+        tabella = new EspressioneRegolare[vecchia.length * 2];
+        hashTabella = new int[vecchia.length * 2];
+        int maschera = tabella.length - 1;
+        for(int j = 0; j < vecchia.length; j++){
+            if(vecchia[j] == null)
+                continue;
+            int i = vecchiHash[j] & maschera;
+            while(tabella[i] != null)
+                i = (i + 1) & maschera;
+            tabella[i] = vecchia[j];
+            hashTabella[i] = vecchiHash[j];
+        }
+    }
+
+    /**
+     * Calcola il valore hash di un'espressione a partire dal tipo e dagli identificatori degli operandi.
+     */
+    private static int hash(EspressioneRegolare.Tipo tipo, int simbolo, EspressioneRegolare sinistra, EspressioneRegolare destra){
+        long h = ((long) tipo.ordinal() << 56) ^ ((long) (sinistra == null ? simbolo : sinistra.getId()) << 28) ^ (destra == null ? 0 : destra.getId());
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
@@ -0,0 +1,111 @@
+package struttureDati;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Classe che mappa in memoria array di interi e di long memorizzati in un file (little endian).
+ * Poiché una singola mappatura non può superare i 2 GB, l'array viene diviso in segmenti di ELEMENTI_PER_SEGMENTO
+ * elementi, ognuno mappato separatamente: l'elemento i si trova nel segmento i / ELEMENTI_PER_SEGMENTO, alla posizione
+ * i % ELEMENTI_PER_SEGMENTO. Le mappature restano valide anche dopo la chiusura del file.
+ */
+public class FileMappato {
+
+    /**
+     * Logaritmo in base 2 del numero di elementi di un segmento.
+     */
+    public static final int BIT_SEGMENTO = 27;
+
+    /**
+     * Numero di elementi di ogni segmento (tranne l'ultimo, che può essere più corto).
+     */
+    public static final int ELEMENTI_PER_SEGMENTO = 1 << BIT_SEGMENTO;
+
+    /**
+     * Costruttore privato: la classe espone solo metodi statici.
+     */
+    private FileMappato(){
+    }
+
+    /**
+     * Mappa in sola lettura un array di interi.
+     * @param canale File da mappare.
+     * @param posizione Posizione (in byte) del primo elemento nel file.
+     * @param numeroElementi Numero di elementi dell'array.
+     * @return Segmenti dell'array (almeno uno, eventualmente vuoto).
+     * @throws IOException Se non è possibile mappare il file.
+     */
+    public static IntBuffer[] mappaInteri(FileChannel canale, long posizione, long numeroElementi) throws IOException {
+        IntBuffer[] segmenti = new IntBuffer[numeroSegmenti(numeroElementi)];
+        for(int i = 0; i < segmenti.length; i++){
+            long elementi = Math.min(ELEMENTI_PER_SEGMENTO, numeroElementi - ((long) i << BIT_SEGMENTO));
+            segmenti[i] = canale.map(FileChannel.MapMode.READ_ONLY, posizione + 4 * ((long) i << BIT_SEGMENTO), 4 * elementi).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+        return segmenti;
+    }
+
+    /**
+     * Mappa in sola lettura un array di long.
+     * @param canale File da mappare.
+     * @param posizione Posizione (in byte) del primo elemento nel file.
+     * @param numeroElementi Numero di elementi dell'array.
+     * @return Segmenti dell'array (almeno uno, eventualmente vuoto).
+     * @throws IOException Se non è possibile mappare il file.
+     */
+    public static LongBuffer[] mappaLong(FileChannel canale, long posizione, long numeroElementi) throws IOException {
+        LongBuffer[] segmenti = new LongBuffer[numeroSegmenti(numeroElementi)];
+        for(int i = 0; i < segmenti.length; i++){
+            long elementi = Math.min(ELEMENTI_PER_SEGMENTO, numeroElementi - ((long) i << BIT_SEGMENTO));
+            segmenti[i] = canale.map(FileChannel.MapMode.READ_ONLY, posizione + 8 * ((long) i << BIT_SEGMENTO), 8 * elementi).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        }
+        return segmenti;
+    }
+
+    /**
+     * Restituisce l'elemento di un array di interi mappato.
+     * @param segmenti Segmenti dell'array.
+     * @param i Indice dell'elemento.
+     * @return Elemento di indice i.
+     */
+    public static int get(IntBuffer[] segmenti, long i){
+        return segmenti[(int) (i >>> BIT_SEGMENTO)].get((int) i & (ELEMENTI_PER_SEGMENTO - 1));
+    }
+
+    /**
+     * Restituisce l'elemento di un array di long mappato.
+     * @param segmenti Segmenti dell'array.
+     * @param i Indice dell'elemento.
+     * @return Elemento di indice i.
+     */
+    public static long get(LongBuffer[] segmenti, long i){
+        return segmenti[(int) (i >>> BIT_SEGMENTO)].get((int) i & (ELEMENTI_PER_SEGMENTO - 1));
+    }
+
+    /**
+     * Restituisce il numero di elementi di un array mappato.
+     * @param segmenti Segmenti dell'array.
+     * @return Numero di elementi.
+     */
+    public static long lunghezza(IntBuffer[] segmenti){
+        return ((long) (segmenti.length - 1) << BIT_SEGMENTO) + segmenti[segmenti.length - 1].limit();
+    }
+
+    /**
+     * Restituisce il numero di elementi di un array mappato.
+     * @param segmenti Segmenti dell'array.
+     * @return Numero di elementi.
+     */
+    public static long lunghezza(LongBuffer[] segmenti){
+        return ((long) (segmenti.length - 1) << BIT_SEGMENTO) + segmenti[segmenti.length - 1].limit();
+    }
+
+    /**
+     * Calcola il numero di segmenti necessari per un array (almeno uno).
+     */
+    private static int numeroSegmenti(long numeroElementi){
+        return (int) Math.max(1, (numeroElementi + ELEMENTI_PER_SEGMENTO - 1) >>> BIT_SEGMENTO);
+    }
+}
@@ -0,0 +1,119 @@
+package struttureDati;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Classe rappresentante un indice delle transizioni di un automa.
+ * Le transizioni sono raggruppate per coppia (stato di partenza, evento in ingresso), in modo da poter
+ * trovare in tempo costante tutte le transizioni abilitate da uno stato dato un evento disponibile.
+ * Le transizioni che non richiedono alcun evento in ingresso sono raggruppate in un insieme a parte per ogni stato.
+ * L'indice viene costruito una sola volta (alla creazione dell'automa) e non viene modificato in seguito.
+ */
+public class IndiceTransizioni {
+
+    private HashMap<Long, ArrayList<Transizione>> transizioniConEvento;
+    private HashMap<Integer, ArrayList<Transizione>> transizioniSenzaEvento;
+
+    /**
+     * Costruttore della classe IndiceTransizioni.
+     * @param transizioniConEvento Transizioni raggruppate per coppia (stato di partenza, evento in ingresso).
+     * @param transizioniSenzaEvento Transizioni senza evento in ingresso raggruppate per stato di partenza.
+     */
+    private IndiceTransizioni(HashMap<Long, ArrayList<Transizione>> transizioniConEvento, HashMap<Integer, ArrayList<Transizione>> transizioniSenzaEvento){
+        this.transizioniConEvento = transizioniConEvento;
+        this.transizioniSenzaEvento = transizioniSenzaEvento;
+    }
+
+    /**
+     * Permette di costruire staticamente l'indice di un insieme di transizioni.
+     * L'ordine delle transizioni all'interno di ogni gruppo è quello dell'insieme di partenza.
+     * @param transizioni Insieme di transizioni da indicizzare.
+     * @return Indice delle transizioni.
+     */
+    public static IndiceTransizioni create(ArrayList<Transizione> transizioni){
+        HashMap<Long, ArrayList<Transizione>> conEvento = new HashMap<>();
+        HashMap<Integer, ArrayList<Transizione>> senzaEvento = new HashMap<>();
+        for(Transizione transizione : transizioni){
+            int statoPartenza = transizione.getStatoPartenza().getID();
+            ArrayList<Transizione> gruppo;
+            if(transizione.getEventoIngresso() == null)
+                gruppo = senzaEvento.computeIfAbsent(statoPartenza, k -> new ArrayList<>());
+            else
+                gruppo = conEvento.computeIfAbsent(chiave(statoPartenza, transizione.getEventoIngresso().getId()), k -> new ArrayList<>());
+            gruppo.add(transizione);
+        }
+        return new IndiceTransizioni(conEvento, senzaEvento);
+    }
+
+    /**
+     * Calcola la chiave associata alla coppia (stato, evento).
+     * @param idStato Identificatore dello stato.
+     * @param idEvento Identificatore dell'evento.
+     * @return Chiave della coppia.
+     */
+    private static long chiave(int idStato, int idEvento){
+        return ((long) idStato << 32) | (idEvento & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Restituisce le transizioni uscenti dallo stato indicato che vengono fatte scattare dall'evento indicato.
+     * @param stato Stato di partenza.
+     * @param evento Evento in ingresso.
+     * @return Lista (non modificabile) delle transizioni, eventualmente vuota.
+     */
+    public List<Transizione> getTransizioni(Stato stato, Evento evento){
+        ArrayList<Transizione> gruppo = transizioniConEvento.get(chiave(stato.getID(), evento.getId()));
+        return gruppo == null ? Collections.<Transizione>emptyList() : Collections.unmodifiableList(gruppo);
+    }
+
+    /**
+     * Restituisce le transizioni uscenti dallo stato indicato che non richiedono alcun evento in ingresso.
+     * @param stato Stato di partenza.
+     * @return Lista (non modificabile) delle transizioni, eventualmente vuota.
+     */
+    public List<Transizione> getTransizioniSenzaEvento(Stato stato){
+        ArrayList<Transizione> gruppo = transizioniSenzaEvento.get(stato.getID());
+        return gruppo == null ? Collections.<Transizione>emptyList() : Collections.unmodifiableList(gruppo);
+    }
+
+    /**
+     * Restituisce tutte le transizioni abilitate dallo stato indicato dati gli eventi disponibili.
+     * Sono comprese sia le transizioni senza evento in ingresso, sia quelle il cui evento in ingresso è tra quelli disponibili.
+     * Ogni ramo non deterministico compare una sola volta, anche se lo stesso evento è disponibile più volte.
+     * @param stato Stato di partenza.
+     * @param eventiDisponibili Lista degli eventi disponibili (può essere null).
+     * @return Lista delle transizioni abilitate, eventualmente vuota.
+     */
+    public ArrayList<Transizione> getTransizioniAbilitate(Stato stato, ArrayList<Evento> eventiDisponibili){
+        ArrayList<Transizione> abilitate = new ArrayList<>(getTransizioniSenzaEvento(stato));
+        for(int evento : eventiDistinti(eventiDisponibili)){
+            ArrayList<Transizione> gruppo = transizioniConEvento.get(chiave(stato.getID(), evento));
+            if(gruppo != null)
+                abilitate.addAll(gruppo);
+        }
+        return abilitate;
+    }
+
+    /**
+     * Restituisce gli identificatori degli eventi distinti nell'ordine della prima occorrenza, in tempo lineare nel
+     * numero di eventi disponibili (un evento già considerato non abilita nuove transizioni).
+     * @param eventiDisponibili Lista degli eventi disponibili (può essere null).
+     * @return Identificatori degli eventi distinti.
+     */
+    static int[] eventiDistinti(ArrayList<Evento> eventiDisponibili){
+        if(eventiDisponibili == null)
+            return new int[0];
+        int[] eventi = new int[eventiDisponibili.size()];
+        int numero = 0;
+        HashSet<Integer> considerati = new HashSet<>(eventi.length * 2);
+        for(Evento evento : eventiDisponibili)
+            if(considerati.add(evento.getId()))
+                eventi[numero++] = evento.getId();
+        return numero == eventi.length ? eventi : Arrays.copyOf(eventi, numero);
+    }
+}
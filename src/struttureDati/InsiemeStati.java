@@ -0,0 +1,75 @@
+package struttureDati;
+
+/**
+ * Interfaccia che rappresenta un insieme di stati codificati (array di long di lunghezza fissa) a cui vengono associati
+ * identificatori densi nell'ordine di inserimento (0, 1, 2, ...), come richiesto dalla visita in ampiezza e dallo
+ * spazio comportamentale. Le implementazioni differiscono per la rappresentazione in memoria degli stati: consecutivi
+ * in un'unica arena (InsiemeStatiVisitati) o compressi ad albero con condivisione delle parti comuni
+ * (InsiemeStatiCompressi).
+ */
+public interface InsiemeStati {
+
+    /**
+     * Aggiunge uno stato all'insieme, se non è già presente.
+     * @param stato Stato codificato da aggiungere.
+     * @return Identificatore dello stato se è stato aggiunto, altrimenti -(identificatore + 1) dello stato già presente.
+     */
+    int aggiungi(long[] stato);
+
+    /**
+     * Aggiunge uno stato all'insieme, se non è già presente.
+     * @param parole Array contenente lo stato codificato da aggiungere.
+     * @param inizio Indice della prima parola dello stato nell'array.
+     * @return Identificatore dello stato se è stato aggiunto, altrimenti -(identificatore + 1) dello stato già presente.
+     */
+    int aggiungi(long[] parole, int inizio);
+
+    /**
+     * Cerca uno stato nell'insieme.
+     * @param stato Stato codificato da cercare.
+     * @return Identificatore dello stato, -1 se lo stato non è presente.
+     */
+    int cerca(long[] stato);
+
+    /**
+     * Copia lo stato con l'identificatore indicato nell'array di destinazione.
+     * @param id Identificatore dello stato.
+     * @param destinazione Array di destinazione (di lunghezza almeno pari al numero di parole).
+     */
+    void leggi(int id, long[] destinazione);
+
+    /**
+     * Restituisce il numero di stati contenuti nell'insieme.
+     * @return Numero di stati.
+     */
+    int dimensione();
+
+    /**
+     * Restituisce il numero di parole (long) di ogni stato.
+     * @return Numero di parole.
+     */
+    int numeroParole();
+
+    /**
+     * Restituisce il fattore di carico della tabella hash degli stati.
+     * @return Rapporto tra numero di stati e numero di celle della tabella.
+     */
+    double fattoreCarico();
+
+    /**
+     * Restituisce la memoria occupata dall'insieme (in byte).
+     * @return Memoria occupata in byte.
+     */
+    long byteOccupati();
+
+    /**
+     * Restituisce la memoria occupata in media da ogni stato (in byte).
+     * @return Memoria occupata per stato, 0 se l'insieme è vuoto.
+     */
+    double byteOccupatiPerStato();
+
+    /**
+     * Riduce le strutture interne alla dimensione strettamente necessaria (da usare quando non verranno aggiunti altri stati).
+     */
+    void compatta();
+}
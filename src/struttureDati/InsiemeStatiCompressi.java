@@ -0,0 +1,311 @@
+package struttureDati;
+
+import java.util.Arrays;
+
+/**
+ * Classe rappresentante un insieme di stati globali memorizzati con compressione ad albero (come nei model checker
+ * a stati espliciti).
+ * Ogni stato viene visto come un vettore di metà parole (int), nell'ordine dei campi della codifica: prima gli stati
+ * dei componenti, poi i contenuti dei link (vedi CodificaStatoGlobale). Il vettore viene diviso ricorsivamente in due
+ * fino alle singole metà parole e ogni coppia di sottoalberi viene internata in una tabella di nodi condivisa da tutti
+ * gli stati: combinazioni di stati dei componenti e contenuti dei link che si ripetono in molti stati globali vengono
+ * memorizzate una volta sola, e uno stato si riduce alla coppia dei due sottoalberi della radice (8 byte) più la sua
+ * cella nella tabella hash. Gli stati hanno identificatori densi nell'ordine di inserimento, come in InsiemeStatiVisitati.
+ * Le tabelle sono hash a indirizzamento aperto (scansione lineare) che contengono solo identificatori.
+ */
+public class InsiemeStatiCompressi implements InsiemeStati {
+
+    private static final double FATTORE_CARICO_MASSIMO = 0.6;
+
+    private final int numeroParole;
+    private final int numeroMeta;
+    private long[] radici; //coppia dei sottoalberi della radice di ogni stato
+    private int[] tabella; //identificatori degli stati, -1 se la cella è libera
+    private int maschera;
+    private int dimensione;
+    private long[] nodi; //coppia dei sottoalberi di ogni nodo interno
+    private int[] tabellaNodi; //identificatori dei nodi, -1 se la cella è libera
+    private int mascheraNodi;
+    private int numeroNodi;
+
+    /**
+     * Costruttore della classe InsiemeStatiCompressi.
+     * @param numeroParole Numero di parole (long) di ogni stato.
+     * @param capacita Numero di stati previsto.
+     */
+    private InsiemeStatiCompressi(int numeroParole, int capacita){
+        this.numeroParole = numeroParole;
+        this.numeroMeta = 2 * numeroParole;
+        this.tabella = nuovaTabella(celle(capacita));
+        this.maschera = tabella.length - 1;
+        this.radici = new long[Math.max(capacita, 16)];
+        this.dimensione = 0;
+        this.tabellaNodi = nuovaTabella(celle(capacita));
+        this.mascheraNodi = tabellaNodi.length - 1;
+        this.nodi = new long[Math.max(capacita, 16)];
+        this.numeroNodi = 0;
+    }
+
+    /**
+     * Permette di creare in modo statico un insieme vuoto.
+     * @param numeroParole Numero di parole (long) di ogni stato.
+     * @return Istanza della classe InsiemeStatiCompressi.
+     */
+    public static InsiemeStatiCompressi create(int numeroParole){
+        return new InsiemeStatiCompressi(numeroParole, 1024);
+    }
+
+    /**
+     * Permette di creare in modo statico un insieme vuoto dimensionato per il numero di stati previsto.
+     * @param numeroParole Numero di parole (long) di ogni stato.
+     * @param capacita Numero di stati previsto.
+     * @return Istanza della classe InsiemeStatiCompressi.
+     */
+    public static InsiemeStatiCompressi create(int numeroParole, int capacita){
+        return new InsiemeStatiCompressi(numeroParole, capacita);
+    }
+
+    /**
+     * Aggiunge uno stato all'insieme, se non è già presente.
+     * @param stato Stato codificato da aggiungere.
+     * @return Identificatore dello stato se è stato aggiunto, altrimenti -(identificatore + 1) dello stato già presente.
+     */
+    public int aggiungi(long[] stato){
+        return aggiungi(stato, 0);
+    }
+
+    /**
+     * Aggiunge uno stato all'insieme, se non è già presente.
+     * @param parole Array contenente lo stato codificato da aggiungere.
+     * @param inizio Indice della prima parola dello stato nell'array.
+     * @return Identificatore dello stato se è stato aggiunto, altrimenti -(identificatore + 1) dello stato già presente.
+     */
+    public int aggiungi(long[] parole, int inizio){
+        int meta = numeroMeta >>> 1;
+        long radice = coppia((int) interna(parole, inizio, 0, meta, true), (int) interna(parole, inizio, meta, numeroMeta, true));
+        int cella = mescola(radice) & maschera;
+        while(tabella[cella] >= 0){
+            if(radici[tabella[cella]] == radice)
+                return -tabella[cella] - 1;
+            cella = (cella + 1) & maschera;
+        }
+        int id = dimensione++;
+        if(dimensione > radici.length)
+            radici = Arrays.copyOf(radici, (int) Math.min(Integer.MAX_VALUE - 8, Math.max((long) radici.length * 2, 16)));
+        radici[id] = radice;
+        tabella[cella] = id;
+        if(dimensione > tabella.length * FATTORE_CARICO_MASSIMO)
+            ricostruisciTabella(tabella.length * 2);
+        return id;
+    }
+
+    /**
+     * Cerca uno stato nell'insieme.
+     * @param stato Stato codificato da cercare.
+     * @return Identificatore dello stato, -1 se lo stato non è presente.
+     */
+    public int cerca(long[] stato){
+        int meta = numeroMeta >>> 1;
+        long sinistra = interna(stato, 0, 0, meta, false);
+        long destra = interna(stato, 0, meta, numeroMeta, false);
+        if(sinistra < 0 || destra < 0)
+            return -1;
+        long radice = coppia((int) sinistra, (int) destra);
+        int cella = mescola(radice) & maschera;
+        while(tabella[cella] >= 0){
+            if(radici[tabella[cella]] == radice)
+                return tabella[cella];
+            cella = (cella + 1) & maschera;
+        }
+        return -1;
+    }
+
+    /**
+     * Copia lo stato con l'identificatore indicato nell'array di destinazione.
+     * @param id Identificatore dello stato.
+     * @param destinazione Array di destinazione (di lunghezza almeno pari al numero di parole).
+     */
+    public void leggi(int id, long[] destinazione){
+        Arrays.fill(destinazione, 0, numeroParole, 0L);
+        int meta = numeroMeta >>> 1;
+        long radice = radici[id];
+        espandi((int) (radice >>> 32), 0, meta, destinazione);
+        espandi((int) radice, meta, numeroMeta, destinazione);
+    }
+
+    /**
+     * Restituisce il numero di stati contenuti nell'insieme.
+     * @return Numero di stati.
+     */
+    public int dimensione(){
+        return dimensione;
+    }
+
+    /**
+     * Restituisce il numero di parole (long) di ogni stato.
+     * @return Numero di parole.
+     */
+    public int numeroParole(){
+        return numeroParole;
+    }
+
+    /**
+     * Restituisce il fattore di carico della tabella hash degli stati.
+     * @return Rapporto tra numero di stati e numero di celle della tabella.
+     */
+    public double fattoreCarico(){
+        return (double) dimensione / tabella.length;
+    }
+
+    /**
+     * Restituisce il numero di nodi interni condivisi dagli alberi degli stati.
+     * @return Numero di nodi.
+     */
+    public int numeroNodi(){
+        return numeroNodi;
+    }
+
+    /**
+     * Restituisce la memoria occupata dall'insieme (radici, nodi e tabelle hash, in byte).
+     * @return Memoria occupata in byte.
+     */
+    public long byteOccupati(){
+        return 8L * radici.length + 4L * tabella.length + 8L * nodi.length + 4L * tabellaNodi.length;
+    }
+
+    /**
+     * Restituisce la memoria occupata in media da ogni stato (in byte).
+     * @return Memoria occupata per stato, 0 se l'insieme è vuoto.
+     */
+    public double byteOccupatiPerStato(){
+        return dimensione == 0 ? 0 : (double) byteOccupati() / dimensione;
+    }
+
+    /**
+     * Riduce radici, nodi e tabelle hash alla dimensione strettamente necessaria (da usare quando non verranno aggiunti
+     * altri stati).
+     */
+    public void compatta(){
+        radici = Arrays.copyOf(radici, dimensione);
+        nodi = Arrays.copyOf(nodi, numeroNodi);
+        int celle = celle(dimensione);
+        if(celle < tabella.length)
+            ricostruisciTabella(celle);
+        celle = celle(numeroNodi);
+        if(celle < tabellaNodi.length)
+            ricostruisciTabellaNodi(celle);
+    }
+
+    /**
+     * Restituisce il riferimento al sottoalbero delle metà parole [inizioMeta, fineMeta) dello stato: la metà parola
+     * stessa se il sottoalbero ne contiene una sola, altrimenti l'identificatore del nodo interno (aggiunto se assente
+     * e inserisci è TRUE). Il riferimento è restituito senza segno, -1 se il nodo è assente e non va aggiunto.
+     */
+    private long interna(long[] parole, int inizio, int inizioMeta, int fineMeta, boolean inserisci){
+        if(fineMeta - inizioMeta == 1)
+            return (parole[inizio + (inizioMeta >>> 1)] >>> ((inizioMeta & 1) << 5)) & 0xFFFFFFFFL;
+        int meta = (inizioMeta + fineMeta) >>> 1;
+        long sinistra = interna(parole, inizio, inizioMeta, meta, inserisci);
+        if(sinistra < 0)
+            return -1;
+        long destra = interna(parole, inizio, meta, fineMeta, inserisci);
+        if(destra < 0)
+            return -1;
+        long chiave = coppia((int) sinistra, (int) destra);
+        int cella = mescola(chiave) & mascheraNodi;
+        while(tabellaNodi[cella] >= 0){
+            if(nodi[tabellaNodi[cella]] == chiave)
+                return tabellaNodi[cella];
+            cella = (cella + 1) & mascheraNodi;
+        }
+        if(!inserisci)
+            return -1;
+        int id = numeroNodi++;
+        if(numeroNodi > nodi.length)
+            nodi = Arrays.copyOf(nodi, (int) Math.min(Integer.MAX_VALUE - 8, Math.max((long) nodi.length * 2, 16)));
+        nodi[id] = chiave;
+        tabellaNodi[cella] = id;
+        if(numeroNodi > tabellaNodi.length * FATTORE_CARICO_MASSIMO)
+            ricostruisciTabellaNodi(tabellaNodi.length * 2);
+        return id;
+    }
+
+    /**
+     * Scrive nella destinazione le metà parole [inizioMeta, fineMeta) del sottoalbero indicato dal riferimento.
+     */
+    private void espandi(int riferimento, int inizioMeta, int fineMeta, long[] destinazione){
+        if(fineMeta - inizioMeta == 1) {
+            destinazione[inizioMeta >>> 1] |= (riferimento & 0xFFFFFFFFL) << ((inizioMeta & 1) << 5);
+            return;
+        }
+        int meta = (inizioMeta + fineMeta) >>> 1;
+        long nodo = nodi[riferimento];
+        espandi((int) (nodo >>> 32), inizioMeta, meta, destinazione);
+        espandi((int) nodo, meta, fineMeta, destinazione);
+    }
+
+    /**
+     * Compone in un long la coppia di riferimenti.
+     */
+    private static long coppia(int sinistra, int destra){
+        return ((long) sinistra << 32) | (destra & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Calcola il codice hash di una coppia di riferimenti (mescolamento dei bit come in StatoGlobale.hash).
+     */
+    private static int mescola(long chiave){
+        long h = chiave * 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /**
+     * Restituisce il numero di celle (potenza di 2) di una tabella che deve contenere il numero di elementi indicato.
+     */
+    private static int celle(int elementi){
+        int celle = 16;
+        while(celle * FATTORE_CARICO_MASSIMO < elementi && celle < (1 << 30))
+            celle <<= 1;
+        return celle;
+    }
+
+    /**
+     * Crea una tabella hash vuota con il numero di celle indicato.
+     */
+    private static int[] nuovaTabella(int celle){
+        int[] tabella = new int[celle];
+        Arrays.fill(tabella, -1);
+        return tabella;
+    }
+
+    /**
+     * Ricostruisce la tabella degli stati con il numero di celle indicato (potenza di 2).
+     */
+    private void ricostruisciTabella(int celle){
+        tabella = nuovaTabella(celle);
+        maschera = celle - 1;
+        for(int id = 0; id < dimensione; id++){
+            int cella = mescola(radici[id]) & maschera;
+            while(tabella[cella] >= 0)
+                cella = (cella + 1) & maschera;
+            tabella[cella] = id;
+        }
+    }
+
+    /**
+     * Ricostruisce la tabella dei nodi con il numero di celle indicato (potenza di 2).
+     */
+    private void ricostruisciTabellaNodi(int celle){
+        tabellaNodi = nuovaTabella(celle);
+        mascheraNodi = celle - 1;
+        for(int id = 0; id < numeroNodi; id++){
+            int cella = mescola(nodi[id]) & mascheraNodi;
+            while(tabellaNodi[cella] >= 0)
+                cella = (cella + 1) & mascheraNodi;
+            tabellaNodi[cella] = id;
+        }
+    }
+}
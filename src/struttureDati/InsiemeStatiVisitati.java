@@ -0,0 +1,200 @@
+package struttureDati;
+
+import java.util.Arrays;
+
+/**
+ * Classe rappresentante l'insieme degli stati globali visitati durante un'esplorazione.
+ * Gli stati (array di long di lunghezza fissa) sono memorizzati consecutivamente in un unico array di long (arena)
+ * e ad ognuno viene associato un identificatore denso nell'ordine di inserimento (0, 1, 2, ...).
+ * La ricerca avviene tramite una tabella hash a indirizzamento aperto (scansione lineare) che contiene solo gli
+ * identificatori: non viene allocato alcun oggetto per stato.
+ */
+public class InsiemeStatiVisitati implements InsiemeStati {
+
+    private static final double FATTORE_CARICO_MASSIMO = 0.6;
+
+    private final int numeroParole;
+    private long[] arena;
+    private int[] tabella; //identificatori degli stati, -1 se la cella è libera
+    private int maschera;
+    private int dimensione;
+
+    /**
+     * Costruttore della classe InsiemeStatiVisitati.
+     * @param numeroParole Numero di parole (long) di ogni stato.
+     * @param capacita Numero di stati previsto.
+     */
+    private InsiemeStatiVisitati(int numeroParole, int capacita){
+        this.numeroParole = numeroParole;
+        int celle = 16;
+        while(celle * FATTORE_CARICO_MASSIMO < capacita && celle < (1 << 30))
+            celle <<= 1;
+        this.tabella = new int[celle];
+        Arrays.fill(tabella, -1);
+        this.maschera = celle - 1;
+        this.arena = new long[Math.max(capacita, 16) * numeroParole];
+        this.dimensione = 0;
+    }
+
+    /**
+     * Permette di creare in modo statico un insieme vuoto.
+     * @param numeroParole Numero di parole (long) di ogni stato.
+     * @return Istanza della classe InsiemeStatiVisitati.
+     */
+    public static InsiemeStatiVisitati create(int numeroParole){
+        return new InsiemeStatiVisitati(numeroParole, 1024);
+    }
+
+    /**
+     * Permette di creare in modo statico un insieme vuoto dimensionato per il numero di stati previsto.
+     * @param numeroParole Numero di parole (long) di ogni stato.
+     * @param capacita Numero di stati previsto.
+     * @return Istanza della classe InsiemeStatiVisitati.
+     */
+    public static InsiemeStatiVisitati create(int numeroParole, int capacita){
+        return new InsiemeStatiVisitati(numeroParole, capacita);
+    }
+
+    /**
+     * Aggiunge uno stato all'insieme, se non è già presente.
+     * @param stato Stato codificato da aggiungere.
+     * @return Identificatore dello stato se è stato aggiunto, altrimenti -(identificatore + 1) dello stato già presente.
+     */
+    public int aggiungi(long[] stato){
+        return aggiungi(stato, 0);
+    }
+
+    /**
+     * Aggiunge uno stato all'insieme, se non è già presente.
+     * @param parole Array contenente lo stato codificato da aggiungere.
+     * @param inizio Indice della prima parola dello stato nell'array.
+     * @return Identificatore dello stato se è stato aggiunto, altrimenti -(identificatore + 1) dello stato già presente.
+     */
+    public int aggiungi(long[] parole, int inizio){
+        int cella = StatoGlobale.hash(parole, inizio, numeroParole) & maschera;
+        while(tabella[cella] >= 0){
+            if(uguale(tabella[cella], parole, inizio))
+                return -tabella[cella] - 1;
+            cella = (cella + 1) & maschera;
+        }
+        int id = dimensione++;
+        if((long) dimensione * numeroParole > arena.length)
+            arena = Arrays.copyOf(arena, (int) Math.min(Integer.MAX_VALUE - 8, Math.max((long) arena.length * 2, (long) dimensione * numeroParole)));
+        System.arraycopy(parole, inizio, arena, id * numeroParole, numeroParole);
+        tabella[cella] = id;
+        if(dimensione > tabella.length * FATTORE_CARICO_MASSIMO)
+            ridimensiona();
+        return id;
+    }
+
+    /**
+     * Cerca uno stato nell'insieme.
+     * @param stato Stato codificato da cercare.
+     * @return Identificatore dello stato, -1 se lo stato non è presente.
+     */
+    public int cerca(long[] stato){
+        int cella = StatoGlobale.hash(stato, 0, numeroParole) & maschera;
+        while(tabella[cella] >= 0){
+            if(uguale(tabella[cella], stato, 0))
+                return tabella[cella];
+            cella = (cella + 1) & maschera;
+        }
+        return -1;
+    }
+
+    /**
+     * Copia lo stato con l'identificatore indicato nell'array di destinazione.
+     * @param id Identificatore dello stato.
+     * @param destinazione Array di destinazione (di lunghezza almeno pari al numero di parole).
+     */
+    public void leggi(int id, long[] destinazione){
+        System.arraycopy(arena, id * numeroParole, destinazione, 0, numeroParole);
+    }
+
+    /**
+     * Restituisce il numero di stati contenuti nell'insieme.
+     * @return Numero di stati.
+     */
+    public int dimensione(){
+        return dimensione;
+    }
+
+    /**
+     * Restituisce il numero di parole (long) di ogni stato.
+     * @return Numero di parole.
+     */
+    public int numeroParole(){
+        return numeroParole;
+    }
+
+    /**
+     * Restituisce il fattore di carico della tabella hash.
+     * @return Rapporto tra numero di stati e numero di celle della tabella.
+     */
+    public double fattoreCarico(){
+        return (double) dimensione / tabella.length;
+    }
+
+    /**
+     * Restituisce la memoria occupata dall'insieme (arena e tabella hash, in byte).
+     * @return Memoria occupata in byte.
+     */
+    public long byteOccupati(){
+        return 8L * arena.length + 4L * tabella.length;
+    }
+
+    /**
+     * Restituisce la memoria occupata in media da ogni stato (in byte).
+     * @return Memoria occupata per stato, 0 se l'insieme è vuoto.
+     */
+    public double byteOccupatiPerStato(){
+        return dimensione == 0 ? 0 : (double) byteOccupati() / dimensione;
+    }
+
+    /**
+     * Riduce arena e tabella hash alla dimensione strettamente necessaria (da usare quando non verranno aggiunti altri stati).
+     */
+    public void compatta(){
+        arena = Arrays.copyOf(arena, dimensione * numeroParole);
+        int celle = 16;
+        while(celle * FATTORE_CARICO_MASSIMO < dimensione && celle < (1 << 30))
+            celle <<= 1;
+        if(celle < tabella.length)
+            ricostruisciTabella(celle);
+    }
+
+    /**
+     * Controlla se lo stato con l'identificatore indicato è uguale allo stato passato come parametro.
+     */
+    private boolean uguale(int id, long[] parole, int inizio){
+        int base = id * numeroParole;
+        for(int i = 0; i < numeroParole; i++)
+            if(arena[base + i] != parole[inizio + i])
+                return false;
+        return true;
+    }
+
+    /**
+     * Raddoppia la tabella hash reinserendo gli identificatori di tutti gli stati.
+     */
+    private void ridimensiona(){
+        ricostruisciTabella(tabella.length * 2);
+    }
+
+    /**
+     * Ricostruisce la tabella hash con il numero di celle indicato (potenza di 2) reinserendo gli identificatori di tutti gli stati.
+     */
+    private void ricostruisciTabella(int celle){
+        int[] nuova = new int[celle];
+        Arrays.fill(nuova, -1);
+        int nuovaMaschera = nuova.length - 1;
+        for(int id = 0; id < dimensione; id++){
+            int cella = StatoGlobale.hash(arena, id * numeroParole, numeroParole) & nuovaMaschera;
+            while(nuova[cella] >= 0)
+                cella = (cella + 1) & nuovaMaschera;
+            nuova[cella] = id;
+        }
+        tabella = nuova;
+        maschera = nuovaMaschera;
+    }
+}
@@ -0,0 +1,123 @@
+package struttureDati;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Classe rappresentante un insieme di stati globali visitati utilizzabile contemporaneamente da più thread.
+ * L'insieme è suddiviso in segmenti (lock striping): ogni segmento è un InsiemeStatiVisitati protetto dal proprio lock
+ * e lo stato viene assegnato al segmento in base ai bit alti del suo codice hash, per cui thread che inseriscono stati
+ * diversi raramente competono per lo stesso lock.
+ * Ad ogni stato viene associato un identificatore globale denso nell'ordine (non deterministico) di inserimento.
+ */
+public class InsiemeStatiVisitatiConcorrente {
+
+    private final InsiemeStatiVisitati[] segmenti;
+    private final ListaInteri[] identificatori; //identificatore globale di ogni stato di ogni segmento
+    private final int bitSegmenti;
+    private final int numeroParole;
+    private final AtomicInteger contatore;
+
+    /**
+     * Costruttore della classe InsiemeStatiVisitatiConcorrente.
+     * @param numeroParole Numero di parole (long) di ogni stato.
+     * @param bitSegmenti Logaritmo in base 2 del numero di segmenti.
+     */
+    private InsiemeStatiVisitatiConcorrente(int numeroParole, int bitSegmenti){
+        this.numeroParole = numeroParole;
+        this.bitSegmenti = bitSegmenti;
+        this.segmenti = new InsiemeStatiVisitati[1 << bitSegmenti];
+        this.identificatori = new ListaInteri[1 << bitSegmenti];
+        for(int i = 0; i < segmenti.length; i++){
+            segmenti[i] = InsiemeStatiVisitati.create(numeroParole);
+            identificatori[i] = ListaInteri.create();
+        }
+        this.contatore = new AtomicInteger();
+    }
+
+    /**
+     * Permette di creare in modo statico un insieme vuoto con un numero di segmenti adeguato al numero di thread.
+     * @param numeroParole Numero di parole (long) di ogni stato.
+     * @param numeroThread Numero di thread che useranno l'insieme.
+     * @return Istanza della classe InsiemeStatiVisitatiConcorrente.
+     */
+    public static InsiemeStatiVisitatiConcorrente create(int numeroParole, int numeroThread){
+        int bitSegmenti = 2;
+        while((1 << bitSegmenti) < 4 * numeroThread && bitSegmenti < 12)
+            bitSegmenti++;
+        return new InsiemeStatiVisitatiConcorrente(numeroParole, bitSegmenti);
+    }
+
+    /**
+     * Aggiunge uno stato all'insieme, se non è già presente.
+     * @param stato Stato codificato da aggiungere.
+     * @return Identificatore globale dello stato se è stato aggiunto, altrimenti -(identificatore + 1) dello stato già presente.
+     */
+    public int aggiungi(long[] stato){
+        return aggiungi(stato, 0);
+    }
+
+    /**
+     * Aggiunge uno stato all'insieme, se non è già presente.
+     * @param parole Array contenente lo stato codificato da aggiungere.
+     * @param inizio Indice della prima parola dello stato nell'array.
+     * @return Identificatore globale dello stato se è stato aggiunto, altrimenti -(identificatore + 1) dello stato già presente.
+     */
+    public int aggiungi(long[] parole, int inizio){
+        int segmento = StatoGlobale.hash(parole, inizio, numeroParole) >>> (Integer.SIZE - bitSegmenti);
+        InsiemeStatiVisitati insieme = segmenti[segmento];
+        synchronized (insieme) {
+            int locale = insieme.aggiungi(parole, inizio);
+            if(locale < 0)
+                return -identificatori[segmento].get(-locale - 1) - 1;
+            int id = contatore.getAndIncrement();
+            identificatori[segmento].aggiungi(id);
+            return id;
+        }
+    }
+
+    /**
+     * Restituisce il numero di stati contenuti nell'insieme.
+     * @return Numero di stati.
+     */
+    public int dimensione(){
+        return contatore.get();
+    }
+
+    /**
+     * Copia tutti gli stati nell'array indicato, ognuno nella posizione corrispondente al suo identificatore globale
+     * (lo stato con identificatore i occupa le parole [i * numeroParole, (i + 1) * numeroParole)).
+     * Non deve essere chiamato mentre altri thread aggiungono stati.
+     * @param destinazione Array di destinazione (di lunghezza almeno dimensione() * numeroParole).
+     */
+    public void copiaStati(long[] destinazione){
+        long[] stato = new long[numeroParole];
+        for(int i = 0; i < segmenti.length; i++){
+            for(int locale = 0; locale < segmenti[i].dimensione(); locale++){
+                segmenti[i].leggi(locale, stato);
+                System.arraycopy(stato, 0, destinazione, identificatori[i].get(locale) * numeroParole, numeroParole);
+            }
+        }
+    }
+
+    /**
+     * Restituisce il fattore di carico medio delle tabelle hash dei segmenti.
+     * @return Fattore di carico medio.
+     */
+    public double fattoreCarico(){
+        double totale = 0;
+        for(InsiemeStatiVisitati segmento : segmenti)
+            totale += segmento.fattoreCarico();
+        return totale / segmenti.length;
+    }
+
+    /**
+     * Restituisce la memoria occupata dall'insieme (in byte).
+     * @return Memoria occupata in byte.
+     */
+    public long byteOccupati(){
+        long totale = 0;
+        for(int i = 0; i < segmenti.length; i++)
+            totale += segmenti[i].byteOccupati() + identificatori[i].byteOccupati();
+        return totale;
+    }
+}
@@ -1,4 +1,114 @@
 package struttureDati;
 
+/**
+ * Classe rappresentante un link (canale di comunicazione) tra due automi di una rete.
+ * Il link è un buffer FIFO di capacità limitata: gli eventi in uscita dall'automa sorgente vengono accodati nel link
+ * e l'automa destinazione li consuma (dalla testa) come eventi in ingresso alle proprie transizioni.
+ * Una transizione che dovrebbe accodare un evento in un link pieno non è abilitata.
+ */
 public class Link {
+
+    private String id;
+    private Automa sorgente;
+    private Automa destinazione;
+    private int capacita;
+
+    /**
+     * Costruttore della classe Link.
+     * @param id Identificatore univoco del link.
+     * @param sorgente Automa che scrive gli eventi nel link.
+     * @param destinazione Automa che consuma gli eventi del link.
+     * @param capacita Numero massimo di eventi contenuti nel link (almeno 1).
+     */
+    private Link(String id, Automa sorgente, Automa destinazione, int capacita){
+        this.id = id;
+        this.sorgente = sorgente;
+        this.destinazione = destinazione;
+        this.capacita = capacita;
+    }
+
+    /**
+     * Permette di creare in modo statico un'istanza della classe Link.
+     * @param id Identificatore univoco del link.
+     * @param sorgente Automa che scrive gli eventi nel link.
+     * @param destinazione Automa che consuma gli eventi del link.
+     * @param capacita Numero massimo di eventi contenuti nel link (almeno 1).
+     * @return Istanza della classe Link.
+     */
+    public static Link create(String id, Automa sorgente, Automa destinazione, int capacita){
+        return new Link(id, sorgente, destinazione, capacita);
+    }
+
+    /**
+     * Restituisce l'identificatore univoco del link.
+     * @return Identificatore univoco del link.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Permette di settare l'identificatore univoco del link.
+     * @param id Identificatore univoco del link.
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Restituisce l'automa sorgente del link.
+     * @return Automa che scrive gli eventi nel link.
+     */
+    public Automa getSorgente() {
+        return sorgente;
+    }
+
+    /**
+     * Permette di settare l'automa sorgente del link.
+     * @param sorgente Automa che scrive gli eventi nel link.
+     */
+    public void setSorgente(Automa sorgente) {
+        this.sorgente = sorgente;
+    }
+
+    /**
+     * Restituisce l'automa destinazione del link.
+     * @return Automa che consuma gli eventi del link.
+     */
+    public Automa getDestinazione() {
+        return destinazione;
+    }
+
+    /**
+     * Permette di settare l'automa destinazione del link.
+     * @param destinazione Automa che consuma gli eventi del link.
+     */
+    public void setDestinazione(Automa destinazione) {
+        this.destinazione = destinazione;
+    }
+
+    /**
+     * Restituisce la capacità del link.
+     * @return Numero massimo di eventi contenuti nel link.
+     */
+    public int getCapacita() {
+        return capacita;
+    }
+
+    /**
+     * Permette di settare la capacità del link.
+     * @param capacita Numero massimo di eventi contenuti nel link.
+     */
+    public void setCapacita(int capacita) {
+        this.capacita = capacita;
+    }
+
+    /**
+     * Restituisce una rappresentazione testuale del link.
+     * @return Rappresentazione testuale del link nel formato "id: sorgente -> destinazione (capacita)".
+     */
+    @Override
+    public String toString() {
+        return id + ": " + sorgente + " -> " + destinazione + " (" + capacita + ")";
+    }
 }
@@ -0,0 +1,105 @@
+package struttureDati;
+
+import java.util.Arrays;
+
+/**
+ * Classe rappresentante una lista di interi primitivi a crescita dinamica (senza boxing).
+ */
+public class ListaInteri {
+
+    private int[] elementi;
+    private int dimensione;
+
+    /**
+     * Costruttore della classe ListaInteri.
+     * @param capacita Capacità iniziale della lista.
+     */
+    private ListaInteri(int capacita){
+        this.elementi = new int[Math.max(capacita, 4)];
+        this.dimensione = 0;
+    }
+
+    /**
+     * Permette di creare in modo statico una lista vuota.
+     * @return Istanza della classe ListaInteri.
+     */
+    public static ListaInteri create(){
+        return new ListaInteri(16);
+    }
+
+    /**
+     * Permette di creare in modo statico una lista vuota con la capacità iniziale indicata.
+     * @param capacita Capacità iniziale della lista.
+     * @return Istanza della classe ListaInteri.
+     */
+    public static ListaInteri create(int capacita){
+        return new ListaInteri(capacita);
+    }
+
+    /**
+     * Aggiunge un elemento in fondo alla lista.
+     * @param valore Elemento da aggiungere.
+     */
+    public void aggiungi(int valore){
+        if(dimensione == elementi.length)
+            elementi = Arrays.copyOf(elementi, (int) Math.min(Integer.MAX_VALUE - 8, elementi.length * 2L));
+        elementi[dimensione++] = valore;
+    }
+
+    /**
+     * Restituisce l'elemento nella posizione indicata.
+     * @param i Posizione dell'elemento.
+     * @return Elemento nella posizione indicata.
+     */
+    public int get(int i){
+        return elementi[i];
+    }
+
+    /**
+     * Sostituisce l'elemento nella posizione indicata.
+     * @param i Posizione dell'elemento.
+     * @param valore Nuovo valore dell'elemento.
+     */
+    public void set(int i, int valore){
+        elementi[i] = valore;
+    }
+
+    /**
+     * Restituisce il numero di elementi della lista.
+     * @return Numero di elementi.
+     */
+    public int dimensione(){
+        return dimensione;
+    }
+
+    /**
+     * Rimuove l'ultimo elemento della lista (permette di usarla come pila).
+     * @return Elemento rimosso.
+     */
+    public int rimuoviUltimo(){
+        return elementi[--dimensione];
+    }
+
+    /**
+     * Svuota la lista (la capacità non viene ridotta).
+     */
+    public void svuota(){
+        dimensione = 0;
+    }
+
+    /**
+     * Restituisce un array contenente gli elementi della lista.
+     * @return Array (nuovo) degli elementi.
+     */
+    public int[] toArray(){
+        return Arrays.copyOf(elementi, dimensione);
+    }
+
+    /**
+     * Restituisce la memoria occupata dalla lista (in byte, esclusa l'intestazione dell'oggetto).
+     * @return Memoria occupata in byte.
+     */
+    public long byteOccupati(){
+        return 4L * elementi.length;
+    }
+}
@@ -0,0 +1,284 @@
+package struttureDati;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Classe che raccoglie le metriche dell'esplorazione dello spazio comportamentale e dell'esecuzione degli automi:
+ * stati e transizioni al secondo, dimensione della frontiera, fattore di carico e memoria degli stati visitati,
+ * transizioni bloccate da un link pieno e frequenza delle diramazioni non deterministiche.
+ * I contatori sono LongAdder (contatori distribuiti su più celle), per cui possono essere incrementati da più thread
+ * dell'esplorazione parallela senza contesa; nei cicli più frequenti (espansione degli stati) ogni thread accumula i
+ * conteggi in un Registro locale, che li riversa nei contatori a blocchi, per cui il costo delle metriche resta di pochi
+ * punti percentuali. Le grandezze istantanee (frontiera e stati visitati) vengono aggiornate periodicamente dalla visita.
+ * Le metriche sono leggibili con i metodi get o, dopo registra, come MBean JMX.
+ */
+public class MetricheEsplorazione implements MetricheEsplorazioneMBean {
+
+    private static final int DIMENSIONE_BLOCCO_REGISTRO = 1024; //espansioni accumulate da un registro prima di riversarle
+
+    /**
+     * Classe rappresentante i conteggi accumulati localmente da un thread, riversati nelle metriche ogni
+     * DIMENSIONE_BLOCCO_REGISTRO espansioni e con scarica. Un'istanza non è utilizzabile contemporaneamente da più thread.
+     */
+    public static class Registro {
+        private final MetricheEsplorazione metriche;
+        private long statiEspansi;
+        private long transizioniEsplorate;
+        private long diramazioni;
+        private long blocchiBufferPieno;
+
+        /**
+         * Costruttore della classe Registro.
+         * @param metriche Metriche in cui riversare i conteggi.
+         */
+        private Registro(MetricheEsplorazione metriche){
+            this.metriche = metriche;
+        }
+
+        /**
+         * Registra l'espansione di uno stato.
+         * @param numeroSuccessori Numero di successori (transizioni esplorate) dello stato.
+         * @param diramazione TRUE se nello stato almeno un componente ha più transizioni abilitate.
+         */
+        public void registraEspansione(int numeroSuccessori, boolean diramazione){
+            transizioniEsplorate += numeroSuccessori;
+            if(diramazione)
+                diramazioni++;
+            if(++statiEspansi == DIMENSIONE_BLOCCO_REGISTRO)
+                scarica();
+        }
+
+        /**
+         * Registra una transizione non abilitata perché uno dei link su cui accoda i suoi eventi in uscita è pieno.
+         */
+        public void registraBufferPieno(){
+            blocchiBufferPieno++;
+        }
+
+        /**
+         * Riversa nelle metriche i conteggi accumulati e li azzera.
+         */
+        public void scarica(){
+            metriche.statiEspansi.add(statiEspansi);
+            metriche.transizioniEsplorate.add(transizioniEsplorate);
+            metriche.diramazioni.add(diramazioni);
+            metriche.blocchiBufferPieno.add(blocchiBufferPieno);
+            statiEspansi = 0;
+            transizioniEsplorate = 0;
+            diramazioni = 0;
+            blocchiBufferPieno = 0;
+        }
+    }
+
+    private final LongAdder statiEspansi;
+    private final LongAdder transizioniEsplorate;
+    private final LongAdder diramazioni;
+    private final LongAdder blocchiBufferPieno;
+    private final LongAdder esecuzioniAutomi;
+    private final LongAdder esecuzioniNonDeterministiche;
+    private volatile long inizio;
+    private volatile long dimensioneFrontiera;
+    private volatile long statiVisitati;
+    private volatile double fattoreCarico;
+    private volatile long byteOccupati;
+    private ObjectName nomeRegistrato;
+
+    /**
+     * Costruttore della classe MetricheEsplorazione.
+     */
+    private MetricheEsplorazione(){
+        this.statiEspansi = new LongAdder();
+        this.transizioniEsplorate = new LongAdder();
+        this.diramazioni = new LongAdder();
+        this.blocchiBufferPieno = new LongAdder();
+        this.esecuzioniAutomi = new LongAdder();
+        this.esecuzioniNonDeterministiche = new LongAdder();
+        this.inizio = System.nanoTime();
+    }
+
+    /**
+     * Permette di creare in modo statico un insieme di metriche azzerate.
+     * @return Istanza della classe MetricheEsplorazione.
+     */
+    public static MetricheEsplorazione create(){
+        return new MetricheEsplorazione();
+    }
+
+    /**
+     * Crea un registro in cui un thread può accumulare i conteggi delle espansioni prima di riversarli nelle metriche.
+     * @return Registro vuoto.
+     */
+    public Registro registro(){
+        return new Registro(this);
+    }
+
+    /**
+     * Registra l'esecuzione di un automa.
+     * @param numeroAbilitate Numero di transizioni abilitate tra cui è stata scelta quella eseguita.
+     */
+    public void registraEsecuzione(int numeroAbilitate){
+        esecuzioniAutomi.increment();
+        if(numeroAbilitate > 1)
+            esecuzioniNonDeterministiche.increment();
+    }
+
+    /**
+     * Aggiorna la dimensione della frontiera (stati scoperti e non ancora espansi).
+     * @param dimensioneFrontiera Dimensione della frontiera.
+     */
+    public void aggiornaFrontiera(long dimensioneFrontiera){
+        this.dimensioneFrontiera = dimensioneFrontiera;
+    }
+
+    /**
+     * Aggiorna le grandezze relative agli stati visitati.
+     * @param statiVisitati Numero di stati visitati.
+     * @param fattoreCarico Fattore di carico della tabella hash degli stati visitati.
+     * @param byteOccupati Memoria occupata dagli stati visitati (in byte).
+     */
+    public void aggiornaVisitati(long statiVisitati, double fattoreCarico, long byteOccupati){
+        this.statiVisitati = statiVisitati;
+        this.fattoreCarico = fattoreCarico;
+        this.byteOccupati = byteOccupati;
+    }
+
+    /**
+     * Aggiorna le grandezze relative agli stati visitati leggendole dall'insieme indicato.
+     * @param visitati Insieme degli stati visitati.
+     */
+    public void aggiornaVisitati(InsiemeStati visitati){
+        aggiornaVisitati(visitati.dimensione(), visitati.fattoreCarico(), visitati.byteOccupati());
+    }
+
+    /**
+     * Registra le metriche come MBean nel server JMX della piattaforma, con nome
+     * "struttureDati:type=MetricheEsplorazione,name=nome".
+     * @param nome Nome con cui distinguere le metriche (ad esempio il nome della rete esplorata).
+     * @throws IllegalStateException se le metriche sono già registrate o la registrazione non riesce.
+     */
+    public synchronized void registra(String nome){
+        if(nomeRegistrato != null)
+            throw new IllegalStateException("Le metriche sono già registrate come " + nomeRegistrato);
+        try {
+            ObjectName nomeOggetto = new ObjectName("struttureDati:type=MetricheEsplorazione,name=" + ObjectName.quote(nome));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, nomeOggetto);
+            nomeRegistrato = nomeOggetto;
+        } catch (JMException e) {
+            throw new IllegalStateException("Impossibile registrare le metriche " + nome, e);
+        }
+    }
+
+    /**
+     * Rimuove le metriche dal server JMX della piattaforma, se registrate.
+     */
+    public synchronized void deregistra(){
+        if(nomeRegistrato == null)
+            return;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if(server.isRegistered(nomeRegistrato))
+                server.unregisterMBean(nomeRegistrato);
+        } catch (JMException e) {
+            throw new IllegalStateException("Impossibile rimuovere le metriche " + nomeRegistrato, e);
+        } finally {
+            nomeRegistrato = null;
+        }
+    }
+
+    @Override
+    public long getStatiEspansi() {
+        return statiEspansi.sum();
+    }
+
+    @Override
+    public long getTransizioniEsplorate() {
+        return transizioniEsplorate.sum();
+    }
+
+    @Override
+    public double getStatiAlSecondo() {
+        return alSecondo(statiEspansi.sum());
+    }
+
+    @Override
+    public double getTransizioniAlSecondo() {
+        return alSecondo(transizioniEsplorate.sum());
+    }
+
+    @Override
+    public long getDimensioneFrontiera() {
+        return dimensioneFrontiera;
+    }
+
+    @Override
+    public long getStatiVisitati() {
+        return statiVisitati;
+    }
+
+    @Override
+    public double getFattoreCarico() {
+        return fattoreCarico;
+    }
+
+    @Override
+    public long getByteOccupati() {
+        return byteOccupati;
+    }
+
+    @Override
+    public long getBlocchiBufferPieno() {
+        return blocchiBufferPieno.sum();
+    }
+
+    @Override
+    public double getTassoDiramazione() {
+        long espansi = statiEspansi.sum();
+        return espansi == 0 ? 0 : (double) diramazioni.sum() / espansi;
+    }
+
+    @Override
+    public long getEsecuzioniAutomi() {
+        return esecuzioniAutomi.sum();
+    }
+
+    @Override
+    public double getTassoNonDeterminismo() {
+        long esecuzioni = esecuzioniAutomi.sum();
+        return esecuzioni == 0 ? 0 : (double) esecuzioniNonDeterministiche.sum() / esecuzioni;
+    }
+
+    @Override
+    public void azzera() {
+        statiEspansi.reset();
+        transizioniEsplorate.reset();
+        diramazioni.reset();
+        blocchiBufferPieno.reset();
+        esecuzioniAutomi.reset();
+        esecuzioniNonDeterministiche.reset();
+        dimensioneFrontiera = 0;
+        statiVisitati = 0;
+        fattoreCarico = 0;
+        byteOccupati = 0;
+        inizio = System.nanoTime();
+    }
+
+    /**
+     * Calcola la media al secondo di un contatore dall'inizio dell'esplorazione.
+     */
+    private double alSecondo(long contatore){
+        double secondi = (System.nanoTime() - inizio) / 1e9;
+        return secondi <= 0 ? 0 : contatore / secondi;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("stati %d (%.0f/s), transizioni %d (%.0f/s), frontiera %d, visitati %d (carico %.2f, %d byte), " +
+                        "buffer pieni %d, diramazione %.3f, non determinismo %.3f",
+                getStatiEspansi(), getStatiAlSecondo(), getTransizioniEsplorate(), getTransizioniAlSecondo(), dimensioneFrontiera,
+                statiVisitati, fattoreCarico, byteOccupati, getBlocchiBufferPieno(), getTassoDiramazione(), getTassoNonDeterminismo());
+    }
+}
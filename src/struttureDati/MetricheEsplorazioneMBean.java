@@ -0,0 +1,87 @@
+package struttureDati;
+
+/**
+ * Interfaccia di gestione (MBean standard JMX) delle metriche di esplorazione dello spazio comportamentale
+ * (vedi MetricheEsplorazione), consultabile durante l'esplorazione con JConsole o VisualVM.
+ */
+public interface MetricheEsplorazioneMBean {
+
+    /**
+     * Restituisce il numero di stati espansi dall'inizio dell'esplorazione.
+     * @return Numero di stati espansi.
+     */
+    long getStatiEspansi();
+
+    /**
+     * Restituisce il numero di transizioni (archi dello spazio) esplorate dall'inizio dell'esplorazione.
+     * @return Numero di transizioni esplorate.
+     */
+    long getTransizioniEsplorate();
+
+    /**
+     * Restituisce il numero medio di stati espansi al secondo dall'inizio dell'esplorazione.
+     * @return Stati espansi al secondo.
+     */
+    double getStatiAlSecondo();
+
+    /**
+     * Restituisce il numero medio di transizioni esplorate al secondo dall'inizio dell'esplorazione.
+     * @return Transizioni esplorate al secondo.
+     */
+    double getTransizioniAlSecondo();
+
+    /**
+     * Restituisce il numero di stati scoperti e non ancora espansi (all'ultimo aggiornamento).
+     * @return Dimensione della frontiera.
+     */
+    long getDimensioneFrontiera();
+
+    /**
+     * Restituisce il numero di stati visitati (all'ultimo aggiornamento).
+     * @return Numero di stati visitati.
+     */
+    long getStatiVisitati();
+
+    /**
+     * Restituisce il fattore di carico della tabella hash degli stati visitati (all'ultimo aggiornamento).
+     * @return Fattore di carico, 0 se gli stati visitati non sono in una tabella hash (esplorazione in memoria esterna).
+     */
+    double getFattoreCarico();
+
+    /**
+     * Restituisce la memoria occupata dagli stati visitati (all'ultimo aggiornamento).
+     * @return Memoria occupata in byte, 0 se gli stati visitati sono su disco (esplorazione in memoria esterna).
+     */
+    long getByteOccupati();
+
+    /**
+     * Restituisce il numero di volte in cui una transizione con l'evento in ingresso disponibile non è stata abilitata
+     * perché un link in uscita era pieno.
+     * @return Numero di transizioni bloccate da un buffer pieno.
+     */
+    long getBlocchiBufferPieno();
+
+    /**
+     * Restituisce la frazione degli stati espansi in cui almeno un componente ha più transizioni abilitate
+     * (diramazione non deterministica).
+     * @return Tasso di diramazione, 0 se non è stato espanso alcuno stato.
+     */
+    double getTassoDiramazione();
+
+    /**
+     * Restituisce il numero di esecuzioni di un automa con Automa.esegui.
+     * @return Numero di esecuzioni.
+     */
+    long getEsecuzioniAutomi();
+
+    /**
+     * Restituisce la frazione delle esecuzioni di un automa con più transizioni abilitate tra cui scegliere.
+     * @return Tasso di non determinismo, 0 se non è stata registrata alcuna esecuzione.
+     */
+    double getTassoNonDeterminismo();
+
+    /**
+     * Azzera tutte le metriche e fa ripartire il calcolo delle medie al secondo.
+     */
+    void azzera();
+}
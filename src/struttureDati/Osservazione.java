@@ -0,0 +1,200 @@
+package struttureDati;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * Classe rappresentante un'osservazione di una rete di automi, ovvero un (piccolo) automa i cui archi sono etichettati
+ * con gli indici (nella tabella dei simboli della rete) delle etichette di osservabilità.
+ * Un'osservazione lineare o1 o2 ... on è l'automa con gli stati 0, 1, ..., n in cui lo stato i passa allo stato i+1
+ * con l'etichetta o(i+1) e solo lo stato n è finale. Lo stato iniziale è sempre lo stato 0.
+ * Un insieme di osservazioni lineari può essere rappresentato da un'unica osservazione ad albero dei prefissi (vedi
+ * prefissi), in cui i prefissi comuni corrispondono agli stessi stati.
+ */
+public class Osservazione {
+
+    private final int numeroStati;
+    private final int[] inizioArchi; //archi uscenti dallo stato o: [inizioArchi[o], inizioArchi[o+1])
+    private final int[] etichetta;
+    private final int[] arrivo;
+    private final BitSet finali;
+
+    /**
+     * Costruttore della classe Osservazione.
+     * @param numeroStati Numero di stati dell'osservazione.
+     * @param inizioArchi Indice del primo arco uscente da ogni stato (numeroStati + 1 elementi).
+     * @param etichetta Etichetta di osservabilità di ogni arco.
+     * @param arrivo Stato di arrivo di ogni arco.
+     * @param finali Insieme degli stati finali.
+     */
+    private Osservazione(int numeroStati, int[] inizioArchi, int[] etichetta, int[] arrivo, BitSet finali){
+        this.numeroStati = numeroStati;
+        this.inizioArchi = inizioArchi;
+        this.etichetta = etichetta;
+        this.arrivo = arrivo;
+        this.finali = finali;
+    }
+
+    /**
+     * Permette di creare in modo statico un'osservazione a partire dai suoi archi.
+     * @param numeroStati Numero di stati dell'osservazione (lo stato iniziale è lo stato 0).
+     * @param partenza Stato di partenza di ogni arco.
+     * @param etichetta Indice dell'etichetta di osservabilità di ogni arco.
+     * @param arrivo Stato di arrivo di ogni arco.
+     * @param finali Insieme degli stati finali.
+     * @return Istanza della classe Osservazione.
+     */
+    public static Osservazione create(int numeroStati, int[] partenza, int[] etichetta, int[] arrivo, BitSet finali){
+        int[] inizioArchi = new int[numeroStati + 1];
+        for(int p : partenza)
+            inizioArchi[p + 1]++;
+        for(int o = 0; o < numeroStati; o++)
+            inizioArchi[o + 1] += inizioArchi[o];
+        int[] riempimento = new int[numeroStati];
+        int[] etichettaOrdinata = new int[partenza.length];
+        int[] arrivoOrdinato = new int[partenza.length];
+        for(int i = 0; i < partenza.length; i++){
+            int posizione = inizioArchi[partenza[i]] + riempimento[partenza[i]]++;
+            etichettaOrdinata[posizione] = etichetta[i];
+            arrivoOrdinato[posizione] = arrivo[i];
+        }
+        return new Osservazione(numeroStati, inizioArchi, etichettaOrdinata, arrivoOrdinato, (BitSet) finali.clone());
+    }
+
+    /**
+     * Permette di creare in modo statico un'osservazione lineare.
+     * @param etichette Sequenza degli indici delle etichette di osservabilità osservate.
+     * @return Istanza della classe Osservazione.
+     */
+    public static Osservazione lineare(int[] etichette){
+        int n = etichette.length;
+        int[] partenza = new int[n];
+        int[] arrivo = new int[n];
+        for(int i = 0; i < n; i++){
+            partenza[i] = i;
+            arrivo[i] = i + 1;
+        }
+        BitSet finali = new BitSet();
+        finali.set(n);
+        return create(n + 1, partenza, etichette.clone(), arrivo, finali);
+    }
+
+    /**
+     * Permette di creare in modo statico un'osservazione lineare a partire dalle etichette osservate.
+     * @param simboli Tabella dei simboli della rete osservata.
+     * @param etichette Sequenza delle etichette di osservabilità osservate.
+     * @return Istanza della classe Osservazione.
+     * @throws IllegalArgumentException se un'etichetta non compare nella tabella dei simboli.
+     */
+    public static Osservazione lineare(TabellaSimboli simboli, ArrayList<Etichetta> etichette){
+        int[] indici = new int[etichette.size()];
+        for(int i = 0; i < indici.length; i++){
+            indici[i] = simboli.cercaEtichetta(etichette.get(i));
+            if(indici[i] < 0)
+                throw new IllegalArgumentException("Etichetta " + etichette.get(i) + " non presente nella rete");
+        }
+        return lineare(indici);
+    }
+
+    /**
+     * Permette di creare in modo statico l'albero dei prefissi di un insieme di osservazioni lineari: ogni stato
+     * corrisponde a un prefisso di almeno un'osservazione (lo stato 0 al prefisso vuoto), con un arco verso il prefisso
+     * esteso di un'etichetta, e gli stati finali sono quelli corrispondenti a un'osservazione completa.
+     * L'osservazione ottenuta è deterministica: lo stato in cui termina ciascuna osservazione si ottiene con avanza.
+     * @param osservazioni Sequenze degli indici delle etichette di osservabilità osservate (anche ripetute o vuote).
+     * @return Istanza della classe Osservazione.
+     */
+    public static Osservazione prefissi(int[][] osservazioni){
+        HashMap<Long, Integer> figli = new HashMap<>();
+        ListaInteri partenza = ListaInteri.create();
+        ListaInteri etichetta = ListaInteri.create();
+        ListaInteri arrivo = ListaInteri.create();
+        BitSet finali = new BitSet();
+        int numeroStati = 1;
+        for(int[] osservazione : osservazioni){
+            int o = 0;
+            for(int e : osservazione){
+                long chiave = ((long) o << 32) | (e & 0xFFFFFFFFL);
+                Integer figlio = figli.get(chiave);
+                if(figlio == null) {
+                    figlio = numeroStati++;
+                    figli.put(chiave, figlio);
+                    partenza.aggiungi(o);
+                    etichetta.aggiungi(e);
+                    arrivo.aggiungi(figlio);
+                }
+                o = figlio;
+            }
+            finali.set(o);
+        }
+        return create(numeroStati, partenza.toArray(), etichetta.toArray(), arrivo.toArray(), finali);
+    }
+
+    /**
+     * Restituisce il numero di stati dell'osservazione.
+     * @return Numero di stati.
+     */
+    public int numeroStati(){
+        return numeroStati;
+    }
+
+    /**
+     * Restituisce l'indice del primo arco uscente dallo stato.
+     * @param o Indice dello stato.
+     * @return Indice del primo arco uscente.
+     */
+    public int inizioArchi(int o){
+        return inizioArchi[o];
+    }
+
+    /**
+     * Restituisce l'indice successivo all'ultimo arco uscente dallo stato.
+     * @param o Indice dello stato.
+     * @return Indice successivo all'ultimo arco uscente.
+     */
+    public int fineArchi(int o){
+        return inizioArchi[o + 1];
+    }
+
+    /**
+     * Restituisce l'indice dell'etichetta di osservabilità dell'arco.
+     * @param i Indice dell'arco.
+     * @return Indice dell'etichetta.
+     */
+    public int getEtichetta(int i){
+        return etichetta[i];
+    }
+
+    /**
+     * Restituisce lo stato di arrivo dell'arco.
+     * @param i Indice dell'arco.
+     * @return Indice dello stato di arrivo.
+     */
+    public int getArrivo(int i){
+        return arrivo[i];
+    }
+
+    /**
+     * Restituisce lo stato raggiunto dallo stato indicato con il primo arco etichettato con l'etichetta indicata
+     * (l'unico se l'osservazione è deterministica, come quelle lineari e gli alberi dei prefissi).
+     * @param o Indice dello stato di partenza.
+     * @param etichetta Indice dell'etichetta di osservabilità.
+     * @return Indice dello stato di arrivo, -1 se dallo stato non esce alcun arco con l'etichetta.
+     */
+    public int avanza(int o, int etichetta){
+        for(int i = inizioArchi[o]; i < inizioArchi[o + 1]; i++)
+            if(this.etichetta[i] == etichetta)
+                return arrivo[i];
+        return -1;
+    }
+
+    /**
+     * Controlla se lo stato è finale.
+     * @param o Indice dello stato.
+     * @return TRUE se lo stato è finale, FALSE altrimenti.
+     */
+    public boolean isFinale(int o){
+        return finali.get(o);
+    }
+}
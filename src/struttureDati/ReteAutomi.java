@@ -1,4 +1,193 @@
 package struttureDati;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+
+/**
+ * Classe rappresentante una rete di automi comunicanti.
+ * Gli automi si scambiano eventi tramite link (buffer FIFO di capacità limitata):
+ * - un evento in uscita da una transizione dell'automa A viene accodato nell'unico link uscente da A
+ *   il cui automa destinazione ha almeno una transizione con quell'evento in ingresso;
+ * - una transizione dell'automa B con evento in ingresso e è abilitata solo se e si trova in testa all'unico link
+ *   entrante in B il cui automa sorgente emette e.
+ * Lo stato globale della rete è formato dallo stato corrente di ogni automa e dal contenuto di ogni link.
+ */
 public class ReteAutomi {
+
+    private int id;
+    private String nome;
+    private ArrayList<Automa> automi;
+    private ArrayList<Link> link;
+    private IdentityHashMap<Automa, HashMap<Evento, Link>> instradamentoUscita;
+    private IdentityHashMap<Automa, HashMap<Evento, Link>> instradamentoIngresso;
+
+    /**
+     * Costruttore della classe ReteAutomi.
+     * @param id Identificatore univoco della rete.
+     * @param nome Nome univoco della rete.
+     * @param automi Insieme degli automi della rete.
+     * @param link Insieme dei link della rete.
+     */
+    private ReteAutomi(int id, String nome, ArrayList<Automa> automi, ArrayList<Link> link){
+        this.id = id;
+        this.nome = nome;
+        this.automi = automi;
+        this.link = link;
+        this.instradamentoUscita = new IdentityHashMap<>();
+        this.instradamentoIngresso = new IdentityHashMap<>();
+    }
+
+    /**
+     * Permette di costruire staticamente un'istanza della classe ReteAutomi.
+     * Nel fare ciò controlla che gli automi e i link formino una rete valida.
+     * @param id Identificatore univoco della rete.
+     * @param nome Nome univoco della rete.
+     * @param automi Insieme degli automi della rete (non possono esserci automi ripetuti).
+     * @param link Insieme dei link della rete (non possono esserci link ripetuti).
+     * @return Istanza di una rete valida oppure null (se la rete non è valida).
+     */
+    public static ReteAutomi create(int id, String nome, ArrayList<Automa> automi, ArrayList<Link> link){
+        ReteAutomi rete = new ReteAutomi(id, nome, automi, link);
+        RisultatoValidazione risultato = rete.costruisciInstradamento();
+        if(risultato.isValido())
+            return rete;
+        else{
+            System.out.println("Rete di automi non corretta");
+            System.out.print(risultato);
+            return null;
+        }
+    }
+
+    /**
+     * Controlla la validità della rete e costruisce le tabelle di instradamento degli eventi:
+     * - non ci sono automi o link ripetuti;
+     * - ogni link collega due automi della rete e ha capacità almeno 1;
+     * - ogni evento in uscita e in ingresso alle transizioni degli automi è instradato su uno e un solo link.
+     * @return Risultato della validazione con l'elenco di tutte le violazioni riscontrate.
+     */
+    private RisultatoValidazione costruisciInstradamento(){
+        RisultatoValidazione risultato = RisultatoValidazione.create();
+        IdentityHashMap<Automa, HashSet<Evento>> emessi = new IdentityHashMap<>();
+        IdentityHashMap<Automa, HashSet<Evento>> consumati = new IdentityHashMap<>();
+        HashSet<Integer> idAutomi = new HashSet<>();
+        for(Automa automa : automi){
+            if(emessi.containsKey(automa) || !idAutomi.add(automa.getId())) {
+                risultato.aggiungi(Violazione.Tipo.AUTOMA_DUPLICATO, automa, "automa " + automa + " ripetuto (id " + automa.getId() + ")");
+                continue;
+            }
+            HashSet<Evento> uscita = new HashSet<>();
+            HashSet<Evento> ingresso = new HashSet<>();
+            for(Transizione transizione : automa.getTransizioni()){
+                if(transizione.getEventoIngresso() != null)
+                    ingresso.add(transizione.getEventoIngresso());
+                if(transizione.getEventiUscita() != null)
+                    uscita.addAll(transizione.getEventiUscita());
+            }
+            emessi.put(automa, uscita);
+            consumati.put(automa, ingresso);
+            instradamentoUscita.put(automa, new HashMap<>());
+            instradamentoIngresso.put(automa, new HashMap<>());
+        }
+
+        HashSet<String> idLink = new HashSet<>();
+        for(Link l : link){
+            if(!idLink.add(l.getId())) {
+                risultato.aggiungi(Violazione.Tipo.LINK_DUPLICATO, l, "link " + l.getId() + " ripetuto");
+                continue;
+            }
+            if(!emessi.containsKey(l.getSorgente()) || !emessi.containsKey(l.getDestinazione()) || l.getCapacita() < 1) {
+                risultato.aggiungi(Violazione.Tipo.LINK_NON_VALIDO, l, "il link " + l + " non collega automi della rete o ha capacità nulla");
+                continue;
+            }
+            //il link trasporta gli eventi emessi dalla sorgente e consumati dalla destinazione
+            for(Evento evento : emessi.get(l.getSorgente())){
+                if(!consumati.get(l.getDestinazione()).contains(evento))
+                    continue;
+                Link precedente = instradamentoUscita.get(l.getSorgente()).put(evento, l);
+                if(precedente != null)
+                    risultato.aggiungi(Violazione.Tipo.INSTRADAMENTO_AMBIGUO, l, "l'evento " + evento + " emesso da " + l.getSorgente() + " può essere accodato sia in " + precedente.getId() + " sia in " + l.getId());
+                precedente = instradamentoIngresso.get(l.getDestinazione()).put(evento, l);
+                if(precedente != null)
+                    risultato.aggiungi(Violazione.Tipo.INSTRADAMENTO_AMBIGUO, l, "l'evento " + evento + " consumato da " + l.getDestinazione() + " può provenire sia da " + precedente.getId() + " sia da " + l.getId());
+            }
+        }
+
+        //controllo che ogni evento abbia un link su cui viaggiare
+        for(Automa automa : automi){
+            if(emessi.get(automa) == null)
+                continue;
+            for(Evento evento : emessi.get(automa))
+                if(!instradamentoUscita.get(automa).containsKey(evento))
+                    risultato.aggiungi(Violazione.Tipo.EVENTO_NON_INSTRADATO, automa, "l'evento " + evento + " emesso da " + automa + " non è consumato da alcun automa collegato");
+            for(Evento evento : consumati.get(automa))
+                if(!instradamentoIngresso.get(automa).containsKey(evento))
+                    risultato.aggiungi(Violazione.Tipo.EVENTO_NON_INSTRADATO, automa, "l'evento " + evento + " consumato da " + automa + " non è emesso da alcun automa collegato");
+        }
+        return risultato;
+    }
+
+    /**
+     * Restituisce il link su cui viene accodato l'evento emesso dall'automa indicato.
+     * @param automa Automa che emette l'evento.
+     * @param evento Evento emesso.
+     * @return Link su cui viene accodato l'evento, null se non esiste.
+     */
+    public Link getLinkUscita(Automa automa, Evento evento){
+        HashMap<Evento, Link> instradamento = instradamentoUscita.get(automa);
+        return instradamento == null ? null : instradamento.get(evento);
+    }
+
+    /**
+     * Restituisce il link da cui l'automa indicato consuma l'evento.
+     * @param automa Automa che consuma l'evento.
+     * @param evento Evento consumato.
+     * @return Link da cui viene consumato l'evento, null se non esiste.
+     */
+    public Link getLinkIngresso(Automa automa, Evento evento){
+        HashMap<Evento, Link> instradamento = instradamentoIngresso.get(automa);
+        return instradamento == null ? null : instradamento.get(evento);
+    }
+
+    /**
+     * Restituisce l'identificatore univoco della rete.
+     * @return Identificatore univoco della rete.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Restituisce il nome univoco della rete.
+     * @return Nome univoco della rete.
+     */
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * Restituisce l'insieme degli automi della rete.
+     * @return Insieme degli automi della rete.
+     */
+    public ArrayList<Automa> getAutomi() {
+        return automi;
+    }
+
+    /**
+     * Restituisce l'insieme dei link della rete.
+     * @return Insieme dei link della rete.
+     */
+    public ArrayList<Link> getLink() {
+        return link;
+    }
+
+    /**
+     * Restituisce una rappresentazione testuale della rete.
+     * @return Rappresentazione testuale della rete (nome).
+     */
+    @Override
+    public String toString() {
+        return nome;
+    }
 }
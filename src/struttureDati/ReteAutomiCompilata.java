@@ -0,0 +1,623 @@
+package struttureDati;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+/**
+ * Classe rappresentante la forma compilata (immutabile) di una rete di automi, usata per calcolare gli stati globali.
+ * Gli automi della rete (componenti) sono compilati con una tabella dei simboli condivisa. Le transizioni di tutti
+ * i componenti sono numerate globalmente (prima quelle del componente 0, poi quelle del componente 1, ...) e per
+ * ognuna sono precalcolati il link da cui consuma l'evento in ingresso e i link su cui accoda gli eventi in uscita.
+ * Uno stato globale è codificato in un array di long (vedi CodificaStatoGlobale) con i campi:
+ * - stato corrente di ogni componente;
+ * - per ogni link: numero di eventi contenuti e un campo per ogni posizione del buffer (0 = vuoto, altrimenti il codice
+ *   locale dell'evento nel link); la testa del buffer è la posizione 0.
+ */
+public class ReteAutomiCompilata {
+
+    private final ReteAutomi rete;
+    private final TabellaSimboli simboli;
+    private final AutomaCompilato[] componenti;
+    private final Link[] link;
+    private final int[] primaTransizione; //transizioni del componente c: [primaTransizione[c], primaTransizione[c+1])
+    private final int[] componente;
+    private final int[] linkIngresso;
+    private final int[] inizioUscita; //allineato agli eventi in uscita della transizione locale
+    private final int[] linkUscita;
+    private final int[] inizioRichieste; //link distinti su cui scrive la transizione e numero di eventi accodati
+    private final int[] richiestaLink;
+    private final int[] richiestaQuantita;
+    private final int[][] linkIngressoComponente;
+    private final int[] capacita;
+    private final int[] sorgenteLink;
+    private final int[] destinazioneLink;
+    private final int[][] codiciEventi; //codice locale (1..k) di ogni evento in un link, 0 se il link non lo trasporta
+    private final int[][] eventiLink; //evento associato al codice locale (codice - 1)
+    private final CodificaStatoGlobale codifica;
+    private final int[] campoLunghezza;
+    private final int[] campoPrimaPosizione;
+    private final long[] statoIniziale;
+    private final int massimoTransizioniAbilitate;
+
+    /**
+     * Costruttore della classe ReteAutomiCompilata.
+     */
+    private ReteAutomiCompilata(ReteAutomi rete, TabellaSimboli simboli, AutomaCompilato[] componenti, Link[] link, int[] primaTransizione,
+                                int[] componente, int[] linkIngresso, int[] inizioUscita, int[] linkUscita, int[] inizioRichieste,
+                                int[] richiestaLink, int[] richiestaQuantita, int[][] linkIngressoComponente, int[] capacita,
+                                int[] sorgenteLink, int[] destinazioneLink,
+                                int[][] codiciEventi, int[][] eventiLink, CodificaStatoGlobale codifica, int[] campoLunghezza,
+                                int[] campoPrimaPosizione, long[] statoIniziale, int massimoTransizioniAbilitate){
+        this.rete = rete;
+        this.simboli = simboli;
+        this.componenti = componenti;
+        this.link = link;
+        this.primaTransizione = primaTransizione;
+        this.componente = componente;
+        this.linkIngresso = linkIngresso;
+        this.inizioUscita = inizioUscita;
+        this.linkUscita = linkUscita;
+        this.inizioRichieste = inizioRichieste;
+        this.richiestaLink = richiestaLink;
+        this.richiestaQuantita = richiestaQuantita;
+        this.linkIngressoComponente = linkIngressoComponente;
+        this.capacita = capacita;
+        this.sorgenteLink = sorgenteLink;
+        this.destinazioneLink = destinazioneLink;
+        this.codiciEventi = codiciEventi;
+        this.eventiLink = eventiLink;
+        this.codifica = codifica;
+        this.campoLunghezza = campoLunghezza;
+        this.campoPrimaPosizione = campoPrimaPosizione;
+        this.statoIniziale = statoIniziale;
+        this.massimoTransizioniAbilitate = massimoTransizioniAbilitate;
+    }
+
+    /**
+     * Compila una rete di automi (valida). Lo stato iniziale della rete compilata è formato dagli stati correnti
+     * degli automi e da tutti i link vuoti.
+     * @param rete Rete di automi da compilare.
+     * @return Forma compilata della rete.
+     */
+    public static ReteAutomiCompilata compila(ReteAutomi rete){
+        TabellaSimboli simboli = TabellaSimboli.create();
+        int numeroComponenti = rete.getAutomi().size();
+        AutomaCompilato[] componenti = new AutomaCompilato[numeroComponenti];
+        IdentityHashMap<Automa, Integer> indiciComponenti = new IdentityHashMap<>();
+        int[] primaTransizione = new int[numeroComponenti + 1];
+        for(int c = 0; c < numeroComponenti; c++){
+            componenti[c] = AutomaCompilato.compila(rete.getAutomi().get(c), simboli);
+            indiciComponenti.put(rete.getAutomi().get(c), c);
+            primaTransizione[c + 1] = primaTransizione[c] + componenti[c].numeroTransizioni();
+        }
+        Link[] link = rete.getLink().toArray(new Link[0]);
+        IdentityHashMap<Link, Integer> indiciLink = new IdentityHashMap<>();
+        for(int l = 0; l < link.length; l++)
+            indiciLink.put(link[l], l);
+
+        //instradamento degli eventi di ogni transizione e codici locali degli eventi trasportati da ogni link
+        int numeroTransizioni = primaTransizione[numeroComponenti];
+        int[] componente = new int[numeroTransizioni];
+        int[] linkIngresso = new int[numeroTransizioni];
+        int[] inizioUscita = new int[numeroTransizioni + 1];
+        int[] inizioRichieste = new int[numeroTransizioni + 1];
+        ArrayList<Integer> linkUscita = new ArrayList<>();
+        ArrayList<Integer> richiestaLink = new ArrayList<>();
+        ArrayList<Integer> richiestaQuantita = new ArrayList<>();
+        ArrayList<ArrayList<Integer>> eventiTrasportati = new ArrayList<>();
+        for(int l = 0; l < link.length; l++)
+            eventiTrasportati.add(new ArrayList<>());
+        int[] massimoUscenti = new int[numeroComponenti];
+        for(int c = 0; c < numeroComponenti; c++){
+            Automa automa = rete.getAutomi().get(c);
+            AutomaCompilato compilato = componenti[c];
+            for(int s = 0; s < compilato.numeroStati(); s++)
+                massimoUscenti[c] = Math.max(massimoUscenti[c], compilato.fineTransizioni(s) - compilato.inizioTransizioni(s));
+            for(int t = 0; t < compilato.numeroTransizioni(); t++){
+                int g = primaTransizione[c] + t;
+                Transizione transizione = compilato.getTransizione(t);
+                componente[g] = c;
+                linkIngresso[g] = -1;
+                if(transizione.getEventoIngresso() != null) {
+                    int l = indiciLink.get(rete.getLinkIngresso(automa, transizione.getEventoIngresso()));
+                    linkIngresso[g] = l;
+                    aggiungiEvento(eventiTrasportati.get(l), compilato.getIngresso(t));
+                }
+                inizioUscita[g] = linkUscita.size();
+                inizioRichieste[g] = richiestaLink.size();
+                for(int k = 0; k < compilato.numeroEventiUscita(t); k++){
+                    int l = indiciLink.get(rete.getLinkUscita(automa, transizione.getEventiUscita().get(k)));
+                    linkUscita.add(l);
+                    aggiungiEvento(eventiTrasportati.get(l), compilato.getEventoUscita(t, k));
+                    int r = richiestaLink.subList(inizioRichieste[g], richiestaLink.size()).indexOf(l);
+                    if(r < 0) {
+                        richiestaLink.add(l);
+                        richiestaQuantita.add(1);
+                    }
+                    else
+                        richiestaQuantita.set(inizioRichieste[g] + r, richiestaQuantita.get(inizioRichieste[g] + r) + 1);
+                }
+            }
+        }
+        inizioUscita[numeroTransizioni] = linkUscita.size();
+        inizioRichieste[numeroTransizioni] = richiestaLink.size();
+
+        int[][] linkIngressoComponente = new int[numeroComponenti][];
+        int[] capacita = new int[link.length];
+        int[] sorgenteLink = new int[link.length];
+        int[] destinazioneLink = new int[link.length];
+        int[][] codiciEventi = new int[link.length][simboli.numeroEventi()];
+        int[][] eventiLink = new int[link.length][];
+        ArrayList<ArrayList<Integer>> ingressi = new ArrayList<>();
+        for(int c = 0; c < numeroComponenti; c++)
+            ingressi.add(new ArrayList<>());
+        for(int l = 0; l < link.length; l++){
+            capacita[l] = link[l].getCapacita();
+            sorgenteLink[l] = indiciComponenti.get(link[l].getSorgente());
+            destinazioneLink[l] = indiciComponenti.get(link[l].getDestinazione());
+            eventiLink[l] = aInt(eventiTrasportati.get(l));
+            for(int k = 0; k < eventiLink[l].length; k++)
+                codiciEventi[l][eventiLink[l][k]] = k + 1;
+            ingressi.get(destinazioneLink[l]).add(l);
+        }
+        for(int c = 0; c < numeroComponenti; c++)
+            linkIngressoComponente[c] = aInt(ingressi.get(c));
+
+        //campi della codifica: stati dei componenti, poi lunghezza e posizioni di ogni link
+        ArrayList<Integer> larghezze = new ArrayList<>();
+        for(int c = 0; c < numeroComponenti; c++)
+            larghezze.add(CodificaStatoGlobale.bitNecessari(Math.max(componenti[c].numeroStati() - 1, 0)));
+        int[] campoLunghezza = new int[link.length];
+        int[] campoPrimaPosizione = new int[link.length];
+        for(int l = 0; l < link.length; l++){
+            campoLunghezza[l] = larghezze.size();
+            larghezze.add(CodificaStatoGlobale.bitNecessari(capacita[l]));
+            campoPrimaPosizione[l] = larghezze.size();
+            for(int k = 0; k < capacita[l]; k++)
+                larghezze.add(CodificaStatoGlobale.bitNecessari(eventiLink[l].length));
+        }
+        CodificaStatoGlobale codifica = CodificaStatoGlobale.create(aInt(larghezze));
+        long[] statoIniziale = new long[codifica.numeroParole()];
+        int massimoTransizioniAbilitate = 0;
+        for(int c = 0; c < numeroComponenti; c++){
+            codifica.set(statoIniziale, c, componenti[c].getStatoIniziale());
+            massimoTransizioniAbilitate += massimoUscenti[c];
+        }
+
+        return new ReteAutomiCompilata(rete, simboli, componenti, link, primaTransizione, componente, linkIngresso, inizioUscita,
+                aInt(linkUscita), inizioRichieste, aInt(richiestaLink), aInt(richiestaQuantita), linkIngressoComponente, capacita,
+                sorgenteLink, destinazioneLink, codiciEventi, eventiLink, codifica, campoLunghezza, campoPrimaPosizione, statoIniziale, massimoTransizioniAbilitate);
+    }
+
+    /**
+     * Aggiunge un evento alla lista se non è già presente.
+     */
+    private static void aggiungiEvento(ArrayList<Integer> eventi, int evento){
+        if(!eventi.contains(evento))
+            eventi.add(evento);
+    }
+
+    /**
+     * Converte una lista di interi in un array.
+     */
+    private static int[] aInt(ArrayList<Integer> lista){
+        int[] array = new int[lista.size()];
+        for(int i = 0; i < array.length; i++)
+            array[i] = lista.get(i);
+        return array;
+    }
+
+    /**
+     * Restituisce la rete di automi compilata.
+     * @return Rete di automi.
+     */
+    public ReteAutomi getRete() {
+        return rete;
+    }
+
+    /**
+     * Restituisce la tabella dei simboli condivisa dai componenti.
+     * @return Tabella dei simboli.
+     */
+    public TabellaSimboli getSimboli() {
+        return simboli;
+    }
+
+    /**
+     * Restituisce la codifica degli stati globali.
+     * @return Codifica degli stati globali.
+     */
+    public CodificaStatoGlobale getCodifica() {
+        return codifica;
+    }
+
+    /**
+     * Restituisce il numero di componenti (automi) della rete.
+     * @return Numero di componenti.
+     */
+    public int numeroComponenti(){
+        return componenti.length;
+    }
+
+    /**
+     * Restituisce la forma compilata del componente indicato.
+     * @param c Indice del componente.
+     * @return Componente compilato.
+     */
+    public AutomaCompilato getComponente(int c){
+        return componenti[c];
+    }
+
+    /**
+     * Restituisce il numero di link della rete.
+     * @return Numero di link.
+     */
+    public int numeroLink(){
+        return link.length;
+    }
+
+    /**
+     * Restituisce il link indicato.
+     * @param l Indice del link.
+     * @return Link.
+     */
+    public Link getLink(int l){
+        return link[l];
+    }
+
+    /**
+     * Restituisce la capacità del link indicato.
+     * @param l Indice del link.
+     * @return Capacità del link.
+     */
+    public int getCapacita(int l){
+        return capacita[l];
+    }
+
+    /**
+     * Restituisce il componente che accoda gli eventi nel link indicato.
+     * @param l Indice del link.
+     * @return Indice del componente sorgente.
+     */
+    public int getSorgenteLink(int l){
+        return sorgenteLink[l];
+    }
+
+    /**
+     * Restituisce il componente che consuma gli eventi del link indicato.
+     * @param l Indice del link.
+     * @return Indice del componente destinazione.
+     */
+    public int getDestinazioneLink(int l){
+        return destinazioneLink[l];
+    }
+
+    /**
+     * Restituisce il numero di eventi distinti che possono transitare in un link.
+     * @param l Indice del link.
+     * @return Numero di eventi del link (i codici locali vanno da 1 a questo numero).
+     */
+    public int numeroEventiLink(int l){
+        return eventiLink[l].length;
+    }
+
+    /**
+     * Restituisce il codice locale con cui un evento viene memorizzato nelle posizioni di un link.
+     * @param l Indice del link.
+     * @param evento Indice dell'evento.
+     * @return Codice locale dell'evento (da 1 a numeroEventiLink), 0 se il link non trasporta l'evento.
+     */
+    public int getCodiceEvento(int l, int evento){
+        return codiciEventi[l][evento];
+    }
+
+    /**
+     * Restituisce il campo della codifica che contiene il numero di eventi di un link.
+     * @param l Indice del link.
+     * @return Indice del campo.
+     */
+    public int getCampoLunghezza(int l){
+        return campoLunghezza[l];
+    }
+
+    /**
+     * Restituisce il campo della codifica che contiene il codice locale dell'evento in una posizione di un link.
+     * @param l Indice del link.
+     * @param k Posizione nel buffer (minore della capacità del link).
+     * @return Indice del campo.
+     */
+    public int getCampoPosizione(int l, int k){
+        return campoPrimaPosizione[l] + k;
+    }
+
+    /**
+     * Restituisce il numero totale di transizioni della rete.
+     * @return Numero di transizioni.
+     */
+    public int numeroTransizioni(){
+        return componente.length;
+    }
+
+    /**
+     * Restituisce un limite superiore al numero di transizioni abilitate in uno stato globale
+     * (dimensione sufficiente per l'array passato a transizioniAbilitate).
+     * @return Numero massimo di transizioni abilitate.
+     */
+    public int massimoTransizioniAbilitate(){
+        return massimoTransizioniAbilitate;
+    }
+
+    /**
+     * Restituisce l'indice globale della prima transizione del componente indicato.
+     * @param c Indice del componente.
+     * @return Indice globale della prima transizione del componente.
+     */
+    public int primaTransizione(int c){
+        return primaTransizione[c];
+    }
+
+    /**
+     * Restituisce il componente a cui appartiene la transizione.
+     * @param g Indice globale della transizione.
+     * @return Indice del componente.
+     */
+    public int getComponenteTransizione(int g){
+        return componente[g];
+    }
+
+    /**
+     * Restituisce la transizione associata all'indice globale.
+     * @param g Indice globale della transizione.
+     * @return Transizione.
+     */
+    public Transizione getTransizione(int g){
+        return componenti[componente[g]].getTransizione(g - primaTransizione[componente[g]]);
+    }
+
+    /**
+     * Restituisce l'indice dell'etichetta di osservabilità della transizione.
+     * @param g Indice globale della transizione.
+     * @return Indice dell'etichetta di osservabilità, -1 se la transizione non è osservabile.
+     */
+    public int getOsservabilita(int g){
+        return componenti[componente[g]].getOsservabilita(g - primaTransizione[componente[g]]);
+    }
+
+    /**
+     * Restituisce l'indice dell'etichetta di rilevanza della transizione.
+     * @param g Indice globale della transizione.
+     * @return Indice dell'etichetta di rilevanza, -1 se la transizione non è rilevante.
+     */
+    public int getRilevanza(int g){
+        return componenti[componente[g]].getRilevanza(g - primaTransizione[componente[g]]);
+    }
+
+    /**
+     * Restituisce il link da cui la transizione consuma l'evento in ingresso.
+     * @param g Indice globale della transizione.
+     * @return Indice del link, -1 se la transizione non ha evento in ingresso.
+     */
+    public int getLinkIngresso(int g){
+        return linkIngresso[g];
+    }
+
+    /**
+     * Restituisce il numero di eventi in uscita dalla transizione.
+     * @param g Indice globale della transizione.
+     * @return Numero di eventi in uscita.
+     */
+    public int numeroEventiUscita(int g){
+        return inizioUscita[g + 1] - inizioUscita[g];
+    }
+
+    /**
+     * Restituisce il link su cui la transizione accoda il k-esimo evento in uscita.
+     * @param g Indice globale della transizione.
+     * @param k Posizione dell'evento nella lista degli eventi in uscita.
+     * @return Indice del link.
+     */
+    public int getLinkUscita(int g, int k){
+        return linkUscita[inizioUscita[g] + k];
+    }
+
+    /**
+     * Restituisce (una copia del) lo stato globale iniziale.
+     * @return Stato globale iniziale codificato.
+     */
+    public long[] statoIniziale(){
+        return statoIniziale.clone();
+    }
+
+    /**
+     * Restituisce il numero di parole (long) di uno stato globale codificato.
+     * @return Numero di parole.
+     */
+    public int numeroParole(){
+        return statoIniziale.length;
+    }
+
+    /**
+     * Restituisce lo stato corrente di un componente nello stato globale.
+     * @param stato Stato globale codificato.
+     * @param c Indice del componente.
+     * @return Indice dello stato del componente.
+     */
+    public int getStatoComponente(long[] stato, int c){
+        return codifica.get(stato, c);
+    }
+
+    /**
+     * Restituisce il numero di eventi contenuti in un link nello stato globale.
+     * @param stato Stato globale codificato.
+     * @param l Indice del link.
+     * @return Numero di eventi nel link.
+     */
+    public int getLunghezzaLink(long[] stato, int l){
+        return codifica.get(stato, campoLunghezza[l]);
+    }
+
+    /**
+     * Restituisce il k-esimo evento (a partire dalla testa) contenuto in un link nello stato globale.
+     * @param stato Stato globale codificato.
+     * @param l Indice del link.
+     * @param k Posizione nel buffer (minore della lunghezza del link).
+     * @return Indice dell'evento.
+     */
+    public int getEventoLink(long[] stato, int l, int k){
+        return eventiLink[l][codifica.get(stato, campoPrimaPosizione[l] + k) - 1];
+    }
+
+    /**
+     * Controlla se lo stato globale è finale, ovvero se tutti i link sono vuoti.
+     * @param stato Stato globale codificato.
+     * @return TRUE se lo stato è finale, FALSE altrimenti.
+     */
+    public boolean isFinale(long[] stato){
+        for(int l = 0; l < link.length; l++)
+            if(codifica.get(stato, campoLunghezza[l]) != 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * Calcola le transizioni abilitate nello stato globale, tenendo conto dei link vuoti (evento in ingresso non
+     * disponibile) e dei link pieni (eventi in uscita non accodabili). L'ordine è deterministico: per ogni componente,
+     * prima le transizioni senza evento in ingresso e poi quelle che consumano dai link entranti (nell'ordine dei link).
+     * @param stato Stato globale codificato.
+     * @param abilitate Array (di dimensione almeno massimoTransizioniAbilitate()) in cui scrivere gli indici globali delle transizioni.
+     * @return Numero di transizioni abilitate.
+     */
+    public int transizioniAbilitate(long[] stato, int[] abilitate){
+        return transizioniAbilitate(stato, abilitate, null);
+    }
+
+    /**
+     * Calcola le transizioni abilitate nello stato globale (vedi transizioniAbilitate), registrando le transizioni con
+     * l'evento in ingresso disponibile che non sono abilitate perché un link in uscita è pieno.
+     * @param stato Stato globale codificato.
+     * @param abilitate Array (di dimensione almeno massimoTransizioniAbilitate()) in cui scrivere gli indici globali delle transizioni.
+     * @param registro Registro delle metriche in cui contare i blocchi per buffer pieno (null per non contarli).
+     * @return Numero di transizioni abilitate.
+     */
+    public int transizioniAbilitate(long[] stato, int[] abilitate, MetricheEsplorazione.Registro registro){
+        int numero = 0;
+        for(int c = 0; c < componenti.length; c++){
+            AutomaCompilato automa = componenti[c];
+            int s = codifica.get(stato, c);
+            int base = primaTransizione[c];
+            for(int t = automa.inizioTransizioni(s, -1), fine = automa.fineTransizioni(s, -1); t < fine; t++){
+                if(uscitaPossibile(stato, base + t))
+                    abilitate[numero++] = base + t;
+                else if(registro != null)
+                    registro.registraBufferPieno();
+            }
+            for(int l : linkIngressoComponente[c]){
+                if(codifica.get(stato, campoLunghezza[l]) == 0)
+                    continue;
+                int testa = eventiLink[l][codifica.get(stato, campoPrimaPosizione[l]) - 1];
+                for(int t = automa.inizioTransizioni(s, testa), fine = automa.fineTransizioni(s, testa); t < fine; t++){
+                    if(linkIngresso[base + t] != l)
+                        continue;
+                    if(uscitaPossibile(stato, base + t))
+                        abilitate[numero++] = base + t;
+                    else if(registro != null)
+                        registro.registraBufferPieno();
+                }
+            }
+        }
+        return numero;
+    }
+
+    /**
+     * Controlla se la transizione è abilitata nello stato globale.
+     * @param stato Stato globale codificato.
+     * @param g Indice globale della transizione.
+     * @return TRUE se la transizione è abilitata, FALSE altrimenti.
+     */
+    public boolean isAbilitata(long[] stato, int g){
+        int c = componente[g];
+        int t = g - primaTransizione[c];
+        if(componenti[c].getPartenza(t) != codifica.get(stato, c))
+            return false;
+        int l = linkIngresso[g];
+        if(l >= 0 && (codifica.get(stato, campoLunghezza[l]) == 0
+                || eventiLink[l][codifica.get(stato, campoPrimaPosizione[l]) - 1] != componenti[c].getIngresso(t)))
+            return false;
+        return uscitaPossibile(stato, g);
+    }
+
+    /**
+     * Controlla che tutti gli eventi in uscita dalla transizione possano essere accodati nei rispettivi link (buffer non pieni).
+     * Un evento consumato dallo stesso link su cui si accoda libera prima una posizione.
+     */
+    private boolean uscitaPossibile(long[] stato, int g){
+        for(int r = inizioRichieste[g]; r < inizioRichieste[g + 1]; r++){
+            int l = richiestaLink[r];
+            int liberi = capacita[l] - codifica.get(stato, campoLunghezza[l]) + (linkIngresso[g] == l ? 1 : 0);
+            if(richiestaQuantita[r] > liberi)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Calcola lo stato globale raggiunto eseguendo una transizione abilitata: aggiorna lo stato del componente,
+     * rimuove l'evento in ingresso dalla testa del suo link e accoda gli eventi in uscita nei rispettivi link.
+     * @param stato Stato globale codificato di partenza (non viene modificato).
+     * @param g Indice globale della transizione (abilitata).
+     * @param successore Array in cui scrivere lo stato raggiunto (può coincidere con lo stato di partenza).
+     */
+    public void successore(long[] stato, int g, long[] successore){
+        if(successore != stato)
+            System.arraycopy(stato, 0, successore, 0, statoIniziale.length);
+        int c = componente[g];
+        int t = g - primaTransizione[c];
+        codifica.set(successore, c, componenti[c].getArrivo(t));
+        int l = linkIngresso[g];
+        if(l >= 0) {
+            //rimozione della testa: gli eventi successivi avanzano di una posizione
+            int lunghezza = codifica.get(successore, campoLunghezza[l]);
+            int prima = campoPrimaPosizione[l];
+            for(int k = 1; k < lunghezza; k++)
+                codifica.set(successore, prima + k - 1, codifica.get(successore, prima + k));
+            codifica.set(successore, prima + lunghezza - 1, 0);
+            codifica.set(successore, campoLunghezza[l], lunghezza - 1);
+        }
+        AutomaCompilato automa = componenti[c];
+        for(int k = inizioUscita[g], i = 0; k < inizioUscita[g + 1]; k++, i++){
+            int u = linkUscita[k];
+            int lunghezza = codifica.get(successore, campoLunghezza[u]);
+            codifica.set(successore, campoPrimaPosizione[u] + lunghezza, codiciEventi[u][automa.getEventoUscita(t, i)]);
+            codifica.set(successore, campoLunghezza[u], lunghezza + 1);
+        }
+    }
+
+    /**
+     * Restituisce una rappresentazione testuale dello stato globale nel formato "(s1, s2, ... | l1:[e1, e2] l2:[])".
+     * @param stato Stato globale codificato.
+     * @return Rappresentazione testuale dello stato globale.
+     */
+    public String descrivi(long[] stato){
+        StringBuilder sb = new StringBuilder("(");
+        for(int c = 0; c < componenti.length; c++)
+            sb.append(c == 0 ? "" : ", ").append(componenti[c].getStato(getStatoComponente(stato, c)));
+        sb.append(" |");
+        for(int l = 0; l < link.length; l++){
+            sb.append(' ').append(link[l].getId()).append(":[");
+            for(int k = 0; k < getLunghezzaLink(stato, l); k++)
+                sb.append(k == 0 ? "" : ", ").append(simboli.getEvento(getEventoLink(stato, l, k)));
+            sb.append(']');
+        }
+        return sb.append(")").toString();
+    }
+
+    /**
+     * Restituisce una rappresentazione testuale della rete compilata.
+     * @return Rappresentazione testuale della rete compilata.
+     */
+    @Override
+    public String toString() {
+        return rete + " (" + componenti.length + " componenti, " + link.length + " link, " + numeroTransizioni()
+                + " transizioni, " + codifica.numeroParole() + " parole per stato)";
+    }
+}
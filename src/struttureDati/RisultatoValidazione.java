@@ -0,0 +1,68 @@
+package struttureDati;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Classe rappresentante il risultato della validazione di un automa o di una rete di automi: l'elenco di tutte le violazioni riscontrate.
+ */
+public class RisultatoValidazione {
+
+    private ArrayList<Violazione> violazioni;
+
+    /**
+     * Costruttore della classe RisultatoValidazione.
+     */
+    private RisultatoValidazione(){
+        this.violazioni = new ArrayList<>();
+    }
+
+    /**
+     * Permette di creare in modo statico un risultato di validazione (inizialmente senza violazioni).
+     * @return Istanza della classe RisultatoValidazione.
+     */
+    public static RisultatoValidazione create(){
+        return new RisultatoValidazione();
+    }
+
+    /**
+     * Permette di aggiungere una violazione al risultato.
+     * @param tipo Tipo di violazione.
+     * @param elemento Elemento (stato o transizione) che causa la violazione.
+     * @param descrizione Descrizione testuale della violazione.
+     */
+    public void aggiungi(Violazione.Tipo tipo, Object elemento, String descrizione){
+        violazioni.add(Violazione.create(tipo, elemento, descrizione));
+    }
+
+    /**
+     * Indica se la validazione ha avuto successo.
+     * @return TRUE se non ci sono violazioni, FALSE altrimenti.
+     */
+    public boolean isValido(){
+        return violazioni.isEmpty();
+    }
+
+    /**
+     * Restituisce l'elenco delle violazioni riscontrate.
+     * @return Lista (non modificabile) delle violazioni.
+     */
+    public List<Violazione> getViolazioni() {
+        return Collections.unmodifiableList(violazioni);
+    }
+
+    /**
+     * Restituisce una rappresentazione testuale del risultato (una violazione per riga).
+     * @return Rappresentazione testuale del risultato.
+     */
+    @Override
+    public String toString() {
+        if(violazioni.isEmpty())
+            return "Nessuna violazione";
+        StringBuilder sb = new StringBuilder();
+        for(Violazione violazione : violazioni)
+            sb.append(violazione).append(System.lineSeparator());
+        return sb.toString();
+    }
+}
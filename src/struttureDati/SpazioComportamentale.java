@@ -0,0 +1,325 @@
+package struttureDati;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.BitSet;
+
+/**
+ * Classe rappresentante lo spazio comportamentale di una rete di automi: il grafo degli stati globali raggiungibili
+ * (nodi) collegati dalle transizioni globali (archi).
+ * Gli stati sono identificati da indici densi (lo stato 0 è quello iniziale); gli archi uscenti da ogni stato occupano
+ * un intervallo contiguo (formato CSR) e per ognuno sono memorizzati lo stato di destinazione e l'indice globale
+ * della transizione della rete. Le etichette degli archi si ottengono dalla rete compilata.
+ * Uno stato è finale se tutti i link sono vuoti.
+ * Se lo spazio è vincolato da un'osservazione, ogni stato è una coppia (stato globale, stato dell'osservazione):
+ * lo stato dell'osservazione è memorizzato nella parola che segue lo stato globale codificato e uno stato è finale
+ * se, oltre ad avere tutti i link vuoti, l'osservazione è in uno stato finale.
+ * Lo spazio può essere costruito sia su array nello heap sia su buffer mappati in memoria da un file (vedi
+ * persistenza.SnapshotBinario); in questo caso archi e stati globali codificati vengono letti direttamente dal file,
+ * senza copiarli nello heap. Gli array restano la rappresentazione principale perché l'accesso è più veloce.
+ */
+public class SpazioComportamentale {
+
+    private final ReteAutomiCompilata rete;
+    private final Osservazione osservazione;
+    private final InsiemeStati stati;
+    private final int[] inizioArchi; //archi uscenti dallo stato s: [inizioArchi[s], inizioArchi[s+1])
+    private final int[] destinazione;
+    private final int[] transizione;
+    private final BitSet finali;
+    private final int numeroStati;
+    private final int numeroArchi;
+    //rappresentazione su buffer, usata (in alternativa agli array corrispondenti) dagli spazi mappati da un file
+    private final LongBuffer[] statiMappati;
+    private final IntBuffer[] inizioArchiMappati;
+    private final IntBuffer[] destinazioneMappata;
+    private final IntBuffer[] transizioneMappata;
+
+    /**
+     * Costruttore della classe SpazioComportamentale.
+     * @param rete Rete compilata a cui si riferisce lo spazio.
+     * @param osservazione Osservazione che vincola lo spazio, può essere null.
+     * @param stati Stati globali codificati (l'identificatore di ogni stato è il suo indice nello spazio), può essere null.
+     * @param inizioArchi Indice del primo arco uscente da ogni stato (numeroStati + 1 elementi).
+     * @param destinazione Stato di destinazione di ogni arco.
+     * @param transizione Indice globale della transizione di ogni arco.
+     * @param finali Insieme degli stati finali.
+     */
+    private SpazioComportamentale(ReteAutomiCompilata rete, Osservazione osservazione, InsiemeStati stati, int[] inizioArchi, int[] destinazione, int[] transizione, BitSet finali){
+        this.rete = rete;
+        this.osservazione = osservazione;
+        this.stati = stati;
+        this.inizioArchi = inizioArchi;
+        this.destinazione = destinazione;
+        this.transizione = transizione;
+        this.finali = finali;
+        this.numeroStati = inizioArchi.length - 1;
+        this.numeroArchi = destinazione.length;
+        this.statiMappati = null;
+        this.inizioArchiMappati = null;
+        this.destinazioneMappata = null;
+        this.transizioneMappata = null;
+    }
+
+    /**
+     * Costruttore della classe SpazioComportamentale su buffer (divisi in segmenti, vedi FileMappato).
+     * @param rete Rete compilata a cui si riferisce lo spazio.
+     * @param osservazione Osservazione che vincola lo spazio, può essere null.
+     * @param statiMappati Stati codificati memorizzati consecutivamente, può essere null.
+     * @param inizioArchi Indice del primo arco uscente da ogni stato (numeroStati + 1 elementi).
+     * @param destinazione Stato di destinazione di ogni arco.
+     * @param transizione Indice globale della transizione di ogni arco.
+     * @param finali Insieme degli stati finali.
+     */
+    private SpazioComportamentale(ReteAutomiCompilata rete, Osservazione osservazione, LongBuffer[] statiMappati, IntBuffer[] inizioArchi, IntBuffer[] destinazione, IntBuffer[] transizione, BitSet finali){
+        this.rete = rete;
+        this.osservazione = osservazione;
+        this.stati = null;
+        this.inizioArchi = null;
+        this.destinazione = null;
+        this.transizione = null;
+        this.finali = finali;
+        this.numeroStati = (int) FileMappato.lunghezza(inizioArchi) - 1;
+        this.numeroArchi = (int) FileMappato.lunghezza(destinazione);
+        this.statiMappati = statiMappati;
+        this.inizioArchiMappati = inizioArchi;
+        this.destinazioneMappata = destinazione;
+        this.transizioneMappata = transizione;
+    }
+
+    /**
+     * Permette di creare in modo statico uno spazio comportamentale.
+     * @param rete Rete compilata a cui si riferisce lo spazio.
+     * @param stati Stati globali codificati (l'identificatore di ogni stato è il suo indice nello spazio), può essere null.
+     * @param inizioArchi Indice del primo arco uscente da ogni stato (numeroStati + 1 elementi).
+     * @param destinazione Stato di destinazione di ogni arco.
+     * @param transizione Indice globale della transizione di ogni arco.
+     * @param finali Insieme degli stati finali.
+     * @return Istanza della classe SpazioComportamentale.
+     */
+    public static SpazioComportamentale create(ReteAutomiCompilata rete, InsiemeStati stati, int[] inizioArchi, int[] destinazione, int[] transizione, BitSet finali){
+        return new SpazioComportamentale(rete, null, stati, inizioArchi, destinazione, transizione, finali);
+    }
+
+    /**
+     * Permette di creare in modo statico uno spazio comportamentale vincolato da un'osservazione.
+     * @param rete Rete compilata a cui si riferisce lo spazio.
+     * @param osservazione Osservazione che vincola lo spazio, può essere null.
+     * @param stati Stati codificati (stato globale seguito dallo stato dell'osservazione), può essere null.
+     * @param inizioArchi Indice del primo arco uscente da ogni stato (numeroStati + 1 elementi).
+     * @param destinazione Stato di destinazione di ogni arco.
+     * @param transizione Indice globale della transizione di ogni arco.
+     * @param finali Insieme degli stati finali.
+     * @return Istanza della classe SpazioComportamentale.
+     */
+    public static SpazioComportamentale create(ReteAutomiCompilata rete, Osservazione osservazione, InsiemeStati stati, int[] inizioArchi, int[] destinazione, int[] transizione, BitSet finali){
+        return new SpazioComportamentale(rete, osservazione, stati, inizioArchi, destinazione, transizione, finali);
+    }
+
+    /**
+     * Permette di creare in modo statico uno spazio comportamentale su buffer (ad esempio mappati in memoria da un file
+     * con FileMappato). Ogni array è diviso in segmenti di FileMappato.ELEMENTI_PER_SEGMENTO elementi; i buffer vengono
+     * usati direttamente, senza copiarli, e non devono essere modificati.
+     * @param rete Rete compilata a cui si riferisce lo spazio.
+     * @param osservazione Osservazione che vincola lo spazio, può essere null.
+     * @param statiMappati Stati codificati memorizzati consecutivamente (numeroParole parole per stato, nell'ordine
+     *                     degli indici), può essere null.
+     * @param inizioArchi Indice del primo arco uscente da ogni stato (numeroStati + 1 elementi).
+     * @param destinazione Stato di destinazione di ogni arco.
+     * @param transizione Indice globale della transizione di ogni arco.
+     * @param finali Insieme degli stati finali.
+     * @return Istanza della classe SpazioComportamentale.
+     */
+    public static SpazioComportamentale create(ReteAutomiCompilata rete, Osservazione osservazione, LongBuffer[] statiMappati, IntBuffer[] inizioArchi, IntBuffer[] destinazione, IntBuffer[] transizione, BitSet finali){
+        return new SpazioComportamentale(rete, osservazione, statiMappati, inizioArchi, destinazione, transizione, finali);
+    }
+
+    /**
+     * Restituisce la rete compilata a cui si riferisce lo spazio.
+     * @return Rete compilata.
+     */
+    public ReteAutomiCompilata getRete() {
+        return rete;
+    }
+
+    /**
+     * Restituisce l'osservazione che vincola lo spazio.
+     * @return Osservazione, null se lo spazio non è vincolato da un'osservazione.
+     */
+    public Osservazione getOsservazione() {
+        return osservazione;
+    }
+
+    /**
+     * Restituisce l'insieme degli stati globali codificati dello spazio.
+     * @return Insieme degli stati globali, null se lo spazio non conserva gli stati codificati o li legge da un buffer.
+     */
+    public InsiemeStati getStati() {
+        return stati;
+    }
+
+    /**
+     * Controlla se lo spazio conserva gli stati globali codificati (in un insieme di stati visitati o in un buffer).
+     * @return TRUE se è possibile usare getStatoGlobale, FALSE altrimenti.
+     */
+    public boolean conservaStati(){
+        return stati != null || statiMappati != null;
+    }
+
+    /**
+     * Restituisce il numero di stati dello spazio.
+     * @return Numero di stati.
+     */
+    public int numeroStati(){
+        return numeroStati;
+    }
+
+    /**
+     * Restituisce il numero di archi dello spazio.
+     * @return Numero di archi.
+     */
+    public int numeroArchi(){
+        return numeroArchi;
+    }
+
+    /**
+     * Restituisce l'indice del primo arco uscente dallo stato.
+     * @param s Indice dello stato.
+     * @return Indice del primo arco uscente.
+     */
+    public int inizioArchi(int s){
+        return inizioArchi != null ? inizioArchi[s] : FileMappato.get(inizioArchiMappati, s);
+    }
+
+    /**
+     * Restituisce l'indice successivo all'ultimo arco uscente dallo stato.
+     * @param s Indice dello stato.
+     * @return Indice successivo all'ultimo arco uscente.
+     */
+    public int fineArchi(int s){
+        return inizioArchi != null ? inizioArchi[s + 1] : FileMappato.get(inizioArchiMappati, s + 1);
+    }
+
+    /**
+     * Restituisce lo stato di destinazione dell'arco.
+     * @param a Indice dell'arco.
+     * @return Indice dello stato di destinazione.
+     */
+    public int getDestinazione(int a){
+        return destinazione != null ? destinazione[a] : FileMappato.get(destinazioneMappata, a);
+    }
+
+    /**
+     * Restituisce l'indice globale (nella rete compilata) della transizione associata all'arco.
+     * @param a Indice dell'arco.
+     * @return Indice globale della transizione.
+     */
+    public int getTransizione(int a){
+        return transizione != null ? transizione[a] : FileMappato.get(transizioneMappata, a);
+    }
+
+    /**
+     * Controlla se lo stato è finale.
+     * @param s Indice dello stato.
+     * @return TRUE se lo stato è finale, FALSE altrimenti.
+     */
+    public boolean isFinale(int s){
+        return finali.get(s);
+    }
+
+    /**
+     * Restituisce il numero di stati finali.
+     * @return Numero di stati finali.
+     */
+    public int numeroStatiFinali(){
+        return finali.cardinality();
+    }
+
+    /**
+     * Restituisce il numero di parole (long) di uno stato codificato dello spazio (stato globale ed eventuale stato dell'osservazione).
+     * @return Numero di parole.
+     */
+    public int numeroParole(){
+        return rete.numeroParole() + (osservazione == null ? 0 : 1);
+    }
+
+    /**
+     * Copia lo stato globale codificato corrispondente allo stato dello spazio nell'array di destinazione.
+     * @param s Indice dello stato.
+     * @param destinazione Array di destinazione.
+     * @throws IllegalStateException se lo spazio non conserva gli stati codificati.
+     */
+    public void getStatoGlobale(int s, long[] destinazione){
+        if(stati != null)
+            stati.leggi(s, destinazione);
+        else if(statiMappati != null) {
+            int parole = numeroParole();
+            long base = (long) s * parole;
+            for(int i = 0; i < parole; i++)
+                destinazione[i] = FileMappato.get(statiMappati, base + i);
+        }
+        else
+            throw new IllegalStateException("Lo spazio comportamentale non conserva gli stati globali");
+    }
+
+    /**
+     * Restituisce la memoria occupata dagli stati globali visitati (in byte).
+     * @return Memoria occupata dagli stati, 0 se lo spazio non conserva gli stati codificati.
+     */
+    public long byteOccupatiStati(){
+        if(statiMappati != null)
+            return 8L * FileMappato.lunghezza(statiMappati);
+        return stati == null ? 0 : stati.byteOccupati();
+    }
+
+    /**
+     * Restituisce la memoria occupata in media da ogni stato globale visitato (in byte).
+     * @return Memoria occupata per stato.
+     */
+    public double byteOccupatiPerStato(){
+        return numeroStati() == 0 ? 0 : (double) byteOccupatiStati() / numeroStati();
+    }
+
+    /**
+     * Restituisce la memoria occupata dal grafo (archi e indici, in byte).
+     * @return Memoria occupata dal grafo.
+     */
+    public long byteOccupatiGrafo(){
+        return 4L * (numeroStati + 1 + 2L * numeroArchi) + finali.size() / 8;
+    }
+
+    /**
+     * Restituisce una rappresentazione testuale dello spazio (uno stato per riga con i suoi archi uscenti).
+     * @return Rappresentazione testuale dello spazio.
+     */
+    public String descrivi(){
+        StringBuilder sb = new StringBuilder();
+        long[] stato = new long[numeroParole()];
+        for(int s = 0; s < numeroStati(); s++){
+            sb.append(s);
+            if(conservaStati()) {
+                getStatoGlobale(s, stato);
+                sb.append(' ').append(rete.descrivi(stato));
+                if(osservazione != null)
+                    sb.append(" oss ").append(stato[rete.numeroParole()]);
+            }
+            if(isFinale(s))
+                sb.append(" finale");
+            sb.append(':');
+            for(int a = inizioArchi(s); a < fineArchi(s); a++)
+                sb.append(' ').append(rete.getTransizione(getTransizione(a)).getId()).append("->").append(getDestinazione(a));
+            sb.append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Restituisce una rappresentazione testuale sintetica dello spazio.
+     * @return Numero di stati, di archi, di stati finali e memoria occupata per stato.
+     */
+    @Override
+    public String toString() {
+        return numeroStati() + " stati (" + numeroStatiFinali() + " finali), " + numeroArchi() + " archi, "
+                + String.format("%.1f", byteOccupatiPerStato()) + " byte per stato visitato";
+    }
+}
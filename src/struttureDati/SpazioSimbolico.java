@@ -0,0 +1,217 @@
+package struttureDati;
+
+import java.math.BigInteger;
+
+/**
+ * Classe rappresentante in forma simbolica lo spazio comportamentale di una rete di automi: gli insiemi di stati globali
+ * sono BDD (vedi FabbricaBdd) sui bit della codifica degli stati (vedi CodificaStatoGlobale), per cui la memoria occupata
+ * dipende dalla regolarità degli insiemi e non dal loro numero di elementi.
+ * Ogni bit della codifica corrisponde a due variabili: 2i per il valore nello stato corrente e 2i + 1 per il valore
+ * nello stato successivo (usate solo dalle relazioni di transizione durante la generazione). Gli insiemi dello spazio
+ * contengono solo variabili dello stato corrente.
+ */
+public class SpazioSimbolico {
+
+    private final ReteAutomiCompilata rete;
+    private final FabbricaBdd fabbrica;
+    private final int[] campoBit;
+    private final int[] posizioneBit;
+    private final int raggiungibili;
+    private final int finali;
+    private final int potati;
+    private final BigInteger numeroArchi;
+    private final BigInteger numeroArchiPotati;
+    private final int numeroIterazioni;
+
+    /**
+     * Costruttore della classe SpazioSimbolico.
+     */
+    private SpazioSimbolico(ReteAutomiCompilata rete, FabbricaBdd fabbrica, int[] campoBit, int[] posizioneBit, int raggiungibili,
+                            int finali, int potati, BigInteger numeroArchi, BigInteger numeroArchiPotati, int numeroIterazioni){
+        this.rete = rete;
+        this.fabbrica = fabbrica;
+        this.campoBit = campoBit;
+        this.posizioneBit = posizioneBit;
+        this.raggiungibili = raggiungibili;
+        this.finali = finali;
+        this.potati = potati;
+        this.numeroArchi = numeroArchi;
+        this.numeroArchiPotati = numeroArchiPotati;
+        this.numeroIterazioni = numeroIterazioni;
+    }
+
+    /**
+     * Permette di creare in modo statico uno spazio simbolico.
+     * @param rete Rete compilata.
+     * @param fabbrica Fabbrica che contiene i BDD dello spazio.
+     * @param campoBit Campo della codifica di ogni bit (il bit i corrisponde alla variabile corrente 2i).
+     * @param posizioneBit Posizione di ogni bit all'interno del suo campo (0 per il bit meno significativo).
+     * @param raggiungibili BDD degli stati raggiungibili.
+     * @param finali BDD degli stati raggiungibili finali.
+     * @param potati BDD degli stati raggiungibili da cui è raggiungibile uno stato finale (spazio potato).
+     * @param numeroArchi Numero di archi tra stati raggiungibili.
+     * @param numeroArchiPotati Numero di archi dello spazio potato.
+     * @param numeroIterazioni Numero di passi di immagine eseguiti (profondità della visita in ampiezza).
+     * @return Istanza della classe SpazioSimbolico.
+     */
+    public static SpazioSimbolico create(ReteAutomiCompilata rete, FabbricaBdd fabbrica, int[] campoBit, int[] posizioneBit, int raggiungibili,
+                                         int finali, int potati, BigInteger numeroArchi, BigInteger numeroArchiPotati, int numeroIterazioni){
+        return new SpazioSimbolico(rete, fabbrica, campoBit, posizioneBit, raggiungibili, finali, potati, numeroArchi, numeroArchiPotati, numeroIterazioni);
+    }
+
+    /**
+     * Restituisce la rete compilata di cui lo spazio è il comportamento.
+     * @return Rete compilata.
+     */
+    public ReteAutomiCompilata getRete() {
+        return rete;
+    }
+
+    /**
+     * Restituisce la fabbrica che contiene i BDD dello spazio.
+     * @return Fabbrica di BDD.
+     */
+    public FabbricaBdd getFabbrica() {
+        return fabbrica;
+    }
+
+    /**
+     * Restituisce il BDD degli stati raggiungibili.
+     * @return BDD degli stati raggiungibili.
+     */
+    public int getRaggiungibili() {
+        return raggiungibili;
+    }
+
+    /**
+     * Restituisce il BDD degli stati raggiungibili finali.
+     * @return BDD degli stati finali.
+     */
+    public int getFinali() {
+        return finali;
+    }
+
+    /**
+     * Restituisce il BDD degli stati dello spazio potato.
+     * @return BDD degli stati raggiungibili e co-raggiungibili.
+     */
+    public int getPotati() {
+        return potati;
+    }
+
+    /**
+     * Restituisce il numero di bit della codifica degli stati (metà del numero di variabili della fabbrica).
+     * @return Numero di bit.
+     */
+    public int numeroBit(){
+        return campoBit.length;
+    }
+
+    /**
+     * Restituisce il numero di stati raggiungibili.
+     * @return Numero di stati dello spazio.
+     */
+    public BigInteger numeroStati(){
+        return conta(raggiungibili);
+    }
+
+    /**
+     * Restituisce il numero di stati raggiungibili finali.
+     * @return Numero di stati finali.
+     */
+    public BigInteger numeroStatiFinali(){
+        return conta(finali);
+    }
+
+    /**
+     * Restituisce il numero di stati dello spazio potato.
+     * @return Numero di stati raggiungibili e co-raggiungibili.
+     */
+    public BigInteger numeroStatiPotati(){
+        return conta(potati);
+    }
+
+    /**
+     * Restituisce il numero di archi tra stati raggiungibili.
+     * @return Numero di archi dello spazio.
+     */
+    public BigInteger numeroArchi(){
+        return numeroArchi;
+    }
+
+    /**
+     * Restituisce il numero di archi dello spazio potato.
+     * @return Numero di archi tra stati raggiungibili e co-raggiungibili.
+     */
+    public BigInteger numeroArchiPotati(){
+        return numeroArchiPotati;
+    }
+
+    /**
+     * Restituisce il numero di passi di immagine eseguiti per calcolare gli stati raggiungibili.
+     * @return Profondità della visita in ampiezza.
+     */
+    public int numeroIterazioni(){
+        return numeroIterazioni;
+    }
+
+    /**
+     * Calcola il numero di stati di un insieme di stati (BDD sulle sole variabili dello stato corrente).
+     * @param insieme BDD dell'insieme.
+     * @return Numero di stati dell'insieme.
+     */
+    public BigInteger conta(int insieme){
+        return fabbrica.numeroSoluzioni(insieme).shiftRight(campoBit.length);
+    }
+
+    /**
+     * Controlla se uno stato globale è raggiungibile.
+     * @param stato Stato globale codificato.
+     * @return TRUE se lo stato è raggiungibile, FALSE altrimenti.
+     */
+    public boolean isRaggiungibile(long[] stato){
+        return contiene(raggiungibili, stato);
+    }
+
+    /**
+     * Controlla se uno stato globale appartiene allo spazio potato.
+     * @param stato Stato globale codificato.
+     * @return TRUE se lo stato è raggiungibile e co-raggiungibile, FALSE altrimenti.
+     */
+    public boolean isPotato(long[] stato){
+        return contiene(potati, stato);
+    }
+
+    /**
+     * Controlla se uno stato globale appartiene a un insieme di stati.
+     * @param insieme BDD dell'insieme.
+     * @param stato Stato globale codificato.
+     * @return TRUE se lo stato appartiene all'insieme, FALSE altrimenti.
+     */
+    public boolean contiene(int insieme, long[] stato){
+        CodificaStatoGlobale codifica = rete.getCodifica();
+        boolean[] assegnamento = new boolean[fabbrica.numeroVariabili()];
+        for(int i = 0; i < campoBit.length; i++)
+            assegnamento[2 * i] = ((codifica.get(stato, campoBit[i]) >>> posizioneBit[i]) & 1) != 0;
+        return fabbrica.valuta(insieme, assegnamento);
+    }
+
+    /**
+     * Restituisce il numero di nodi dei BDD dello spazio (condivisi tra gli insiemi).
+     * @return Numero di nodi.
+     */
+    public int numeroNodi(){
+        return fabbrica.numeroNodi();
+    }
+
+    /**
+     * Restituisce una rappresentazione testuale dello spazio.
+     * @return Rappresentazione testuale dello spazio (numero di stati e archi, prima e dopo la potatura, e di nodi).
+     */
+    @Override
+    public String toString() {
+        return "Spazio simbolico di " + rete.getRete() + ": " + numeroStati() + " stati (" + numeroStatiFinali() + " finali), "
+                + numeroArchi + " archi; potato " + numeroStatiPotati() + " stati, " + numeroArchiPotati + " archi; "
+                + fabbrica.dimensione(raggiungibili) + " nodi per gli stati raggiungibili, " + numeroNodi() + " nodi in totale";
+    }
+}
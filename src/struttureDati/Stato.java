@@ -70,18 +70,26 @@ public class Stato {
 
     /**
      * Controlla l'uguaglianza tra lo stato e l'oggetto passato in input.
+     * Due stati sono uguali se hanno lo stesso identificatore univoco (i nomi duplicati sono segnalati in fase di validazione dell'automa).
      * @param obj Oggetto (stato) di cui si vuole controllare l'uguaglianza con questa istanza di Stato
      * @return TRUE se i due stati sono uguali, FALSE altrimenti
      */
     @Override
     public boolean equals(Object obj) {
-        if(!obj.getClass().equals(this.getClass()))
+        if(this == obj)
+            return true;
+        if(obj == null || !obj.getClass().equals(this.getClass()))
             return false;
         Stato s = (Stato) obj;
-        if(this.id == s.getID() || this.getNome()==s.getNome())
-            return true;
-        return false;
+        return this.id == s.getID();
     }
 
-    //TODO: scrivi in XML?
+    /**
+     * Restituisce il codice hash dello stato (coerente con equals).
+     * @return Codice hash dello stato.
+     */
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(id);
+    }
 }
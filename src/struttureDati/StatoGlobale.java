@@ -0,0 +1,103 @@
+package struttureDati;
+
+import java.util.Arrays;
+
+/**
+ * Classe rappresentante uno stato globale di una rete di automi nella sua forma codificata (array di long),
+ * utilizzabile come chiave in strutture dati basate su hash.
+ * Il codice hash viene calcolato una sola volta alla creazione; l'array non deve essere modificato in seguito.
+ */
+public final class StatoGlobale {
+
+    private final long[] parole;
+    private final int hash;
+
+    /**
+     * Costruttore della classe StatoGlobale.
+     * @param parole Stato globale codificato.
+     */
+    private StatoGlobale(long[] parole){
+        this.parole = parole;
+        this.hash = hash(parole, 0, parole.length);
+    }
+
+    /**
+     * Permette di creare in modo statico uno stato globale a partire da una copia dello stato codificato.
+     * @param parole Stato globale codificato (viene copiato).
+     * @return Istanza della classe StatoGlobale.
+     */
+    public static StatoGlobale create(long[] parole){
+        return new StatoGlobale(parole.clone());
+    }
+
+    /**
+     * Calcola il codice hash di una porzione di array di long (miscelazione di tipo Murmur3).
+     * @param parole Array contenente lo stato codificato.
+     * @param inizio Indice della prima parola dello stato.
+     * @param lunghezza Numero di parole dello stato.
+     * @return Codice hash.
+     */
+    public static int hash(long[] parole, int inizio, int lunghezza){
+        long h = 0x9E3779B97F4A7C15L;
+        for(int i = inizio; i < inizio + lunghezza; i++){
+            h ^= parole[i];
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+        }
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /**
+     * Restituisce (una copia del) lo stato globale codificato.
+     * @return Stato globale codificato.
+     */
+    public long[] getParole() {
+        return parole.clone();
+    }
+
+    /**
+     * Copia lo stato globale codificato nell'array indicato.
+     * @param destinazione Array di destinazione (di lunghezza almeno pari al numero di parole).
+     */
+    public void copiaIn(long[] destinazione){
+        System.arraycopy(parole, 0, destinazione, 0, parole.length);
+    }
+
+    /**
+     * Controlla l'uguaglianza tra lo stato globale e l'oggetto passato in input.
+     * @param obj Oggetto (stato globale) di cui si vuole controllare l'uguaglianza.
+     * @return TRUE se i due stati globali hanno la stessa codifica, FALSE altrimenti.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if(this == obj)
+            return true;
+        if(!(obj instanceof StatoGlobale))
+            return false;
+        StatoGlobale s = (StatoGlobale) obj;
+        return hash == s.hash && Arrays.equals(parole, s.parole);
+    }
+
+    /**
+     * Restituisce il codice hash dello stato globale.
+     * @return Codice hash dello stato globale.
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * Restituisce una rappresentazione testuale (esadecimale) della codifica dello stato globale.
+     * @return Rappresentazione testuale dello stato globale.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for(int i = 0; i < parole.length; i++)
+            sb.append(i == 0 ? "" : " ").append(Long.toHexString(parole[i]));
+        return sb.append("]").toString();
+    }
+}
@@ -0,0 +1,125 @@
+package struttureDati;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Classe rappresentante una tabella dei simboli (eventi ed etichette).
+ * Ad ogni evento e ad ogni etichetta viene associato un indice intero denso (0, 1, 2, ...) nell'ordine di inserimento.
+ * La stessa tabella può essere condivisa tra più automi compilati (ad esempio quelli di una rete), in modo che lo stesso
+ * evento abbia lo stesso indice in tutti gli automi.
+ */
+public class TabellaSimboli {
+
+    private HashMap<Evento, Integer> indiciEventi;
+    private ArrayList<Evento> eventi;
+    private HashMap<Etichetta, Integer> indiciEtichette;
+    private ArrayList<Etichetta> etichette;
+
+    /**
+     * Costruttore della classe TabellaSimboli.
+     */
+    private TabellaSimboli(){
+        this.indiciEventi = new HashMap<>();
+        this.eventi = new ArrayList<>();
+        this.indiciEtichette = new HashMap<>();
+        this.etichette = new ArrayList<>();
+    }
+
+    /**
+     * Permette di creare in modo statico una tabella dei simboli vuota.
+     * @return Istanza della classe TabellaSimboli.
+     */
+    public static TabellaSimboli create(){
+        return new TabellaSimboli();
+    }
+
+    /**
+     * Restituisce l'indice dell'evento, inserendolo nella tabella se non è ancora presente.
+     * @param evento Evento di cui si vuole l'indice (può essere null).
+     * @return Indice dell'evento, -1 se l'evento è null.
+     */
+    public int indiceEvento(Evento evento){
+        if(evento == null)
+            return -1;
+        Integer indice = indiciEventi.get(evento);
+        if(indice == null){
+            indice = eventi.size();
+            indiciEventi.put(evento, indice);
+            eventi.add(evento);
+        }
+        return indice;
+    }
+
+    /**
+     * Restituisce l'indice dell'evento senza inserirlo nella tabella.
+     * @param evento Evento di cui si vuole l'indice.
+     * @return Indice dell'evento, -1 se l'evento non è presente nella tabella.
+     */
+    public int cercaEvento(Evento evento){
+        Integer indice = evento == null ? null : indiciEventi.get(evento);
+        return indice == null ? -1 : indice;
+    }
+
+    /**
+     * Restituisce l'evento associato all'indice.
+     * @param indice Indice dell'evento.
+     * @return Evento associato all'indice.
+     */
+    public Evento getEvento(int indice){
+        return eventi.get(indice);
+    }
+
+    /**
+     * Restituisce il numero di eventi presenti nella tabella.
+     * @return Numero di eventi.
+     */
+    public int numeroEventi(){
+        return eventi.size();
+    }
+
+    /**
+     * Restituisce l'indice dell'etichetta, inserendola nella tabella se non è ancora presente.
+     * Etichette di osservabilità e di rilevanza condividono lo stesso spazio di indici.
+     * @param etichetta Etichetta di cui si vuole l'indice (può essere null).
+     * @return Indice dell'etichetta, -1 se l'etichetta è null.
+     */
+    public int indiceEtichetta(Etichetta etichetta){
+        if(etichetta == null)
+            return -1;
+        Integer indice = indiciEtichette.get(etichetta);
+        if(indice == null){
+            indice = etichette.size();
+            indiciEtichette.put(etichetta, indice);
+            etichette.add(etichetta);
+        }
+        return indice;
+    }
+
+    /**
+     * Restituisce l'indice dell'etichetta senza inserirla nella tabella.
+     * @param etichetta Etichetta di cui si vuole l'indice.
+     * @return Indice dell'etichetta, -1 se l'etichetta non è presente nella tabella.
+     */
+    public int cercaEtichetta(Etichetta etichetta){
+        Integer indice = etichetta == null ? null : indiciEtichette.get(etichetta);
+        return indice == null ? -1 : indice;
+    }
+
+    /**
+     * Restituisce l'etichetta associata all'indice.
+     * @param indice Indice dell'etichetta.
+     * @return Etichetta associata all'indice.
+     */
+    public Etichetta getEtichetta(int indice){
+        return etichette.get(indice);
+    }
+
+    /**
+     * Restituisce il numero di etichette presenti nella tabella.
+     * @return Numero di etichette.
+     */
+    public int numeroEtichette(){
+        return etichette.size();
+    }
+}
@@ -0,0 +1,153 @@
+package struttureDati;
+
+import java.util.Arrays;
+
+/**
+ * Classe rappresentante il risultato di una simulazione di una rete di automi: la sequenza delle transizioni globali
+ * eseguite a partire dallo stato iniziale, lo stato globale raggiunto e il motivo per cui la simulazione è terminata.
+ * Il seme da cui è stata generata permette di ripetere la simulazione ottenendo la stessa traccia.
+ * Dalla traccia si ricavano l'osservazione prodotta (da diagnosticare, ad esempio con DiagnosiMultipla) e la sequenza
+ * delle etichette di rilevanza effettivamente generate, con cui confrontare la diagnosi.
+ */
+public class TracciaSimulazione {
+
+    /**
+     * Motivi per cui una simulazione può terminare: nessuna transizione abilitata (tutti gli automi sono fermi, in
+     * attesa di eventi o bloccati da link pieni) oppure raggiungimento del numero massimo di passi.
+     */
+    public enum Esito {QUIESCENZA, LIMITE_PASSI}
+
+    private final ReteAutomiCompilata rete;
+    private final long seme;
+    private final int[] transizioni;
+    private final long[] statoFinale;
+    private final Esito esito;
+
+    /**
+     * Costruttore della classe TracciaSimulazione.
+     * @param rete Rete compilata simulata.
+     * @param seme Seme della simulazione.
+     * @param transizioni Indici globali delle transizioni eseguite, nell'ordine di esecuzione.
+     * @param statoFinale Stato globale codificato raggiunto.
+     * @param esito Motivo della terminazione.
+     */
+    private TracciaSimulazione(ReteAutomiCompilata rete, long seme, int[] transizioni, long[] statoFinale, Esito esito){
+        this.rete = rete;
+        this.seme = seme;
+        this.transizioni = transizioni;
+        this.statoFinale = statoFinale;
+        this.esito = esito;
+    }
+
+    /**
+     * Permette di creare in modo statico una traccia di simulazione.
+     * @param rete Rete compilata simulata.
+     * @param seme Seme della simulazione.
+     * @param transizioni Indici globali delle transizioni eseguite, nell'ordine di esecuzione (l'array non viene copiato).
+     * @param statoFinale Stato globale codificato raggiunto (l'array non viene copiato).
+     * @param esito Motivo della terminazione.
+     * @return Istanza della classe TracciaSimulazione.
+     */
+    public static TracciaSimulazione create(ReteAutomiCompilata rete, long seme, int[] transizioni, long[] statoFinale, Esito esito){
+        return new TracciaSimulazione(rete, seme, transizioni, statoFinale, esito);
+    }
+
+    /**
+     * Restituisce la rete compilata simulata.
+     * @return Rete compilata.
+     */
+    public ReteAutomiCompilata getRete() {
+        return rete;
+    }
+
+    /**
+     * Restituisce il seme con cui ripetere la simulazione.
+     * @return Seme della simulazione.
+     */
+    public long getSeme() {
+        return seme;
+    }
+
+    /**
+     * Restituisce il numero di transizioni eseguite.
+     * @return Numero di passi della simulazione.
+     */
+    public int numeroPassi(){
+        return transizioni.length;
+    }
+
+    /**
+     * Restituisce la transizione eseguita a un passo della simulazione.
+     * @param passo Indice del passo (a partire da 0).
+     * @return Indice globale della transizione.
+     */
+    public int getTransizione(int passo){
+        return transizioni[passo];
+    }
+
+    /**
+     * Restituisce il motivo per cui la simulazione è terminata.
+     * @return Esito della simulazione.
+     */
+    public Esito getEsito() {
+        return esito;
+    }
+
+    /**
+     * Restituisce una copia dello stato globale codificato raggiunto al termine della simulazione.
+     * @return Stato globale finale della simulazione.
+     */
+    public long[] getStatoFinale() {
+        return statoFinale.clone();
+    }
+
+    /**
+     * Controlla se la simulazione è terminata in uno stato finale della rete (tutti i link vuoti).
+     * @return TRUE se lo stato raggiunto è finale, FALSE altrimenti.
+     */
+    public boolean isFinale(){
+        return rete.isFinale(statoFinale);
+    }
+
+    /**
+     * Restituisce l'osservazione prodotta dalla simulazione.
+     * @return Indici (nella tabella dei simboli della rete) delle etichette di osservabilità delle transizioni eseguite.
+     */
+    public int[] getOsservazione(){
+        return etichette(true);
+    }
+
+    /**
+     * Restituisce la sequenza delle etichette di rilevanza generate dalla simulazione.
+     * @return Indici (nella tabella dei simboli della rete) delle etichette di rilevanza delle transizioni eseguite.
+     */
+    public int[] getRilevanza(){
+        return etichette(false);
+    }
+
+    /**
+     * Raccoglie le etichette di osservabilità o di rilevanza delle transizioni eseguite.
+     */
+    private int[] etichette(boolean osservabilita){
+        int[] etichette = new int[transizioni.length];
+        int numero = 0;
+        for(int g : transizioni){
+            int etichetta = osservabilita ? rete.getOsservabilita(g) : rete.getRilevanza(g);
+            if(etichetta >= 0)
+                etichette[numero++] = etichetta;
+        }
+        return Arrays.copyOf(etichette, numero);
+    }
+
+    /**
+     * Restituisce una rappresentazione testuale della traccia nel formato "seme: t1 t2 ... -> stato (esito)".
+     * @return Rappresentazione testuale della traccia.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder().append(seme).append(':');
+        for(int g : transizioni)
+            sb.append(' ').append(rete.getTransizione(g).getId());
+        return sb.append(" -> ").append(rete.descrivi(statoFinale)).append(" (").append(esito).append(')').toString();
+    }
+}
@@ -1,6 +1,7 @@
 package struttureDati;
 
 import java.util.ArrayList;
+import java.util.Objects;
 
 /**
  * Classe rappresentante una transizione tra stati all'interno di un automa.
@@ -213,15 +214,29 @@ public class Transizione {
         return  stati + " [" + eventi + "] " + "oss: " + etichettaOsservabilita.toString() + ", ril: " + etichettaRilevanza.toString();
     }
 
+    /**
+     * Controlla l'uguaglianza tra la transizione e l'oggetto passato in input.
+     * Due transizioni sono uguali se hanno lo stesso identificatore univoco (le transizioni con identificatori diversi
+     * ma stessi stati ed eventi sono segnalate in fase di validazione dell'automa).
+     * @param obj Oggetto (transizione) di cui si vuole controllare l'uguaglianza con questa istanza di Transizione
+     * @return TRUE se le due transizioni sono uguali, FALSE altrimenti
+     */
     @Override
     public boolean equals(Object obj) {
-        Transizione t = (Transizione) obj;
-        if(t.getId() == id)
+        if(this == obj)
             return true;
-        if(t.getStatoPartenza() == statoPartenza && t.getStatoArrivo() == statoArrivo && t.getEventoIngresso() == eventoIngresso && t.getEventiUscita()==eventiUscita)
-            return true;
-        return false;
+        if(obj == null || !obj.getClass().equals(this.getClass()))
+            return false;
+        Transizione t = (Transizione) obj;
+        return Objects.equals(id, t.getId());
     }
 
-    //TODO: scrivi in XML?
+    /**
+     * Restituisce il codice hash della transizione (coerente con equals).
+     * @return Codice hash della transizione.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
 }
@@ -0,0 +1,74 @@
+package struttureDati;
+
+/**
+ * Classe rappresentante una violazione dei vincoli di validità di un automa o di una rete di automi.
+ */
+public class Violazione {
+
+    /**
+     * Tipi di violazione rilevabili durante la validazione di un automa o di una rete di automi.
+     */
+    public enum Tipo {STATO_DUPLICATO, NOME_STATO_DUPLICATO, STATO_INIZIALE_NON_VALIDO, TRANSIZIONE_DUPLICATA,
+        STATO_SCONOSCIUTO, STATO_SENZA_TRANSIZIONI_USCENTI, STATO_ISOLATO, STATO_NON_RAGGIUNGIBILE,
+        AUTOMA_DUPLICATO, LINK_DUPLICATO, LINK_NON_VALIDO, EVENTO_NON_INSTRADATO, INSTRADAMENTO_AMBIGUO}
+
+    private Tipo tipo;
+    private Object elemento;
+    private String descrizione;
+
+    /**
+     * Costruttore della classe Violazione.
+     * @param tipo Tipo di violazione.
+     * @param elemento Elemento (stato o transizione) che causa la violazione.
+     * @param descrizione Descrizione testuale della violazione.
+     */
+    private Violazione(Tipo tipo, Object elemento, String descrizione){
+        this.tipo = tipo;
+        this.elemento = elemento;
+        this.descrizione = descrizione;
+    }
+
+    /**
+     * Permette di creare in modo statico un'istanza della classe Violazione.
+     * @param tipo Tipo di violazione.
+     * @param elemento Elemento (stato, transizione, automa o link) che causa la violazione.
+     * @param descrizione Descrizione testuale della violazione.
+     * @return Istanza della classe Violazione.
+     */
+    public static Violazione create(Tipo tipo, Object elemento, String descrizione){
+        return new Violazione(tipo, elemento, descrizione);
+    }
+
+    /**
+     * Restituisce il tipo di violazione.
+     * @return Tipo di violazione.
+     */
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Restituisce l'elemento (stato o transizione) che causa la violazione.
+     * @return Elemento che causa la violazione.
+     */
+    public Object getElemento() {
+        return elemento;
+    }
+
+    /**
+     * Restituisce la descrizione testuale della violazione.
+     * @return Descrizione della violazione.
+     */
+    public String getDescrizione() {
+        return descrizione;
+    }
+
+    /**
+     * Restituisce una rappresentazione testuale della violazione.
+     * @return Rappresentazione testuale della violazione.
+     */
+    @Override
+    public String toString() {
+        return tipo + ": " + descrizione;
+    }
+}